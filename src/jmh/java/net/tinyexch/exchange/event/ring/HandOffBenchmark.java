@@ -0,0 +1,58 @@
+package net.tinyexch.exchange.event.ring;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hand an event from the benchmark thread to a consumer thread, either through the ring buffer or through a single
+ * thread executor as used by the market runner before. Run with as many cores as threads for meaningful numbers.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HandOffBenchmark {
+
+    @Param({"BUSY_SPIN", "YIELD", "PARK"})
+    public WaitStrategy waitStrategy;
+
+    private RingBuffer<long[]> ringBuffer;
+    private BatchEventProcessor<long[]> processor;
+    private ExecutorService executor;
+    private long consumed;
+
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ringBuffer = new RingBuffer<>( RingBuffer.ProducerType.MULTI, 1024, () -> new long[1], waitStrategy );
+        processor = new BatchEventProcessor<>( ringBuffer, (event, sequence, endOfBatch) -> consumed += event[0] );
+        new Thread( processor, "consumer" ).start();
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        processor.halt();
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public void ringBuffer() {
+        long sequence = ringBuffer.next();
+        ringBuffer.get(sequence)[0] = sequence;
+        ringBuffer.publish(sequence);
+    }
+
+    @Benchmark
+    public void executor() {
+        executor.execute( () -> consumed++ );
+    }
+}
@@ -0,0 +1,56 @@
+package net.tinyexch.exchange.trading.form.auction;
+
+import net.tinyexch.ob.BookFixture;
+import net.tinyexch.ob.BookFixture.OrderMix;
+import net.tinyexch.ob.Orderbook;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Determine the auction price of a book where the best half of the levels of both sides are crossed. The book isn't
+ * changed by the price determination, so it is built once per trial.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PriceDeterminationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int depth;
+
+    @Param({"LIMIT", "LIMIT_HIDDEN_ICEBERG", "LIMIT_MARKET"})
+    public OrderMix mix;
+
+    @Param({"false", "true"})
+    public boolean withReferencePrice;
+
+    @Param({"false", "true"})
+    public boolean cumulativeVolume;
+
+    private PriceDeterminationPhase phase;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BookFixture fixture = new BookFixture(depth, mix);
+        Orderbook book = fixture.createCrossedBook();
+        if ( cumulativeVolume ) {
+            phase = withReferencePrice ? new CumulativeVolumePriceDeterminationPhase(book, BookFixture.MID_PRICE) :
+                                         new CumulativeVolumePriceDeterminationPhase(book);
+        } else {
+            phase = withReferencePrice ? new DefaultPriceDeterminationPhase(book, BookFixture.MID_PRICE) :
+                                         new DefaultPriceDeterminationPhase(book);
+        }
+    }
+
+    @Benchmark
+    public PriceDeterminationResult determinePrice() {
+        return phase.determinePrice();
+    }
+}
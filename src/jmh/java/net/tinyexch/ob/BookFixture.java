@@ -0,0 +1,122 @@
+package net.tinyexch.ob;
+
+import net.tinyexch.ob.match.MatchEngine;
+import net.tinyexch.order.Order;
+import net.tinyexch.order.OrderType;
+import net.tinyexch.order.Side;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Reproducible orderbook content for the benchmarks. Every side has {@code depth} price levels one tick apart with
+ * {@link #ORDERS_PER_LEVEL} orders each, the composition of the orders is given by the {@link OrderMix}. A fixed seed
+ * makes every run work on the very same book.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public final class BookFixture {
+
+    public enum OrderMix {
+        /** visible limit orders only */
+        LIMIT,
+        /** about a quarter of the limit orders are hidden and a fifth are icebergs */
+        LIMIT_HIDDEN_ICEBERG,
+        /** about a tenth of the orders are market orders */
+        LIMIT_MARKET
+    }
+
+    public static final double TICK = 0.01;
+    public static final double MID_PRICE = 200;
+    public static final int ORDERS_PER_LEVEL = 4;
+    public static final int QTY = 100;
+
+    private static final long SEED = 4711;
+    private static final Instant START = Instant.parse("2015-01-01T09:00:00Z");
+
+    private final Random random = new Random(SEED);
+    private final int depth;
+    private final OrderMix mix;
+    private long sequence;
+
+    public BookFixture( int depth, OrderMix mix ) {
+        this.depth = depth;
+        this.mix = mix;
+    }
+
+    //-----------------------------------------------------------------------------------------------
+    // public API
+    //-----------------------------------------------------------------------------------------------
+
+    /**
+     * Orders are placed directly on the sides, so market orders of the mix don't get matched.
+     *
+     * @return open book filled with not crossing orders, best bid is one tick below, best ask one tick above
+     * {@link #MID_PRICE}
+     */
+    public Orderbook createBook( MatchEngine engine ) {
+        Orderbook orderbook = new Orderbook(engine);
+        orderbook.open();
+        for ( int level = 0; level < depth; level++ ) {
+            for ( int i = 0; i < ORDERS_PER_LEVEL; i++ ) {
+                orderbook.getBuySide().add( newOrder(Side.BUY, level, false) );
+                orderbook.getSellSide().add( newOrder(Side.SELL, level, false) );
+            }
+        }
+        return orderbook;
+    }
+
+    /**
+     * @return closed book for an auction where the best half of the levels of both sides cross each other
+     */
+    public Orderbook createCrossedBook() {
+        List<Order> buys = new ArrayList<>();
+        List<Order> sells = new ArrayList<>();
+        for ( int level = 0; level < depth; level++ ) {
+            for ( int i = 0; i < ORDERS_PER_LEVEL; i++ ) {
+                buys.add( newOrder(Side.BUY, level, true) );
+                sells.add( newOrder(Side.SELL, level, true) );
+            }
+        }
+        return new Orderbook( buys.toArray(new Order[buys.size()]), sells.toArray(new Order[sells.size()]) );
+    }
+
+    /**
+     * @param level 0 ... best level of the side
+     * @return price of given level on given side, the crossed book has its best levels on the other side of
+     * {@link #MID_PRICE}
+     */
+    public double price( Side side, int level, boolean crossed ) {
+        int ticks = crossed ? level - depth / 2 : level + 1;
+        double price = side == Side.BUY ? MID_PRICE - ticks * TICK : MID_PRICE + ticks * TICK;
+        return Math.round(price / TICK) / (1 / TICK);
+    }
+
+    public Order newLimitOrder( String clientOrderID, Side side, double price, int qty ) {
+        return Order.of(clientOrderID, side).setOrderType(OrderType.LIMIT).setPrice(price).setOrderQty(qty)
+                .setTimestamp( START.plusMillis(++sequence) );
+    }
+
+    //-----------------------------------------------------------------------------------------------
+    // internal operations
+    //-----------------------------------------------------------------------------------------------
+
+    private Order newOrder( Side side, int level, boolean crossed ) {
+        String clientOrderID = side + "-" + level + "-" + sequence;
+        Order order = newLimitOrder(clientOrderID, side, price(side, level, crossed), QTY * (1 + random.nextInt(5)));
+
+        int pick = random.nextInt(20);
+        if ( mix == OrderMix.LIMIT_HIDDEN_ICEBERG && pick < 5 ) {
+            order.setHidden(true);
+        } else if ( mix == OrderMix.LIMIT_HIDDEN_ICEBERG && pick < 9 ) {
+            order.setOrderQty( order.getOrderQty() * 10 ).setDisplayQty( QTY );
+        } else if ( mix == OrderMix.LIMIT_MARKET && pick < 2 ) {
+            order.setOrderType(OrderType.MARKET).setPrice(0);
+        }
+
+        return order;
+    }
+}
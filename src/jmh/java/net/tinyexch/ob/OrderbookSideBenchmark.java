@@ -0,0 +1,42 @@
+package net.tinyexch.ob;
+
+import net.tinyexch.ob.BookFixture.OrderMix;
+import net.tinyexch.ob.match.MatchEngine;
+import net.tinyexch.order.Order;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read the visible orders of a side in priority sequence as done for price determination.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderbookSideBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int depth;
+
+    @Param({"LIMIT", "LIMIT_HIDDEN_ICEBERG", "LIMIT_MARKET"})
+    public OrderMix mix;
+
+    private OrderbookSide buySide;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        buySide = new BookFixture(depth, mix).createBook(MatchEngine.NO_OP).getBuySide();
+    }
+
+    @Benchmark
+    public List<Order> getBest() {
+        return buySide.getBest();
+    }
+}
@@ -0,0 +1,112 @@
+package net.tinyexch.ob;
+
+import net.tinyexch.ob.BookFixture.OrderMix;
+import net.tinyexch.ob.match.ContinuousMatchEngine;
+import net.tinyexch.ob.match.Match;
+import net.tinyexch.ob.price.safeguard.VolatilityInterruptionGuard;
+import net.tinyexch.order.Order;
+import net.tinyexch.order.Side;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order entry through {@link Orderbook#submit(Order, SubmitType)} on a book that is not crossed, so no order gets
+ * executed and the book keeps its shape during a run. Market orders are left out of the mix as they would match.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderbookSubmitBenchmark {
+
+    private static final int POOL_SIZE = 1024;
+    private static final int BATCH_SIZE = 128;
+
+    @Param({"10", "100", "1000"})
+    public int depth;
+
+    @Param({"LIMIT", "LIMIT_HIDDEN_ICEBERG"})
+    public OrderMix mix;
+
+    private Orderbook orderbook;
+    private Order[] passiveOrders;
+    private int cursor;
+
+    private Order[] batch;
+    private SubmitType[] batchSubmitTypes;
+    private int batchProcessed;
+    private final MatchSink batchSink = (index, match) -> batchProcessed++;
+
+    private Order reduceRequest;
+    private Order[] repriceRequests;
+    private int repriceCursor;
+
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BookFixture fixture = new BookFixture(depth, mix);
+        orderbook = fixture.createBook( new ContinuousMatchEngine(BookFixture.MID_PRICE, VolatilityInterruptionGuard.NO_OP) );
+
+        Random random = new Random(42);
+        passiveOrders = new Order[POOL_SIZE];
+        for ( int i = 0; i < POOL_SIZE; i++ ) {
+            double price = fixture.price(Side.BUY, random.nextInt(depth), false);
+            passiveOrders[i] = fixture.newLimitOrder("passive-" + i, Side.BUY, price, BookFixture.QTY);
+        }
+
+        // every order is added and cancelled within the same batch
+        batch = new Order[BATCH_SIZE];
+        batchSubmitTypes = new SubmitType[BATCH_SIZE];
+        for ( int i = 0; i < BATCH_SIZE; i += 2 ) {
+            batch[i] = batch[i + 1] = passiveOrders[i];
+            batchSubmitTypes[i] = SubmitType.NEW;
+            batchSubmitTypes[i + 1] = SubmitType.CANCEL;
+        }
+
+        // large enough to be reduced by one on every invocation
+        double reducePrice = fixture.price(Side.SELL, depth / 2, false);
+        orderbook.submit( fixture.newLimitOrder("reduce", Side.SELL, reducePrice, Integer.MAX_VALUE), SubmitType.NEW );
+        reduceRequest = fixture.newLimitOrder("reduce", Side.SELL, reducePrice, Integer.MAX_VALUE);
+
+        // same order toggling between two levels, the request replaces the resting order
+        repriceRequests = new Order[] {
+                fixture.newLimitOrder("reprice", Side.SELL, fixture.price(Side.SELL, 0, false), BookFixture.QTY),
+                fixture.newLimitOrder("reprice", Side.SELL, fixture.price(Side.SELL, depth - 1, false), BookFixture.QTY)
+        };
+        orderbook.submit( repriceRequests[1], SubmitType.NEW );
+    }
+
+    @Benchmark
+    public Match newThenCancel() {
+        Order order = passiveOrders[ cursor++ & (POOL_SIZE - 1) ];
+        orderbook.submit( order, SubmitType.NEW );
+        return orderbook.submit( order, SubmitType.CANCEL );
+    }
+
+    /**
+     * Same requests as {@link #newThenCancel()} passed as one batch, the score is per pair of NEW and CANCEL.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE / 2)
+    public int newThenCancelBatch() {
+        return orderbook.submit( batch, batchSubmitTypes, BATCH_SIZE, batchSink ) + batchProcessed;
+    }
+
+    @Benchmark
+    public Match modifyReduceQty() {
+        reduceRequest.setOrderQty( reduceRequest.getOrderQty() - 1 );
+        return orderbook.submit( reduceRequest, SubmitType.MODIFY );
+    }
+
+    @Benchmark
+    public Match modifyPrice() {
+        return orderbook.submit( repriceRequests[ repriceCursor++ & 1 ], SubmitType.MODIFY );
+    }
+}
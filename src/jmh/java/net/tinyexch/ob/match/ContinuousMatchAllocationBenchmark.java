@@ -0,0 +1,68 @@
+package net.tinyexch.ob.match;
+
+import net.tinyexch.ob.OrderbookSide;
+import net.tinyexch.ob.PriceLevelQueue;
+import net.tinyexch.ob.match.ContinuousMatchEngine.ResultMode;
+import net.tinyexch.ob.price.safeguard.VolatilityInterruptionGuard;
+import net.tinyexch.order.Order;
+import net.tinyexch.order.OrderType;
+import net.tinyexch.order.Side;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Match an incoming LIMIT order against a resting LIMIT order that is only partially executed. Run with the GC
+ * profiler to compare the allocation rate of both result modes:
+ *
+ * <pre>gradle jmh -PjmhArgs="ContinuousMatchAllocationBenchmark -prof gc"</pre>
+ *
+ * gc.alloc.rate.norm is expected to be ~0 bytes/op in {@link ResultMode#REUSE}.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContinuousMatchAllocationBenchmark {
+
+    private static final int INCOMING_QTY = 100;
+
+    @Param({"ALLOCATE", "REUSE"})
+    public ResultMode resultMode;
+
+    private ContinuousMatchEngine engine;
+    private OrderbookSide buySide;
+    private OrderbookSide sellSide;
+    private PriceLevelQueue sellLimitOrders;
+    private Order incoming;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        VolatilityInterruptionGuard guard = new VolatilityInterruptionGuard(200, 10, 200, 5);
+        engine = new ContinuousMatchEngine(200, guard, MatchEngine.NO_PRICE, resultMode);
+        buySide = new OrderbookSide(Side.BUY, new PriceLevelQueue(Side.BUY), Priorities.SUBMIT_SEQUENCE);
+        sellLimitOrders = new PriceLevelQueue(Side.SELL);
+        sellSide = new OrderbookSide(Side.SELL, sellLimitOrders, Priorities.SUBMIT_SEQUENCE);
+
+        sellSide.add( Order.of("resting", Side.SELL).setOrderType(OrderType.LIMIT).setPrice(200)
+                            .setOrderQty(Integer.MAX_VALUE) );
+        incoming = Order.of("incoming", Side.BUY).setOrderType(OrderType.LIMIT).setPrice(200).setOrderQty(INCOMING_QTY);
+    }
+
+    @Benchmark
+    public Match matchLimitAgainstLimit() {
+        Order resting = sellLimitOrders.peek();
+        if ( resting.getLeavesQty() <= INCOMING_QTY ) {
+            resting.setCumQty(0);
+            sellLimitOrders.refresh(resting);
+        }
+
+        incoming.setCumQty(0);
+        return engine.match(incoming, sellSide, buySide);
+    }
+}
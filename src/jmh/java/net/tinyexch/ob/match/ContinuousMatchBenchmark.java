@@ -0,0 +1,103 @@
+package net.tinyexch.ob.match;
+
+import net.tinyexch.ob.BookFixture;
+import net.tinyexch.ob.BookFixture.OrderMix;
+import net.tinyexch.ob.Orderbook;
+import net.tinyexch.ob.OrderbookSide;
+import net.tinyexch.ob.SubmitType;
+import net.tinyexch.ob.match.ContinuousMatchEngine.ResultMode;
+import net.tinyexch.ob.price.safeguard.VolatilityInterruptionGuard;
+import net.tinyexch.order.Order;
+import net.tinyexch.order.OrderType;
+import net.tinyexch.order.Side;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An incoming buy order of the given type takes {@link BookFixture#QTY} from the top of the sell side. The same qty
+ * is put back on the best ask afterwards, so the book keeps its depth during a run.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContinuousMatchBenchmark {
+
+    public enum IncomingType { LIMIT, MARKET, MARKET_TO_LIMIT, MIDPOINT }
+
+    private static final int POOL_SIZE = 1024;
+
+    @Param({"10", "100", "1000"})
+    public int depth;
+
+    @Param({"LIMIT", "MARKET", "MARKET_TO_LIMIT", "MIDPOINT"})
+    public IncomingType incomingType;
+
+    @Param({"ALLOCATE", "REUSE", "FILL_IN_PLACE"})
+    public ResultMode resultMode;
+
+    private Orderbook orderbook;
+    private OrderbookSide replenishedSide;
+    private Order[] replenishOrders;
+    private double bestAsk;
+    private Order incoming;
+    private int cursor;
+
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BookFixture fixture = new BookFixture(depth, OrderMix.LIMIT);
+        double midpointPrice = BookFixture.MID_PRICE;
+        ContinuousMatchEngine engine = new ContinuousMatchEngine(BookFixture.MID_PRICE, VolatilityInterruptionGuard.NO_OP,
+                midpointPrice, resultMode);
+        orderbook = fixture.createBook(engine);
+
+        boolean midpoint = incomingType == IncomingType.MIDPOINT;
+        replenishedSide = midpoint ? orderbook.getSellSideMidpoint() : orderbook.getSellSide();
+        bestAsk = midpoint ? midpointPrice : fixture.price(Side.SELL, 0, false);
+        if ( midpoint ) {
+            for ( int i = 0; i < depth * BookFixture.ORDERS_PER_LEVEL; i++ ) {
+                replenishedSide.add( fixture.newLimitOrder("mid-" + i, Side.SELL, bestAsk, BookFixture.QTY).setMidpoint(true) );
+            }
+        }
+
+        // same timestamp for all recycled orders keeps them in FIFO sequence behind the orders of the fixture
+        replenishOrders = new Order[POOL_SIZE];
+        for ( int i = 0; i < POOL_SIZE; i++ ) {
+            replenishOrders[i] = fixture.newLimitOrder("replenish-" + i, Side.SELL, bestAsk, BookFixture.QTY)
+                                        .setMidpoint(midpoint);
+            replenishOrders[i].setTimestamp( replenishOrders[0].getTimestamp() );
+        }
+
+        incoming = fixture.newLimitOrder("incoming", Side.BUY, 0, BookFixture.QTY);
+    }
+
+    @Benchmark
+    public Match match() {
+        resetIncoming();
+        Match match = orderbook.submit( incoming, SubmitType.NEW );
+
+        Order replenish = replenishOrders[ cursor++ & (POOL_SIZE - 1) ];
+        replenishedSide.add( replenish.setCumQty(0) );
+        return match;
+    }
+
+    private void resetIncoming() {
+        incoming.setCumQty(0);
+        if ( incomingType == IncomingType.LIMIT ) {
+            incoming.setOrderType(OrderType.LIMIT).setPrice(bestAsk);
+        } else if ( incomingType == IncomingType.MARKET ) {
+            incoming.setOrderType(OrderType.MARKET).setPrice(0);
+        } else if ( incomingType == IncomingType.MARKET_TO_LIMIT ) {
+            incoming.setOrderType(OrderType.MARKET_TO_LIMIT).setPrice(0);
+        } else {
+            incoming.setOrderType(OrderType.LIMIT).setPrice(bestAsk).setMidpoint(true);
+        }
+    }
+}
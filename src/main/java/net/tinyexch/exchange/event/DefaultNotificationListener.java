@@ -8,10 +8,13 @@ import net.tinyexch.ob.price.safeguard.VolatilityInterruption;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Receives all events raised when a trading form runs - or multiple if e.g. an auction and continuous trading are
- * switching. You can register event handlers for particular event types to control actions upon receipt.
+ * switching. You can register event handlers for particular event types to control actions upon receipt. Events are
+ * routed by their type through an {@link EventDispatcher}, further handlers can be subscribed to any event type. As
+ * with the former instanceof checks, a handler also receives the subclasses of the type it is subscribed to.
  *
  * @author ratzlow@gmail.com
  * @since 2014-09-23
@@ -22,6 +25,15 @@ public class DefaultNotificationListener implements NotificationListener {
     private StateChangedEventHandler stateChangedEventHandler;
     private VolatilityInterruptionEventHandler volatilityInterruptionEventHandler;
     private NewTradeEventHandler newTradeEventHandler;
+    private final EventDispatcher dispatcher = new EventDispatcher();
+
+
+    public DefaultNotificationListener() {
+        dispatcher.subscribe( StateChangedEvent.class, event -> stateChangedEventHandler.handle(event) )
+                  .subscribe( TradingFormRunTypeChangedEvent.class, this::process )
+                  .subscribe( VolatilityInterruption.class, event -> volatilityInterruptionEventHandler.handle(event) )
+                  .subscribe( NewTradeEvent.class, event -> newTradeEventHandler.handle(event) );
+    }
 
 
     @Override
@@ -32,19 +44,9 @@ public class DefaultNotificationListener implements NotificationListener {
 
     @Override
     public <T> void fire(T notification) {
-        if (notification instanceof StateChangedEvent) {
-            stateChangedEventHandler.handle((StateChangedEvent) notification);
-
-        } else if (notification instanceof TradingFormRunTypeChangedEvent) {
-            process((TradingFormRunTypeChangedEvent) notification);
-
-        } else if (notification instanceof VolatilityInterruption) {
-            volatilityInterruptionEventHandler.handle((VolatilityInterruption) notification);
-
-        } else if (notification instanceof NewTradeEvent) {
-            newTradeEventHandler.handle((NewTradeEvent) notification);
-
-        } else throw new IllegalStateException("Unmapped notification received! " + notification);
+        if ( !dispatcher.dispatch(notification) ) {
+            throw new IllegalStateException("Unmapped notification received! " + notification);
+        }
     }
 
 
@@ -69,5 +71,13 @@ public class DefaultNotificationListener implements NotificationListener {
         this.newTradeEventHandler = newTradeEventHandler;
     }
 
+    /**
+     * Add another handler for the given event type, called after the handlers already subscribed.
+     */
+    public <T> DefaultNotificationListener subscribe( Class<T> eventType, Consumer<? super T> handler ) {
+        dispatcher.subscribe( eventType, handler );
+        return this;
+    }
+
     public List<TradingFormRunType> getTradingFormRunTypes() { return tradingFormRunTypes; }
 }
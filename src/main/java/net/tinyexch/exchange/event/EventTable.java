@@ -0,0 +1,73 @@
+package net.tinyexch.exchange.event;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Maps event types to values, e.g. handlers, by an ID every event class gets assigned the first time it is seen. A
+ * lookup is a class value access and an array read, so its cost stays the same no matter how many event types are
+ * mapped. Only the exact class of an event is considered, subclasses have to be mapped separately.
+ *
+ * Lookups are thread safe, values have to be put before events are dispatched.
+ *
+ * @param <V> type of the mapped values
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public final class EventTable<V> {
+
+    private static final AtomicInteger TYPE_ID_SEQUENCE = new AtomicInteger();
+
+    private static final ClassValue<Integer> TYPE_IDS = new ClassValue<Integer>() {
+        @Override
+        protected Integer computeValue( Class<?> type ) {
+            return TYPE_ID_SEQUENCE.getAndIncrement();
+        }
+    };
+
+    private volatile Object[] valuesByTypeId = new Object[0];
+
+    //--------------------------------------
+    // public API
+    //--------------------------------------
+
+    /**
+     * @return ID of the event type, the same for the lifetime of the JVM
+     */
+    public static int typeIdOf( Class<?> eventType ) {
+        return TYPE_IDS.get(eventType);
+    }
+
+    /**
+     * @return the value previously mapped to the type or null
+     */
+    public synchronized V put( Class<?> eventType, V value ) {
+        int typeId = typeIdOf(eventType);
+        Object[] values = valuesByTypeId;
+        if ( typeId >= values.length ) {
+            values = Arrays.copyOf( values, typeId + 1 );
+        } else {
+            values = values.clone();
+        }
+        V previous = get(values, typeId);
+        values[typeId] = value;
+        valuesByTypeId = values;
+        return previous;
+    }
+
+    /**
+     * @return value mapped to the class of the event or null if there is none
+     */
+    public V get( Object event ) {
+        return getByType( event.getClass() );
+    }
+
+    public V getByType( Class<?> eventType ) {
+        return get( valuesByTypeId, typeIdOf(eventType) );
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> V get( Object[] values, int typeId ) {
+        return typeId < values.length ? (V) values[typeId] : null;
+    }
+}
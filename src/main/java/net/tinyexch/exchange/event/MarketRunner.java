@@ -2,6 +2,11 @@ package net.tinyexch.exchange.event;
 
 
 import net.tinyexch.exchange.event.consume.ConsumerCommandFactory;
+import net.tinyexch.exchange.event.ring.BatchEventProcessor;
+import net.tinyexch.exchange.event.ring.RingBuffer;
+import net.tinyexch.exchange.event.ring.WaitStrategy;
+import net.tinyexch.exchange.latency.LatencyRecorder;
+import net.tinyexch.exchange.latency.LatencyStage;
 import net.tinyexch.exchange.schedule.TradingCalendar;
 import net.tinyexch.exchange.schedule.TradingFormSchedule;
 import net.tinyexch.exchange.schedule.TradingPhaseTrigger;
@@ -20,7 +25,9 @@ import static java.util.stream.Collectors.groupingBy;
 import static net.tinyexch.exchange.schedule.TradingPhaseTrigger.InitiatorType.FIXED_TIME;
 
 /**
- * Shell around a market so events can be sent to it and the life cycle of the market will be controlled.
+ * Shell around a market so events can be sent to it and the life cycle of the market will be controlled. Events are
+ * handed over to the market thread by a pre-allocated {@link RingBuffer}, so submitting needs neither a lock nor a
+ * queue node per event.
  *
  * @author ratzlow@gmail.com
  * @since 2014-09-22
@@ -29,18 +36,39 @@ public class MarketRunner {
 
     private final static Logger LOGGER = LoggerFactory.getLogger(MarketRunner.class);
 
-    private final ExecutorService executorService =
-            Executors.newSingleThreadExecutor( r -> new Thread(r, "MarketRunner") );
+    public static final int DEFAULT_BUFFER_SIZE = 1024;
+
+    /**
+     * Spin, then yield: keeps the hand-off to the market thread in the sub-microsecond range without occupying a core
+     * as {@link WaitStrategy#BUSY_SPIN} does. {@link WaitStrategy#PARK} saves CPU on quiet markets but adds the
+     * wake-up latency of the OS timer, often tens of microseconds, so it has to be chosen explicitly.
+     */
+    public static final WaitStrategy DEFAULT_WAIT_STRATEGY = WaitStrategy.YIELD;
+
+    private final RingBuffer<EventSlot> ringBuffer;
+    private final BatchEventProcessor<EventSlot> eventProcessor;
     private final ScheduledExecutorService schedulerService =
             Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "MarketScheduler"));
 
     private final TradingCalendar tradingCalendar;
     private final ConsumerCommandFactory consumerCommandFactory;
+    private LatencyRecorder latencyRecorder = LatencyRecorder.NO_OP;
 
 
     public MarketRunner( TradingModel market, TradingCalendar tradingCalendar) {
+        this( market, tradingCalendar, DEFAULT_WAIT_STRATEGY, DEFAULT_BUFFER_SIZE );
+    }
+
+    /**
+     * @param waitStrategy of the market thread while no event is available and of submitters while the buffer is full
+     * @param bufferSize max number of events not yet processed, must be a power of 2
+     */
+    public MarketRunner( TradingModel market, TradingCalendar tradingCalendar, WaitStrategy waitStrategy, int bufferSize ) {
         this.tradingCalendar = tradingCalendar;
         consumerCommandFactory = new ConsumerCommandFactory( market );
+        ringBuffer = new RingBuffer<>( RingBuffer.ProducerType.MULTI, bufferSize, EventSlot::new, waitStrategy );
+        eventProcessor = new BatchEventProcessor<>( ringBuffer, this::process );
+        new Thread( eventProcessor, "MarketRunner" ).start();
     }
 
     //-----------------------------------------------------------
@@ -55,8 +83,14 @@ public class MarketRunner {
      * @param <T> arbitrary event type
      */
     public <T> void submit( T event ) {
-        Runnable cmd = consumerCommandFactory.create( event );
-        executorService.submit( cmd );
+        ringBuffer.publishEvent( EventSlot::set, event );
+    }
+
+    /**
+     * @param latencyRecorder receives the time events wait in the buffer, must be set before events are submitted
+     */
+    public void setLatencyRecorder( LatencyRecorder latencyRecorder ) {
+        this.latencyRecorder = latencyRecorder;
     }
 
     //-----------------------------------------------------------
@@ -76,13 +110,38 @@ public class MarketRunner {
     }
 
     /**
-     * Hard shutdown of the market runner and scheduler for timed events.
+     * Shutdown of the market runner after all submitted events are processed and of the scheduler for timed events.
      */
     public void stop() {
-        executorService.shutdown();
+        eventProcessor.halt();
         schedulerService.shutdown();
     }
 
+    //-----------------------------------------------------------
+    // internal processing of events on the market thread
+    //-----------------------------------------------------------
+
+    private void process( EventSlot slot, long sequence, boolean endOfBatch ) {
+        latencyRecorder.record( LatencyStage.QUEUE_WAIT, System.nanoTime() - slot.publishedNanos );
+        Object event = slot.event;
+        slot.event = null;
+        Runnable cmd = consumerCommandFactory.create( event );
+        if ( cmd != null ) cmd.run();
+    }
+
+    /**
+     * Reused holder of a submitted event.
+     */
+    private static final class EventSlot {
+        private Object event;
+        private long publishedNanos;
+
+        private static void set( EventSlot slot, Object event ) {
+            slot.event = event;
+            slot.publishedNanos = System.nanoTime();
+        }
+    }
+
     //-----------------------------------------------------------
     // internal interpretation of scheduled events
     //-----------------------------------------------------------
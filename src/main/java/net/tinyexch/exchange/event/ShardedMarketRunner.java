@@ -0,0 +1,160 @@
+package net.tinyexch.exchange.event;
+
+import net.tinyexch.ob.Instrument;
+import net.tinyexch.ob.Orderbook;
+import net.tinyexch.ob.OrderbookException;
+import net.tinyexch.ob.SubmitType;
+import net.tinyexch.ob.match.Match;
+import net.tinyexch.order.Order;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Hosts the orderbooks of many instruments on a fixed number of matching threads. Every instrument is pinned to one
+ * shard by the hash of the instrument, so all requests of an instrument are processed by the same thread in the
+ * sequence they were submitted. An orderbook is only ever touched by the thread of its shard and needs no locks.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public class ShardedMarketRunner {
+
+    private final static Logger LOGGER = LoggerFactory.getLogger(ShardedMarketRunner.class);
+
+    private final Shard[] shards;
+
+
+    /**
+     * @param shardCount number of matching threads, typically the number of cores reserved for matching
+     */
+    public ShardedMarketRunner( int shardCount ) {
+        if ( shardCount < 1 ) throw new IllegalArgumentException("At least one shard is required! shardCount=" + shardCount);
+
+        shards = new Shard[shardCount];
+        for ( int i = 0; i < shardCount; i++ ) {
+            shards[i] = new Shard(i);
+        }
+    }
+
+    //-----------------------------------------------------------
+    // public API
+    //-----------------------------------------------------------
+
+    /**
+     * Make the instrument tradeable. The orderbook is created on the thread of the shard the instrument is pinned to.
+     *
+     * @param instrument to be listed, must not be listed already
+     * @param orderbookFactory creates the orderbook of the instrument
+     * @return completed when the orderbook can receive orders
+     */
+    public CompletableFuture<Void> list( Instrument instrument, Supplier<Orderbook> orderbookFactory ) {
+        Shard shard = shardFor(instrument);
+        return CompletableFuture.runAsync( () -> shard.add(instrument, orderbookFactory.get()), shard.executor );
+    }
+
+    /**
+     * Remove the instrument and its orderbook.
+     *
+     * @return the orderbook of the delisted instrument
+     */
+    public CompletableFuture<Orderbook> delist( Instrument instrument ) {
+        Shard shard = shardFor(instrument);
+        return CompletableFuture.supplyAsync( () -> shard.remove(instrument), shard.executor );
+    }
+
+    /**
+     * Pass the order to the orderbook of the given instrument.
+     *
+     * @return the match or an {@link OrderbookException} if the instrument is not listed or the order was rejected
+     */
+    public CompletableFuture<Match> submit( Instrument instrument, Order order, SubmitType submitType ) {
+        return call( instrument, orderbook -> orderbook.submit(order, submitType) );
+    }
+
+    /**
+     * Run an arbitrary command against the orderbook of the instrument on the thread of its shard, e.g. to open or
+     * close the book. Commands of one instrument are executed in the sequence they are passed in.
+     *
+     * @param command to be applied to the orderbook, must not hand out the orderbook to other threads
+     * @param <T> result of the command
+     * @return result of the command or the exception it threw
+     */
+    public <T> CompletableFuture<T> call( Instrument instrument, Function<Orderbook, T> command ) {
+        Shard shard = shardFor(instrument);
+        return CompletableFuture.supplyAsync( () -> command.apply(shard.get(instrument)), shard.executor );
+    }
+
+    /**
+     * @return index of the shard the instrument is pinned to
+     */
+    public int shardOf( Instrument instrument ) {
+        int h = instrument.hashCode();
+        h ^= (h >>> 16);
+        return (h & Integer.MAX_VALUE) % shards.length;
+    }
+
+    public int getShardCount() { return shards.length; }
+
+    //-----------------------------------------------------------
+    // life cycle API
+    //-----------------------------------------------------------
+
+    /**
+     * Process all requests submitted so far and terminate the matching threads.
+     */
+    public void stop() {
+        for ( Shard shard : shards ) {
+            shard.executor.shutdown();
+        }
+    }
+
+    //-----------------------------------------------------------
+    // internal
+    //-----------------------------------------------------------
+
+    private Shard shardFor( Instrument instrument ) {
+        return shards[ shardOf(instrument) ];
+    }
+
+    /**
+     * One matching thread with the orderbooks of all instruments pinned to it.
+     */
+    private static final class Shard {
+        private final ExecutorService executor;
+
+        /** only accessed by the thread of this shard */
+        private final Map<Instrument, Orderbook> orderbooks = new HashMap<>();
+
+        private Shard( int index ) {
+            String name = "MatchingShard-" + index;
+            executor = Executors.newSingleThreadExecutor( r -> new Thread(r, name) );
+        }
+
+        private void add( Instrument instrument, Orderbook orderbook ) {
+            if ( orderbooks.putIfAbsent(instrument, orderbook) != null ) {
+                throw new OrderbookException("Instrument is already listed! " + instrument);
+            }
+            LOGGER.debug("Listed {} on {}", instrument, Thread.currentThread().getName());
+        }
+
+        private Orderbook remove( Instrument instrument ) {
+            Orderbook orderbook = orderbooks.remove(instrument);
+            if ( orderbook == null ) throw new OrderbookException("Instrument is not listed! " + instrument);
+            return orderbook;
+        }
+
+        private Orderbook get( Instrument instrument ) {
+            Orderbook orderbook = orderbooks.get(instrument);
+            if ( orderbook == null ) throw new OrderbookException("Instrument is not listed! " + instrument);
+            return orderbook;
+        }
+    }
+}
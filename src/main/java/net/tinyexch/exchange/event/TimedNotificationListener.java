@@ -0,0 +1,40 @@
+package net.tinyexch.exchange.event;
+
+import net.tinyexch.exchange.latency.LatencyRecorder;
+import net.tinyexch.exchange.latency.LatencyStage;
+import net.tinyexch.exchange.schedule.TradingCalendar;
+
+import java.util.Objects;
+
+/**
+ * Measures how long it takes the wrapped listener to fan out a notification to its handlers.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public final class TimedNotificationListener implements NotificationListener {
+
+    private final NotificationListener delegate;
+    private final LatencyRecorder latencyRecorder;
+
+
+    public TimedNotificationListener( NotificationListener delegate, LatencyRecorder latencyRecorder ) {
+        this.delegate = Objects.requireNonNull(delegate, "Listener must not be null!");
+        this.latencyRecorder = Objects.requireNonNull(latencyRecorder, "Recorder must not be null!");
+    }
+
+    @Override
+    public void init( MarketRunner marketRunner, TradingCalendar tradingCalendar ) {
+        delegate.init(marketRunner, tradingCalendar);
+    }
+
+    @Override
+    public <T> void fire( T notification ) {
+        long startNanos = System.nanoTime();
+        try {
+            delegate.fire(notification);
+        } finally {
+            latencyRecorder.record( LatencyStage.NOTIFICATION, System.nanoTime() - startNanos );
+        }
+    }
+}
@@ -7,7 +7,8 @@ import org.slf4j.LoggerFactory;
 import java.util.function.Consumer;
 
 /**
- * Transition to next state in life cycle of a trading form part of a trading model
+ * Transition to next state in life cycle of a trading form part of a trading model. A command can be reused for every
+ * event requesting the same transition by passing the event with {@link #with(ChangeStateEvent)} before running it.
  *
  * @author ratzlow@gmail.com
  * @since 2014-09-26
@@ -17,8 +18,8 @@ public class ChangeStateCommand implements Runnable {
     private static final Logger LOGGER = LoggerFactory.getLogger(ChangeStateCommand.class);
 
     private final TradingModel tradingModel;
-    private final ChangeStateEvent event;
     private final Consumer<TradingModel> stateChanger;
+    private ChangeStateEvent event;
 
 
     public ChangeStateCommand(TradingModel tradingModel,
@@ -29,6 +30,20 @@ public class ChangeStateCommand implements Runnable {
         this.stateChanger = stateChanger;
     }
 
+    public ChangeStateCommand(TradingModel tradingModel, Consumer<TradingModel> stateChanger) {
+        this(tradingModel, null, stateChanger);
+    }
+
+
+    /**
+     * @param event to be processed by the next run
+     * @return this command ready to be run
+     */
+    public ChangeStateCommand with( ChangeStateEvent event ) {
+        this.event = event;
+        return this;
+    }
+
 
     @Override
     public void run() {
@@ -1,5 +1,6 @@
 package net.tinyexch.exchange.event.consume;
 
+import net.tinyexch.exchange.event.EventTable;
 import net.tinyexch.exchange.trading.form.auction.Auction;
 import net.tinyexch.exchange.trading.form.auction.AuctionProvider;
 import net.tinyexch.exchange.trading.form.auction.AuctionState;
@@ -10,8 +11,15 @@ import net.tinyexch.exchange.trading.model.TradingModel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
 /**
- * Create commands that can invoke appropriate actions on a given event. Commands work as the event handler.
+ * Create commands that can invoke appropriate actions on a given event. Commands work as the event handler. The
+ * factory for an event is looked up by the event type in an {@link EventTable}. Commands for state changes are built
+ * once per target state and reused for every event, so they must only be run by a single thread.
  *
  * @author ratzlow@gmail.com
  * @since 2014-09-27
@@ -24,11 +32,25 @@ public class ConsumerCommandFactory {
     private Auction auction;
     private ContinuousTrading continuousTrading;
 
+    private final EventTable<Function<Object, Runnable>> commandFactories = new EventTable<>();
+    private final Map<Enum, ChangeStateCommand> changeStateCommands = new IdentityHashMap<>();
+
 
     public ConsumerCommandFactory(TradingModel tradingModel) {
         this.tradingModel = tradingModel;
         this.auction = getAuction( tradingModel );
         this.continuousTrading = getContinuousTrading( tradingModel );
+
+        addChangeStateCommand( AuctionState.CALL_RUNNING, model -> auction.startCallPhase() );
+        addChangeStateCommand( AuctionState.CALL_STOPPED, model -> auction.stopCallPhase() );
+        addChangeStateCommand( AuctionState.PRICE_DETERMINATION_RUNNING, model -> auction.determinePrice() );
+        addChangeStateCommand( AuctionState.ORDERBOOK_BALANCING_RUNNING, model -> auction.balanceOrderbook() );
+        addChangeStateCommand( ContinuousTradingState.RUNNING, model -> {
+            auction.close();
+            continuousTrading.start();
+        });
+        addChangeStateCommand( ContinuousTradingState.STOPPED, model -> continuousTrading.close() );
+        register( ChangeStateEvent.class, this::changeState );
     }
 
     //
@@ -36,42 +58,37 @@ public class ConsumerCommandFactory {
     //
 
     public <T> Runnable create(T event) {
+        Function<Object, Runnable> factory = commandFactories.get(event);
+        if ( factory == null ) {
+            throw new IllegalArgumentException("No Handler mapped to " + event);
+        }
 
-        Runnable cmd = null;
-        if ( event instanceof ChangeStateEvent ) {
-            ChangeStateEvent e = (ChangeStateEvent) event;
-            Enum targetState = e.getTargetState();
-            if ( targetState == AuctionState.CALL_RUNNING ) {
-                cmd = new ChangeStateCommand( tradingModel, e, model -> auction.startCallPhase() );
-
-            } else if (targetState == AuctionState.CALL_STOPPED ) {
-                cmd = new ChangeStateCommand(tradingModel, e, model -> auction.stopCallPhase() );
-
-            } else if (targetState == AuctionState.PRICE_DETERMINATION_RUNNING ) {
-                cmd = new ChangeStateCommand(tradingModel, e, model -> auction.determinePrice() );
-
-            } else if (targetState == AuctionState.ORDERBOOK_BALANCING_RUNNING ) {
-                cmd = new ChangeStateCommand(tradingModel, e, model -> auction.balanceOrderbook() );
+        return factory.apply(event);
+    }
 
-            } else if (targetState == ContinuousTradingState.RUNNING ) {
-                cmd = new ChangeStateCommand(tradingModel, e, model -> {
-                    auction.close();
-                    continuousTrading.start();
-                });
+    /**
+     * Map a further event type to the commands handling it.
+     *
+     * @param factory returning the command to run for the event, might be a reused one or null if nothing is to do
+     */
+    @SuppressWarnings("unchecked")
+    public <T> void register( Class<T> eventType, Function<? super T, Runnable> factory ) {
+        commandFactories.put( eventType, (Function<Object, Runnable>) factory );
+    }
 
-            } else if (targetState == ContinuousTradingState.STOPPED ) {
-                cmd = new ChangeStateCommand(tradingModel, e, model -> continuousTrading.close() );
-            } else {
-                LOGGER.warn("No cmd mapped to event {}", event);
-            }
 
-        } else {
-            throw new IllegalArgumentException("No Handler mapped to " + event);
+    private Runnable changeState( ChangeStateEvent event ) {
+        ChangeStateCommand cmd = changeStateCommands.get( event.getTargetState() );
+        if ( cmd == null ) {
+            LOGGER.warn("No cmd mapped to event {}", event);
+            return null;
         }
-
-        return cmd;
+        return cmd.with( event );
     }
 
+    private void addChangeStateCommand( Enum targetState, Consumer<TradingModel> stateChanger ) {
+        changeStateCommands.put( targetState, new ChangeStateCommand(tradingModel, stateChanger) );
+    }
 
     private Auction getAuction(TradingModel tradingModel) {
         Auction auction = null;
@@ -0,0 +1,83 @@
+package net.tinyexch.exchange.event.ring;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Single consumer of a {@link RingBuffer}. Hands all events published so far to the handler and only then frees
+ * their slots for the producers.
+ *
+ * @param <E> type of the reused event slot
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public final class BatchEventProcessor<E> implements Runnable {
+
+    private final static Logger LOGGER = LoggerFactory.getLogger(BatchEventProcessor.class);
+
+    /**
+     * Callback for every published event. The slot is reused once the handler returns, so it must not be kept.
+     */
+    @FunctionalInterface
+    public interface EventHandler<E> {
+        void onEvent( E event, long sequence, boolean endOfBatch ) throws Exception;
+    }
+
+    private final RingBuffer<E> ringBuffer;
+    private final EventHandler<E> handler;
+    private volatile boolean running = true;
+
+
+    public BatchEventProcessor( RingBuffer<E> ringBuffer, EventHandler<E> handler ) {
+        this.ringBuffer = ringBuffer;
+        this.handler = handler;
+    }
+
+    /**
+     * Process events until halted and every event claimed so far is published and consumed.
+     */
+    @Override
+    public void run() {
+        WaitStrategy waitStrategy = ringBuffer.getWaitStrategy();
+        long next = ringBuffer.consumed.get() + 1;
+        int idleCount = 0;
+
+        while ( true ) {
+            if ( ringBuffer.isPublished(next) ) {
+                long available = next;
+                while ( available - next < ringBuffer.getCapacity() - 1 && ringBuffer.isPublished(available + 1) ) {
+                    available++;
+                }
+
+                for ( long sequence = next; sequence <= available; sequence++ ) {
+                    try {
+                        handler.onEvent( ringBuffer.get(sequence), sequence, sequence == available );
+                    } catch ( Exception e ) {
+                        LOGGER.error("Cannot process event with sequence " + sequence, e);
+                    }
+                }
+                ringBuffer.consumed.lazySet(available);
+                next = available + 1;
+                idleCount = 0;
+
+            } else if ( !running && next > ringBuffer.getClaimed() ) {
+                // a slot claimed before the halt is waited for, its producer publishes it in any case
+                break;
+
+            } else {
+                idleCount = waitStrategy.idle(idleCount);
+            }
+        }
+    }
+
+    /**
+     * Stop after all events claimed so far are published and processed, so no event accepted by the ring buffer is
+     * lost. Events claimed after the processor stopped are not processed.
+     */
+    public void halt() {
+        running = false;
+    }
+
+    public boolean isRunning() { return running; }
+}
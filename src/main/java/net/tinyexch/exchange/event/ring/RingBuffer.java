@@ -0,0 +1,159 @@
+package net.tinyexch.exchange.event.ring;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Bounded queue of pre-allocated, mutable event slots in the style of the LMAX Disruptor. Producers claim the next
+ * sequence, fill the slot in place and publish it. The single consumer is a {@link BatchEventProcessor}. No object
+ * is allocated and no lock is taken to hand an event over.
+ *
+ * @param <E> type of the reused event slot
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public final class RingBuffer<E> {
+
+    /**
+     * Threads allowed to publish events.
+     */
+    public enum ProducerType {
+        /** only one thread publishes, claiming a sequence needs no CAS */
+        SINGLE,
+        /** any thread may publish */
+        MULTI
+    }
+
+    //--------------------------------------------------------
+    // state
+    //--------------------------------------------------------
+    private final Object[] slots;
+    private final int mask;
+    private final ProducerType producerType;
+    private final WaitStrategy waitStrategy;
+
+    /** sequence published to a slot, the consumer must not read a slot before */
+    private final AtomicLongArray published;
+
+    /** last sequence claimed by the producers */
+    private final Sequence claimed = new Sequence(-1);
+
+    /** last sequence processed by the consumer, producers must not overtake it by more than the capacity */
+    final Sequence consumed = new Sequence(-1);
+
+    /** last read value of the consumer sequence, only used by a single producer */
+    private long cachedConsumed = -1;
+
+
+    //--------------------------------------------------------
+    // constructor
+    //--------------------------------------------------------
+
+    /**
+     * @param capacity number of slots, must be a power of 2
+     * @param eventFactory creates the slots once
+     * @param waitStrategy of producers while the buffer is full and of the consumer while it is empty
+     */
+    public RingBuffer( ProducerType producerType, int capacity, Supplier<E> eventFactory, WaitStrategy waitStrategy ) {
+        if ( capacity < 1 || Integer.bitCount(capacity) != 1 ) {
+            throw new IllegalArgumentException("Capacity must be a power of 2! capacity=" + capacity);
+        }
+
+        this.producerType = producerType;
+        this.waitStrategy = waitStrategy;
+        this.slots = new Object[capacity];
+        this.mask = capacity - 1;
+        this.published = new AtomicLongArray(capacity);
+        for ( int i = 0; i < capacity; i++ ) {
+            slots[i] = eventFactory.get();
+            published.set(i, -1);
+        }
+    }
+
+    //--------------------------------------------------------
+    // producer API
+    //--------------------------------------------------------
+
+    /**
+     * Claim the next slot. Waits while the buffer is full. The claimed sequence must be published in any case.
+     *
+     * @return sequence of the claimed slot
+     */
+    public long next() {
+        long sequence;
+        if ( producerType == ProducerType.SINGLE ) {
+            sequence = claimed.get() + 1;
+            claimed.lazySet(sequence);
+            long wrapPoint = sequence - slots.length;
+            if ( wrapPoint > cachedConsumed ) cachedConsumed = awaitConsumed(wrapPoint);
+
+        } else {
+            sequence = claimed.incrementAndGet();
+            awaitConsumed( sequence - slots.length );
+        }
+
+        return sequence;
+    }
+
+    /**
+     * Make the slot visible to the consumer.
+     */
+    public void publish( long sequence ) {
+        published.lazySet( index(sequence), sequence );
+    }
+
+    /**
+     * Claim, fill and publish the next slot.
+     *
+     * @param translator copies the argument into the slot
+     */
+    public <A> void publishEvent( BiConsumer<E, A> translator, A arg ) {
+        long sequence = next();
+        try {
+            translator.accept( get(sequence), arg );
+        } finally {
+            publish(sequence);
+        }
+    }
+
+    //--------------------------------------------------------
+    // shared API
+    //--------------------------------------------------------
+
+    @SuppressWarnings("unchecked")
+    public E get( long sequence ) {
+        return (E) slots[ index(sequence) ];
+    }
+
+    public int getCapacity() { return slots.length; }
+
+    public WaitStrategy getWaitStrategy() { return waitStrategy; }
+
+    /**
+     * @return last sequence claimed by the producers, it might not be published yet
+     */
+    long getClaimed() { return claimed.get(); }
+
+    boolean isPublished( long sequence ) {
+        return published.get( index(sequence) ) == sequence;
+    }
+
+    //--------------------------------------------------------
+    // internal
+    //--------------------------------------------------------
+
+    private int index( long sequence ) {
+        return (int) sequence & mask;
+    }
+
+    private long awaitConsumed( long wrapPoint ) {
+        long consumedSequence;
+        int idleCount = 0;
+        while ( wrapPoint > (consumedSequence = consumed.get()) ) {
+            idleCount = waitStrategy.idle(idleCount);
+        }
+        return consumedSequence;
+    }
+}
@@ -0,0 +1,19 @@
+package net.tinyexch.exchange.event.ring;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sequence padded to its own cache line, so the producer and consumer sequences don't invalidate each other.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+@SuppressWarnings("unused")
+final class Sequence extends AtomicLong {
+
+    private long p1, p2, p3, p4, p5, p6, p7;
+
+    Sequence( long initialValue ) {
+        super(initialValue);
+    }
+}
@@ -0,0 +1,61 @@
+package net.tinyexch.exchange.event.ring;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * How a thread waits for the next event to be published or for a free slot in the {@link RingBuffer}. The lower the
+ * hand-off latency the more CPU is burnt while there is nothing to do.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public enum WaitStrategy {
+
+    /**
+     * Spin on the sequence. Lowest latency but occupies a core, only use it with a core per matching thread.
+     */
+    BUSY_SPIN {
+        @Override
+        public int idle( int idleCount ) {
+            return idleCount + 1;
+        }
+    },
+
+    /**
+     * Spin a little, then give up the time slice to other threads on the same core.
+     */
+    YIELD {
+        @Override
+        public int idle( int idleCount ) {
+            if ( idleCount >= SPIN_TRIES ) Thread.yield();
+            return idleCount + 1;
+        }
+    },
+
+    /**
+     * Spin, then yield and finally park for a short while. Saves CPU if events arrive rarely, but a parked thread wakes
+     * up late, usually tens of microseconds instead of the requested park time.
+     */
+    PARK {
+        @Override
+        public int idle( int idleCount ) {
+            if ( idleCount >= 2 * SPIN_TRIES ) {
+                LockSupport.parkNanos(PARK_NANOS);
+            } else if ( idleCount >= SPIN_TRIES ) {
+                Thread.yield();
+            }
+            return idleCount + 1;
+        }
+    };
+
+    private static final int SPIN_TRIES = 100;
+    private static final long PARK_NANOS = 1_000;
+
+    /**
+     * Called every time the awaited sequence is not yet available.
+     *
+     * @param idleCount how often the caller waited in a row, 0 on the first time
+     * @return counter to pass in on the next call
+     */
+    public abstract int idle( int idleCount );
+}
@@ -0,0 +1,143 @@
+package net.tinyexch.exchange.latency;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of durations in nanoseconds with a fixed relative precision, organized like an HdrHistogram: values
+ * below {@link #SUB_BUCKET_COUNT} are counted exactly, larger values fall into buckets doubling in size, each split into
+ * {@link #SUB_BUCKET_COUNT}/2 linear sub-buckets. Every recorded value is therefore reported with an error of less
+ * than 1/64 over the whole range of long.
+ *
+ * All counters are pre-allocated, so recording neither allocates nor locks. Percentiles can be read from any thread
+ * while values are recorded. They reflect all values recorded before the read started but might include some
+ * recorded concurrently.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public final class LatencyHistogram {
+
+    static final int SUB_BUCKET_BITS = 7;
+    static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT >> 1;
+    /** largest shift of a long value into the upper half of the sub-buckets */
+    private static final int MAX_SHIFT = Long.SIZE - 1 - SUB_BUCKET_BITS;
+
+    private final AtomicLongArray counts = new AtomicLongArray( (MAX_SHIFT + 2) * SUB_BUCKET_HALF );
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    //--------------------------------------------------------
+    // recording
+    //--------------------------------------------------------
+
+    /**
+     * @param nanos duration to add, negative values are counted as 0
+     */
+    public void record( long nanos ) {
+        long value = Math.max(0, nanos);
+        counts.getAndIncrement( indexOf(value) );
+        totalCount.getAndIncrement();
+        totalNanos.getAndAdd(value);
+
+        long max = maxNanos.get();
+        while ( value > max && !maxNanos.compareAndSet(max, value) ) {
+            max = maxNanos.get();
+        }
+    }
+
+    /**
+     * Start over with an empty histogram. Values recorded concurrently might be partially lost.
+     */
+    public void reset() {
+        for ( int i = 0; i < counts.length(); i++ ) {
+            counts.set(i, 0);
+        }
+        totalCount.set(0);
+        totalNanos.set(0);
+        maxNanos.set(0);
+    }
+
+    //--------------------------------------------------------
+    // reading
+    //--------------------------------------------------------
+
+    public long getCount() { return totalCount.get(); }
+
+    public long getMax() { return maxNanos.get(); }
+
+    public double getMean() {
+        long count = totalCount.get();
+        return count == 0 ? 0 : (double) totalNanos.get() / count;
+    }
+
+    /**
+     * @param percentile between 0 and 100, e.g. 99.9
+     * @return the highest value equivalent to the value at the given percentile or 0 if nothing was recorded
+     */
+    public long getValueAtPercentile( double percentile ) {
+        if ( percentile < 0 || percentile > 100 ) {
+            throw new IllegalArgumentException("Percentile must be within [0, 100]: " + percentile);
+        }
+
+        // count of the buckets rather than the total counter, as both might be updated while reading
+        long count = 0;
+        for ( int i = 0; i < counts.length(); i++ ) {
+            count += counts.get(i);
+        }
+        if ( count == 0 ) return 0;
+
+        long rank = Math.max( 1, (long) Math.ceil(percentile / 100 * count) );
+        long seen = 0;
+        for ( int i = 0; i < counts.length(); i++ ) {
+            seen += counts.get(i);
+            if ( seen >= rank ) {
+                return Math.min( highestEquivalentValue(i), getMax() );
+            }
+        }
+        return getMax();
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyHistogram{" +
+                "count=" + getCount() +
+                ", mean=" + Math.round(getMean()) +
+                ", p50=" + getValueAtPercentile(50) +
+                ", p99=" + getValueAtPercentile(99) +
+                ", p99.9=" + getValueAtPercentile(99.9) +
+                ", max=" + getMax() +
+                '}';
+    }
+
+    //--------------------------------------------------------
+    // bucket arithmetic
+    //--------------------------------------------------------
+
+    static int indexOf( long value ) {
+        if ( value < SUB_BUCKET_COUNT ) return (int) value;
+
+        // shift the value into [SUB_BUCKET_HALF, SUB_BUCKET_COUNT)
+        int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - (SUB_BUCKET_BITS - 1);
+        return shift * SUB_BUCKET_HALF + (int) (value >>> shift);
+    }
+
+    static long lowestEquivalentValue( int index ) {
+        if ( index < SUB_BUCKET_COUNT ) return index;
+
+        int shift = index / SUB_BUCKET_HALF - 1;
+        long subBucket = index - shift * SUB_BUCKET_HALF;
+        return subBucket << shift;
+    }
+
+    static long highestEquivalentValue( int index ) {
+        if ( index < SUB_BUCKET_COUNT ) return index;
+
+        int shift = index / SUB_BUCKET_HALF - 1;
+        long subBucket = index - shift * SUB_BUCKET_HALF;
+        // wraps around to Long.MAX_VALUE for the last bucket
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,43 @@
+package net.tinyexch.exchange.latency;
+
+/**
+ * Records the durations of every {@link LatencyStage} into a histogram of its own. One instance can be shared by all
+ * instrumented components, the histograms can be read and reset while the exchange is running.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public final class LatencyHistograms implements LatencyRecorder {
+
+    private final LatencyHistogram[] histograms = new LatencyHistogram[ LatencyStage.values().length ];
+
+    public LatencyHistograms() {
+        for ( int i = 0; i < histograms.length; i++ ) {
+            histograms[i] = new LatencyHistogram();
+        }
+    }
+
+    @Override
+    public void record( LatencyStage stage, long nanos ) {
+        histograms[ stage.ordinal() ].record(nanos);
+    }
+
+    public LatencyHistogram get( LatencyStage stage ) {
+        return histograms[ stage.ordinal() ];
+    }
+
+    public void reset() {
+        for ( LatencyHistogram histogram : histograms ) {
+            histogram.reset();
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("LatencyHistograms{");
+        for ( LatencyStage stage : LatencyStage.values() ) {
+            sb.append('\n').append(stage).append('=').append( get(stage) );
+        }
+        return sb.append('}').toString();
+    }
+}
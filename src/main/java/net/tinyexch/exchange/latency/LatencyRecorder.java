@@ -0,0 +1,23 @@
+package net.tinyexch.exchange.latency;
+
+/**
+ * Receives the measured duration of a {@link LatencyStage}. Implementations are called on the hot path and must
+ * neither block nor allocate.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+@FunctionalInterface
+public interface LatencyRecorder {
+
+    /**
+     * Default recorder dropping all measurements.
+     */
+    LatencyRecorder NO_OP = (stage, nanos) -> {};
+
+    /**
+     * @param stage which was measured
+     * @param nanos duration taken from {@link System#nanoTime()}
+     */
+    void record( LatencyStage stage, long nanos );
+}
@@ -0,0 +1,18 @@
+package net.tinyexch.exchange.latency;
+
+/**
+ * Steps an order passes through on its way through the exchange which are measured separately.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public enum LatencyStage {
+    /** from submitting an event to the market until the market thread picks it up */
+    QUEUE_WAIT,
+    /** checking a new order against all rules of the trading model */
+    VALIDATION,
+    /** matching an incoming order against the book */
+    MATCHING,
+    /** handing a notification to all registered handlers */
+    NOTIFICATION
+}
@@ -0,0 +1,27 @@
+package net.tinyexch.exchange.marketdata;
+
+import net.tinyexch.order.Trade;
+
+/**
+ * Consumer of conflated market data. It is called from its own thread and only sees the latest depth of an instrument,
+ * intermediate states which changed while it was busy are skipped. Trades are never conflated, every trade is
+ * delivered in the sequence it was executed.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+@FunctionalInterface
+public interface ConflatedMarketDataSubscriber {
+
+    /**
+     * @param isin of the instrument whose depth changed
+     * @param depth latest depth, the best bid and ask being the top of book at position 1
+     */
+    void onDepth( String isin, DepthSnapshot depth );
+
+    /**
+     * @param isin of the instrument the trade was executed in
+     * @param trade copy of the trade, it is not changed by the matching thread anymore
+     */
+    default void onTrade( String isin, Trade trade ) {}
+}
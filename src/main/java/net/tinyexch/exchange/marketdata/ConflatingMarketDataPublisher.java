@@ -0,0 +1,295 @@
+package net.tinyexch.exchange.marketdata;
+
+import net.tinyexch.exchange.event.MarketRunner;
+import net.tinyexch.exchange.event.NotificationListener;
+import net.tinyexch.exchange.event.produce.NewTradeEvent;
+import net.tinyexch.exchange.schedule.TradingCalendar;
+import net.tinyexch.ob.OrderbookException;
+import net.tinyexch.order.Side;
+import net.tinyexch.order.Trade;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Decouples market data consumers from the matching thread. The matching thread only maintains the latest depth per
+ * instrument and wakes up the subscribers, it never waits for them. Every subscriber runs on its own thread and is
+ * handed the latest depth of the instruments changed since it was called last. Updates happening while a subscriber
+ * is busy are coalesced, so a slow subscriber sees fewer but always current states and neither delays matching nor
+ * the other subscribers.
+ *
+ * Trades are handed to the subscribers the same way but are queued per subscriber instead of being coalesced, as
+ * every trade has to be reported.
+ *
+ * Use {@link #listenerFor(String)} as listener of the {@link DepthPublisher} of an instrument and
+ * {@link #notificationListenerFor(String, NotificationListener)} as notification listener of its trading form.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public final class ConflatingMarketDataPublisher implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConflatingMarketDataPublisher.class);
+
+    private final int depth;
+    private final Map<String, InstrumentDepth> instruments = new ConcurrentHashMap<>();
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private volatile boolean running = true;
+
+    //--------------------------------------------------------
+    // constructor
+    //--------------------------------------------------------
+
+    /**
+     * @param depth max number of levels per side kept for every instrument
+     */
+    public ConflatingMarketDataPublisher( int depth ) {
+        this.depth = depth;
+    }
+
+    //--------------------------------------------------------
+    // public API
+    //--------------------------------------------------------
+
+    /**
+     * @param isin of the instrument the returned listener receives the depth of
+     * @return listener to be called by the matching thread of the instrument only
+     */
+    public MarketDataListener listenerFor( String isin ) {
+        InstrumentDepth instrumentDepth = new InstrumentDepth(isin, depth);
+        if ( instruments.putIfAbsent(isin, instrumentDepth) != null ) {
+            throw new OrderbookException("Market data of " + isin + " is already published!");
+        }
+        return instrumentDepth;
+    }
+
+    /**
+     * @param isin of the instrument traded by the trading form the returned listener is passed to
+     * @param delegate receives all notifications other than trades on the calling thread
+     * @return listener which copies every {@link NewTradeEvent} and queues it for all subscribers, so the matching
+     * thread neither waits for a subscriber nor for the delegate to process a trade
+     */
+    public NotificationListener notificationListenerFor( String isin, NotificationListener delegate ) {
+        Objects.requireNonNull(delegate, "Listener must not be null!");
+        return new NotificationListener() {
+            @Override
+            public void init( MarketRunner marketRunner, TradingCalendar tradingCalendar ) {
+                delegate.init(marketRunner, tradingCalendar);
+            }
+
+            @Override
+            public <T> void fire( T notification ) {
+                if ( notification instanceof NewTradeEvent ) {
+                    publish( new InstrumentTrade(isin, ((NewTradeEvent) notification).getTrade().copy()) );
+                } else {
+                    delegate.fire(notification);
+                }
+            }
+        };
+    }
+
+    /**
+     * Start delivering market data to the subscriber on a thread of its own. The subscriber immediately receives the
+     * latest depth of all known instruments.
+     *
+     * @param name of the subscriber, used to name its thread
+     */
+    public void subscribe( String name, ConflatedMarketDataSubscriber subscriber ) {
+        if ( !running ) throw new OrderbookException("Publisher is already closed!");
+        Subscription subscription = new Subscription(name, subscriber);
+        subscriptions.add(subscription);
+        subscription.thread.start();
+        subscription.wake();
+    }
+
+    /**
+     * @return number of depth states published by the matching threads
+     */
+    public long getPublishedCount() {
+        return instruments.values().stream().mapToLong(i -> i.publishedCount.get()).sum();
+    }
+
+    /**
+     * Stop all subscriber threads. Depth and trades not yet delivered are dropped.
+     */
+    @Override
+    public void close() {
+        running = false;
+        for ( Subscription subscription : subscriptions ) {
+            LockSupport.unpark(subscription.thread);
+        }
+        try {
+            for ( Subscription subscription : subscriptions ) {
+                subscription.thread.join();
+            }
+        } catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    //--------------------------------------------------------
+    // internal
+    //--------------------------------------------------------
+
+    private void publish( InstrumentTrade trade ) {
+        for ( Subscription subscription : subscriptions ) {
+            subscription.trades.offer(trade);
+            subscription.wake();
+        }
+    }
+
+    /**
+     * Trade shared by all subscribers, it is a copy so the matching thread doesn't change it anymore.
+     */
+    private static final class InstrumentTrade {
+        private final String isin;
+        private final Trade trade;
+
+        InstrumentTrade( String isin, Trade trade ) {
+            this.isin = isin;
+            this.trade = trade;
+        }
+    }
+
+    /**
+     * Maintained in place by the matching thread, so an update does not allocate. A subscriber copies the book into an
+     * immutable snapshot only when it delivers it. The copy is an optimistic read which is retried if the matching
+     * thread changed the book meanwhile, so the matching thread never waits for a subscriber.
+     */
+    private final class InstrumentDepth implements MarketDataListener {
+        private final String isin;
+        private final DepthBook book;
+        private final StampedLock lock = new StampedLock();
+        private final AtomicLong publishedCount = new AtomicLong();
+
+        InstrumentDepth( String isin, int depth ) {
+            this.isin = isin;
+            this.book = new DepthBook(depth);
+        }
+
+        @Override
+        public void onDepthUpdate( Side side, DepthUpdateAction action, int position, long price, int qty,
+                                   int orderCount, long sequence ) {
+            long stamp = lock.writeLock();
+            try {
+                book.onDepthUpdate( side, action, position, price, qty, orderCount, sequence );
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+            publish();
+        }
+
+        @Override
+        public void onDepthSnapshot( DepthSnapshot snapshot ) {
+            long stamp = lock.writeLock();
+            try {
+                book.onDepthSnapshot( snapshot );
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+            publish();
+        }
+
+        /**
+         * Called by the subscriber threads.
+         *
+         * @return consistent copy of the current depth
+         */
+        DepthSnapshot snapshot() {
+            DepthSnapshot snapshot;
+            long stamp;
+            do {
+                stamp = lock.tryOptimisticRead();
+                snapshot = stamp != 0 ? book.toSnapshot() : null;
+            } while ( !lock.validate(stamp) );
+            return snapshot;
+        }
+
+        private void publish() {
+            publishedCount.lazySet( publishedCount.get() + 1 );
+            for ( Subscription subscription : subscriptions ) {
+                subscription.wake();
+            }
+        }
+    }
+
+    /**
+     * Delivers the depth to one subscriber, remembering what it has already seen.
+     */
+    private final class Subscription {
+        private final String name;
+        private final ConflatedMarketDataSubscriber subscriber;
+        private final Thread thread;
+        private final AtomicBoolean pending = new AtomicBoolean();
+
+        /** trades not yet delivered, never coalesced */
+        private final Queue<InstrumentTrade> trades = new ConcurrentLinkedQueue<>();
+
+        /** published count of every instrument when it was delivered last, only accessed by the subscriber thread */
+        private final Map<InstrumentDepth, Long> delivered = new HashMap<>();
+
+        Subscription( String name, ConflatedMarketDataSubscriber subscriber ) {
+            this.name = name;
+            this.subscriber = subscriber;
+            this.thread = new Thread( this::deliverContinuously, "MarketData-" + name );
+            this.thread.setDaemon(true);
+        }
+
+        /**
+         * Called by the matching threads, only the first call after the subscriber looked for changes unparks it.
+         */
+        void wake() {
+            if ( pending.compareAndSet(false, true) ) {
+                LockSupport.unpark(thread);
+            }
+        }
+
+        private void deliverContinuously() {
+            while ( running ) {
+                if ( pending.getAndSet(false) ) {
+                    deliverTrades();
+                    deliverChanged();
+                } else {
+                    LockSupport.park(this);
+                }
+            }
+        }
+
+        private void deliverTrades() {
+            InstrumentTrade trade;
+            while ( running && (trade = trades.poll()) != null ) {
+                try {
+                    subscriber.onTrade( trade.isin, trade.trade );
+                } catch ( RuntimeException e ) {
+                    LOGGER.error("Subscriber {} failed to process trade of {}", name, trade.isin, e);
+                }
+            }
+        }
+
+        private void deliverChanged() {
+            for ( InstrumentDepth instrument : instruments.values() ) {
+                long publishedCount = instrument.publishedCount.get();
+                Long deliveredCount = delivered.put( instrument, publishedCount );
+                if ( publishedCount > 0 && running && (deliveredCount == null || deliveredCount != publishedCount) ) {
+                    try {
+                        subscriber.onDepth( instrument.isin, instrument.snapshot() );
+                    } catch ( RuntimeException e ) {
+                        LOGGER.error("Subscriber {} failed to process depth of {}", name, instrument.isin, e);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package net.tinyexch.exchange.marketdata;
+
+import net.tinyexch.ob.OrderbookException;
+import net.tinyexch.order.Side;
+
+import java.util.Arrays;
+
+/**
+ * Depth of both sides as seen by a subscriber: starts from a {@link DepthSnapshot} and applies the incremental updates
+ * published afterwards. Updates older than the snapshot are ignored.
+ *
+ * This class is mutable and not thread safe!
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public final class DepthBook implements MarketDataListener {
+
+    private final Ladder bids;
+    private final Ladder asks;
+    private long sequence;
+
+    //--------------------------------------
+    // constructor
+    //--------------------------------------
+
+    /**
+     * @param depth max number of levels per side
+     */
+    public DepthBook( int depth ) {
+        this.bids = new Ladder(depth);
+        this.asks = new Ladder(depth);
+    }
+
+    //--------------------------------------
+    // public API
+    //--------------------------------------
+
+    @Override
+    public void onDepthUpdate( Side side, DepthUpdateAction action, int position, long price, int qty, int orderCount,
+                               long sequence ) {
+        if ( sequence <= this.sequence ) return;
+
+        Ladder ladder = side == Side.BUY ? bids : asks;
+        int index = position - 1;
+        if ( action == DepthUpdateAction.NEW ) {
+            ladder.insert( index, price, qty, orderCount );
+        } else {
+            if ( index >= ladder.size || ladder.prices[index] != price ) {
+                throw new OrderbookException("Update " + sequence + " " + action + " " + side + " at position " +
+                                             position + " does not match the depth!");
+            }
+            if ( action == DepthUpdateAction.CHANGE ) {
+                ladder.qtys[index] = qty;
+                ladder.orderCounts[index] = orderCount;
+            } else {
+                ladder.remove(index);
+            }
+        }
+        this.sequence = sequence;
+    }
+
+    @Override
+    public void onDepthSnapshot( DepthSnapshot snapshot ) {
+        bids.copyFrom( snapshot, Side.BUY );
+        asks.copyFrom( snapshot, Side.SELL );
+        sequence = snapshot.getSequence();
+    }
+
+    /**
+     * @return sequence of the last applied update
+     */
+    public long getSequence() { return sequence; }
+
+    /**
+     * @return immutable copy of the current depth
+     */
+    public DepthSnapshot toSnapshot() {
+        return new DepthSnapshot( sequence,
+                Arrays.copyOf(bids.prices, bids.size), Arrays.copyOf(bids.qtys, bids.size),
+                Arrays.copyOf(bids.orderCounts, bids.size),
+                Arrays.copyOf(asks.prices, asks.size), Arrays.copyOf(asks.qtys, asks.size),
+                Arrays.copyOf(asks.orderCounts, asks.size) );
+    }
+
+    private static final class Ladder {
+        final long[] prices;
+        final int[] qtys;
+        final int[] orderCounts;
+        int size;
+
+        Ladder( int depth ) {
+            this.prices = new long[depth];
+            this.qtys = new int[depth];
+            this.orderCounts = new int[depth];
+        }
+
+        void insert( int index, long price, int qty, int orderCount ) {
+            if ( index > size || size == prices.length ) {
+                throw new OrderbookException("Cannot insert level at position " + (index + 1) + " into " + size +
+                                             " of max " + prices.length + " levels!");
+            }
+            int moved = size - index;
+            System.arraycopy(prices, index, prices, index + 1, moved);
+            System.arraycopy(qtys, index, qtys, index + 1, moved);
+            System.arraycopy(orderCounts, index, orderCounts, index + 1, moved);
+            prices[index] = price;
+            qtys[index] = qty;
+            orderCounts[index] = orderCount;
+            size++;
+        }
+
+        void remove( int index ) {
+            int moved = size - index - 1;
+            System.arraycopy(prices, index + 1, prices, index, moved);
+            System.arraycopy(qtys, index + 1, qtys, index, moved);
+            System.arraycopy(orderCounts, index + 1, orderCounts, index, moved);
+            size--;
+        }
+
+        void copyFrom( DepthSnapshot snapshot, Side side ) {
+            size = Math.min( snapshot.getLevelCount(side), prices.length );
+            for ( int i = 0; i < size; i++ ) {
+                prices[i] = snapshot.getPrice(side, i + 1);
+                qtys[i] = snapshot.getQty(side, i + 1);
+                orderCounts[i] = snapshot.getOrderCount(side, i + 1);
+            }
+        }
+    }
+}
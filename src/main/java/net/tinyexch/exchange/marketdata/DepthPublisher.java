@@ -0,0 +1,260 @@
+package net.tinyexch.exchange.marketdata;
+
+import net.tinyexch.ob.Orderbook;
+import net.tinyexch.ob.OrderbookException;
+import net.tinyexch.ob.PriceLevel;
+import net.tinyexch.ob.PriceLevelListener;
+import net.tinyexch.ob.PriceLevelQueue;
+import net.tinyexch.order.Side;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Objects;
+
+/**
+ * Publishes the visible depth of the best N price levels of both sides of an orderbook. The publisher keeps its own
+ * copy of the top levels and is told by the {@link PriceLevelQueue}s about every level whose visible qty changed.
+ * Such a change is turned into at most two incremental updates:
+ * <ul>
+ *     <li>a level within the depth changed its qty or order count ... CHANGE</li>
+ *     <li>a new level enters the depth ... DELETE of the level falling out at the bottom, NEW of the entering level</li>
+ *     <li>a level within the depth lost its last visible order ... DELETE of the level, NEW of the next level from
+ *     the book refilling the bottom</li>
+ * </ul>
+ * Changes outside the published depth are dropped right away. The book is never copied or compared as a whole.
+ * Full snapshots are published on request and every configured number of updates, so subscribers joining late can
+ * catch up.
+ *
+ * Hidden orders are not published. Iceberg orders contribute their displayed slice only.
+ * Engines replacing a partially executed order by a copy
+ * ({@link net.tinyexch.ob.match.ContinuousMatchEngine.ResultMode#ALLOCATE}) remove and re-add it, which shows up as
+ * DELETE/NEW if it was the only visible order of its level. Executions in place only cause a CHANGE.
+ *
+ * This class is mutable and not thread safe! It has to be driven by the thread changing the orderbook.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public final class DepthPublisher implements PriceLevelListener {
+
+    private final int depth;
+    private final MarketDataListener listener;
+    private final DepthLadder bids;
+    private final DepthLadder asks;
+
+    /** 0 ... snapshots are published on request only */
+    private int snapshotInterval;
+    private int updatesSinceSnapshot;
+    private long sequence;
+
+    //-----------------------------------------------------------------------------------------------
+    // constructors
+    //-----------------------------------------------------------------------------------------------
+
+    /**
+     * @param depth number of price levels published per side
+     * @param listener receiving the updates and snapshots
+     */
+    public DepthPublisher( int depth, MarketDataListener listener ) {
+        if ( depth < 1 ) throw new OrderbookException("Depth must be at least 1 but was " + depth);
+        this.depth = depth;
+        this.listener = Objects.requireNonNull(listener, "Listener must not be null!");
+        this.bids = new DepthLadder(Side.BUY, depth);
+        this.asks = new DepthLadder(Side.SELL, depth);
+    }
+
+    //-----------------------------------------------------------------------------------------------
+    // public API
+    //-----------------------------------------------------------------------------------------------
+
+    /**
+     * Start publishing the depth of the given book. The current top levels are taken over and published as snapshot.
+     */
+    public void attach( Orderbook orderbook ) {
+        orderbook.getBuySide().getPriceLevels().ifPresent( levels -> bids.seed(levels.getVisibleLevels().iterator()) );
+        orderbook.getSellSide().getPriceLevels().ifPresent( levels -> asks.seed(levels.getVisibleLevels().iterator()) );
+        orderbook.setPriceLevelListener(this);
+        publishSnapshot();
+    }
+
+    /**
+     * @param snapshotInterval number of updates after which a snapshot is published, 0 ... only on request
+     */
+    public void setSnapshotInterval( int snapshotInterval ) {
+        if ( snapshotInterval < 0 ) throw new OrderbookException("Snapshot interval must not be negative!");
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    /**
+     * @return copy of the currently published depth
+     */
+    public DepthSnapshot snapshot() {
+        return new DepthSnapshot( sequence,
+                Arrays.copyOf(bids.prices, bids.size), Arrays.copyOf(bids.qtys, bids.size),
+                Arrays.copyOf(bids.orderCounts, bids.size),
+                Arrays.copyOf(asks.prices, asks.size), Arrays.copyOf(asks.qtys, asks.size),
+                Arrays.copyOf(asks.orderCounts, asks.size) );
+    }
+
+    public void publishSnapshot() {
+        updatesSinceSnapshot = 0;
+        listener.onDepthSnapshot( snapshot() );
+    }
+
+    public int getDepth() { return depth; }
+
+    /**
+     * @return sequence of the last published update
+     */
+    public long getSequence() { return sequence; }
+
+    //-----------------------------------------------------------------------------------------------
+    // price level events
+    //-----------------------------------------------------------------------------------------------
+
+    @Override
+    public void onLevelChanged( PriceLevelQueue queue, PriceLevel level ) {
+        DepthLadder ladder = ladder(queue.getSide());
+        long price = level.getPriceTicks();
+        int position = ladder.indexOf(price);
+
+        if ( level.getVisibleOrderCount() > 0 ) {
+            if ( position >= 0 ) {
+                if ( ladder.update(position, level) ) {
+                    publish( ladder, DepthUpdateAction.CHANGE, position );
+                }
+            } else {
+                position = ladder.insertionPoint(price);
+                if ( position < depth ) {
+                    if ( ladder.size == depth ) {
+                        publishDelete( ladder, depth - 1 );
+                    }
+                    ladder.insert(position, level);
+                    publish( ladder, DepthUpdateAction.NEW, position );
+                }
+            }
+
+        } else if ( position >= 0 ) {
+            boolean wasFull = ladder.size == depth;
+            publishDelete( ladder, position );
+            if ( wasFull ) {
+                PriceLevel next = ladder.size > 0 ? queue.getVisibleLevelAfter(ladder.prices[ladder.size - 1]) :
+                                                    queue.getBestVisibleLevel();
+                if ( next != null ) {
+                    ladder.insert(ladder.size, next);
+                    publish( ladder, DepthUpdateAction.NEW, ladder.size - 1 );
+                }
+            }
+        }
+    }
+
+    @Override
+    public void onCleared( PriceLevelQueue queue ) {
+        DepthLadder ladder = ladder(queue.getSide());
+        while ( ladder.size > 0 ) {
+            publishDelete( ladder, ladder.size - 1 );
+        }
+    }
+
+    //-----------------------------------------------------------------------------------------------
+    // internal operations
+    //-----------------------------------------------------------------------------------------------
+
+    private DepthLadder ladder( Side side ) { return side == Side.BUY ? bids : asks; }
+
+    private void publishDelete( DepthLadder ladder, int index ) {
+        long price = ladder.prices[index];
+        ladder.remove(index);
+        listener.onDepthUpdate( ladder.side, DepthUpdateAction.DELETE, index + 1, price, 0, 0, ++sequence );
+        afterUpdate();
+    }
+
+    private void publish( DepthLadder ladder, DepthUpdateAction action, int index ) {
+        listener.onDepthUpdate( ladder.side, action, index + 1, ladder.prices[index], ladder.qtys[index],
+                                ladder.orderCounts[index], ++sequence );
+        afterUpdate();
+    }
+
+    private void afterUpdate() {
+        if ( snapshotInterval > 0 && ++updatesSinceSnapshot >= snapshotInterval ) {
+            publishSnapshot();
+        }
+    }
+
+    /**
+     * Published levels of one side with the best price at index 0.
+     */
+    private static final class DepthLadder {
+        final Side side;
+        final long[] prices;
+        final int[] qtys;
+        final int[] orderCounts;
+        int size;
+
+        DepthLadder( Side side, int depth ) {
+            this.side = side;
+            this.prices = new long[depth];
+            this.qtys = new int[depth];
+            this.orderCounts = new int[depth];
+        }
+
+        void seed( Iterator<PriceLevel> bestFirst ) {
+            size = 0;
+            while ( size < prices.length && bestFirst.hasNext() ) {
+                insert( size, bestFirst.next() );
+            }
+        }
+
+        int indexOf( long price ) {
+            for ( int i = 0; i < size; i++ ) {
+                if ( prices[i] == price ) return i;
+            }
+            return -1;
+        }
+
+        /**
+         * @return index the given price would be inserted at to keep the best price first
+         */
+        int insertionPoint( long price ) {
+            int i = 0;
+            while ( i < size && isBetter(prices[i], price) ) i++;
+            return i;
+        }
+
+        /**
+         * @return true ... the published values of the level changed
+         */
+        boolean update( int index, PriceLevel level ) {
+            boolean changed = qtys[index] != level.getVisibleQty() || orderCounts[index] != level.getVisibleOrderCount();
+            qtys[index] = level.getVisibleQty();
+            orderCounts[index] = level.getVisibleOrderCount();
+            return changed;
+        }
+
+        /**
+         * Shift the levels from the index on down by one, the worst level drops out if the ladder is full.
+         */
+        void insert( int index, PriceLevel level ) {
+            int moved = Math.min(size, prices.length - 1) - index;
+            System.arraycopy(prices, index, prices, index + 1, moved);
+            System.arraycopy(qtys, index, qtys, index + 1, moved);
+            System.arraycopy(orderCounts, index, orderCounts, index + 1, moved);
+            prices[index] = level.getPriceTicks();
+            qtys[index] = level.getVisibleQty();
+            orderCounts[index] = level.getVisibleOrderCount();
+            size = Math.min(size + 1, prices.length);
+        }
+
+        void remove( int index ) {
+            int moved = size - index - 1;
+            System.arraycopy(prices, index + 1, prices, index, moved);
+            System.arraycopy(qtys, index + 1, qtys, index, moved);
+            System.arraycopy(orderCounts, index + 1, orderCounts, index, moved);
+            size--;
+        }
+
+        private boolean isBetter( long price, long other ) {
+            return side == Side.BUY ? price > other : price < other;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package net.tinyexch.exchange.marketdata;
+
+import net.tinyexch.ob.price.Ticks;
+import net.tinyexch.order.Side;
+
+import java.util.Arrays;
+
+/**
+ * Immutable copy of the published depth of both sides. Updates with a sequence greater than the one of the snapshot
+ * have to be applied on top of it.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public final class DepthSnapshot {
+
+    private final long sequence;
+    private final long[] bidPrices;
+    private final int[] bidQtys;
+    private final int[] bidOrderCounts;
+    private final long[] askPrices;
+    private final int[] askQtys;
+    private final int[] askOrderCounts;
+
+    //--------------------------------------
+    // constructor
+    //--------------------------------------
+
+    DepthSnapshot( long sequence, long[] bidPrices, int[] bidQtys, int[] bidOrderCounts,
+                   long[] askPrices, int[] askQtys, int[] askOrderCounts ) {
+        this.sequence = sequence;
+        this.bidPrices = bidPrices;
+        this.bidQtys = bidQtys;
+        this.bidOrderCounts = bidOrderCounts;
+        this.askPrices = askPrices;
+        this.askQtys = askQtys;
+        this.askOrderCounts = askOrderCounts;
+    }
+
+    //---------------------------------------------------
+    // getters
+    //---------------------------------------------------
+
+    /**
+     * @return sequence of the last update contained in this snapshot
+     */
+    public long getSequence() { return sequence; }
+
+    /**
+     * @return number of levels published for the given side
+     */
+    public int getLevelCount( Side side ) { return prices(side).length; }
+
+    /**
+     * @param position starting with 1 for the best price
+     * @return price of the level in {@link Ticks}
+     */
+    public long getPrice( Side side, int position ) { return prices(side)[position - 1]; }
+
+    public int getQty( Side side, int position ) { return (side == Side.BUY ? bidQtys : askQtys)[position - 1]; }
+
+    public int getOrderCount( Side side, int position ) {
+        return (side == Side.BUY ? bidOrderCounts : askOrderCounts)[position - 1];
+    }
+
+    @Override
+    public String toString() {
+        return "DepthSnapshot{" +
+                "sequence=" + sequence +
+                ", bids=" + Arrays.toString(bidPrices) + "/" + Arrays.toString(bidQtys) +
+                ", asks=" + Arrays.toString(askPrices) + "/" + Arrays.toString(askQtys) +
+                '}';
+    }
+
+    private long[] prices( Side side ) { return side == Side.BUY ? bidPrices : askPrices; }
+}
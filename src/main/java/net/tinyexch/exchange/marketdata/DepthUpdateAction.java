@@ -0,0 +1,17 @@
+package net.tinyexch.exchange.marketdata;
+
+/**
+ * How a price level of the published depth changed.
+ *
+ * @link FIX:279
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public enum DepthUpdateAction {
+    /** level was inserted at the given position, all levels from there on move down by one */
+    NEW,
+    /** qty or order count of the level at the given position changed */
+    CHANGE,
+    /** level at the given position was removed, all levels below move up by one */
+    DELETE
+}
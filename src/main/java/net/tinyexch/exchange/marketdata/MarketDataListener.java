@@ -0,0 +1,42 @@
+package net.tinyexch.exchange.marketdata;
+
+import net.tinyexch.order.Side;
+
+/**
+ * Receives the aggregated depth of an orderbook as published by the {@link DepthPublisher}. Incremental updates are
+ * passed as primitives, so publishing them does not allocate.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public interface MarketDataListener {
+
+    MarketDataListener NO_OP = new MarketDataListener() {
+        @Override
+        public void onDepthUpdate( Side side, DepthUpdateAction action, int position, long price, int qty,
+                                   int orderCount, long sequence ) {}
+
+        @Override
+        public void onDepthSnapshot( DepthSnapshot snapshot ) {}
+    };
+
+    /**
+     * One level of the published depth changed. Applying the updates in sequence to the last snapshot yields the
+     * current depth.
+     *
+     * @param side of the book
+     * @param action what happened to the level
+     * @param position of the level starting with 1 for the best price, @link FIX:1023
+     * @param price of the level in {@link net.tinyexch.ob.price.Ticks}
+     * @param qty visible open qty of the level, 0 for {@link DepthUpdateAction#DELETE}
+     * @param orderCount number of visible orders on the level, 0 for {@link DepthUpdateAction#DELETE}
+     * @param sequence of the update, gapless per publisher, @link FIX:83
+     */
+    void onDepthUpdate( Side side, DepthUpdateAction action, int position, long price, int qty, int orderCount,
+                        long sequence );
+
+    /**
+     * Full depth for subscribers joining late or recovering from a gap.
+     */
+    void onDepthSnapshot( DepthSnapshot snapshot );
+}
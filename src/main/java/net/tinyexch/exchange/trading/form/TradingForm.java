@@ -3,6 +3,7 @@ package net.tinyexch.exchange.trading.form;
 import net.tinyexch.exchange.event.NotificationListener;
 import net.tinyexch.exchange.event.produce.StateChangedEvent;
 import net.tinyexch.ob.Orderbook;
+import net.tinyexch.ob.journal.CommandJournal;
 import net.tinyexch.ob.match.MatchEngine;
 import org.slf4j.Logger;
 
@@ -25,6 +26,7 @@ public abstract class TradingForm<S extends Enum<S>> {
 
     private final Map<S, Set<S>> allowedTransitions;
     private S currentState = getDefaultState();
+    private CommandJournal journal = CommandJournal.NO_OP;
 
 
     //--------------------------------------------------------------------------------------------------
@@ -70,6 +72,7 @@ public abstract class TradingForm<S extends Enum<S>> {
         if ( nextAllowedStates.contains(targetState) ) {
             getLogger().info("Change state from {} -> {}", currentState, targetState);
             currentState = targetState;
+            journal.onTransition(targetState);
 
         } else {
             String msg = String.format("Cannot transition from current: '%s' -> new: '%s'! Next allowed new state is '%s'",
@@ -80,6 +83,22 @@ public abstract class TradingForm<S extends Enum<S>> {
         notificationListener.fire(new StateChangedEvent<>(previous, currentState));
     }
 
+    /**
+     * Record all transitions of this trading form and all commands accepted by its orderbook from now on.
+     */
+    public void setJournal( CommandJournal journal ) {
+        this.journal = Objects.requireNonNull(journal, "Journal must not be null!");
+        orderbook.setJournal(journal);
+    }
+
+    /**
+     * Continue in the given state without checking the allowed transitions, e.g. after loading a snapshot.
+     */
+    public void restoreState( S state ) {
+        getLogger().info("Restore state {}", state);
+        currentState = state;
+    }
+
     public S getCurrentState() {
         return currentState;
     }
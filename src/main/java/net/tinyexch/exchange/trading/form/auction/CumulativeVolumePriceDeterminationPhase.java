@@ -0,0 +1,377 @@
+package net.tinyexch.exchange.trading.form.auction;
+
+import net.tinyexch.ob.Orderbook;
+import net.tinyexch.ob.OrderbookSide;
+import net.tinyexch.ob.PriceLevel;
+import net.tinyexch.ob.PriceLevelQueue;
+import net.tinyexch.ob.match.MatchEngine;
+import net.tinyexch.ob.match.Priorities;
+import net.tinyexch.ob.price.Ticks;
+import net.tinyexch.order.Order;
+import net.tinyexch.order.Side;
+import net.tinyexch.order.Trade;
+
+import java.util.*;
+
+import static java.util.Collections.emptyList;
+
+/**
+ * Determines the auction price from one cumulative volume curve over the distinct limit prices of both sides. The
+ * open qty per price is read from the {@link PriceLevel}s of the book, so no order needs to be touched to find the
+ * price:
+ * <ol>
+ *     <li>bid volume executable at price p: market buys + all bids with limit >= p (suffix sum)</li>
+ *     <li>ask volume executable at price p: market sells + all asks with limit <= p (prefix sum)</li>
+ *     <li>the auction price has the highest executable volume min(bid, ask) and among those the lowest surplus</li>
+ *     <li>if still several limits qualify the limit closest to the reference price is taken (higher limit on equal
+ *     distance). Without reference price the highest limit is taken on a bid surplus otherwise the lowest.</li>
+ * </ol>
+ * Hidden orders and the reserve of icebergs take part in the auction. Strike match orders are not used to find the
+ * price but are executable if their stop price is worse than the auction price - same as in
+ * {@link DefaultPriceDeterminationPhase}. If no limit price has executable volume the reference price is taken.
+ *
+ * Only the executable orders are visited to create the executions. The book itself is not modified. Prices are
+ * compared as {@link Ticks}, so equal limits of both sides always fall onto the same point of the curve.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public class CumulativeVolumePriceDeterminationPhase implements PriceDeterminationPhase {
+
+    //--------------------------------------------------------
+    // state
+    //--------------------------------------------------------
+    private final Orderbook orderbook;
+    private final Optional<Double> referencePrice;
+
+
+    //--------------------------------------------------------
+    // constructor
+    //--------------------------------------------------------
+
+    /**
+     * @param orderbook to derive a price for the matchable orders
+     */
+    public CumulativeVolumePriceDeterminationPhase( Orderbook orderbook ) {
+        this.orderbook = orderbook;
+        this.referencePrice = Optional.empty();
+    }
+
+    public CumulativeVolumePriceDeterminationPhase( Orderbook orderbook, Double referencePrice ) {
+        this.orderbook = orderbook;
+        this.referencePrice = Optional.of(referencePrice);
+    }
+
+    //--------------------------------------------------------
+    // API
+    //--------------------------------------------------------
+
+    @Override
+    public PriceDeterminationResult determinePrice() {
+        OrderbookSide buySide = orderbook.getBuySide();
+        OrderbookSide sellSide = orderbook.getSellSide();
+
+        VolumeCurve curve = new VolumeCurve( levels(buySide), levels(sellSide),
+                                             getOpenQty(buySide.getMarketOrders()), getOpenQty(sellSide.getMarketOrders()) );
+        int index = curve.findAuctionPriceIndex( referencePrice );
+
+        final Optional<Double> auctionPrice;
+        final int bidQty;
+        final int askQty;
+        final Optional<Double> worstMatchableBidPrice;
+        final Optional<Double> worstMatchableAskPrice;
+        if ( index >= 0 ) {
+            long price = curve.prices[index];
+            auctionPrice = Optional.of( Ticks.toPrice(price) );
+            bidQty = curve.bidVolume[index] + getStrikeMatchQty(buySide, price);
+            askQty = curve.askVolume[index] + getStrikeMatchQty(sellSide, price);
+            worstMatchableBidPrice = curve.worstMatchableBidPrice(index);
+            worstMatchableAskPrice = curve.worstMatchableAskPrice(index);
+
+        } else {
+            // no crossing limits, only market orders might be executed at the reference price
+            auctionPrice = referencePrice;
+            boolean onlyMarketOrders = curve.size == 0 && auctionPrice.isPresent();
+            bidQty = onlyMarketOrders ? curve.marketBidQty : 0;
+            askQty = onlyMarketOrders ? curve.marketAskQty : 0;
+            worstMatchableBidPrice = Optional.empty();
+            worstMatchableAskPrice = Optional.empty();
+        }
+
+        List<Trade> executions = auctionPrice.isPresent() && bidQty > 0 && askQty > 0 ?
+                match( executableOrders(buySide, Ticks.of(auctionPrice.get())),
+                       executableOrders(sellSide, Ticks.of(auctionPrice.get())),
+                       Math.min(bidQty, askQty), Ticks.of(auctionPrice.get()) ) :
+                emptyList();
+
+        return new PriceDeterminationResult( worstMatchableBidPrice, worstMatchableAskPrice, bidQty, askQty,
+                                             auctionPrice, executions );
+    }
+
+    //--------------------------------------------------------
+    // price determination
+    //--------------------------------------------------------
+
+    /**
+     * @return open qty per distinct limit price in ascending price order
+     */
+    private static Levels levels( OrderbookSide side ) {
+        Optional<PriceLevelQueue> priceLevels = side.getPriceLevels();
+        final Levels levels;
+        if ( priceLevels.isPresent() ) {
+            Collection<PriceLevel> bestFirst = priceLevels.get().getLevels();
+            levels = new Levels( bestFirst.size() );
+            for ( PriceLevel level : bestFirst ) {
+                levels.append( level.getPriceTicks(), level.getTotalQty() );
+            }
+            if ( side.getSide() == Side.BUY ) levels.reverse();
+
+        } else {
+            // sort by price and sum up equal prices instead of keying a map with boxed prices
+            Order[] byPrice = side.getLimitOrders().toArray( new Order[0] );
+            Arrays.sort( byPrice, Comparator.comparingLong(Order::getPriceTicks) );
+            levels = new Levels( byPrice.length );
+            for ( Order order : byPrice ) {
+                levels.merge( order.getPriceTicks(), getOpenQty(order) );
+            }
+        }
+
+        return levels;
+    }
+
+    private static int getOpenQty( Collection<Order> orders ) {
+        int qty = 0;
+        for ( Order order : orders ) {
+            qty += getOpenQty(order);
+        }
+        return qty;
+    }
+
+    /**
+     * @return qty still to be executed including the reserve of an iceberg
+     */
+    private static int getOpenQty( Order order ) {
+        return order.getLeavesQty() + (order.isIceberg() ? order.getHiddenQty() : 0);
+    }
+
+    private static int getStrikeMatchQty( OrderbookSide side, long auctionPrice ) {
+        int qty = 0;
+        for ( Order order : side.getStrikeMatchOrders() ) {
+            if ( isExecutableStrikeMatch(order, auctionPrice) ) {
+                qty += getOpenQty(order);
+            }
+        }
+        return qty;
+    }
+
+    private static boolean isExecutableStrikeMatch( Order order, long auctionPrice ) {
+        return order.getSide() == Side.BUY ? order.getStopPriceTicks() <= auctionPrice :
+                                             order.getStopPriceTicks() > auctionPrice;
+    }
+
+    //--------------------------------------------------------
+    // executions
+    //--------------------------------------------------------
+
+    /**
+     * @return orders executable at the auction price in priority sequence: market orders, limit orders by price/time
+     * and finally strike match orders
+     */
+    private static List<Order> executableOrders( OrderbookSide side, long auctionPrice ) {
+        List<Order> orders = new ArrayList<>( side.getMarketOrders() );
+        orders.sort( Priorities.TIME.thenComparing(Priorities.SUBMIT_SEQUENCE) );
+
+        Collection<Order> limitOrders = side.getPriceLevels().isPresent() ? side.getLimitOrders() :
+                sorted( side.getLimitOrders(), side.getSide() == Side.BUY ? MatchEngine.BUY_PRICE_TIME_ORDERING :
+                                                                            MatchEngine.SELL_PRICE_TIME_ORDERING );
+        boolean isBuy = side.getSide() == Side.BUY;
+        for ( Order order : limitOrders ) {
+            boolean executable = isBuy ? order.getPriceTicks() >= auctionPrice : order.getPriceTicks() <= auctionPrice;
+            if ( !executable ) break;
+            orders.add(order);
+        }
+
+        side.getStrikeMatchOrders().stream().filter( o -> isExecutableStrikeMatch(o, auctionPrice) )
+                .sorted( Priorities.TIME.thenComparing(Priorities.SUBMIT_SEQUENCE) )
+                .forEach( orders::add );
+        return orders;
+    }
+
+    private static List<Order> sorted( Collection<Order> orders, Comparator<Order> ordering ) {
+        List<Order> sorted = new ArrayList<>(orders);
+        sorted.sort(ordering);
+        return sorted;
+    }
+
+    /**
+     * Every trade carries snapshots of both orders with the qty executed so far.
+     */
+    private static List<Trade> match( List<Order> bids, List<Order> asks, int executableQty, long auctionPrice ) {
+        List<Trade> executions = new ArrayList<>();
+        int bidIndex = 0;
+        int askIndex = 0;
+        Order bid = bids.get(bidIndex);
+        Order ask = asks.get(askIndex);
+        int matchedQty = 0;
+
+        while ( matchedQty < executableQty ) {
+            int executionQty = Math.min( executableQty - matchedQty, Math.min(bid.getLeavesQty(), ask.getLeavesQty()) );
+            bid = bid.mutableClone().setCumQty( bid.getCumQty() + executionQty, bid.getTimestampNanos() );
+            ask = ask.mutableClone().setCumQty( ask.getCumQty() + executionQty, ask.getTimestampNanos() );
+            executions.add( Trade.of().setBuy(bid).setSell(ask).setExecutionQty(executionQty).setPriceTicks(auctionPrice) );
+            matchedQty += executionQty;
+
+            // an iceberg exposes its next slice and stays until its reserve is used up
+            if ( bid.getLeavesQty() == 0 && ++bidIndex < bids.size() ) bid = bids.get(bidIndex);
+            if ( ask.getLeavesQty() == 0 && ++askIndex < asks.size() ) ask = asks.get(askIndex);
+        }
+
+        return executions;
+    }
+
+    //--------------------------------------------------------
+    // internal data structures
+    //--------------------------------------------------------
+
+    /**
+     * Open qty per price of one side in ascending price order.
+     */
+    private static final class Levels {
+        final long[] prices;
+        final int[] qty;
+        int size;
+
+        Levels( int capacity ) {
+            prices = new long[capacity];
+            qty = new int[capacity];
+        }
+
+        void append( long price, int openQty ) {
+            prices[size] = price;
+            qty[size++] = openQty;
+        }
+
+        /**
+         * Prices must arrive in ascending order, qty of a price equal to the last one is added up.
+         */
+        void merge( long price, int openQty ) {
+            if ( size > 0 && prices[size - 1] == price ) {
+                qty[size - 1] += openQty;
+            } else {
+                append( price, openQty );
+            }
+        }
+
+        void reverse() {
+            for ( int i = 0, j = size - 1; i < j; i++, j-- ) {
+                long price = prices[i]; prices[i] = prices[j]; prices[j] = price;
+                int q = qty[i]; qty[i] = qty[j]; qty[j] = q;
+            }
+        }
+    }
+
+    /**
+     * Cumulative executable volumes of both sides over the union of their limit prices.
+     */
+    private static final class VolumeCurve {
+        final long[] prices;
+        final int[] bidQty;
+        final int[] askQty;
+        final int[] bidVolume;
+        final int[] askVolume;
+        final int marketBidQty;
+        final int marketAskQty;
+        final int size;
+
+        VolumeCurve( Levels bids, Levels asks, int marketBidQty, int marketAskQty ) {
+            int capacity = bids.size + asks.size;
+            this.prices = new long[capacity];
+            this.bidQty = new int[capacity];
+            this.askQty = new int[capacity];
+            this.bidVolume = new int[capacity];
+            this.askVolume = new int[capacity];
+            this.marketBidQty = marketBidQty;
+            this.marketAskQty = marketAskQty;
+
+            // merge both ascending price lists and accumulate the ask volume on the way up
+            int b = 0, a = 0, n = 0;
+            int cumAskQty = marketAskQty;
+            while ( b < bids.size || a < asks.size ) {
+                long price = a == asks.size || (b < bids.size && bids.prices[b] < asks.prices[a]) ?
+                        bids.prices[b] : asks.prices[a];
+                prices[n] = price;
+                if ( b < bids.size && bids.prices[b] == price ) bidQty[n] = bids.qty[b++];
+                if ( a < asks.size && asks.prices[a] == price ) askQty[n] = asks.qty[a++];
+                cumAskQty += askQty[n];
+                askVolume[n++] = cumAskQty;
+            }
+            this.size = n;
+
+            int cumBidQty = marketBidQty;
+            for ( int i = size - 1; i >= 0; i-- ) {
+                cumBidQty += bidQty[i];
+                bidVolume[i] = cumBidQty;
+            }
+        }
+
+        /**
+         * @return index of the auction price or -1 if nothing can be executed at any limit
+         */
+        int findAuctionPriceIndex( Optional<Double> referencePrice ) {
+            int first = -1;
+            int last = -1;
+            int maxVolume = 0;
+            int minSurplus = Integer.MAX_VALUE;
+            for ( int i = 0; i < size; i++ ) {
+                int volume = Math.min(bidVolume[i], askVolume[i]);
+                int surplus = Math.abs(bidVolume[i] - askVolume[i]);
+                if ( volume > maxVolume || (volume == maxVolume && volume > 0 && surplus < minSurplus) ) {
+                    maxVolume = volume;
+                    minSurplus = surplus;
+                    first = i;
+                    last = i;
+                } else if ( volume == maxVolume && volume > 0 && surplus == minSurplus ) {
+                    last = i;
+                }
+            }
+
+            final int index;
+            if ( first == last ) {
+                index = first;
+            } else if ( referencePrice.isPresent() ) {
+                index = closestTo( Ticks.of(referencePrice.get()), first, last );
+            } else {
+                index = bidVolume[last] > askVolume[last] ? last : first;
+            }
+            return index;
+        }
+
+        private int closestTo( long price, int first, int last ) {
+            int closest = first;
+            for ( int i = first + 1; i <= last; i++ ) {
+                if ( Math.abs(prices[i] - price) <= Math.abs(prices[closest] - price) ) closest = i;
+            }
+            return closest;
+        }
+
+        /**
+         * @return lowest bid limit at or above the price of the given index
+         */
+        Optional<Double> worstMatchableBidPrice( int index ) {
+            for ( int i = index; i < size; i++ ) {
+                if ( bidQty[i] > 0 ) return Optional.of( Ticks.toPrice(prices[i]) );
+            }
+            return Optional.empty();
+        }
+
+        /**
+         * @return highest ask limit at or below the price of the given index
+         */
+        Optional<Double> worstMatchableAskPrice( int index ) {
+            for ( int i = index; i >= 0; i-- ) {
+                if ( askQty[i] > 0 ) return Optional.of( Ticks.toPrice(prices[i]) );
+            }
+            return Optional.empty();
+        }
+    }
+}
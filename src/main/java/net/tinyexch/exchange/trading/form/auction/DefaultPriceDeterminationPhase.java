@@ -3,6 +3,7 @@ package net.tinyexch.exchange.trading.form.auction;
 import net.tinyexch.ob.Orderbook;
 import net.tinyexch.ob.OrderbookSide;
 import net.tinyexch.ob.match.MatchEngine;
+import net.tinyexch.ob.price.Ticks;
 import net.tinyexch.order.Trade;
 import net.tinyexch.order.Order;
 import net.tinyexch.order.OrderType;
@@ -70,8 +71,8 @@ public class DefaultPriceDeterminationPhase implements PriceDeterminationPhase {
         OrderbookSide sellSide = orderbook.getSellSide();
 
         final PriceDeterminationResult result;
-        if ( !buySide.getBest().isEmpty() &&
-             !sellSide.getBest().isEmpty() ) {
+        if ( buySide.getBestVisible().isPresent() &&
+             sellSide.getBestVisible().isPresent() ) {
 
             LOGGER.info("Orders on both sides available!");
             result = calcResultWithAvailableOrders(buySide, sellSide, referencePrice);
@@ -112,8 +113,8 @@ public class DefaultPriceDeterminationPhase implements PriceDeterminationPhase {
         double[] askPrices = askOrders.stream().mapToDouble(Order::getPrice).toArray();
         double askSearchPrice = askOrders.isEmpty() ? 0 : askOrders.get(0).getPrice();
 
-        Optional<Double> worstMatchableBidPrice = searchClosestBid(askSearchPrice, bidPrices);
-        Optional<Double> worstMatchableAskPrice = searchClosestAsk(bidSearchPrice, askPrices);
+        Optional<Double> worstMatchableBidPrice = boxed( searchClosestBid(askSearchPrice, bidPrices) );
+        Optional<Double> worstMatchableAskPrice = boxed( searchClosestAsk(bidSearchPrice, askPrices) );
 
         //------------------------------------------------------------------
         // to make a statement of matchable quantities also consider MKT
@@ -168,6 +169,10 @@ public class DefaultPriceDeterminationPhase implements PriceDeterminationPhase {
                                              auctionPrice, executions );
     }
 
+    private static Optional<Double> boxed( OptionalDouble price ) {
+        return price.isPresent() ? Optional.of(price.getAsDouble()) : Optional.empty();
+    }
+
     private int calcExecutableBuyQty(Collection<Order> orders, int priceDetermingQty, Optional<Double> auctionPrice, BiFunction<Order, Double, Boolean> filter) {
         final int executableQty;
         if ( auctionPrice.isPresent() ) {
@@ -261,23 +266,25 @@ public class DefaultPriceDeterminationPhase implements PriceDeterminationPhase {
     }
 
     private double findClosestPriceToReferencePrice(double bidPrice, double askPrice) {
-        double auctionPrice;
-        Double price = referencePrice.get();
-        if ( price.equals(bidPrice)) {
-            auctionPrice = bidPrice;
+        long price = Ticks.of( referencePrice.get() );
+        long bid = Ticks.of(bidPrice);
+        long ask = Ticks.of(askPrice);
+        final long auctionPrice;
+        if ( price == bid ) {
+            auctionPrice = bid;
 
-        } else if (price.equals(askPrice)) {
-            auctionPrice = askPrice;
+        } else if ( price == ask ) {
+            auctionPrice = ask;
 
         // take closest price to ref price
         } else {
-            double bidOffset = Math.abs(price - bidPrice);
-            double askOffset = Math.abs(price - askPrice);
+            long bidOffset = Math.abs(price - bid);
+            long askOffset = Math.abs(price - ask);
 
-            if      (bidOffset < askOffset) auctionPrice = bidPrice;
-            else if (askOffset < bidOffset) auctionPrice = askPrice;
-            else                            auctionPrice = Math.max(bidPrice, askPrice);
+            if      (bidOffset < askOffset) auctionPrice = bid;
+            else if (askOffset < bidOffset) auctionPrice = ask;
+            else                            auctionPrice = Math.max(bid, ask);
         }
-        return auctionPrice;
+        return Ticks.toPrice(auctionPrice);
     }
 }
@@ -3,6 +3,7 @@ package net.tinyexch.exchange.trading.form.continuous;
 import net.tinyexch.exchange.event.NotificationListener;
 import net.tinyexch.exchange.event.produce.NewTradeEvent;
 import net.tinyexch.exchange.trading.form.TradingForm;
+import net.tinyexch.ob.MatchSink;
 import net.tinyexch.ob.SubmitType;
 import net.tinyexch.ob.match.Match;
 import net.tinyexch.ob.match.MatchEngine;
@@ -33,6 +34,7 @@ public class ContinuousTrading extends TradingForm<ContinuousTradingState> {
     private static final Logger LOGGER = LoggerFactory.getLogger(ContinuousTrading.class);
 
     private boolean volatilityInterrupted = false;
+    private final MatchSink matchSink = (index, match) -> onMatch(match);
 
     //-----------------------------------------------------------------------------
     // constructors
@@ -60,21 +62,18 @@ public class ContinuousTrading extends TradingForm<ContinuousTradingState> {
 
 
     public void submit(Order order, SubmitType submitType) {
-
         Match match = getOrderbook().submit(order, submitType);
-        List<Trade> trades = match.getTrades();
-        if ( !trades.isEmpty() ) {
-            trades.stream().forEach(trade -> notificationListener.fire(new NewTradeEvent(trade)));
-        }
+        onMatch(match);
+    }
 
-        // check for volatility interruptions apply for auction and continuous trading
-        if ( match.getVolatilityInterruption().isPresent() ) {
-            VolatilityInterruption interruption = match.getVolatilityInterruption().get();
-            getLogger().info("Close orderbook! Volatility interruption occurred on: {}", interruption );
-            volatilityInterrupted = true;
-            notificationListener.fire(interruption);
-            getOrderbook().close();
-        }
+    /**
+     * Submit a batch of orders to the orderbook with one call. Processing stops after an order caused a volatility
+     * interruption.
+     *
+     * @return number of processed orders, the remaining ones were not passed to the orderbook
+     */
+    public int submit(Order[] orders, SubmitType[] submitTypes, int length) {
+        return getOrderbook().submit(orders, submitTypes, length, matchSink);
     }
 
     @Override
@@ -95,4 +94,25 @@ public class ContinuousTrading extends TradingForm<ContinuousTradingState> {
     public void clearVolatilityInterruption() { volatilityInterrupted = false; }
 
     public boolean isVolatilityInterrupted() { return volatilityInterrupted; }
+
+
+    //-----------------------------------------------------------------------------
+    // internal
+    //-----------------------------------------------------------------------------
+
+    private void onMatch(Match match) {
+        List<Trade> trades = match.getTrades();
+        if ( !trades.isEmpty() ) {
+            trades.stream().forEach(trade -> notificationListener.fire(new NewTradeEvent(trade)));
+        }
+
+        // check for volatility interruptions apply for auction and continuous trading
+        if ( match.getVolatilityInterruption().isPresent() ) {
+            VolatilityInterruption interruption = match.getVolatilityInterruption().get();
+            getLogger().info("Close orderbook! Volatility interruption occurred on: {}", interruption );
+            volatilityInterrupted = true;
+            notificationListener.fire(interruption);
+            getOrderbook().close();
+        }
+    }
 }
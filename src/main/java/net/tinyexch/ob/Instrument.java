@@ -1,7 +1,44 @@
 package net.tinyexch.ob;
 
+import net.tinyexch.ob.price.TickSize;
+
+import java.util.Objects;
+
 /**
- * Created by frank on 26/07/14.
+ * A tradeable security identified by its ISIN. Used as key to find the {@link Orderbook} of the security. Limit and stop
+ * prices of its orders must be multiples of its {@link TickSize}.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2014-07-26
  */
-public class Instrument {
+public final class Instrument {
+
+    private final String isin;
+    private final TickSize tickSize;
+
+    public Instrument( String isin ) {
+        this( isin, TickSize.FINEST );
+    }
+
+    public Instrument( String isin, TickSize tickSize ) {
+        this.isin = Objects.requireNonNull(isin, "ISIN must be specified!");
+        this.tickSize = Objects.requireNonNull(tickSize, "Tick size must be specified!");
+    }
+
+    public String getIsin() { return isin; }
+
+    public TickSize getTickSize() { return tickSize; }
+
+    @Override
+    public boolean equals( Object o ) {
+        return this == o || (o instanceof Instrument && isin.equals(((Instrument) o).isin));
+    }
+
+    @Override
+    public int hashCode() { return isin.hashCode(); }
+
+    @Override
+    public String toString() {
+        return "Instrument{isin='" + isin + "', tickSize=" + tickSize.getTickSize() + '}';
+    }
 }
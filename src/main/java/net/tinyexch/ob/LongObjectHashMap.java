@@ -0,0 +1,159 @@
+package net.tinyexch.ob;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Open addressing hash map with primitive long keys, so looking up an order by its exchange order ID neither boxes
+ * the key nor compares strings. Key 0 is reserved as empty slot marker, see {@link net.tinyexch.order.Order#NO_ORDER_ID}.
+ *
+ * This class is mutable and not thread safe!
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ *
+ * @param <V> type of the values
+ */
+public final class LongObjectHashMap<V> {
+
+    private static final int DEFAULT_CAPACITY = 64;
+    private static final long EMPTY = 0;
+
+    private long[] keys;
+    private V[] values;
+    private int mask;
+    private int size;
+    private int resizeThreshold;
+
+    //-----------------------------------------------------------------------------------------------
+    // constructors
+    //-----------------------------------------------------------------------------------------------
+
+    public LongObjectHashMap() {
+        this( DEFAULT_CAPACITY );
+    }
+
+    /**
+     * @param expectedSize number of entries the map holds without growing
+     */
+    public LongObjectHashMap( int expectedSize ) {
+        allocate( Integer.highestOneBit( Math.max(expectedSize, 2) * 2 - 1 ) << 1 );
+    }
+
+    //-----------------------------------------------------------------------------------------------
+    // public API
+    //-----------------------------------------------------------------------------------------------
+
+    public V get( long key ) {
+        int index = indexOf(key);
+        return index >= 0 ? values[index] : null;
+    }
+
+    public boolean containsKey( long key ) { return indexOf(key) >= 0; }
+
+    /**
+     * @return the value previously mapped to the key or null
+     */
+    public V put( long key, V value ) {
+        if ( key == EMPTY ) throw new IllegalArgumentException("Key " + EMPTY + " is reserved!");
+
+        int index = slot(key);
+        while ( keys[index] != EMPTY ) {
+            if ( keys[index] == key ) {
+                V previous = values[index];
+                values[index] = value;
+                return previous;
+            }
+            index = (index + 1) & mask;
+        }
+
+        keys[index] = key;
+        values[index] = value;
+        if ( ++size > resizeThreshold ) {
+            rehash( keys.length << 1 );
+        }
+        return null;
+    }
+
+    /**
+     * @return the value mapped to the key before it was removed or null
+     */
+    public V remove( long key ) {
+        int index = indexOf(key);
+        if ( index < 0 ) return null;
+
+        V previous = values[index];
+        size--;
+        // shift following entries of the same probe sequence back, so no tombstones are needed
+        int gap = index;
+        int next = (gap + 1) & mask;
+        while ( keys[next] != EMPTY ) {
+            int home = slot(keys[next]);
+            if ( ((next - home) & mask) >= ((next - gap) & mask) ) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[gap] = EMPTY;
+        values[gap] = null;
+
+        return previous;
+    }
+
+    public void forEachValue( Consumer<V> consumer ) {
+        for ( int i = 0; i < keys.length; i++ ) {
+            if ( keys[i] != EMPTY ) consumer.accept(values[i]);
+        }
+    }
+
+    public int size() { return size; }
+
+    public boolean isEmpty() { return size == 0; }
+
+    public void clear() {
+        if ( size == 0 ) return;
+        Arrays.fill(keys, EMPTY);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    //-----------------------------------------------------------------------------------------------
+    // internal operations
+    //-----------------------------------------------------------------------------------------------
+
+    private int indexOf( long key ) {
+        if ( key == EMPTY ) return -1;
+        int index = slot(key);
+        while ( keys[index] != EMPTY ) {
+            if ( keys[index] == key ) return index;
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int slot( long key ) {
+        // sequential IDs must not cluster in neighbouring slots
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void allocate( int capacity ) {
+        keys = new long[capacity];
+        values = (V[]) new Object[capacity];
+        mask = capacity - 1;
+        resizeThreshold = capacity / 2;
+    }
+
+    private void rehash( int capacity ) {
+        long[] oldKeys = keys;
+        V[] oldValues = values;
+        allocate(capacity);
+        size = 0;
+        for ( int i = 0; i < oldKeys.length; i++ ) {
+            if ( oldKeys[i] != EMPTY ) put( oldKeys[i], oldValues[i] );
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package net.tinyexch.ob;
+
+import net.tinyexch.ob.match.Match;
+
+/**
+ * Receives the results of a batch of orders submitted to the {@link Orderbook}.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+@FunctionalInterface
+public interface MatchSink {
+
+    /**
+     * @param index of the order in the submitted batch
+     * @param match result of the order, might be reused by the match engine once this method returns
+     */
+    void accept( int index, Match match );
+}
@@ -0,0 +1,203 @@
+package net.tinyexch.ob;
+
+import net.tinyexch.ob.match.MatchEngine;
+import net.tinyexch.order.Order;
+import net.tinyexch.order.OrderType;
+import net.tinyexch.order.Side;
+
+import java.util.*;
+
+/**
+ * Midpoint orders of one orderbook side in the priority they are executed: highest order qty first, then the older
+ * order, then the order submitted first. Unlike a {@link PriorityQueue} the iterator walks the orders in this
+ * priority, so matching can stop as soon as the incoming order is satisfied. Every resting order is indexed by its
+ * {@link Order#getOrderID()}, so it can be removed in O(log n) without searching the book.
+ *
+ * The sort keys are taken when an order enters the queue. An order changed in place, e.g. by an execution, keeps its
+ * position until it is refreshed.
+ *
+ * This class is mutable and not thread safe!
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public class MidpointQueue extends AbstractQueue<Order> {
+
+    private final Side side;
+    private final NavigableSet<Entry> entries = new TreeSet<>();
+    private final LongObjectHashMap<Entry> entriesByOrderID = new LongObjectHashMap<>();
+
+    //-----------------------------------------------------------------------------------------------
+    // constructors
+    //-----------------------------------------------------------------------------------------------
+
+    public MidpointQueue( Side side ) {
+        this.side = side;
+    }
+
+    //-----------------------------------------------------------------------------------------------
+    // queue API
+    //-----------------------------------------------------------------------------------------------
+
+    @Override
+    public boolean offer( Order order ) {
+        Objects.requireNonNull(order, "Order must not be null!");
+        if ( order.getOrderType() != OrderType.LIMIT ) {
+            throw new OrderbookException("Only LIMIT orders can be placed in the midpoint book! " + order);
+        }
+        if ( order.getOrderID() == Order.NO_ORDER_ID ) {
+            throw new OrderbookException("Order without orderID cannot be placed in the midpoint book! " + order);
+        }
+        if ( entriesByOrderID.containsKey(order.getOrderID()) ) {
+            throw new OrderbookException("Order with same orderID is already in the book! " + order);
+        }
+
+        Entry entry = new Entry(order);
+        entries.add(entry);
+        entriesByOrderID.put(order.getOrderID(), entry);
+        return true;
+    }
+
+    @Override
+    public Order poll() {
+        Entry first = entries.pollFirst();
+        if ( first == null ) return null;
+
+        entriesByOrderID.remove(first.order.getOrderID());
+        return first.order;
+    }
+
+    @Override
+    public Order peek() {
+        return entries.isEmpty() ? null : entries.first().order;
+    }
+
+    @Override
+    public int size() { return entries.size(); }
+
+    @Override
+    public void clear() {
+        entries.clear();
+        entriesByOrderID.clear();
+    }
+
+    @Override
+    public boolean remove( Object o ) {
+        return o instanceof Order && remove( ((Order) o).getOrderID() ) != null;
+    }
+
+    /**
+     * @return orders in priority sequence
+     */
+    @Override
+    public Iterator<Order> iterator() {
+        Iterator<Entry> iter = entries.iterator();
+        return new Iterator<Order>() {
+            private Entry lastReturned;
+
+            @Override
+            public boolean hasNext() { return iter.hasNext(); }
+
+            @Override
+            public Order next() {
+                lastReturned = iter.next();
+                return lastReturned.order;
+            }
+
+            @Override
+            public void remove() {
+                iter.remove();
+                entriesByOrderID.remove(lastReturned.order.getOrderID());
+            }
+        };
+    }
+
+    //-----------------------------------------------------------------------------------------------
+    // midpoint book API
+    //-----------------------------------------------------------------------------------------------
+
+    /**
+     * @return the same ordering this queue yields its orders, comparable to {@link PriorityQueue#comparator()}
+     */
+    public Comparator<Order> comparator() { return MatchEngine.MIDPOINT_COMPARATOR; }
+
+    public Side getSide() { return side; }
+
+    /**
+     * @return resting order with given ID or null if it is not in the book
+     */
+    public Order get( long orderID ) {
+        Entry entry = entriesByOrderID.get(orderID);
+        return entry != null ? entry.order : null;
+    }
+
+    /**
+     * @return the removed order or null if no order with given ID is in the book
+     */
+    public Order remove( long orderID ) {
+        Entry entry = entriesByOrderID.remove(orderID);
+        if ( entry != null ) {
+            entries.remove(entry);
+        }
+        return entry != null ? entry.order : null;
+    }
+
+    /**
+     * Account for an order which was changed in place. A fully executed order is removed, an order whose sort keys
+     * changed is moved to its new position.
+     *
+     * @return false ... the order is not in this queue
+     */
+    public boolean refresh( Order order ) {
+        Entry entry = entriesByOrderID.get(order.getOrderID());
+        if ( entry == null || entry.order != order ) return false;
+
+        if ( order.getLeavesQty() == 0 ) {
+            remove( order.getOrderID() );
+        } else if ( entry.isOutdated() ) {
+            entries.remove(entry);
+            entry.takeKeys();
+            entries.add(entry);
+        }
+        return true;
+    }
+
+    //-----------------------------------------------------------------------------------------------
+    // internal
+    //-----------------------------------------------------------------------------------------------
+
+    /**
+     * Keeps the sort keys of the order at the time it was added, so changes of the order cannot corrupt the tree.
+     */
+    private static final class Entry implements Comparable<Entry> {
+        final Order order;
+        int orderQty;
+        long timestamp;
+        long submitSequence;
+
+        Entry( Order order ) {
+            this.order = order;
+            takeKeys();
+        }
+
+        void takeKeys() {
+            orderQty = order.getOrderQty();
+            timestamp = order.getTimestampNanos();
+            submitSequence = order.getSubmitSequence();
+        }
+
+        boolean isOutdated() {
+            return orderQty != order.getOrderQty() || timestamp != order.getTimestampNanos() ||
+                   submitSequence != order.getSubmitSequence();
+        }
+
+        @Override
+        public int compareTo( Entry other ) {
+            int result = Integer.compare(other.orderQty, orderQty);
+            if ( result == 0 ) result = Long.compare(timestamp, other.timestamp);
+            if ( result == 0 ) result = Long.compare(submitSequence, other.submitSequence);
+            if ( result == 0 ) result = Long.compare(order.getOrderID(), other.order.getOrderID());
+            return result;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package net.tinyexch.ob;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Open addressing hash map with primitive long values, so mapping a clientOrderID to the exchange order ID doesn't box
+ * the ID. Value 0 is returned for missing keys and cannot be stored, see {@link net.tinyexch.order.Order#NO_ORDER_ID}.
+ *
+ * This class is mutable and not thread safe!
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ *
+ * @param <K> type of the keys, null is not allowed
+ */
+public final class ObjectLongHashMap<K> {
+
+    private static final int DEFAULT_CAPACITY = 64;
+
+    /** returned for missing keys */
+    public static final long MISSING = 0;
+
+    private K[] keys;
+    private long[] values;
+    private int mask;
+    private int size;
+    private int resizeThreshold;
+
+    //-----------------------------------------------------------------------------------------------
+    // constructors
+    //-----------------------------------------------------------------------------------------------
+
+    public ObjectLongHashMap() {
+        this( DEFAULT_CAPACITY );
+    }
+
+    /**
+     * @param expectedSize number of entries the map holds without growing
+     */
+    public ObjectLongHashMap( int expectedSize ) {
+        allocate( Integer.highestOneBit( Math.max(expectedSize, 2) * 2 - 1 ) << 1 );
+    }
+
+    //-----------------------------------------------------------------------------------------------
+    // public API
+    //-----------------------------------------------------------------------------------------------
+
+    /**
+     * @return value mapped to the key or {@link #MISSING}
+     */
+    public long get( K key ) {
+        int index = indexOf(key);
+        return index >= 0 ? values[index] : MISSING;
+    }
+
+    public boolean containsKey( K key ) { return indexOf(key) >= 0; }
+
+    /**
+     * @return the value previously mapped to the key or {@link #MISSING}
+     */
+    public long put( K key, long value ) {
+        Objects.requireNonNull(key, "Key must not be null!");
+        if ( value == MISSING ) throw new IllegalArgumentException("Value " + MISSING + " is reserved!");
+
+        int index = slot(key);
+        while ( keys[index] != null ) {
+            if ( keys[index].equals(key) ) {
+                long previous = values[index];
+                values[index] = value;
+                return previous;
+            }
+            index = (index + 1) & mask;
+        }
+
+        keys[index] = key;
+        values[index] = value;
+        if ( ++size > resizeThreshold ) {
+            rehash( keys.length << 1 );
+        }
+        return MISSING;
+    }
+
+    /**
+     * @return the value mapped to the key before it was removed or {@link #MISSING}
+     */
+    public long remove( K key ) {
+        int index = indexOf(key);
+        if ( index < 0 ) return MISSING;
+
+        long previous = values[index];
+        removeAt(index);
+        return previous;
+    }
+
+    /**
+     * Remove the key only if it is still mapped to the given value.
+     *
+     * @return true ... the entry was removed
+     */
+    public boolean remove( K key, long value ) {
+        int index = indexOf(key);
+        if ( index < 0 || values[index] != value ) return false;
+
+        removeAt(index);
+        return true;
+    }
+
+    public int size() { return size; }
+
+    public boolean isEmpty() { return size == 0; }
+
+    public void clear() {
+        if ( size == 0 ) return;
+        Arrays.fill(keys, null);
+        Arrays.fill(values, MISSING);
+        size = 0;
+    }
+
+    //-----------------------------------------------------------------------------------------------
+    // internal operations
+    //-----------------------------------------------------------------------------------------------
+
+    private int indexOf( K key ) {
+        if ( key == null ) return -1;
+        int index = slot(key);
+        while ( keys[index] != null ) {
+            if ( keys[index].equals(key) ) return index;
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void removeAt( int index ) {
+        size--;
+        // shift following entries of the same probe sequence back, so no tombstones are needed
+        int gap = index;
+        int next = (gap + 1) & mask;
+        while ( keys[next] != null ) {
+            int home = slot(keys[next]);
+            if ( ((next - home) & mask) >= ((next - gap) & mask) ) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[gap] = null;
+        values[gap] = MISSING;
+    }
+
+    private int slot( K key ) {
+        // spread the bits of weak hash codes, e.g. of similar clientOrderIDs
+        int hash = key.hashCode() * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void allocate( int capacity ) {
+        keys = (K[]) new Object[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+        resizeThreshold = capacity / 2;
+    }
+
+    private void rehash( int capacity ) {
+        K[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(capacity);
+        size = 0;
+        for ( int i = 0; i < oldKeys.length; i++ ) {
+            if ( oldKeys[i] != null ) put( oldKeys[i], oldValues[i] );
+        }
+    }
+}
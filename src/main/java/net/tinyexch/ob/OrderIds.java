@@ -0,0 +1,89 @@
+package net.tinyexch.ob;
+
+import net.tinyexch.order.Order;
+
+import static net.tinyexch.order.Order.NO_ORDER_ID;
+
+/**
+ * Exchange order IDs of one orderbook. Every order gets a unique long ID when it enters the book and all structures
+ * of the book are keyed by it. The clientOrderID given by the participant is only kept in a side table to find the
+ * ID of a resting order when a cancel or modification request comes in.
+ *
+ * This class is mutable and not thread safe!
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public final class OrderIds {
+
+    private final ObjectLongHashMap<String> idsByClientOrderID = new ObjectLongHashMap<>();
+    private final LongObjectHashMap<String> clientOrderIDsByID = new LongObjectHashMap<>();
+    private long lastOrderID;
+
+
+    /**
+     * @return a new ID never handed out by this instance before
+     */
+    public long next() { return ++lastOrderID; }
+
+    /**
+     * @return ID of the resting order with given clientOrderID or {@link Order#NO_ORDER_ID}
+     */
+    public long resolve( String clientOrderID ) {
+        // the map returns 0 for unknown keys, which is NO_ORDER_ID
+        return idsByClientOrderID.get(clientOrderID);
+    }
+
+    /**
+     * @return ID of the last order entering the book
+     */
+    public long getLastOrderID() { return lastOrderID; }
+
+    /**
+     * Continue with the IDs of a book used before, e.g. after loading a snapshot.
+     */
+    public void restore( long lastOrderID ) {
+        this.lastOrderID = Math.max(this.lastOrderID, lastOrderID);
+    }
+
+    /**
+     * @return number of resting orders known by their clientOrderID
+     */
+    public int size() { return idsByClientOrderID.size(); }
+
+    //-----------------------------------------------------------------------------------------------
+    // used by the book
+    //-----------------------------------------------------------------------------------------------
+
+    /**
+     * Remember the clientOrderID of an order put into the book. Orders added without passing the entry of the book
+     * get their ID here.
+     */
+    void register( Order order ) {
+        long orderID = order.getOrderID();
+        if ( orderID == NO_ORDER_ID ) {
+            orderID = next();
+            order.setOrderID(orderID);
+        } else if ( orderID > lastOrderID ) {
+            lastOrderID = orderID;
+        }
+        idsByClientOrderID.put( order.getClientOrderID(), orderID );
+        clientOrderIDsByID.put( orderID, order.getClientOrderID() );
+    }
+
+    /**
+     * Forget the clientOrderID of an order which left the book unless it was reused by a later order.
+     */
+    void release( Order order ) {
+        release( order.getOrderID() );
+    }
+
+    /**
+     * Forget the clientOrderID of the order with given ID, e.g. after the match engine reported it as executed
+     * completely. Unknown IDs are ignored.
+     */
+    void release( long orderID ) {
+        String clientOrderID = clientOrderIDsByID.remove(orderID);
+        if ( clientOrderID != null ) idsByClientOrderID.remove( clientOrderID, orderID );
+    }
+}
@@ -1,12 +1,22 @@
 package net.tinyexch.ob;
 
+import net.tinyexch.ob.journal.CommandJournal;
 import net.tinyexch.ob.match.Match;
 import net.tinyexch.ob.match.MatchEngine;
 import net.tinyexch.ob.match.Priorities;
+import net.tinyexch.ob.report.ExecutionReportBuffer;
+import net.tinyexch.ob.report.ExecutionReportType;
+import net.tinyexch.ob.validator.NewOrderValidators;
+import net.tinyexch.order.ExecType;
+import net.tinyexch.order.Fill;
 import net.tinyexch.order.Order;
 import net.tinyexch.order.Side;
+import net.tinyexch.order.Trade;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.stream.Stream;
 
 import static net.tinyexch.ob.SubmitType.*;
@@ -20,13 +30,19 @@ import static net.tinyexch.ob.match.MatchEngine.*;
  * @since 2014-07-26
  */
 // TODO (FRa) : (FRa) : impl. partial cancel, expiration at close, removal of transient orders
-// TODO (FRa) : (FRa) : form proper Notif Msg e.g. NewAck, CancelAcc, CancelRej
 // TODO (FRa) : (FRa) : impl 2PC and commit match only if price checks succeeded; check if this should be drawn into OB to be more efficient
 // TODO (FRa) : (FRa) : use persistent/functional data structures - if possible
 // TODO (FRa) : (FRa) : cancel(): remove from OB and produce CXL-ACK (check FIX what is the response)
 public class Orderbook {
 
     private MatchEngine matchEngine = MatchEngine.NO_OP;
+    private CommandJournal journal = CommandJournal.NO_OP;
+
+    /** receives the reports of the last processed request, null ... no reports are written */
+    private ExecutionReportBuffer executionReports;
+
+    /** checks new and modified orders before they are matched, null ... orders are not validated */
+    private NewOrderValidators newOrderValidators;
 
     //------------------------------------------------------------------------------------------------------------------
     // mutable state changing during runtime
@@ -34,24 +50,25 @@ public class Orderbook {
 
     private OrderbookState state = OrderbookState.CLOSED;
 
+    /** IDs of all orders entering the book, shared by all sides */
+    private final OrderIds orderIds = new OrderIds();
+
     //------------------------------------------------------------------------------------------------------------------
     /**
-     * Contains all bid/buy orders
+     * Contains all bid/buy orders, limit orders are kept in price levels
      */
-    private final OrderbookSide buySide = new OrderbookSide( Side.BUY,
-            MatchEngine.BUY_PRICE_TIME_ORDERING.thenComparing(Priorities.SUBMIT_SEQUENCE),
-            BUY_STOPPRICE_ORDERING.thenComparing(Priorities.SUBMIT_SEQUENCE) );
+    private final OrderbookSide buySide = new OrderbookSide( Side.BUY, new PriceLevelQueue(Side.BUY),
+            BUY_STOPPRICE_ORDERING.thenComparing(Priorities.SUBMIT_SEQUENCE), orderIds );
 
     /**
-     * Contains all ask/sell orders
+     * Contains all ask/sell orders, limit orders are kept in price levels
      */
-    private final OrderbookSide sellSide = new OrderbookSide( Side.SELL,
-            MatchEngine.SELL_PRICE_TIME_ORDERING.thenComparing(Priorities.SUBMIT_SEQUENCE),
-            SELL_STOPPRICE_ORDERING.thenComparing(Priorities.SUBMIT_SEQUENCE) );
+    private final OrderbookSide sellSide = new OrderbookSide( Side.SELL, new PriceLevelQueue(Side.SELL),
+            SELL_STOPPRICE_ORDERING.thenComparing(Priorities.SUBMIT_SEQUENCE), orderIds );
     //------------------------------------------------------------------------------------------------------------------
 
-    private final OrderbookSide midpointBuySide = new OrderbookSide( Side.BUY, MIDPOINT_COMPARATOR );
-    private final OrderbookSide midpointSellSide = new OrderbookSide( Side.SELL, MIDPOINT_COMPARATOR );
+    private final OrderbookSide midpointBuySide = new OrderbookSide( Side.BUY, new MidpointQueue(Side.BUY), orderIds );
+    private final OrderbookSide midpointSellSide = new OrderbookSide( Side.SELL, new MidpointQueue(Side.SELL), orderIds );
 
 
     //------------------------------------------------------------------------------------------------------------------
@@ -79,30 +96,61 @@ public class Orderbook {
     public Match submit( Order order, SubmitType submitType ) {
         // pre conditions
         Objects.requireNonNull(order, "Order must not be null!");
+        checkAcceptingOrders( order, submitType );
 
-        if ( state == OrderbookState.CLOSED ) {
-            String msg = String.format("Cannot accept orders while the orderbook is closed! SubmitType=%s, order=%s",
-                    submitType, order.toString());
-            throw new OrderbookException( msg );
-        }
+        Optional<ErrorCode> error = validate( order, submitType );
+        if ( error.isPresent() ) return rejectInvalid( order, submitType, error.get() );
+        journal.onSubmit( order, submitType );
 
-        final Match match;
-        if ( submitType == NEW ) {
-            match = match(order);
-
-        } else if ( submitType == MODIFY ) {
-            cancel(order);
-            match = match(order);
+        return process( order, submitType );
+    }
 
-        } else if ( submitType == CANCEL ) {
-            cancel(order);
-            match = Match.NO_MATCH;
+    /**
+     * Submit a batch of orders with one call. The state of the book is checked once for the whole batch, the orders
+     * and their submit types are checked before the first one is processed, so a batch is either refused as a whole or
+     * processed. The batch stops after the first match causing a volatility interruption, as the book must not accept
+     * further orders until the interruption is dealt with.
+     *
+     * @param orders to be processed in the given sequence
+     * @param submitTypes request type of the order with the same index
+     * @param length number of orders to process starting at index 0
+     * @param sink receives the match of every processed order, it might be reused after the sink returns
+     * @return number of processed orders
+     */
+    public int submit( Order[] orders, SubmitType[] submitTypes, int length, MatchSink sink ) {
+        // pre conditions
+        Objects.requireNonNull(sink, "Sink must not be null!");
+        if ( length < 0 || length > orders.length || length > submitTypes.length ) {
+            throw new OrderbookException("Batch length " + length + " exceeds orders=" + orders.length +
+                                         " or submitTypes=" + submitTypes.length);
+        }
+        if ( length == 0 ) return 0;
+        checkAcceptingBatch( length );
+        for ( int i = 0; i < length; i++ ) {
+            Objects.requireNonNull( orders[i], "Order must not be null!" );
+            if ( submitTypes[i] == null ) {
+                throw new OrderbookException("Invalid submit type " + submitTypes[i] + " for " + orders[i]);
+            }
+        }
 
-        } else {
-            throw new OrderbookException("Invalid submit type " + submitType + " for " + order );
+        int processed = 0;
+        boolean volatilityInterrupted = false;
+        while ( processed < length && !volatilityInterrupted ) {
+            Order order = orders[processed];
+            SubmitType submitType = submitTypes[processed];
+            Optional<ErrorCode> error = validate( order, submitType );
+            final Match match;
+            if ( error.isPresent() ) {
+                match = rejectInvalid( order, submitType, error.get() );
+            } else {
+                journal.onSubmit( order, submitType );
+                match = process( order, submitType );
+            }
+            sink.accept( processed++, match );
+            volatilityInterrupted = match.getVolatilityInterruption().isPresent();
         }
 
-        return match;
+        return processed;
     }
 
 
@@ -112,18 +160,65 @@ public class Orderbook {
 
     public void open() {
         state = OrderbookState.OPEN;
+        journal.onStateChange(state);
     }
 
     public void close() {
         state = OrderbookState.CLOSED;
+        journal.onStateChange(state);
     }
 
     public void closePartially() {
         state = OrderbookState.PARTIALLY_CLOSED;
+        journal.onStateChange(state);
+    }
+
+    /**
+     * @param journal to record all accepted orders and state changes from now on
+     */
+    public void setJournal( CommandJournal journal ) {
+        this.journal = Objects.requireNonNull(journal, "Journal must not be null!");
+    }
+
+    /**
+     * @param listener to be informed about changes of the visible qty of the limit order price levels of both sides
+     */
+    public void setPriceLevelListener( PriceLevelListener listener ) {
+        Objects.requireNonNull(listener, "Listener must not be null!");
+        buySide.getPriceLevels().ifPresent( levels -> levels.setListener(listener) );
+        sellSide.getPriceLevels().ifPresent( levels -> levels.setListener(listener) );
+    }
+
+    /**
+     * Write a report per side for every processed request from now on. The buffer is cleared at the begin of every
+     * request, so it holds the reports of the last processed request only.
+     *
+     * @param executionReports to write the reports to or null to stop reporting
+     */
+    public void setExecutionReports( ExecutionReportBuffer executionReports ) {
+        this.executionReports = executionReports;
+    }
+
+    public Optional<ExecutionReportBuffer> getExecutionReports() { return Optional.ofNullable(executionReports); }
+
+    /**
+     * Validate every new and modified order before it is journaled and matched. Invalid orders are rejected, do not
+     * change the book and are not journaled, so a replayed journal contains valid orders only. Date related checks
+     * refer to the timestamp of the order, so a replayed order passes them as it did when it was submitted.
+     *
+     * @param newOrderValidators to check the orders with or null to stop validating
+     */
+    public void setNewOrderValidators( NewOrderValidators newOrderValidators ) {
+        this.newOrderValidators = newOrderValidators;
     }
 
     public OrderbookState getState() { return state; }
 
+    /**
+     * @return IDs of the orders in this book
+     */
+    public OrderIds getOrderIds() { return orderIds; }
+
     public OrderbookSide getBuySide() { return getBuySide(false); }
     public OrderbookSide getBuySideMidpoint() { return getBuySide(true); }
 
@@ -135,14 +230,227 @@ public class Orderbook {
     // internal operations
     //------------------------------------------------------------------------------------------------------------------
 
-    private void cancel(Order order) { sameSide(order.getSide(), order.isMidpoint()).cancel(order); }
+    private void checkAcceptingOrders( Order order, SubmitType submitType ) {
+        if ( state == OrderbookState.CLOSED ) {
+            String msg = String.format("Cannot accept orders while the orderbook is closed! SubmitType=%s, order=%s",
+                    submitType, order.toString());
+            throw new OrderbookException( msg );
+        }
+    }
+
+    private void checkAcceptingBatch( int length ) {
+        if ( state == OrderbookState.CLOSED ) {
+            throw new OrderbookException("Cannot accept a batch of " + length + " orders while the orderbook is closed!");
+        }
+    }
+
+    private Match process( Order order, SubmitType submitType ) {
+        if ( executionReports != null ) executionReports.clear();
+
+        final Match match;
+        if ( submitType == NEW ) {
+            order.setOrderID( orderIds.next() );
+            int cumQty = order.getCumQty();
+            match = match(order);
+            reportMatch( ExecutionReportType.NEW_ACK, order, cumQty, match );
+
+        } else if ( submitType == MODIFY ) {
+            resolveOrderID(order);
+            OrderbookSide side = sameSide(order.getSide(), order.isMidpoint());
+            if ( order.getOrderID() == Order.NO_ORDER_ID ) {
+                match = rejectUnknown(order);
+            } else if ( side.reduceInPlace(order) ) {
+                match = new Match(order, Collections.emptyList(), Match.State.ACCEPT, Optional.empty());
+                if ( executionReports != null ) reportReducedInPlace( order, side );
+            } else if ( !cancel(order).isPresent() ) {
+                // executed or cancelled meanwhile, a modification must not enter the book as a new order
+                match = rejectUnknown(order);
+            } else {
+                int cumQty = order.getCumQty();
+                match = match(order);
+                reportMatch( ExecutionReportType.REPLACE_ACK, order, cumQty, match );
+            }
+
+        } else if ( submitType == CANCEL ) {
+            resolveOrderID(order);
+            Optional<Order> cancelled = order.getOrderID() != Order.NO_ORDER_ID ? cancel(order) : Optional.empty();
+            match = Match.NO_MATCH;
+            if ( executionReports != null ) reportCancel( order, cancelled );
+
+        } else {
+            throw new OrderbookException("Invalid submit type " + submitType + " for " + order );
+        }
+
+        return match;
+    }
+
+    private Match rejectUnknown( Order order ) {
+        ErrorCode error = new ErrorCode( ErrorCode.Type.REJECT, order, "Unknown order", RejectReason.UNKNOWN_ORDER );
+        Match match = reject( order, error );
+        reportMatch( ExecutionReportType.REPLACE_ACK, order, order.getCumQty(), match );
+        return match;
+    }
+
+    /**
+     * Requests referring to a resting order by its clientOrderID only are mapped to the orderID once at the entry.
+     */
+    private void resolveOrderID( Order order ) {
+        if ( order.getOrderID() == Order.NO_ORDER_ID ) {
+            order.setOrderID( orderIds.resolve(order.getClientOrderID()) );
+        }
+    }
+
+    private Optional<ErrorCode> validate( Order order, SubmitType submitType ) {
+        boolean validated = newOrderValidators != null && (submitType == NEW || submitType == MODIFY);
+        return validated ? newOrderValidators.validate(order) : Optional.empty();
+    }
+
+    /**
+     * A rejected order never enters the book, so a new one gets no orderID and a modified resting order stays
+     * untouched. Not consuming an orderID keeps the IDs of a replayed journal the same.
+     */
+    private Match rejectInvalid( Order order, SubmitType submitType, ErrorCode error ) {
+        if ( executionReports != null ) executionReports.clear();
+        if ( submitType == MODIFY ) resolveOrderID(order);
+        Match match = reject( order, error );
+        reportMatch( submitType == NEW ? ExecutionReportType.NEW_ACK : ExecutionReportType.REPLACE_ACK, order,
+                     order.getCumQty(), match );
+        return match;
+    }
+
+    /**
+     * @return match rejecting the order in the same way as the match engine does
+     */
+    private static Match reject( Order order, ErrorCode error ) {
+        final Order buy = order.getSide() == Side.BUY ? order : null;
+        final Order sell = order.getSide() == Side.SELL ? order : null;
+        String reason = error.rejectReason.map(RejectReason::getMsg).orElse(error.hint);
+        Trade trade = Trade.of().setBuy(buy).setSell(sell).setExecType(ExecType.REJECTED).setOrderRejectReason(reason);
+        return new Match(order, Collections.singletonList(trade), Match.State.REJECT, Optional.empty());
+    }
+
+    private Optional<Order> cancel(Order order) { return sameSide(order.getSide(), order.isMidpoint()).cancel(order); }
 
     private Match match(Order order) {
         Side incomingSide = order.getSide();
         OrderbookSide thisSide = sameSide(incomingSide, order.isMidpoint());
         OrderbookSide otherSide = oppositeSide(incomingSide, order.isMidpoint());
 
-        return matchEngine.match(order, otherSide, thisSide);
+        Match match = matchEngine.match(order, otherSide, thisSide);
+        releaseExecuted( match );
+        return match;
+    }
+
+    /**
+     * Orders executed completely left the book, so their clientOrderID is free again. Besides the resting orders this
+     * covers triggered stop orders and the incoming order if it was hit by one of them. The match engine reports them
+     * by orderID, so nothing but these orders is looked at.
+     */
+    private void releaseExecuted( Match match ) {
+        for ( int i = 0; i < match.getRemovedOrderCount(); i++ ) {
+            orderIds.release( match.getRemovedOrderID(i) );
+        }
+    }
+
+    /**
+     * Acknowledge the incoming order and report every trade to both sides. The incoming order is reported with the
+     * quantities right after each trade. For the resting order the state after the trade is taken from its
+     * {@link Fill} or copy, if the match engine reuses its trades it is the state after the whole match. The open qty
+     * of an IOC or FOK order is reported as expired.
+     *
+     * @param cumQty of the incoming order before it was matched
+     */
+    private void reportMatch( ExecutionReportType ackType, Order incoming, int cumQty, Match match ) {
+        if ( executionReports == null ) return;
+
+        List<Trade> trades = match.getTrades();
+        if ( match.getState() == Match.State.REJECT ) {
+            String reason = trades.isEmpty() ? null : trades.get(0).getOrderRejectReason();
+            executionReports.add( ExecutionReportType.REJECT, incoming ).setLeavesQty(0).setText(reason);
+            return;
+        }
+
+        executionReports.add( ackType, incoming ).setCumQty(cumQty).setLeavesQty(incoming.getOrderQty() - cumQty);
+        boolean incomingIsBuy = incoming.getSide() == Side.BUY;
+        for ( int i = 0; i < trades.size(); i++ ) {
+            Trade trade = trades.get(i);
+            if ( trade.getExecType() != ExecType.TRADE ) continue;
+
+            Fill incomingFill = incomingIsBuy ? trade.getBuyFill() : trade.getSellFill();
+            Order tradedIncoming = incomingIsBuy ? trade.getBuy() : trade.getSell();
+            long tradedIncomingID = incomingFill != null ? incomingFill.getOrderID() : tradedIncoming.getOrderID();
+            if ( tradedIncomingID != incoming.getOrderID() ) {
+                reportTriggered( trade );
+                continue;
+            }
+
+            int executionQty = trade.getExecutionQty();
+            cumQty += executionQty;
+            Fill restingFill = incomingIsBuy ? trade.getSellFill() : trade.getBuyFill();
+            Order resting = incomingIsBuy ? trade.getSell() : trade.getBuy();
+            long restingOrderID = restingFill != null ? restingFill.getOrderID() : resting.getOrderID();
+
+            int leavesQty = incoming.getOrderQty() - cumQty;
+            executionReports.add( leavesQty == 0 ? ExecutionReportType.FILL : ExecutionReportType.PARTIAL_FILL, incoming )
+                    .setLastQty(executionQty).setLastPriceTicks(trade.getPriceTicks())
+                    .setCumQty(cumQty).setLeavesQty(leavesQty)
+                    .setContraOrderID(restingOrderID).setTransactTimeNanos(trade.getExecutionTimeNanos());
+
+            int restingLeavesQty = restingFill != null ? restingFill.getLeavesQty() : resting.getLeavesQty();
+            ExecutionReportType restingType = restingLeavesQty == 0 ? ExecutionReportType.FILL : ExecutionReportType.PARTIAL_FILL;
+            (restingFill != null ? executionReports.add(restingType, restingFill) : executionReports.add(restingType, resting))
+                    .setLastQty(executionQty).setLastPriceTicks(trade.getPriceTicks())
+                    .setContraOrderID(incoming.getOrderID()).setTransactTimeNanos(trade.getExecutionTimeNanos());
+        }
+
+        int leavesQty = incoming.getOrderQty() - cumQty;
+        boolean expired = leavesQty > 0 && !incoming.getOrderType().isStop() &&
+                          incoming.getTimeInForce() != null && incoming.getTimeInForce().isImmediate();
+        if ( expired ) {
+            executionReports.add( ExecutionReportType.EXPIRED, incoming ).setCumQty(cumQty).setLeavesQty(0);
+        }
+    }
+
+    /**
+     * Report both sides of a trade of a stop order triggered by the incoming order. Their state is taken from the
+     * {@link Fill} or copy in the trade, like for resting orders.
+     */
+    private void reportTriggered( Trade trade ) {
+        Fill buyFill = trade.getBuyFill();
+        Fill sellFill = trade.getSellFill();
+        long buyOrderID = buyFill != null ? buyFill.getOrderID() : trade.getBuy().getOrderID();
+        long sellOrderID = sellFill != null ? sellFill.getOrderID() : trade.getSell().getOrderID();
+
+        int buyLeavesQty = buyFill != null ? buyFill.getLeavesQty() : trade.getBuy().getLeavesQty();
+        ExecutionReportType buyType = buyLeavesQty == 0 ? ExecutionReportType.FILL : ExecutionReportType.PARTIAL_FILL;
+        (buyFill != null ? executionReports.add(buyType, buyFill) : executionReports.add(buyType, trade.getBuy()))
+                .setLastQty(trade.getExecutionQty()).setLastPriceTicks(trade.getPriceTicks())
+                .setContraOrderID(sellOrderID).setTransactTimeNanos(trade.getExecutionTimeNanos());
+
+        int sellLeavesQty = sellFill != null ? sellFill.getLeavesQty() : trade.getSell().getLeavesQty();
+        ExecutionReportType sellType = sellLeavesQty == 0 ? ExecutionReportType.FILL : ExecutionReportType.PARTIAL_FILL;
+        (sellFill != null ? executionReports.add(sellType, sellFill) : executionReports.add(sellType, trade.getSell()))
+                .setLastQty(trade.getExecutionQty()).setLastPriceTicks(trade.getPriceTicks())
+                .setContraOrderID(buyOrderID).setTransactTimeNanos(trade.getExecutionTimeNanos());
+    }
+
+    private void reportReducedInPlace( Order request, OrderbookSide side ) {
+        Order resting = side.getPriceLevels().map( levels -> levels.get(request.getOrderID()) ).orElse(null);
+        if ( resting != null ) {
+            executionReports.add( ExecutionReportType.REPLACE_ACK, resting );
+        } else {
+            // reduced to the executed qty and therefore removed from the book
+            executionReports.add( ExecutionReportType.REPLACE_ACK, request ).setLeavesQty(0);
+        }
+    }
+
+    private void reportCancel( Order request, Optional<Order> cancelled ) {
+        if ( cancelled.isPresent() ) {
+            executionReports.add( ExecutionReportType.CANCEL_ACK, cancelled.get() ).setLeavesQty(0);
+        } else {
+            executionReports.add( ExecutionReportType.CANCEL_REJECT, request ).setLeavesQty(0)
+                            .setText(RejectReason.UNKNOWN_ORDER.getMsg());
+        }
     }
 
     private OrderbookSide oppositeSide(Side incomingSide, boolean isMidpoint) {
@@ -23,22 +23,77 @@ public class OrderbookSide {
     private final Comparator<Order> priceTimeOrdering;
     private final Side side;
 
+    /** set if limit orders are kept in price levels, gives O(1) access by orderID */
+    private final PriceLevelQueue priceLevels;
+
+    /** set if this side keeps midpoint orders, gives O(log n) access by orderID */
+    private final MidpointQueue midpointOrders;
+
+    /** stop and stop-limit orders waiting to be triggered, they are no liquidity of this side */
+    private final StopOrderQueue stopOrders;
+
+    /** shared by all sides of a book */
+    private final OrderIds orderIds;
+
     //-----------------------------------------------------------------------------------------------
     // constructors
     //-----------------------------------------------------------------------------------------------
 
     public OrderbookSide( Side side, Comparator<Order> limitOrdering ) {
-        this( side, limitOrdering, null );
+        this( side, limitOrdering, new OrderIds() );
+    }
+
+    /**
+     * @param orderIds of the book this side belongs to
+     */
+    public OrderbookSide( Side side, Comparator<Order> limitOrdering, OrderIds orderIds ) {
+        this( side, new PriorityQueue<>(limitOrdering), limitOrdering, null, orderIds );
     }
 
     public OrderbookSide( Side side, Comparator<Order> limitOrdering, Comparator<Order> strikeMatchOrdering ) {
+        this( side, new PriorityQueue<>(limitOrdering), limitOrdering, strikeMatchOrdering, new OrderIds() );
+    }
+
+    /**
+     * Keep the limit orders in a ladder of price levels instead of a single heap.
+     *
+     * @param limitOrders price level structure for the limit orders of this side
+     * @param strikeMatchOrdering ordering of the strike match orders
+     */
+    public OrderbookSide( Side side, PriceLevelQueue limitOrders, Comparator<Order> strikeMatchOrdering ) {
+        this( side, limitOrders, strikeMatchOrdering, new OrderIds() );
+    }
+
+    /**
+     * @param orderIds of the book this side belongs to
+     */
+    public OrderbookSide( Side side, PriceLevelQueue limitOrders, Comparator<Order> strikeMatchOrdering,
+                          OrderIds orderIds ) {
+        this( side, limitOrders, limitOrders.comparator(), strikeMatchOrdering, orderIds );
+    }
+
+    /**
+     * Side of the midpoint book, limit orders are kept in volume-time priority.
+     *
+     * @param orderIds of the book this side belongs to
+     */
+    public OrderbookSide( Side side, MidpointQueue limitOrders, OrderIds orderIds ) {
+        this( side, limitOrders, limitOrders.comparator(), null, orderIds );
+    }
+
+    private OrderbookSide( Side side, Queue<Order> limitOrders, Comparator<Order> limitOrdering,
+                           Comparator<Order> strikeMatchOrdering, OrderIds orderIds ) {
         this.side = side;
+        this.orderIds = orderIds;
         this.priceTimeOrdering = limitOrdering;
+        this.priceLevels = limitOrders instanceof PriceLevelQueue ? (PriceLevelQueue) limitOrders : null;
+        this.midpointOrders = limitOrders instanceof MidpointQueue ? (MidpointQueue) limitOrders : null;
+        this.stopOrders = new StopOrderQueue(side);
         Comparator<Order> marketComparator = Priorities.TIME.thenComparing(Priorities.SUBMIT_SEQUENCE);
 
         ordersByType.put(OrderType.STRIKE_MATCH, new PriorityQueue<>(strikeMatchOrdering));
         ordersByType.put(OrderType.MARKET, new PriorityQueue<>(marketComparator) );
-        ordersByType.put(OrderType.LIMIT, new PriorityQueue<>(priceTimeOrdering) );
+        ordersByType.put(OrderType.LIMIT, limitOrders );
     }
 
 
@@ -46,10 +101,14 @@ public class OrderbookSide {
     // public API
     //-----------------------------------------------------------------------------------------------
 
+    /**
+     * Put the order into the book. An order not yet carrying an orderID gets one.
+     */
     public void add( Order order ) {
         OrderType orderType = order.getOrderType();
-        Queue<Order> orders = ordersByType.get(orderType);
+        Queue<Order> orders = orderType.isStop() ? stopOrders : ordersByType.get(orderType);
         if ( orders != null ) {
+            orderIds.register( order );
             orders.offer( order );
         } else {
             String msg = "OrderType '" + order.getOrderType() + "' not considered for orderBook addition!";
@@ -57,29 +116,122 @@ public class OrderbookSide {
         }
     }
 
-    public void cancel( Order order ) {
+    /**
+     * Remove the resting order with the same orderID. Limit orders kept in price levels or the midpoint book are found
+     * by their orderID, all other orders need a scan of the orders with the same order type.
+     *
+     * @param order carrying the orderID of the order to remove, if it has none it is looked up by its clientOrderID
+     * @return the removed order if it was found in the book
+     */
+    public Optional<Order> cancel( Order order ) {
+        long orderID = resolveOrderID(order);
+        if ( orderID == Order.NO_ORDER_ID ) return Optional.empty();
+
+        Order removed = priceLevels != null ? priceLevels.remove(orderID) :
+                        midpointOrders != null ? midpointOrders.remove(orderID) : null;
+        if ( removed == null ) removed = stopOrders.remove(orderID);
         Queue<Order> orders = ordersByType.get(order.getOrderType());
-        orders.removeIf( o -> o.getClientOrderID().equals(order.getClientOrderID()) );
+        if ( removed == null && orders != null ) {
+            Iterator<Order> iter = orders.iterator();
+            while ( removed == null && iter.hasNext() ) {
+                Order resting = iter.next();
+                if ( resting.getOrderID() == orderID ) {
+                    iter.remove();
+                    removed = resting;
+                }
+            }
+        }
+
+        if ( removed != null ) orderIds.release(removed);
+        return Optional.ofNullable(removed);
     }
 
+    /**
+     * Reduce the qty of a resting limit order in place, so it keeps its time priority. This is only possible if
+     * nothing but the qty is lowered and the order is not an iceberg.
+     *
+     * @param order modification request with the new total qty
+     * @return true ... the resting order was found and reduced, false ... modification needs cancel and re-entry
+     */
+    public boolean reduceInPlace( Order order ) {
+        long orderID = resolveOrderID(order);
+        Order resting = priceLevels != null ? priceLevels.get(orderID) : null;
+        boolean onlyQtyReduced = resting != null &&
+                order.getOrderType() == OrderType.LIMIT &&
+                !resting.isIceberg() && !order.isIceberg() &&
+                resting.isHidden() == order.isHidden() &&
+                resting.getPriceTicks() == order.getPriceTicks() &&
+                order.getOrderQty() < resting.getOrderQty();
+
+        if ( onlyQtyReduced ) {
+            priceLevels.reduceOrderQty(orderID, order.getOrderQty());
+            if ( resting.getLeavesQty() == 0 ) orderIds.release(resting);
+        }
+
+        return onlyQtyReduced;
+    }
 
+    /**
+     * @return all orders representing liquidity of this side, stop orders not yet triggered are not included
+     */
     public Collection<Order> getOrders() {
         return unmodifiableCollection(ordersByType.values().stream().flatMap(Collection::stream).collect(toList()));
     }
 
     /**
-     * Orders to consider if price needs to be derived. Hidden orders are ignored!
+     * Orders to consider if price needs to be derived. Hidden orders are ignored! Limit orders kept in price levels
+     * are already in priority sequence and only need to be collected, otherwise they are sorted.
      *
      * @return orders where best is on top of the book
      */
     public List<Order> getBest() {
-        List<Order> sortedOrders = new ArrayList<>(
-                ordersByType.get(OrderType.LIMIT).stream().filter(o -> !o.isHidden()).collect(toList())
-        );
-        Collections.sort( sortedOrders, this.priceTimeOrdering );
+        final List<Order> sortedOrders;
+        if ( priceLevels != null ) {
+            sortedOrders = new ArrayList<>(priceLevels.size());
+            priceLevels.visibleIterator().forEachRemaining(sortedOrders::add);
+
+        } else {
+            sortedOrders = new ArrayList<>(
+                    ordersByType.get(OrderType.LIMIT).stream().filter(o -> !o.isHidden()).collect(toList())
+            );
+            Collections.sort( sortedOrders, this.priceTimeOrdering );
+        }
         return Collections.unmodifiableList(sortedOrders);
     }
 
+    /**
+     * Same as the first element of {@link #getBest()} without collecting all orders. Price levels keep track of
+     * their best visible order, otherwise the top of the queue is taken unless it is hidden.
+     *
+     * @return visible limit order with the highest priority
+     */
+    public Optional<Order> getBestVisible() {
+        final Order best;
+        if ( priceLevels != null ) {
+            best = priceLevels.peekVisible();
+
+        } else {
+            Queue<Order> limitOrders = ordersByType.get(OrderType.LIMIT);
+            Order top = limitOrders.peek();
+            if ( top == null || !top.isHidden() ) {
+                best = top;
+            } else {
+                best = limitOrders.stream().filter(o -> !o.isHidden()).min(priceTimeOrdering).orElse(null);
+            }
+        }
+        return Optional.ofNullable(best);
+    }
+
+    /**
+     * @return the price levels of the limit orders if this side keeps them in levels
+     */
+    public Optional<PriceLevelQueue> getPriceLevels() { return Optional.ofNullable(priceLevels); }
+
+    /**
+     * @return the midpoint orders if this is a side of the midpoint book
+     */
+    public Optional<MidpointQueue> getMidpointOrders() { return Optional.ofNullable(midpointOrders); }
+
     public Queue<Order> getMarketOrders() {
         return ordersByType.get(OrderType.MARKET);
     }
@@ -88,12 +240,29 @@ public class OrderbookSide {
         return ordersByType.get(OrderType.LIMIT);
     }
 
+    public Queue<Order> getStrikeMatchOrders() {
+        return ordersByType.get(OrderType.STRIKE_MATCH);
+    }
+
+    /**
+     * @return stop and stop-limit orders waiting for their stop price to be reached
+     */
+    public StopOrderQueue getStopOrders() { return stopOrders; }
+
     public Side getSide() { return side; }
 
     /**
      * @return true ... there is open liquidity on the other side that might be used for matching
      */
     public boolean isLiquidityAvailable() {
-        return ordersByType.values().stream().flatMap(Collection::stream).findAny().isPresent();
+        for ( Queue<Order> orders : ordersByType.values() ) {
+            if ( !orders.isEmpty() ) return true;
+        }
+        return false;
+    }
+
+
+    private long resolveOrderID( Order order ) {
+        return order.getOrderID() != Order.NO_ORDER_ID ? order.getOrderID() : orderIds.resolve(order.getClientOrderID());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,126 @@
+package net.tinyexch.ob;
+
+import net.tinyexch.ob.price.Ticks;
+import net.tinyexch.order.Side;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Price levels of one side sorted with the best price first. Prices are kept in a primitive array searched binary, so
+ * neither looking up nor opening or closing a level boxes the price. Bids are stored with negated prices, so both
+ * sides are sorted ascending and the best level is always at index 0.
+ *
+ * Opening or closing a level shifts the worse levels by one, which is cheap as most activity happens close to the
+ * top of the book.
+ *
+ * This class is mutable and not thread safe!
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+final class PriceLadder {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final boolean bestIsHighest;
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private PriceLevel[] levels = new PriceLevel[INITIAL_CAPACITY];
+    private int size;
+
+    /** read only view, created once */
+    private final AbstractCollection<PriceLevel> values = new AbstractCollection<PriceLevel>() {
+        @Override
+        public Iterator<PriceLevel> iterator() {
+            return new Iterator<PriceLevel>() {
+                private int index;
+
+                @Override
+                public boolean hasNext() { return index < size; }
+
+                @Override
+                public PriceLevel next() {
+                    if ( index >= size ) throw new NoSuchElementException();
+                    return levels[index++];
+                }
+            };
+        }
+
+        @Override
+        public int size() { return size; }
+    };
+
+    //-----------------------------------------------------------------------------------------------
+    // constructors
+    //-----------------------------------------------------------------------------------------------
+
+    PriceLadder( Side side ) {
+        this.bestIsHighest = side == Side.BUY;
+    }
+
+    //-----------------------------------------------------------------------------------------------
+    // API used by the price level queue
+    //-----------------------------------------------------------------------------------------------
+
+    /**
+     * @return level with the best price or null if the ladder is empty
+     */
+    PriceLevel first() { return size > 0 ? levels[0] : null; }
+
+    /**
+     * @param price in {@link Ticks}
+     * @return best level at a worse price than the given one or null if there is none
+     */
+    PriceLevel after( long price ) {
+        int index = Arrays.binarySearch( keys, 0, size, key(price) );
+        int next = index >= 0 ? index + 1 : -index - 1;
+        return next < size ? levels[next] : null;
+    }
+
+    void add( PriceLevel level ) {
+        long key = key( level.getPriceTicks() );
+        int index = Arrays.binarySearch( keys, 0, size, key );
+        if ( index >= 0 ) throw new OrderbookException("Level for price is already in the ladder! " + level);
+
+        int insertAt = -index - 1;
+        if ( size == keys.length ) {
+            keys = Arrays.copyOf( keys, size * 2 );
+            levels = Arrays.copyOf( levels, size * 2 );
+        }
+        System.arraycopy( keys, insertAt, keys, insertAt + 1, size - insertAt );
+        System.arraycopy( levels, insertAt, levels, insertAt + 1, size - insertAt );
+        keys[insertAt] = key;
+        levels[insertAt] = level;
+        size++;
+    }
+
+    /**
+     * @return false ... no level with the price of the given one is in the ladder
+     */
+    boolean remove( PriceLevel level ) {
+        int index = Arrays.binarySearch( keys, 0, size, key(level.getPriceTicks()) );
+        if ( index < 0 ) return false;
+
+        int moved = size - index - 1;
+        System.arraycopy( keys, index + 1, keys, index, moved );
+        System.arraycopy( levels, index + 1, levels, index, moved );
+        levels[--size] = null;
+        return true;
+    }
+
+    void clear() {
+        Arrays.fill( levels, 0, size, null );
+        size = 0;
+    }
+
+    /**
+     * @return read only view of all levels with best price first, nothing is copied
+     */
+    Collection<PriceLevel> values() { return values; }
+
+
+    private long key( long price ) { return bestIsHighest ? -price : price; }
+}
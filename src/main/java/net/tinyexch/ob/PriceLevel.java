@@ -0,0 +1,223 @@
+package net.tinyexch.ob;
+
+import net.tinyexch.ob.match.Priorities;
+import net.tinyexch.ob.price.Ticks;
+import net.tinyexch.order.Order;
+
+import java.util.Comparator;
+
+/**
+ * All orders of one {@link net.tinyexch.ob.OrderbookSide} resting at the same limit price. Orders are kept in FIFO
+ * sequence, with visible orders always ahead of hidden orders. Running totals of the open quantities are maintained
+ * while orders enter and leave the level, so no order has to be touched to get the aggregated view of a price.
+ *
+ * This class is mutable and not thread safe!
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public final class PriceLevel {
+
+    /** Time priority within a level; price and hidden flag are already implied by the level and the list */
+    static final Comparator<Order> TIME_ORDERING = Priorities.TIME.thenComparing(Priorities.SUBMIT_SEQUENCE);
+
+    /** in {@link Ticks} */
+    private final long price;
+    private final EntryList visible = new EntryList();
+    private final EntryList hidden = new EntryList();
+
+    /** open qty of all none-hidden orders, for icebergs only the currently displayed slice */
+    private int visibleQty;
+
+    /** open qty of all hidden orders */
+    private int hiddenQty;
+
+    /** qty of all icebergs not yet exposed to the market */
+    private int icebergQty;
+
+    //-----------------------------------------------------------------------------------------------
+    // constructors
+    //-----------------------------------------------------------------------------------------------
+
+    PriceLevel( long price ) {
+        this.price = price;
+    }
+
+    //-----------------------------------------------------------------------------------------------
+    // public API
+    //-----------------------------------------------------------------------------------------------
+
+    public double getPrice() { return Ticks.toPrice(price); }
+
+    public long getPriceTicks() { return price; }
+
+    public int getVisibleQty() { return visibleQty; }
+
+    public int getHiddenQty() { return hiddenQty; }
+
+    public int getIcebergQty() { return icebergQty; }
+
+    /**
+     * @return qty that could be executed against this level including all iceberg slices still to come
+     */
+    public int getTotalQty() { return visibleQty + hiddenQty + icebergQty; }
+
+    public int getOrderCount() { return visible.size + hidden.size; }
+
+    /**
+     * @return number of orders not flagged as hidden, icebergs included
+     */
+    public int getVisibleOrderCount() { return visible.size; }
+
+    public boolean isEmpty() { return getOrderCount() == 0; }
+
+    /**
+     * @return order with highest time priority on this level
+     */
+    public Order peek() {
+        Entry head = head();
+        return head != null ? head.order : null;
+    }
+
+    /**
+     * @return visible order with highest time priority on this level or null if only hidden orders rest here
+     */
+    public Order peekVisible() {
+        return visible.head != null ? visible.head.order : null;
+    }
+
+    @Override
+    public String toString() {
+        return "PriceLevel{" +
+                "price=" + price +
+                ", orderCount=" + getOrderCount() +
+                ", visibleQty=" + visibleQty +
+                ", hiddenQty=" + hiddenQty +
+                ", icebergQty=" + icebergQty +
+                '}';
+    }
+
+    //-----------------------------------------------------------------------------------------------
+    // internal operations used by the price level queue
+    //-----------------------------------------------------------------------------------------------
+
+    Entry head() { return visible.head != null ? visible.head : hidden.head; }
+
+    Entry visibleHead() { return visible.head; }
+
+    /**
+     * Place the order according to time priority. Orders usually arrive in time sequence so searching the insert
+     * position from the tail makes this an amortized O(1) operation.
+     */
+    Entry add( Order order ) {
+        Entry entry = new Entry(this, order);
+        (entry.hidden ? hidden : visible).insert(entry);
+        account(entry, 1);
+        return entry;
+    }
+
+    void remove( Entry entry ) {
+        (entry.hidden ? hidden : visible).unlink(entry);
+        account(entry, -1);
+    }
+
+    /**
+     * Reduce the quantity of a resting order without touching its time priority.
+     *
+     * @param entry of the resting order
+     * @param orderQty new total quantity, must be less than the current one and greater than the executed qty
+     */
+    void reduceOrderQty( Entry entry, int orderQty ) {
+        entry.order.setOrderQty(orderQty);
+        refresh(entry);
+    }
+
+    /**
+     * Re-read the open quantities of an order after it was changed in place.
+     */
+    void refresh( Entry entry ) {
+        account(entry, -1);
+        entry.leavesQty = entry.order.getLeavesQty();
+        entry.icebergQty = entry.order.isIceberg() ? entry.order.getHiddenQty() : 0;
+        account(entry, 1);
+    }
+
+    /**
+     * Move the entry to its place in time priority if the timestamp of its order changed in place.
+     */
+    void reposition( Entry entry ) {
+        boolean outOfOrder = entry.next != null && TIME_ORDERING.compare(entry.order, entry.next.order) > 0;
+        if ( outOfOrder ) {
+            EntryList list = entry.hidden ? hidden : visible;
+            list.unlink(entry);
+            list.insert(entry);
+        }
+    }
+
+    /**
+     * Totals are maintained from the quantities recorded in the entry, so changes applied to the order itself
+     * cannot corrupt them until the entry is refreshed.
+     */
+    private void account( Entry entry, int sign ) {
+        if ( entry.hidden ) {
+            hiddenQty += sign * entry.leavesQty;
+        } else {
+            visibleQty += sign * entry.leavesQty;
+        }
+        icebergQty += sign * entry.icebergQty;
+    }
+
+    //-----------------------------------------------------------------------------------------------
+    // intrusive doubly linked list so entries can be unlinked without searching them
+    //-----------------------------------------------------------------------------------------------
+
+    static final class Entry {
+        final PriceLevel level;
+        final Order order;
+        final boolean hidden;
+        int leavesQty;
+        int icebergQty;
+        Entry prev;
+        Entry next;
+
+        Entry( PriceLevel level, Order order ) {
+            this.level = level;
+            this.order = order;
+            this.hidden = order.isHidden();
+            this.leavesQty = order.getLeavesQty();
+            this.icebergQty = order.isIceberg() ? order.getHiddenQty() : 0;
+        }
+
+        /** @return next entry in priority sequence on the same level */
+        Entry successor() {
+            return next == null && !hidden ? level.hidden.head : next;
+        }
+    }
+
+    private static final class EntryList {
+        Entry head;
+        Entry tail;
+        int size;
+
+        void insert( Entry entry ) {
+            Entry before = tail;
+            while ( before != null && TIME_ORDERING.compare(entry.order, before.order) < 0 ) {
+                before = before.prev;
+            }
+
+            entry.prev = before;
+            entry.next = before != null ? before.next : head;
+            if ( entry.next != null ) entry.next.prev = entry; else tail = entry;
+            if ( before != null ) before.next = entry; else head = entry;
+            size++;
+        }
+
+        void unlink( Entry entry ) {
+            if ( entry.prev != null ) entry.prev.next = entry.next; else head = entry.next;
+            if ( entry.next != null ) entry.next.prev = entry.prev; else tail = entry.prev;
+            entry.prev = null;
+            entry.next = null;
+            size--;
+        }
+    }
+}
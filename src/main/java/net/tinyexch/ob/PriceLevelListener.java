@@ -0,0 +1,31 @@
+package net.tinyexch.ob;
+
+/**
+ * Informed by a {@link PriceLevelQueue} whenever the visible part of one of its levels changed. This allows to derive
+ * an aggregated view of the book, e.g. market data, from the mutations themselves instead of comparing copies of
+ * the book.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public interface PriceLevelListener {
+
+    PriceLevelListener NO_OP = new PriceLevelListener() {
+        @Override public void onLevelChanged( PriceLevelQueue queue, PriceLevel level ) {}
+        @Override public void onCleared( PriceLevelQueue queue ) {}
+    };
+
+    /**
+     * Called after a visible order entered, left or changed its open qty on the level. The level might be empty by
+     * now or hold hidden orders only.
+     *
+     * @param queue the level belongs to
+     * @param level with the totals already updated
+     */
+    void onLevelChanged( PriceLevelQueue queue, PriceLevel level );
+
+    /**
+     * Called after all levels of the queue were dropped at once.
+     */
+    void onCleared( PriceLevelQueue queue );
+}
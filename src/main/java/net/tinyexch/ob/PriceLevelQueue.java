@@ -0,0 +1,381 @@
+package net.tinyexch.ob;
+
+import net.tinyexch.ob.PriceLevel.Entry;
+import net.tinyexch.ob.match.MatchEngine;
+import net.tinyexch.ob.match.Priorities;
+import net.tinyexch.ob.price.Ticks;
+import net.tinyexch.order.Order;
+import net.tinyexch.order.OrderType;
+import net.tinyexch.order.Side;
+
+import java.util.*;
+
+/**
+ * Limit orders of one orderbook side organized as a ladder of {@link PriceLevel}s with the best price first. It
+ * yields the same sequence as a {@link PriorityQueue} ordered by price/time priority but avoids comparing orders
+ * against each other:
+ * <ul>
+ *     <li>peek at the top of the book is O(1) as the best level is cached</li>
+ *     <li>adding to an already existing level is amortized O(1)</li>
+ *     <li>opening or closing a price level searches a sorted primitive price array in O(log n) with n being the
+ *     number of distinct prices and shifts the worse levels, no price is boxed</li>
+ * </ul>
+ * The iterator walks the orders in priority sequence. Every resting order is indexed by its
+ * {@link Order#getOrderID()} so it can be cancelled or reduced in O(1) without searching the book.
+ *
+ * Levels with at least one visible order are tracked separately while orders enter and leave, so the best visible
+ * order is available in O(1) even if the top of the book holds hidden orders only.
+ *
+ * A {@link PriceLevelListener} is told about every change of the visible quantity of a level.
+ *
+ * This class is mutable and not thread safe!
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public class PriceLevelQueue extends AbstractQueue<Order> {
+
+    private final Side side;
+    private final Comparator<Order> priceTimeOrdering;
+
+    /** all levels sorted with best price first */
+    private final PriceLadder levels;
+
+    /** shortcut to existing levels so adding to a known price doesn't need to search the ladder */
+    private final LongObjectHashMap<PriceLevel> levelsByPrice = new LongObjectHashMap<>();
+
+    /** location of every resting order */
+    private final LongObjectHashMap<Entry> entriesByOrderID = new LongObjectHashMap<>();
+
+    /** levels with at least one none-hidden order, best price first */
+    private final PriceLadder visibleLevels;
+
+    private PriceLevel best;
+    private PriceLevel bestVisible;
+    private PriceLevelListener listener = PriceLevelListener.NO_OP;
+    private int size;
+    private int modCount;
+
+    //-----------------------------------------------------------------------------------------------
+    // constructors
+    //-----------------------------------------------------------------------------------------------
+
+    public PriceLevelQueue( Side side ) {
+        this.side = side;
+        this.levels = new PriceLadder( side );
+        this.visibleLevels = new PriceLadder( side );
+        Comparator<Order> priceTime = side == Side.BUY ? MatchEngine.BUY_PRICE_TIME_ORDERING : MatchEngine.SELL_PRICE_TIME_ORDERING;
+        this.priceTimeOrdering = priceTime.thenComparing(Priorities.SUBMIT_SEQUENCE);
+    }
+
+    //-----------------------------------------------------------------------------------------------
+    // queue API
+    //-----------------------------------------------------------------------------------------------
+
+    @Override
+    public boolean offer( Order order ) {
+        Objects.requireNonNull(order, "Order must not be null!");
+        if ( order.getOrderType() != OrderType.LIMIT ) {
+            throw new OrderbookException("Only LIMIT orders can be placed on a price level! " + order);
+        }
+
+        if ( order.getOrderID() == Order.NO_ORDER_ID ) {
+            throw new OrderbookException("Order without orderID cannot be placed on a price level! " + order);
+        }
+        if ( order.getPriceTicks() <= 0 ) {
+            throw new OrderbookException("Only orders with a positive limit can be placed on a price level! " + order);
+        }
+        if ( entriesByOrderID.containsKey(order.getOrderID()) ) {
+            throw new OrderbookException("Order with same orderID is already in the book! " + order);
+        }
+
+        PriceLevel level = levelsByPrice.get(order.getPriceTicks());
+        if ( level == null ) {
+            level = openLevel( order.getPriceTicks() );
+        }
+
+        entriesByOrderID.put(order.getOrderID(), level.add(order));
+        if ( !order.isHidden() && level.getVisibleOrderCount() == 1 ) {
+            openVisibleLevel(level);
+        }
+        size++;
+        modCount++;
+        if ( !order.isHidden() ) listener.onLevelChanged(this, level);
+        return true;
+    }
+
+    @Override
+    public Order poll() {
+        if ( best == null ) return null;
+
+        Entry head = best.head();
+        remove(head);
+        return head.order;
+    }
+
+    @Override
+    public Order peek() {
+        return best != null ? best.peek() : null;
+    }
+
+    @Override
+    public int size() { return size; }
+
+    @Override
+    public void clear() {
+        levels.clear();
+        levelsByPrice.clear();
+        visibleLevels.clear();
+        entriesByOrderID.clear();
+        best = null;
+        bestVisible = null;
+        size = 0;
+        modCount++;
+        listener.onCleared(this);
+    }
+
+    /**
+     * @return orders in price/time priority
+     */
+    @Override
+    public Iterator<Order> iterator() {
+        return new Iterator<Order>() {
+            private Entry next = best != null ? best.head() : null;
+            private Entry lastReturned;
+            private int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext() { return next != null; }
+
+            @Override
+            public Order next() {
+                if ( next == null ) throw new NoSuchElementException();
+                if ( expectedModCount != modCount ) throw new ConcurrentModificationException();
+
+                lastReturned = next;
+                next = next.successor();
+                if ( next == null ) {
+                    PriceLevel nextLevel = levels.after(lastReturned.level.getPriceTicks());
+                    next = nextLevel != null ? nextLevel.head() : null;
+                }
+                return lastReturned.order;
+            }
+
+            @Override
+            public void remove() {
+                if ( lastReturned == null ) throw new IllegalStateException();
+                if ( expectedModCount != modCount ) throw new ConcurrentModificationException();
+
+                PriceLevelQueue.this.remove(lastReturned);
+                lastReturned = null;
+                expectedModCount = modCount;
+            }
+        };
+    }
+
+    //-----------------------------------------------------------------------------------------------
+    // price level API
+    //-----------------------------------------------------------------------------------------------
+
+    /**
+     * @return the same ordering this queue yields its orders, comparable to {@link PriorityQueue#comparator()}
+     */
+    public Comparator<Order> comparator() { return priceTimeOrdering; }
+
+    /**
+     * @param listener to be informed about changes of the visible quantity of the levels
+     */
+    public void setListener( PriceLevelListener listener ) {
+        this.listener = Objects.requireNonNull(listener, "Listener must not be null!");
+    }
+
+    public Side getSide() { return side; }
+
+    /**
+     * @return level at the top of the book or null if there are no orders
+     */
+    public PriceLevel getBestLevel() { return best; }
+
+    /**
+     * @return level with the best price holding at least one visible order or null if there is none
+     */
+    public PriceLevel getBestVisibleLevel() { return bestVisible; }
+
+    /**
+     * @return visible order with the highest priority or null if there is none
+     */
+    public Order peekVisible() {
+        return bestVisible != null ? bestVisible.peekVisible() : null;
+    }
+
+    /**
+     * @return read only view of all levels with visible orders with best price first, nothing is copied
+     */
+    public Collection<PriceLevel> getVisibleLevels() { return visibleLevels.values(); }
+
+    /**
+     * @param price in {@link Ticks}
+     * @return best level with visible orders at a worse price than the given one or null if there is none
+     */
+    public PriceLevel getVisibleLevelAfter( long price ) { return visibleLevels.after(price); }
+
+    /**
+     * @return visible orders in price/time priority, walks the levels without copying them
+     */
+    public Iterator<Order> visibleIterator() {
+        return new Iterator<Order>() {
+            private Entry next = bestVisible != null ? bestVisible.visibleHead() : null;
+            private final int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext() { return next != null; }
+
+            @Override
+            public Order next() {
+                if ( next == null ) throw new NoSuchElementException();
+                if ( expectedModCount != modCount ) throw new ConcurrentModificationException();
+
+                Entry current = next;
+                next = current.next;
+                if ( next == null ) {
+                    PriceLevel nextLevel = visibleLevels.after(current.level.getPriceTicks());
+                    next = nextLevel != null ? nextLevel.visibleHead() : null;
+                }
+                return current.order;
+            }
+        };
+    }
+
+    /**
+     * @return level for the given price or null if no order rests at this price
+     */
+    public PriceLevel getLevel( double price ) { return getLevelAtTicks( Ticks.of(price) ); }
+
+    /**
+     * @param price in {@link Ticks}
+     * @return level for the given price or null if no order rests at this price
+     */
+    public PriceLevel getLevelAtTicks( long price ) { return price > 0 ? levelsByPrice.get(price) : null; }
+
+    /**
+     * @return read only view of all levels with best price first
+     */
+    public Collection<PriceLevel> getLevels() { return levels.values(); }
+
+    /**
+     * @return resting order with given ID or null if it is not in the book
+     */
+    public Order get( long orderID ) {
+        Entry entry = entriesByOrderID.get(orderID);
+        return entry != null ? entry.order : null;
+    }
+
+    /**
+     * Remove the order in O(1) by looking up its location in the index.
+     *
+     * @return the removed order or null if no order with given ID is in the book
+     */
+    public Order remove( long orderID ) {
+        Entry entry = entriesByOrderID.get(orderID);
+        if ( entry != null ) {
+            remove(entry);
+        }
+        return entry != null ? entry.order : null;
+    }
+
+    /**
+     * Reduce the total quantity of a resting order. The order keeps its position in the level, hence its time priority.
+     * If the new quantity is already executed the order is removed from the book.
+     *
+     * @param orderID of the resting order
+     * @param orderQty new total order quantity, must be less than current quantity
+     * @return the resting order after the reduction or null if there is no such order
+     */
+    public Order reduceOrderQty( long orderID, int orderQty ) {
+        Entry entry = entriesByOrderID.get(orderID);
+        if ( entry == null ) return null;
+
+        Order order = entry.order;
+        if ( orderQty >= order.getOrderQty() ) {
+            String msg = String.format("Qty can only be reduced in place! orderQty=%d newOrderQty=%d",
+                    order.getOrderQty(), orderQty);
+            throw new OrderbookException(msg);
+        }
+
+        if ( orderQty <= order.getCumQty() ) {
+            order.setOrderQty( order.getCumQty() );
+            remove(entry);
+        } else {
+            entry.level.reduceOrderQty(entry, orderQty);
+            modCount++;
+            if ( !entry.hidden ) listener.onLevelChanged(this, entry.level);
+        }
+
+        return order;
+    }
+
+    /**
+     * Account for an order which was partially executed in place. If it exposed a new iceberg slice it is moved
+     * behind the orders with an older timestamp on its level, a fully executed order is removed from the book.
+     *
+     * @param order resting order that was changed in place
+     * @return false ... the order is not in this queue
+     */
+    public boolean refresh( Order order ) {
+        Entry entry = entriesByOrderID.get(order.getOrderID());
+        if ( entry == null || entry.order != order ) return false;
+
+        if ( order.getLeavesQty() == 0 ) {
+            remove(entry);
+        } else {
+            entry.level.refresh(entry);
+            entry.level.reposition(entry);
+            modCount++;
+            if ( !entry.hidden ) listener.onLevelChanged(this, entry.level);
+        }
+        return true;
+    }
+
+    //-----------------------------------------------------------------------------------------------
+    // internal operations
+    //-----------------------------------------------------------------------------------------------
+
+    private PriceLevel openLevel( long price ) {
+        PriceLevel level = new PriceLevel(price);
+        levels.add(level);
+        levelsByPrice.put(price, level);
+        best = levels.first();
+        return level;
+    }
+
+    void remove( Entry entry ) {
+        PriceLevel level = entry.level;
+        level.remove(entry);
+        if ( !entry.hidden && level.getVisibleOrderCount() == 0 ) {
+            closeVisibleLevel(level);
+        }
+        entriesByOrderID.remove(entry.order.getOrderID());
+        size--;
+        modCount++;
+        if ( level.isEmpty() ) {
+            closeLevel(level);
+        }
+        if ( !entry.hidden ) listener.onLevelChanged(this, level);
+    }
+
+    private void openVisibleLevel( PriceLevel level ) {
+        visibleLevels.add(level);
+        bestVisible = visibleLevels.first();
+    }
+
+    private void closeVisibleLevel( PriceLevel level ) {
+        visibleLevels.remove(level);
+        bestVisible = visibleLevels.first();
+    }
+
+    private void closeLevel( PriceLevel level ) {
+        levels.remove(level);
+        levelsByPrice.remove(level.getPriceTicks());
+        best = levels.first();
+    }
+}
@@ -10,7 +10,9 @@ public enum RejectReason {
     MIN_SIZE("Insufficient order size!"),
     GTD("Good til date is not within now - T+n"),
     ORDER_TYPE("The allowed order type is dependent on the trading model and market!"),
-    INSUFFICIENT_OB_CONSTELLATION("The current market situation does not allow the order to be accepted!");
+    TICK_SIZE("Limit and stop prices must be a multiple of the tick size of the instrument!"),
+    INSUFFICIENT_OB_CONSTELLATION("The current market situation does not allow the order to be accepted!"),
+    UNKNOWN_ORDER("Order is not in the book!");
 
     private final String msg;
 
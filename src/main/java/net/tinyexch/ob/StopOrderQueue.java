@@ -0,0 +1,185 @@
+package net.tinyexch.ob;
+
+import net.tinyexch.order.Order;
+import net.tinyexch.order.Side;
+
+import java.util.*;
+
+/**
+ * Trigger book of the stop and stop-limit orders of one side, sorted by the sequence they are triggered in. Buy stops
+ * are triggered by a trade at or above their stop price, so the lowest stop price comes first. Sell stops are
+ * triggered at or below their stop price, so the highest stop price comes first. Orders with the same stop price are
+ * triggered in the sequence they were submitted.
+ *
+ * After a trade only the head of the queue needs to be checked, so the orders triggered by a new last price are
+ * found in O(log n) each and untriggered orders are never looked at. Every order is indexed by its
+ * {@link Order#getOrderID()} for cancellation.
+ *
+ * This class is mutable and not thread safe!
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public class StopOrderQueue extends AbstractQueue<Order> {
+
+    private final Side side;
+    private final NavigableSet<Entry> entries = new TreeSet<>();
+    private final LongObjectHashMap<Entry> entriesByOrderID = new LongObjectHashMap<>();
+
+    //-----------------------------------------------------------------------------------------------
+    // constructors
+    //-----------------------------------------------------------------------------------------------
+
+    public StopOrderQueue( Side side ) {
+        this.side = Objects.requireNonNull(side, "Side must not be null!");
+    }
+
+    //-----------------------------------------------------------------------------------------------
+    // queue API
+    //-----------------------------------------------------------------------------------------------
+
+    @Override
+    public boolean offer( Order order ) {
+        Objects.requireNonNull(order, "Order must not be null!");
+        if ( !order.getOrderType().isStop() || order.getSide() != side ) {
+            throw new OrderbookException("Only " + side + " stop orders can be placed in this trigger book! " + order);
+        }
+        if ( order.getOrderID() == Order.NO_ORDER_ID ) {
+            throw new OrderbookException("Order without orderID cannot be placed in the trigger book! " + order);
+        }
+        if ( entriesByOrderID.containsKey(order.getOrderID()) ) {
+            throw new OrderbookException("Order with same orderID is already in the book! " + order);
+        }
+
+        Entry entry = new Entry(order, side == Side.BUY ? order.getStopPriceTicks() : -order.getStopPriceTicks());
+        entries.add(entry);
+        entriesByOrderID.put(order.getOrderID(), entry);
+        return true;
+    }
+
+    @Override
+    public Order poll() {
+        Entry first = entries.pollFirst();
+        if ( first == null ) return null;
+
+        entriesByOrderID.remove(first.order.getOrderID());
+        return first.order;
+    }
+
+    @Override
+    public Order peek() {
+        return entries.isEmpty() ? null : entries.first().order;
+    }
+
+    @Override
+    public int size() { return entries.size(); }
+
+    @Override
+    public void clear() {
+        entries.clear();
+        entriesByOrderID.clear();
+    }
+
+    @Override
+    public boolean remove( Object o ) {
+        return o instanceof Order && remove( ((Order) o).getOrderID() ) != null;
+    }
+
+    /**
+     * @return orders in trigger sequence
+     */
+    @Override
+    public Iterator<Order> iterator() {
+        Iterator<Entry> iter = entries.iterator();
+        return new Iterator<Order>() {
+            private Entry lastReturned;
+
+            @Override
+            public boolean hasNext() { return iter.hasNext(); }
+
+            @Override
+            public Order next() {
+                lastReturned = iter.next();
+                return lastReturned.order;
+            }
+
+            @Override
+            public void remove() {
+                iter.remove();
+                entriesByOrderID.remove(lastReturned.order.getOrderID());
+            }
+        };
+    }
+
+    //-----------------------------------------------------------------------------------------------
+    // trigger book API
+    //-----------------------------------------------------------------------------------------------
+
+    public Side getSide() { return side; }
+
+    /**
+     * @param lastPrice in {@link net.tinyexch.ob.price.Ticks} of the last trade
+     * @return true ... an order with given stop price is triggered by a trade at the last price
+     */
+    public boolean isTriggered( long stopPrice, long lastPrice ) {
+        return side == Side.BUY ? lastPrice >= stopPrice : lastPrice <= stopPrice;
+    }
+
+    /**
+     * Remove the next order triggered by the last price. Call repeatedly to release all triggered orders.
+     *
+     * @param lastPrice in {@link net.tinyexch.ob.price.Ticks} of the last trade
+     * @return next triggered order or null if no more orders are triggered
+     */
+    public Order pollTriggered( long lastPrice ) {
+        Order next = peek();
+        return next != null && isTriggered(next.getStopPriceTicks(), lastPrice) ? poll() : null;
+    }
+
+    /**
+     * @return resting order with given ID or null if it is not in the book
+     */
+    public Order get( long orderID ) {
+        Entry entry = entriesByOrderID.get(orderID);
+        return entry != null ? entry.order : null;
+    }
+
+    /**
+     * @return the removed order or null if no order with given ID is in the book
+     */
+    public Order remove( long orderID ) {
+        Entry entry = entriesByOrderID.remove(orderID);
+        if ( entry != null ) {
+            entries.remove(entry);
+        }
+        return entry != null ? entry.order : null;
+    }
+
+    //-----------------------------------------------------------------------------------------------
+    // internal
+    //-----------------------------------------------------------------------------------------------
+
+    /**
+     * Keeps the sort keys of the order at the time it was added, so changes of the order cannot corrupt the tree.
+     */
+    private static final class Entry implements Comparable<Entry> {
+        final Order order;
+        /** stop price negated for sell orders, so the next triggered order is always first */
+        final long triggerRank;
+        final long submitSequence;
+
+        Entry( Order order, long triggerRank ) {
+            this.order = order;
+            this.triggerRank = triggerRank;
+            this.submitSequence = order.getSubmitSequence();
+        }
+
+        @Override
+        public int compareTo( Entry other ) {
+            int result = Long.compare(triggerRank, other.triggerRank);
+            if ( result == 0 ) result = Long.compare(submitSequence, other.submitSequence);
+            if ( result == 0 ) result = Long.compare(order.getOrderID(), other.order.getOrderID());
+            return result;
+        }
+    }
+}
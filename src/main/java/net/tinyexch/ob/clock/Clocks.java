@@ -0,0 +1,60 @@
+package net.tinyexch.ob.clock;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Clock used to stamp new orders and trades, a {@link MonotonicNanoClock} unless another one is installed. Install a
+ * different clock, e.g. a {@link CoarseNanoClock} or for replays a {@link DeterministicNanoClock}, before the market
+ * threads start, the clock is not meant to be swapped while orders are matched.
+ *
+ * Orders stamp themselves when they are created, often by a client thread before any orderbook sees them, so the
+ * clock is shared by the whole process instead of being injected per orderbook. Tests installing a clock have to
+ * {@link #reset()} it afterwards, otherwise later tests run with it.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public final class Clocks {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    /** volatile, so a clock installed by the main thread is seen by the market threads started later */
+    private static volatile NanoClock clock = new MonotonicNanoClock();
+
+    private Clocks() {}
+
+    /**
+     * @return current time of the installed clock in nanoseconds since the epoch
+     */
+    public static long nanos() { return clock.nanos(); }
+
+    public static NanoClock get() { return clock; }
+
+    /**
+     * @param nanoClock to stamp all orders and trades created from now on
+     */
+    public static void set( NanoClock nanoClock ) {
+        clock = Objects.requireNonNull(nanoClock, "Clock must not be null!");
+    }
+
+    /**
+     * Install a new {@link MonotonicNanoClock}.
+     */
+    public static void reset() { clock = new MonotonicNanoClock(); }
+
+    //--------------------------------------------------------
+    // conversion
+    //--------------------------------------------------------
+
+    public static Instant toInstant( long epochNanos ) {
+        return Instant.ofEpochSecond( Math.floorDiv(epochNanos, NANOS_PER_SECOND), Math.floorMod(epochNanos, NANOS_PER_SECOND) );
+    }
+
+    /**
+     * @throws ArithmeticException if the instant is beyond the year 2262
+     */
+    public static long toNanos( Instant instant ) {
+        return Math.addExact( Math.multiplyExact(instant.getEpochSecond(), NANOS_PER_SECOND), instant.getNano() );
+    }
+}
@@ -0,0 +1,77 @@
+package net.tinyexch.ob.clock;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Clock returning a cached timestamp which a background thread refreshes from a source clock at a fixed resolution.
+ * Taking a timestamp is a single volatile read, so stamping orders and trades costs next to nothing, but all objects
+ * stamped within the same tick get the same time. Time priority then falls back to the submit sequence.
+ *
+ * Close the clock to stop its ticker thread.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public final class CoarseNanoClock implements NanoClock, AutoCloseable {
+
+    private final NanoClock source;
+    private final long resolutionNanos;
+    private final Thread ticker;
+    private volatile long now;
+    private volatile boolean running = true;
+
+    //--------------------------------------------------------
+    // constructors
+    //--------------------------------------------------------
+
+    /**
+     * @param resolutionNanos how often the cached time is refreshed from a {@link MonotonicNanoClock}
+     */
+    public CoarseNanoClock( long resolutionNanos ) {
+        this( new MonotonicNanoClock(), resolutionNanos );
+    }
+
+    /**
+     * @param source the cached time is taken from, only called by the ticker thread
+     * @param resolutionNanos how often the cached time is refreshed, the actual interval is usually a bit longer
+     */
+    public CoarseNanoClock( NanoClock source, long resolutionNanos ) {
+        if ( resolutionNanos <= 0 ) throw new IllegalArgumentException("Resolution must be positive: " + resolutionNanos);
+        this.source = source;
+        this.resolutionNanos = resolutionNanos;
+        this.now = source.nanos();
+        this.ticker = new Thread( this::tick, "CoarseNanoClock" );
+        this.ticker.setDaemon(true);
+        this.ticker.start();
+    }
+
+    //--------------------------------------------------------
+    // public API
+    //--------------------------------------------------------
+
+    @Override
+    public long nanos() { return now; }
+
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(ticker);
+        try {
+            ticker.join();
+        } catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    //--------------------------------------------------------
+    // internal
+    //--------------------------------------------------------
+
+    private void tick() {
+        while ( running ) {
+            LockSupport.parkNanos(resolutionNanos);
+            // a source stepping back, e.g. a replaced deterministic clock, must not move the cached time backwards
+            now = Math.max( now, source.nanos() );
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package net.tinyexch.ob.clock;
+
+/**
+ * Clock advancing by a fixed step on every call, so replays and benchmarks stamp the very same timestamps in every
+ * run. The time can also be set explicitly, e.g. to the timestamps of recorded commands.
+ *
+ * This class is mutable and not thread safe!
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public final class DeterministicNanoClock implements NanoClock {
+
+    private final long stepNanos;
+    private long now;
+
+    /**
+     * @param startNanos returned by the first call
+     * @param stepNanos added after every call, 0 to stand still until the time is set
+     */
+    public DeterministicNanoClock( long startNanos, long stepNanos ) {
+        this.now = startNanos;
+        this.stepNanos = stepNanos;
+    }
+
+    @Override
+    public long nanos() {
+        long nanos = now;
+        now += stepNanos;
+        return nanos;
+    }
+
+    public DeterministicNanoClock set( long nanos ) {
+        this.now = nanos;
+        return this;
+    }
+
+    public DeterministicNanoClock advance( long nanos ) {
+        this.now += nanos;
+        return this;
+    }
+}
@@ -0,0 +1,24 @@
+package net.tinyexch.ob.clock;
+
+/**
+ * Wall clock time derived from {@link System#nanoTime()}. The epoch is read once when the clock is created, afterwards
+ * every timestamp is the monotonic counter plus that offset. Timestamps never go backwards, even if the system time
+ * is adjusted, and taking one is much cheaper than creating an {@link java.time.Instant}.
+ *
+ * The clock drifts from the system time by the drift of the monotonic counter, which is negligible within a trading
+ * day but a reason to create a new clock for every session.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public final class MonotonicNanoClock implements NanoClock {
+
+    private final long epochOffset;
+
+    public MonotonicNanoClock() {
+        this.epochOffset = System.currentTimeMillis() * 1_000_000L - System.nanoTime();
+    }
+
+    @Override
+    public long nanos() { return epochOffset + System.nanoTime(); }
+}
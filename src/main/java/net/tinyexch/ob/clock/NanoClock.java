@@ -0,0 +1,17 @@
+package net.tinyexch.ob.clock;
+
+/**
+ * Source of the timestamps of orders and trades. Timestamps are primitive nanoseconds since the epoch, so stamping and
+ * comparing them for time priority neither allocates nor dereferences anything.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+@FunctionalInterface
+public interface NanoClock {
+
+    /**
+     * @return nanoseconds since 1970-01-01T00:00:00Z
+     */
+    long nanos();
+}
@@ -0,0 +1,96 @@
+package net.tinyexch.ob.journal;
+
+import net.tinyexch.exchange.trading.form.TradingForm;
+import net.tinyexch.ob.match.ContinuousMatchEngine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Takes snapshots without stalling the matching thread. A replica of the trading form follows the journal on a
+ * background thread and is captured instead of the live book. As matching is deterministic the replica has the same
+ * state as the live book at the same journal position.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public class BackgroundSnapshotter implements Closeable {
+
+    private final static Logger LOGGER = LoggerFactory.getLogger(BackgroundSnapshotter.class);
+
+    private final ScheduledExecutorService executor =
+            Executors.newSingleThreadScheduledExecutor( r -> new Thread(r, "Snapshotter") );
+
+    private final MappedJournal journal;
+    private final JournalReader reader;
+    private final SnapshotStore store;
+    private final TradingForm<?> replica;
+    private final ContinuousMatchEngine replicaEngine;
+
+    /** journal position the replica has caught up to, only accessed by the snapshot thread */
+    private long position;
+
+
+    /**
+     * @param journal the live trading form records to
+     * @param reader of the same journal file
+     * @param replica trading form created like the live one, but without journal and notification listener. If the
+     *                live orderbook writes execution reports, the replica needs a buffer too, so the snapshot carries
+     *                the last execID
+     * @param replicaEngine match engine of the replica created like the live one
+     */
+    public BackgroundSnapshotter( MappedJournal journal, JournalReader reader, SnapshotStore store,
+                                  TradingForm<?> replica, ContinuousMatchEngine replicaEngine ) {
+        this.journal = journal;
+        this.reader = reader;
+        this.store = store;
+        this.replica = replica;
+        this.replicaEngine = replicaEngine;
+        executor.execute( () -> position = store.recover(replica, replicaEngine, reader, journal.getWritePosition()) );
+    }
+
+    /**
+     * Take a snapshot periodically.
+     */
+    public void start( long interval, TimeUnit unit ) {
+        executor.scheduleWithFixedDelay( () -> {
+            try {
+                takeSnapshot();
+            } catch ( RuntimeException e ) {
+                LOGGER.error("Cannot take snapshot!", e);
+            }
+        }, interval, interval, unit );
+    }
+
+    /**
+     * Take a snapshot of everything recorded so far and wait for it to be saved.
+     */
+    public Snapshot snapshot() {
+        try {
+            return executor.submit( this::takeSnapshot ).get();
+        } catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            throw new JournalException("Interrupted while taking snapshot", e);
+        } catch ( ExecutionException e ) {
+            throw new JournalException("Cannot take snapshot", e.getCause());
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+
+    private Snapshot takeSnapshot() {
+        position = reader.replay( position, journal.getWritePosition(), new OrderbookReplayer(replica) );
+        Snapshot snapshot = Snapshot.capture( replica, replicaEngine, position );
+        store.save(snapshot);
+        return snapshot;
+    }
+}
@@ -0,0 +1,36 @@
+package net.tinyexch.ob.journal;
+
+import net.tinyexch.ob.OrderbookState;
+import net.tinyexch.ob.SubmitType;
+import net.tinyexch.order.Order;
+
+/**
+ * Receives every command accepted by an orderbook and its trading form. Implementers either record the commands or
+ * apply recorded commands again during a replay.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public interface CommandJournal {
+
+    CommandJournal NO_OP = new CommandJournal() {
+        @Override public void onSubmit( Order order, SubmitType submitType ) {}
+        @Override public void onStateChange( OrderbookState state ) {}
+        @Override public void onTransition( Enum<?> targetState ) {}
+    };
+
+    /**
+     * Called before the order is processed, so the order is still in the state it was submitted with.
+     */
+    void onSubmit( Order order, SubmitType submitType );
+
+    /**
+     * The orderbook was opened or (partially) closed.
+     */
+    void onStateChange( OrderbookState state );
+
+    /**
+     * The trading form successfully switched into the given state.
+     */
+    void onTransition( Enum<?> targetState );
+}
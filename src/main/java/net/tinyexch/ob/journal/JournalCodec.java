@@ -0,0 +1,212 @@
+package net.tinyexch.ob.journal;
+
+import net.tinyexch.ob.OrderbookState;
+import net.tinyexch.ob.SubmitType;
+import net.tinyexch.order.*;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Binary layout of the journal records. Every record starts with its total length followed by the record type. The
+ * length is written last, so a record is only visible to a reader once it is complete. A length of 0 marks the end of
+ * the journal.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+final class JournalCodec {
+
+    static final int HEADER_SIZE = Integer.BYTES + Byte.BYTES;
+
+    static final byte SUBMIT = 1;
+    static final byte STATE_CHANGE = 2;
+    static final byte TRANSITION = 3;
+    /** rest of the region is unused as the next record didn't fit */
+    static final byte PADDING = 4;
+
+    private static final long NO_EXPIRATION = Long.MIN_VALUE;
+    private static final int HIDDEN = 1;
+    private static final int MIDPOINT = 2;
+
+    /** enums, flags, 6 qty fields, 2 prices, orderID, sequence, timestamp, expiration and length of the clientOrderID */
+    private static final int ORDER_FIXED_SIZE = 5 + 1 + 6 * Integer.BYTES + 5 * Long.BYTES +
+                                                Long.BYTES + Integer.BYTES + Short.BYTES;
+
+    private JournalCodec() {}
+
+    //--------------------------------------------------------
+    // sizes
+    //--------------------------------------------------------
+
+    static int submitSize( Order order ) {
+        return HEADER_SIZE + Byte.BYTES + orderSize(order);
+    }
+
+    static int orderSize( Order order ) {
+        return ORDER_FIXED_SIZE + Character.BYTES * order.getClientOrderID().length();
+    }
+
+    static int stateChangeSize() {
+        return HEADER_SIZE + Byte.BYTES;
+    }
+
+    static int transitionSize( String stateType ) {
+        return HEADER_SIZE + Short.BYTES + Character.BYTES * stateType.length() + Integer.BYTES;
+    }
+
+    //--------------------------------------------------------
+    // encode
+    //--------------------------------------------------------
+
+    static void encodeSubmit( ByteBuffer buffer, Order order, SubmitType submitType ) {
+        buffer.put( ordinal(submitType) );
+        encodeOrder( buffer, order );
+    }
+
+    /**
+     * Encode the full state of the order including executed qty and the sequence assigned by the match engine.
+     */
+    static void encodeOrder( ByteBuffer buffer, Order order ) {
+        buffer.put( ordinal(order.getSide()) )
+              .put( ordinal(order.getOrderType()) )
+              .put( ordinal(order.getTimeInForce()) )
+              .put( ordinal(order.getDiscretionLimitType()) )
+              .put( ordinal(order.getTradingSessionSubID()) )
+              .put( (byte) ((order.isHidden() ? HIDDEN : 0) | (order.isMidpoint() ? MIDPOINT : 0)) )
+              .putInt( order.getOrderQty() )
+              .putInt( order.getCumQty() )
+              .putInt( order.getMinQty() )
+              .putInt( order.getDisplayQty() )
+              .putInt( order.getIcebergOrderQty() )
+              .putInt( order.getIcebergCumQty() )
+              .putLong( order.getPriceTicks() )
+              .putLong( order.getStopPriceTicks() )
+              .putLong( order.getOrderID() )
+              .putLong( order.getSubmitSequence() )
+              .putLong( order.getTimestampNanos() );
+
+        LocalDateTime expiration = order.getExpirationDate();
+        buffer.putLong( expiration == null ? NO_EXPIRATION : expiration.toEpochSecond(ZoneOffset.UTC) )
+              .putInt( expiration == null ? 0 : expiration.getNano() );
+        putString( buffer, order.getClientOrderID() );
+    }
+
+    static void encodeStateChange( ByteBuffer buffer, OrderbookState state ) {
+        buffer.put( ordinal(state) );
+    }
+
+    static void encodeTransition( ByteBuffer buffer, String stateType, int ordinal ) {
+        putString( buffer, stateType );
+        buffer.putInt( ordinal );
+    }
+
+    //--------------------------------------------------------
+    // decode
+    //--------------------------------------------------------
+
+    /**
+     * Decode the record at the current position of the buffer and pass it on.
+     */
+    static void decode( ByteBuffer buffer, byte type, CommandJournal target ) {
+        if ( type == SUBMIT ) {
+            SubmitType submitType = value( SubmitType.values(), buffer.get() );
+            target.onSubmit( decodeOrder(buffer), submitType );
+
+        } else if ( type == STATE_CHANGE ) {
+            target.onStateChange( value(OrderbookState.values(), buffer.get()) );
+
+        } else if ( type == TRANSITION ) {
+            String stateType = getString(buffer);
+            int ordinal = buffer.getInt();
+            target.onTransition( enumConstant(stateType, ordinal) );
+
+        } else {
+            throw new JournalException("Unknown record type " + type + " at position " + buffer.position());
+        }
+    }
+
+    static Order decodeOrder( ByteBuffer buffer ) {
+        Side side = value( Side.values(), buffer.get() );
+        OrderType orderType = value( OrderType.values(), buffer.get() );
+        TimeInForce timeInForce = value( TimeInForce.values(), buffer.get() );
+        DiscretionLimitType discretionLimitType = value( DiscretionLimitType.values(), buffer.get() );
+        TradingSessionSubID tradingSessionSubID = value( TradingSessionSubID.values(), buffer.get() );
+        byte flags = buffer.get();
+        int orderQty = buffer.getInt();
+        int cumQty = buffer.getInt();
+        int minQty = buffer.getInt();
+        int displayQty = buffer.getInt();
+        int icebergOrderQty = buffer.getInt();
+        int icebergCumQty = buffer.getInt();
+        long price = buffer.getLong();
+        long stopPrice = buffer.getLong();
+        long orderID = buffer.getLong();
+        long submitSequence = buffer.getLong();
+        long timestamp = buffer.getLong();
+        long expirationSeconds = buffer.getLong();
+        int expirationNanos = buffer.getInt();
+        String clientOrderID = getString(buffer);
+
+        Order order = Order.of( clientOrderID, side )
+                .setOrderType(orderType)
+                .setTimeInForce(timeInForce)
+                .setDiscretionLimitType(discretionLimitType)
+                .setTradingSessionSubID(tradingSessionSubID)
+                .setHidden( (flags & HIDDEN) != 0 )
+                .setMidpoint( (flags & MIDPOINT) != 0 )
+                .setMinQty(minQty)
+                .setPriceTicks(price)
+                .setStopPriceTicks(stopPrice)
+                .setOrderID(orderID)
+                .setSubmitSequence(submitSequence)
+                .setTimestampNanos(timestamp);
+        if ( icebergOrderQty > 0 ) {
+            order.setOrderQty(icebergOrderQty).setDisplayQty(displayQty).setIcebergCumQty(icebergCumQty);
+        }
+        order.setOrderQty(orderQty).setCumQty(cumQty);
+        if ( expirationSeconds != NO_EXPIRATION ) {
+            order.setExpirationDate( LocalDateTime.ofEpochSecond(expirationSeconds, expirationNanos, ZoneOffset.UTC) );
+        }
+
+        return order;
+    }
+
+    //--------------------------------------------------------
+    // helper
+    //--------------------------------------------------------
+
+    /** @return ordinal + 1 or 0 for null */
+    static byte ordinal( Enum<?> value ) {
+        return (byte) (value == null ? 0 : value.ordinal() + 1);
+    }
+
+    static <E extends Enum<E>> E value( E[] values, byte ordinal ) {
+        return ordinal == 0 ? null : values[ordinal - 1];
+    }
+
+    static Enum<?> enumConstant( String type, int ordinal ) {
+        try {
+            return (Enum<?>) Class.forName(type).getEnumConstants()[ordinal];
+        } catch ( ClassNotFoundException | RuntimeException e ) {
+            throw new JournalException("Cannot resolve state " + type + "#" + ordinal, e);
+        }
+    }
+
+    static void putString( ByteBuffer buffer, String value ) {
+        int length = value.length();
+        buffer.putShort( (short) length );
+        for ( int i = 0; i < length; i++ ) {
+            buffer.putChar( value.charAt(i) );
+        }
+    }
+
+    static String getString( ByteBuffer buffer ) {
+        char[] chars = new char[ buffer.getShort() ];
+        for ( int i = 0; i < chars.length; i++ ) {
+            chars[i] = buffer.getChar();
+        }
+        return new String(chars);
+    }
+}
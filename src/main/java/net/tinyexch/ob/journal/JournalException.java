@@ -0,0 +1,18 @@
+package net.tinyexch.ob.journal;
+
+/**
+ * Thrown if the journal cannot be written or read.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public class JournalException extends RuntimeException {
+
+    public JournalException( String message ) {
+        super(message);
+    }
+
+    public JournalException( String message, Throwable cause ) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,97 @@
+package net.tinyexch.ob.journal;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.file.StandardOpenOption.READ;
+import static net.tinyexch.ob.journal.JournalCodec.HEADER_SIZE;
+import static net.tinyexch.ob.journal.JournalCodec.PADDING;
+
+/**
+ * Reads the commands recorded by a {@link MappedJournal} in the sequence they were recorded. An incomplete last
+ * record, e.g. after a crash, is ignored.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public class JournalReader {
+
+    private final Path file;
+    private final int regionSize;
+
+
+    public JournalReader( Path file ) {
+        this( file, MappedJournal.DEFAULT_REGION_SIZE );
+    }
+
+    /**
+     * @param regionSize the journal was written with
+     */
+    public JournalReader( Path file, int regionSize ) {
+        this.file = file;
+        this.regionSize = regionSize;
+    }
+
+    /**
+     * Pass all recorded commands to the target, e.g. an {@link OrderbookReplayer}.
+     *
+     * @return position after the last complete record
+     */
+    public long replay( CommandJournal target ) {
+        return read( 0, Long.MAX_VALUE, target );
+    }
+
+    /**
+     * Pass the commands recorded between the given positions to the target, e.g. the commands recorded after a
+     * snapshot was taken.
+     *
+     * @param from position of the first record to replay, e.g. {@link Snapshot#getJournalPosition()}
+     * @param to position after the last record to replay, {@link Long#MAX_VALUE} for all records
+     * @return position after the last replayed record
+     */
+    public long replay( long from, long to, CommandJournal target ) {
+        return read( from, to, target );
+    }
+
+    /**
+     * @return position after the last complete record
+     */
+    long findEnd() {
+        return read( 0, Long.MAX_VALUE, null );
+    }
+
+    private long read( long from, long to, CommandJournal target ) {
+        if ( !Files.exists(file) ) return 0;
+
+        try ( FileChannel channel = FileChannel.open(file, READ) ) {
+            long size = channel.size();
+            long end = from;
+            for ( long offset = from - from % regionSize; offset < size; offset += regionSize ) {
+                MappedByteBuffer region = channel.map( FileChannel.MapMode.READ_ONLY, offset,
+                                                       Math.min(regionSize, size - offset) );
+                int position = offset < from ? (int) (from - offset) : 0;
+                while ( position + HEADER_SIZE <= region.limit() ) {
+                    if ( offset + position >= to ) return offset + position;
+                    int length = region.getInt(position);
+                    if ( length == 0 ) return offset + position;
+
+                    byte type = region.get(position + Integer.BYTES);
+                    if ( type == PADDING ) break;
+                    if ( target != null ) {
+                        region.position( position + HEADER_SIZE );
+                        JournalCodec.decode( region, type, target );
+                    }
+                    position += length;
+                }
+                end = offset + position;
+            }
+            return end;
+
+        } catch ( IOException e ) {
+            throw new JournalException("Cannot read journal " + file, e);
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package net.tinyexch.ob.journal;
+
+import net.tinyexch.ob.OrderbookState;
+import net.tinyexch.ob.SubmitType;
+import net.tinyexch.order.Order;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static java.nio.file.StandardOpenOption.*;
+import static net.tinyexch.ob.journal.JournalCodec.*;
+
+/**
+ * Append-only journal of all commands accepted by an orderbook and its trading form. The file is mapped into memory
+ * in regions of fixed size. The matching thread only copies the encoded command into the mapped region and never
+ * waits for the disk. A background thread forces all regions written since its last run to disk in one go, so the
+ * cost of syncing is shared by all commands recorded in between.
+ *
+ * Only one thread, usually the matching thread, may record commands. Use {@link JournalReader} to replay the file.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public class MappedJournal implements CommandJournal, Closeable {
+
+    private final static Logger LOGGER = LoggerFactory.getLogger(MappedJournal.class);
+
+    public static final int DEFAULT_REGION_SIZE = 64 << 20;
+    public static final long DEFAULT_FLUSH_INTERVAL_MICROS = 1_000;
+
+    //--------------------------------------------------------
+    // state
+    //--------------------------------------------------------
+    private final Path file;
+    private final FileChannel channel;
+    private final int regionSize;
+    private final long flushIntervalNanos;
+
+    /** region the writer appends to, only used by the writing thread */
+    private MappedByteBuffer writeRegion;
+    private long writeRegionOffset;
+
+    /** same as writeRegion, read by the flusher */
+    private volatile MappedByteBuffer currentRegion;
+
+    /** full regions not yet forced to disk */
+    private final Queue<MappedByteBuffer> retiredRegions = new ConcurrentLinkedQueue<>();
+
+    private volatile long writePosition;
+    private volatile long flushedPosition;
+    private volatile boolean running = true;
+    private final Thread flusher;
+
+
+    //--------------------------------------------------------
+    // constructor
+    //--------------------------------------------------------
+
+    /**
+     * Open the journal with default region size and flush interval.
+     */
+    public static MappedJournal open( Path file ) {
+        return open( file, DEFAULT_REGION_SIZE, DEFAULT_FLUSH_INTERVAL_MICROS );
+    }
+
+    /**
+     * Open the journal and continue after the last complete record if the file already exists.
+     *
+     * @param regionSize bytes mapped at once, must be the same every time the file is opened
+     * @param flushIntervalMicros max time recorded commands wait to be forced to disk
+     */
+    public static MappedJournal open( Path file, int regionSize, long flushIntervalMicros ) {
+        long endPosition = new JournalReader(file, regionSize).findEnd();
+        return new MappedJournal( file, regionSize, flushIntervalMicros, endPosition );
+    }
+
+    private MappedJournal( Path file, int regionSize, long flushIntervalMicros, long endPosition ) {
+        this.file = file;
+        this.regionSize = regionSize;
+        this.flushIntervalNanos = TimeUnit.MICROSECONDS.toNanos(flushIntervalMicros);
+        try {
+            this.channel = FileChannel.open( file, CREATE, READ, WRITE );
+        } catch ( IOException e ) {
+            throw new JournalException("Cannot open journal " + file, e);
+        }
+
+        mapRegion( endPosition - endPosition % regionSize );
+        writeRegion.position( (int) (endPosition % regionSize) );
+        writePosition = endPosition;
+        flushedPosition = endPosition;
+
+        flusher = new Thread( this::flushContinuously, "JournalFlusher-" + file.getFileName() );
+        flusher.setDaemon(true);
+        flusher.start();
+        LOGGER.info("Opened journal {} at position {}", file, endPosition);
+    }
+
+    //--------------------------------------------------------
+    // record commands
+    //--------------------------------------------------------
+
+    @Override
+    public void onSubmit( Order order, SubmitType submitType ) {
+        int start = claim( submitSize(order) );
+        writeRegion.put( SUBMIT );
+        encodeSubmit( writeRegion, order, submitType );
+        commit(start);
+    }
+
+    @Override
+    public void onStateChange( OrderbookState state ) {
+        int start = claim( stateChangeSize() );
+        writeRegion.put( STATE_CHANGE );
+        encodeStateChange( writeRegion, state );
+        commit(start);
+    }
+
+    @Override
+    public void onTransition( Enum<?> targetState ) {
+        String stateType = targetState.getDeclaringClass().getName();
+        int start = claim( transitionSize(stateType) );
+        writeRegion.put( TRANSITION );
+        encodeTransition( writeRegion, stateType, targetState.ordinal() );
+        commit(start);
+    }
+
+    //--------------------------------------------------------
+    // life cycle
+    //--------------------------------------------------------
+
+    /**
+     * Wait until everything recorded so far is forced to disk.
+     */
+    public void flush() {
+        long target = writePosition;
+        while ( flushedPosition < target ) {
+            LockSupport.unpark(flusher);
+            LockSupport.parkNanos(flushIntervalNanos);
+        }
+    }
+
+    /**
+     * Force all recorded commands to disk and release the file.
+     */
+    @Override
+    public void close() {
+        flush();
+        running = false;
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join();
+            channel.close();
+        } catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+        } catch ( IOException e ) {
+            throw new JournalException("Cannot close journal " + file, e);
+        }
+    }
+
+    /**
+     * @return position after the last recorded command
+     */
+    public long getWritePosition() { return writePosition; }
+
+    /**
+     * @return position up to which the recorded commands are on disk
+     */
+    public long getFlushedPosition() { return flushedPosition; }
+
+    //--------------------------------------------------------
+    // internal
+    //--------------------------------------------------------
+
+    /**
+     * @return position of the new record in the write region, the position of the region is set to its payload
+     */
+    private int claim( int recordSize ) {
+        if ( recordSize > regionSize ) {
+            throw new JournalException("Record of " + recordSize + " bytes exceeds region size " + regionSize);
+        }
+
+        if ( writeRegion.remaining() < recordSize ) {
+            int start = writeRegion.position();
+            if ( writeRegion.remaining() >= HEADER_SIZE ) {
+                writeRegion.position( start + Integer.BYTES );
+                writeRegion.put( PADDING );
+                writeRegion.putInt( start, regionSize - start );
+            }
+            retiredRegions.offer( writeRegion );
+            mapRegion( writeRegionOffset + regionSize );
+        }
+
+        int start = writeRegion.position();
+        writeRegion.position( start + Integer.BYTES );
+        return start;
+    }
+
+    /**
+     * Writing the length last makes the record visible to readers.
+     */
+    private void commit( int start ) {
+        int end = writeRegion.position();
+        writeRegion.putInt( start, end - start );
+        writePosition = writeRegionOffset + end;
+    }
+
+    private void mapRegion( long offset ) {
+        try {
+            writeRegion = channel.map( FileChannel.MapMode.READ_WRITE, offset, regionSize );
+            writeRegionOffset = offset;
+            currentRegion = writeRegion;
+        } catch ( IOException e ) {
+            throw new JournalException("Cannot map region at " + offset + " of journal " + file, e);
+        }
+    }
+
+    private void flushContinuously() {
+        while ( running ) {
+            long target = writePosition;
+            if ( target > flushedPosition ) {
+                // a region retired while forcing the current one is picked up in the next round
+                do {
+                    MappedByteBuffer retired;
+                    while ( (retired = retiredRegions.poll()) != null ) {
+                        retired.force();
+                    }
+                    currentRegion.force();
+                } while ( !retiredRegions.isEmpty() );
+                flushedPosition = target;
+
+            } else {
+                LockSupport.parkNanos(flushIntervalNanos);
+            }
+        }
+    }
+}
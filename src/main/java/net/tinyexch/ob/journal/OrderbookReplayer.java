@@ -0,0 +1,57 @@
+package net.tinyexch.ob.journal;
+
+import net.tinyexch.exchange.trading.form.TradingForm;
+import net.tinyexch.ob.Orderbook;
+import net.tinyexch.ob.OrderbookState;
+import net.tinyexch.ob.SubmitType;
+import net.tinyexch.order.Order;
+
+/**
+ * Applies recorded commands to a fresh orderbook and trading form. As the orders are passed through the same match
+ * engine in the same sequence, the book ends up with the same orders and sequence numbers as when they were recorded.
+ * Attach the journal for new commands only after the replay, otherwise the replayed commands are recorded again.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public class OrderbookReplayer implements CommandJournal {
+
+    private final Orderbook orderbook;
+    private final TradingForm<?> tradingForm;
+
+
+    public OrderbookReplayer( Orderbook orderbook ) {
+        this.orderbook = orderbook;
+        this.tradingForm = null;
+    }
+
+    public OrderbookReplayer( TradingForm<?> tradingForm ) {
+        this.orderbook = tradingForm.getOrderbook();
+        this.tradingForm = tradingForm;
+    }
+
+    @Override
+    public void onSubmit( Order order, SubmitType submitType ) {
+        orderbook.submit( order, submitType );
+    }
+
+    @Override
+    public void onStateChange( OrderbookState state ) {
+        if ( state == OrderbookState.OPEN ) {
+            orderbook.open();
+        } else if ( state == OrderbookState.PARTIALLY_CLOSED ) {
+            orderbook.closePartially();
+        } else {
+            orderbook.close();
+        }
+    }
+
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void onTransition( Enum<?> targetState ) {
+        if ( tradingForm == null ) {
+            throw new JournalException("No trading form to replay transition to " + targetState);
+        }
+        ((TradingForm) tradingForm).transitionTo( targetState );
+    }
+}
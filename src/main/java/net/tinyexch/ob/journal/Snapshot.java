@@ -0,0 +1,301 @@
+package net.tinyexch.ob.journal;
+
+import net.tinyexch.exchange.trading.form.TradingForm;
+import net.tinyexch.ob.Orderbook;
+import net.tinyexch.ob.OrderbookSide;
+import net.tinyexch.ob.OrderbookState;
+import net.tinyexch.ob.match.ContinuousMatchEngine;
+import net.tinyexch.ob.price.Ticks;
+import net.tinyexch.ob.price.safeguard.VolatilityInterruptionGuard;
+import net.tinyexch.ob.report.ExecutionReportBuffer;
+import net.tinyexch.order.Order;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static java.nio.file.StandardOpenOption.*;
+import static net.tinyexch.ob.journal.JournalCodec.*;
+
+/**
+ * State of an orderbook, its match engine and trading form at a given position of the journal. Recovery loads the
+ * snapshot and only needs to replay the commands recorded after {@link #getJournalPosition()}.
+ *
+ * The orders are copied when the snapshot is captured, so the snapshot can be written while the book moves on.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public final class Snapshot {
+
+    private static final int MAGIC = 0x54584E53;
+    private static final int VERSION = 4;
+
+    //--------------------------------------------------------
+    // state
+    //--------------------------------------------------------
+    private final long journalPosition;
+
+    /** prices in {@link Ticks} */
+    private final long referencePrice;
+    private final long midpointPrice;
+    private final long sequence;
+    /** last ID handed out by the orderbook */
+    private final long lastOrderID;
+    /** last execID of the execution reports of the orderbook, 0 if it does not report */
+    private final long lastExecID;
+
+    private final long staticRefPrice;
+    private final float staticPriceDeviationPerc;
+    private final long dynamicRefPrice;
+    private final float dynamicPriceDeviationPerc;
+
+    private final OrderbookState orderbookState;
+    /** null if only the orderbook was captured */
+    private final Enum<?> tradingFormState;
+
+    /** buy, sell, midpoint buy, midpoint sell */
+    private final List<List<Order>> sides;
+
+
+    //--------------------------------------------------------
+    // constructor
+    //--------------------------------------------------------
+
+    private Snapshot( long journalPosition, long referencePrice, long midpointPrice, long sequence, long lastOrderID,
+                      long lastExecID, long staticRefPrice, float staticPriceDeviationPerc,
+                      long dynamicRefPrice, float dynamicPriceDeviationPerc,
+                      OrderbookState orderbookState, Enum<?> tradingFormState, List<List<Order>> sides ) {
+        this.journalPosition = journalPosition;
+        this.referencePrice = referencePrice;
+        this.midpointPrice = midpointPrice;
+        this.sequence = sequence;
+        this.lastOrderID = lastOrderID;
+        this.lastExecID = lastExecID;
+        this.staticRefPrice = staticRefPrice;
+        this.staticPriceDeviationPerc = staticPriceDeviationPerc;
+        this.dynamicRefPrice = dynamicRefPrice;
+        this.dynamicPriceDeviationPerc = dynamicPriceDeviationPerc;
+        this.orderbookState = orderbookState;
+        this.tradingFormState = tradingFormState;
+        this.sides = sides;
+    }
+
+    /**
+     * Capture the state of the trading form, its orderbook and the match engine of the orderbook.
+     *
+     * @param journalPosition position after the last command already applied to the trading form
+     */
+    public static Snapshot capture( TradingForm<?> tradingForm, ContinuousMatchEngine engine, long journalPosition ) {
+        return capture( tradingForm.getOrderbook(), tradingForm.getCurrentState(), engine, journalPosition );
+    }
+
+    /**
+     * @param journalPosition position after the last command already applied to the orderbook
+     */
+    public static Snapshot capture( Orderbook orderbook, ContinuousMatchEngine engine, long journalPosition ) {
+        return capture( orderbook, null, engine, journalPosition );
+    }
+
+    private static Snapshot capture( Orderbook orderbook, Enum<?> tradingFormState, ContinuousMatchEngine engine,
+                                     long journalPosition ) {
+        List<List<Order>> sides = new ArrayList<>();
+        for ( OrderbookSide side : sidesOf(orderbook) ) {
+            Collection<Order> orders = side.getOrders();
+            List<Order> copies = new ArrayList<>( orders.size() + side.getStopOrders().size() );
+            for ( Order order : orders ) {
+                copies.add( order.mutableClone() );
+            }
+            for ( Order stopOrder : side.getStopOrders() ) {
+                copies.add( stopOrder.mutableClone() );
+            }
+            sides.add(copies);
+        }
+
+        VolatilityInterruptionGuard guard = engine.getPriceGuard();
+        return new Snapshot( journalPosition, engine.getReferencePriceTicks(), engine.getMidpointPriceTicks(),
+                             engine.getSequence(), orderbook.getOrderIds().getLastOrderID(),
+                             orderbook.getExecutionReports().map(ExecutionReportBuffer::getExecIdSequence).orElse(0L),
+                             guard.getStaticRange().getRefPriceTicks(), guard.getStaticRange().getPriceDeviationPerc(),
+                             guard.getDynamicRange().getRefPriceTicks(), guard.getDynamicRange().getPriceDeviationPerc(),
+                             orderbook.getState(), tradingFormState, sides );
+    }
+
+    //--------------------------------------------------------
+    // restore
+    //--------------------------------------------------------
+
+    /**
+     * Restore the captured state into a freshly created trading form.
+     *
+     * @param engine match engine of the orderbook of the trading form
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void restore( TradingForm<?> tradingForm, ContinuousMatchEngine engine ) {
+        restore( tradingForm.getOrderbook(), engine );
+        if ( tradingFormState != null ) ((TradingForm) tradingForm).restoreState( tradingFormState );
+    }
+
+    /**
+     * Restore the captured state into a freshly created orderbook.
+     *
+     * @param engine match engine of the orderbook created with the reference price of this snapshot
+     */
+    public void restore( Orderbook orderbook, ContinuousMatchEngine engine ) {
+        if ( engine.getReferencePriceTicks() != referencePrice ) {
+            throw new JournalException("Snapshot taken with reference price " + getReferencePrice() +
+                                       " but engine has " + engine.getReferencePrice());
+        }
+
+        OrderbookSide[] targetSides = sidesOf(orderbook);
+        for ( int i = 0; i < targetSides.length; i++ ) {
+            if ( !targetSides[i].getOrders().isEmpty() || !targetSides[i].getStopOrders().isEmpty() ) {
+                throw new JournalException("Snapshot can only be restored into an empty orderbook!");
+            }
+            for ( Order order : sides.get(i) ) {
+                targetSides[i].add( order.mutableClone() );
+            }
+        }
+
+        if ( orderbookState == OrderbookState.OPEN ) {
+            orderbook.open();
+        } else if ( orderbookState == OrderbookState.PARTIALLY_CLOSED ) {
+            orderbook.closePartially();
+        } else {
+            orderbook.close();
+        }
+
+        orderbook.getOrderIds().restore( lastOrderID );
+        orderbook.getExecutionReports().ifPresent( reports -> reports.restore(lastExecID) );
+        engine.restore( sequence, midpointPrice );
+        engine.getPriceGuard().restore( staticRefPrice, staticPriceDeviationPerc,
+                                        dynamicRefPrice, dynamicPriceDeviationPerc );
+    }
+
+    //--------------------------------------------------------
+    // file IO
+    //--------------------------------------------------------
+
+    /**
+     * Write to a temporary file first and then move it to the target, so a snapshot file is always complete.
+     */
+    public void writeTo( Path file ) {
+        String stateType = tradingFormState == null ? "" : tradingFormState.getDeclaringClass().getName();
+        int size = 2 * Integer.BYTES + 8 * Long.BYTES + 2 * Float.BYTES + Byte.BYTES +
+                   Short.BYTES + Character.BYTES * stateType.length() + Integer.BYTES;
+        for ( List<Order> orders : sides ) {
+            size += Integer.BYTES;
+            for ( Order order : orders ) {
+                size += orderSize(order);
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(MAGIC).putInt(VERSION)
+              .putLong(journalPosition)
+              .putLong(referencePrice).putLong(midpointPrice).putLong(sequence).putLong(lastOrderID)
+              .putLong(lastExecID)
+              .putLong(staticRefPrice).putFloat(staticPriceDeviationPerc)
+              .putLong(dynamicRefPrice).putFloat(dynamicPriceDeviationPerc)
+              .put( ordinal(orderbookState) );
+        putString( buffer, stateType );
+        buffer.putInt( tradingFormState == null ? -1 : tradingFormState.ordinal() );
+        for ( List<Order> orders : sides ) {
+            buffer.putInt( orders.size() );
+            for ( Order order : orders ) {
+                encodeOrder( buffer, order );
+            }
+        }
+        buffer.flip();
+
+        Path tmp = file.resolveSibling( file.getFileName() + ".tmp" );
+        try ( FileChannel channel = FileChannel.open(tmp, CREATE, WRITE, TRUNCATE_EXISTING) ) {
+            while ( buffer.hasRemaining() ) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } catch ( IOException e ) {
+            throw new JournalException("Cannot write snapshot " + tmp, e);
+        }
+
+        try {
+            Files.move( tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING );
+        } catch ( IOException e ) {
+            throw new JournalException("Cannot move snapshot to " + file, e);
+        }
+    }
+
+    public static Snapshot readFrom( Path file ) {
+        final ByteBuffer buffer;
+        try {
+            buffer = ByteBuffer.wrap( Files.readAllBytes(file) );
+        } catch ( IOException e ) {
+            throw new JournalException("Cannot read snapshot " + file, e);
+        }
+
+        if ( buffer.getInt() != MAGIC || buffer.getInt() != VERSION ) {
+            throw new JournalException("Not a snapshot of version " + VERSION + ": " + file);
+        }
+        long journalPosition = buffer.getLong();
+        long referencePrice = buffer.getLong();
+        long midpointPrice = buffer.getLong();
+        long sequence = buffer.getLong();
+        long lastOrderID = buffer.getLong();
+        long lastExecID = buffer.getLong();
+        long staticRefPrice = buffer.getLong();
+        float staticPriceDeviationPerc = buffer.getFloat();
+        long dynamicRefPrice = buffer.getLong();
+        float dynamicPriceDeviationPerc = buffer.getFloat();
+        OrderbookState orderbookState = value( OrderbookState.values(), buffer.get() );
+        String stateType = getString(buffer);
+        int stateOrdinal = buffer.getInt();
+        Enum<?> tradingFormState = stateType.isEmpty() ? null : enumConstant(stateType, stateOrdinal);
+
+        List<List<Order>> sides = new ArrayList<>();
+        for ( int i = 0; i < 4; i++ ) {
+            int count = buffer.getInt();
+            List<Order> orders = new ArrayList<>(count);
+            for ( int j = 0; j < count; j++ ) {
+                orders.add( decodeOrder(buffer) );
+            }
+            sides.add(orders);
+        }
+
+        return new Snapshot( journalPosition, referencePrice, midpointPrice, sequence, lastOrderID, lastExecID,
+                             staticRefPrice, staticPriceDeviationPerc, dynamicRefPrice, dynamicPriceDeviationPerc,
+                             orderbookState, tradingFormState, sides );
+    }
+
+    //--------------------------------------------------------
+    // accessors
+    //--------------------------------------------------------
+
+    /**
+     * @return position of the first journal record not contained in this snapshot
+     */
+    public long getJournalPosition() { return journalPosition; }
+
+    public double getReferencePrice() { return Ticks.toPrice(referencePrice); }
+
+    public long getSequence() { return sequence; }
+
+    public long getLastOrderID() { return lastOrderID; }
+
+    public long getLastExecID() { return lastExecID; }
+
+    public int getOrderCount() {
+        return sides.stream().mapToInt(List::size).sum();
+    }
+
+
+    private static OrderbookSide[] sidesOf( Orderbook orderbook ) {
+        return new OrderbookSide[]{ orderbook.getBuySide(), orderbook.getSellSide(),
+                                    orderbook.getBuySideMidpoint(), orderbook.getSellSideMidpoint() };
+    }
+}
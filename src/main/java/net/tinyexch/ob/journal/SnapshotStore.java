@@ -0,0 +1,84 @@
+package net.tinyexch.ob.journal;
+
+import net.tinyexch.exchange.trading.form.TradingForm;
+import net.tinyexch.ob.match.ContinuousMatchEngine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Directory of snapshots named after the journal position they were taken at.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public class SnapshotStore {
+
+    private final static Logger LOGGER = LoggerFactory.getLogger(SnapshotStore.class);
+
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".snap";
+
+    private final Path directory;
+
+
+    public SnapshotStore( Path directory ) {
+        this.directory = directory;
+        try {
+            Files.createDirectories(directory);
+        } catch ( IOException e ) {
+            throw new JournalException("Cannot create snapshot directory " + directory, e);
+        }
+    }
+
+    public Path save( Snapshot snapshot ) {
+        Path file = directory.resolve( String.format("%s%020d%s", PREFIX, snapshot.getJournalPosition(), SUFFIX) );
+        snapshot.writeTo(file);
+        LOGGER.info("Saved snapshot with {} orders to {}", snapshot.getOrderCount(), file);
+        return file;
+    }
+
+    /**
+     * @return snapshot taken at the highest journal position
+     */
+    public Optional<Snapshot> latest() {
+        Path latest = null;
+        try ( DirectoryStream<Path> files = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX) ) {
+            for ( Path file : files ) {
+                // zero padded positions sort like numbers
+                if ( latest == null || file.getFileName().toString().compareTo(latest.getFileName().toString()) > 0 ) {
+                    latest = file;
+                }
+            }
+        } catch ( IOException e ) {
+            throw new JournalException("Cannot list snapshots in " + directory, e);
+        }
+
+        return Optional.ofNullable(latest).map(Snapshot::readFrom);
+    }
+
+    /**
+     * Restore the latest snapshot into a freshly created trading form and replay the commands recorded after it.
+     *
+     * @param engine match engine of the orderbook of the trading form
+     * @return journal position after the last replayed command
+     */
+    public long recover( TradingForm<?> tradingForm, ContinuousMatchEngine engine, JournalReader journal ) {
+        return recover( tradingForm, engine, journal, Long.MAX_VALUE );
+    }
+
+    long recover( TradingForm<?> tradingForm, ContinuousMatchEngine engine, JournalReader journal, long to ) {
+        Optional<Snapshot> snapshot = latest();
+        snapshot.ifPresent( s -> s.restore(tradingForm, engine) );
+        long from = snapshot.map(Snapshot::getJournalPosition).orElse(0L);
+
+        long position = journal.replay( from, to, new OrderbookReplayer(tradingForm) );
+        LOGGER.info("Recovered from snapshot at {} and replayed journal up to {}", from, position);
+        return position;
+    }
+}
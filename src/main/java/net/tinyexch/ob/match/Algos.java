@@ -8,9 +8,10 @@ import org.slf4j.LoggerFactory;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.function.DoubleBinaryOperator;
 import java.util.function.DoublePredicate;
 import java.util.function.Predicate;
-import java.util.function.ToDoubleBiFunction;
 
 /**
  * For certain tasks sort and search algorithms are used. They implementation and exposure is kept here. This class is
@@ -48,27 +49,28 @@ public final class Algos {
      *
      * @param askSearchPrice best ask price retrieved from the top of the ask side
      * @param bidPrices ordered bid prices with best bid (highest) coming first
-     * @return worst ask price still in the market
+     * @return worst bid price still in the market
      */
-    public static Optional<Double> searchClosestBid(double askSearchPrice, double[] bidPrices ) {
-        return searchClosest(askSearchPrice, bidPrices, bid -> bid >= askSearchPrice);
+    public static OptionalDouble searchClosestBid(double askSearchPrice, double[] bidPrices ) {
+        return binarySearchClosest(askSearchPrice, bidPrices, true);
     }
 
     /**
      * Same as #searchClosestBid(double, double[]) but with opposite semantics
      */
-    public static Optional<Double> searchClosestAsk(double bidSearchPrice, double[] askPrices ) {
-        return searchClosest(bidSearchPrice, askPrices, ask -> ask <= bidSearchPrice);
+    public static OptionalDouble searchClosestAsk(double bidSearchPrice, double[] askPrices ) {
+        return binarySearchClosest(bidSearchPrice, askPrices, false);
     }
 
     /**
+     * Reference implementation for any ordering of #prices. Kept to verify the binary search.
+     *
      * @param bestPrice top of the book price from other side
      * @param prices this side prices to search through
      * @param withinBoundaries specifies what price is within a valid price range
      * @return closest price from #prices to #bestPrice but #withinBoundaries
      */
     static Optional<Double> searchClosest(double bestPrice, double[] prices, DoublePredicate withinBoundaries ) {
-        // TODO (FRa) : (FRa) : replace with equivalent binSearch
         return sequentialSearchClosest( bestPrice, prices, Math::min, withinBoundaries );
     }
 
@@ -76,6 +78,39 @@ public final class Algos {
     // hide the algos we effectively use
     //--------------------------------------------------------------------------------------------------
 
+    /**
+     * Prices sorted best first are within the boundaries up to the price where the other side is not crossed anymore.
+     * The closest price to #searchPrice is the last one before this point, so it is found by bisecting the prices in
+     * O(log n) without any boxing.
+     *
+     * @param searchPrice best price of the other side
+     * @param prices this side prices with best price first
+     * @param bid true ... #prices are bids in descending order, false ... asks in ascending order
+     * @return closest price still crossing #searchPrice or empty if even the best price doesn't cross
+     */
+    private static OptionalDouble binarySearchClosest( final double searchPrice, double[] prices, boolean bid ) {
+        if ( prices == null || prices.length == 0) throw new IllegalArgumentException("Prices must not be empty!");
+        if ( !isCrossing(prices[0], searchPrice, bid) ) return OptionalDouble.empty();
+
+        // invariant: prices[low] is crossing, all prices after #high are not
+        int low = 0;
+        int high = prices.length - 1;
+        while ( low < high ) {
+            int mid = (low + high + 1) >>> 1;
+            if ( isCrossing(prices[mid], searchPrice, bid) ) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+
+        return OptionalDouble.of(prices[low]);
+    }
+
+    private static boolean isCrossing( double price, double otherSidePrice, boolean bid ) {
+        return bid ? price >= otherSidePrice : price <= otherSidePrice;
+    }
+
     /**
      * Linear search algo over sorted #prices stopping as soon the price found is worse than the one found previously.
      * Not very smart!
@@ -88,12 +123,14 @@ public final class Algos {
      * @return
      */
     private static Optional<Double> sequentialSearchClosest( final double searchPrice, double[] prices,
-                                    ToDoubleBiFunction<Double, Double> sameDistanceResolver,
+                                    DoubleBinaryOperator sameDistanceResolver,
                                     DoublePredicate withinBoundaries ) {
 
         if ( prices == null || prices.length == 0) throw new IllegalArgumentException("Prices must not be empty!");
 
-        LOGGER.debug("bestPrice={} inputPrices={}", searchPrice, Arrays.toString(prices));
+        if ( LOGGER.isDebugEnabled() ) {
+            LOGGER.debug("bestPrice={} inputPrices={}", searchPrice, Arrays.toString(prices));
+        }
 
         if (prices.length > 0 && !withinBoundaries.test(prices[0])) return Optional.empty();
         if (prices.length == 1)                                     return Optional.of(prices[0]);
@@ -111,7 +148,7 @@ public final class Algos {
                 closestPrice = price;
                 minDistance = distance;
 
-            } else if ( distance == minDistance ) {
+            } else if ( distance == minDistance && withinBoundaries.test(price) ) {
                 closestPrice = sameDistanceResolver.applyAsDouble( price, closestPrice );
 
             } else {
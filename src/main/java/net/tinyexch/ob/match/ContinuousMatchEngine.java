@@ -1,7 +1,13 @@
 package net.tinyexch.ob.match;
 
+import net.tinyexch.exchange.latency.LatencyRecorder;
+import net.tinyexch.exchange.latency.LatencyStage;
 import net.tinyexch.ob.OrderbookSide;
+import net.tinyexch.ob.PriceLevel;
+import net.tinyexch.ob.PriceLevelQueue;
+import net.tinyexch.ob.price.Ticks;
 import net.tinyexch.ob.RejectReason;
+import net.tinyexch.ob.clock.Clocks;
 import net.tinyexch.ob.match.Match.State;
 import net.tinyexch.ob.match.midpoint.MidpointMatcher;
 import net.tinyexch.ob.price.safeguard.VolatilityInterruption;
@@ -9,8 +15,6 @@ import net.tinyexch.ob.price.safeguard.VolatilityInterruptionGuard;
 import net.tinyexch.order.*;
 
 import java.util.*;
-import java.util.function.*;
-import java.util.stream.Stream;
 
 import static net.tinyexch.ob.match.Match.State.ACCEPT;
 import static net.tinyexch.ob.match.Match.State.REJECT;
@@ -30,26 +34,82 @@ import static net.tinyexch.order.ExecType.REJECTED;
  *
  * Midpoint orders are only accepted as LIMIT orders and validated against midpoint price.
  *
+ * Stop and stop-limit orders wait in the trigger book of their side until a trade in the lit book reaches their stop
+ * price. They then enter the book as market or limit order. Orders triggered by a match are processed within the
+ * same call and their trades are appended to the returned match.
+ *
+ * Orders with {@link TimeInForce#IOC} or {@link TimeInForce#FOK} never rest in the book, their open qty expires after
+ * the match. A FOK order is only matched if the aggregated qty of the crossing price levels covers it completely,
+ * otherwise it is killed without touching the book.
+ *
+ * In {@link ResultMode#REUSE} the engine recycles its {@link Match}, collector and trades and fills the resting
+ * orders in place instead of replacing them with modified copies. Matching a LIMIT order against resting LIMIT orders
+ * then doesn't allocate anything once the pools are warmed up. The returned match and its trades reference the live
+ * orders and are only valid until the next call to {@link #match(Order, OrderbookSide, OrderbookSide)}!
+ *
+ * In {@link ResultMode#FILL_IN_PLACE} the resting orders are filled in place as well, so a large passive order hit by
+ * many small aggressors keeps its identity and position in the book. Every match returns new trades which carry an
+ * immutable {@link Fill} of both orders.
+ *
  * @author ratzlow@gmail.com
  * @since 2014-12-23
  */
-// TODO (FRa) : (FRa) : consider TimeInForce for partial matching (e.g FOK, ...)
 public class ContinuousMatchEngine implements MatchEngine {
 
-    private final double referencePrice;
+    /** Defines how results of a match are handed out */
+    public enum ResultMode {
+        /** every match returns new objects with snapshots of the matched orders */
+        ALLOCATE,
+        /** match, collector and trades are recycled and reference the live orders */
+        REUSE,
+        /** resting orders are filled in place, every match returns new trades with {@link Fill} snapshots */
+        FILL_IN_PLACE
+    }
+
+    private static final long NO_PRICE_TICKS = Ticks.of(NO_PRICE);
+
+    /** prices in {@link Ticks} */
+    private final long referencePrice;
     private final VolatilityInterruptionGuard priceGuard;
-    private double midpointPrice = NO_PRICE;
+    private final ResultMode resultMode;
+    private long midpointPrice;
+    /** price of the last trade in the lit book, stop orders are triggered by it */
+    private long lastPrice = NO_PRICE_TICKS;
     private long sequence = 0;
+    private LatencyRecorder latencyRecorder = LatencyRecorder.NO_OP;
+
+    /** carrier for the order taken from the other side, reused for every retrieval */
+    private final OrderRetrievalResult retrievalResult = new OrderRetrievalResult();
+
+    private final MidpointMatcher midpointMatcher;
+
+    /** only used in REUSE mode */
+    private final MatchCollector reusableCollector;
+    private final Match reusableMatch;
 
 
     //------------------------------------------------------------------------------------------------------------------
     // constructors
     //------------------------------------------------------------------------------------------------------------------
 
-    public ContinuousMatchEngine( double referencePrice, VolatilityInterruptionGuard guard, double midpointPrice ) {
-        this.referencePrice = referencePrice;
+    public ContinuousMatchEngine( double referencePrice, VolatilityInterruptionGuard guard, double midpointPrice,
+                                  ResultMode resultMode ) {
+        this.referencePrice = Ticks.of(referencePrice);
         this.priceGuard = guard;
-        this.midpointPrice = midpointPrice;
+        this.midpointMatcher = new MidpointMatcher(guard);
+        this.midpointPrice = Ticks.of(midpointPrice);
+        this.resultMode = resultMode;
+        if ( resultMode == ResultMode.REUSE ) {
+            this.reusableCollector = new MatchCollector(true);
+            this.reusableMatch = new Match(null, reusableCollector.getTrades(), ACCEPT, Optional.empty());
+        } else {
+            this.reusableCollector = null;
+            this.reusableMatch = null;
+        }
+    }
+
+    public ContinuousMatchEngine( double referencePrice, VolatilityInterruptionGuard guard, double midpointPrice ) {
+        this(referencePrice, guard, midpointPrice, ResultMode.ALLOCATE );
     }
 
     public ContinuousMatchEngine( double referencePrice, VolatilityInterruptionGuard guard ) {
@@ -62,6 +122,7 @@ public class ContinuousMatchEngine implements MatchEngine {
 
     @Override
     public Match match(final Order incoming, OrderbookSide otherSide, OrderbookSide thisSide) {
+        long startNanos = System.nanoTime();
         OrderType orderType = incoming.getOrderType();
 
         if ( incoming.isMidpoint() && orderType != OrderType.LIMIT ) {
@@ -73,123 +134,231 @@ public class ContinuousMatchEngine implements MatchEngine {
         if ( incoming.isMidpoint() ) {
             matchCollector = matchMidpoint(incoming, otherSide );
 
-        } else if (orderType == OrderType.LIMIT ) {
-            matchCollector = execute(incoming,
-                    () -> matchLimit(incoming, otherSide, thisSide),
-                                    () -> isLiquidityAvailable(otherSide, incoming.getPrice()) );
-
-        } else if ( orderType == OrderType.MARKET ) {
-            matchCollector = execute(incoming,
-                    () -> matchMarket(incoming, otherSide),
-                                    otherSide::isLiquidityAvailable);
-
-        } else if ( orderType == OrderType.MARKET_TO_LIMIT ) {
-            matchCollector = matchMarketToLimit( incoming, otherSide, thisSide );
+        } else if ( orderType.isStop() && !isTriggered(incoming, thisSide) ) {
+            // parked in the trigger book until a trade reaches the stop price
+            matchCollector = newCollector();
 
         } else {
-            throw new MatchException("Incoming order has unmatchable order type for continuous trading: " + incoming);
+            if ( orderType.isStop() ) trigger( incoming );
+            matchCollector = newCollector();
+            matchLit( incoming, otherSide, thisSide, matchCollector );
         }
 
         // update dyn reference price after incoming order was matched
         List<Trade> trades = matchCollector.getTrades();
-        if ( !trades.isEmpty() ) {
-            Trade lastTrade = trades.get(trades.size() - 1);
-            priceGuard.updateDynamicRefPrice(lastTrade);
-        }
-        
-        State state = (trades.size() == 1 && trades.get(0).getExecType() == REJECTED) ? REJECT : ACCEPT;
-        Match match = new Match(incoming, matchCollector.getTrades(), state, matchCollector.getVolatilityInterruption());
+        updateLastPrice( matchCollector, 0, !incoming.isMidpoint() );
 
+        State state = (trades.size() == 1 && trades.get(0).getExecType() == REJECTED) ? REJECT : ACCEPT;
 
         // TODO (FRa) : (FRa) : check round/odd lots handling
         boolean fullyMatched = incoming.getLeavesQty() == 0;
-        if ( !fullyMatched && match.getState() == Match.State.ACCEPT ) {
+        // an untriggered stop order is parked whatever its time in force, it applies once the order is triggered.
+        // A stop triggered on entry already changed its type, so its remainder is treated like any other order.
+        boolean rests = !isImmediate(incoming) || incoming.getOrderType().isStop();
+        if ( !fullyMatched && state == Match.State.ACCEPT && rests ) {
             thisSide.add( incoming.setSubmitSequence( ++sequence ) );
         }
 
         if ( incoming.isMidpoint() ) {
             this.midpointPrice = calcMidpointPrice( thisSide, otherSide );
+        } else if ( !trades.isEmpty() ) {
+            releaseTriggeredStops( matchCollector, otherSide, thisSide );
         }
 
+        Match match = matchCollector == reusableCollector ?
+                reusableMatch.reuse(incoming, state, matchCollector.getVolatilityInterruption()) :
+                new Match(incoming, matchCollector.getTrades(), state, matchCollector.getVolatilityInterruption());
+        match.removedOrders( matchCollector );
+
+        latencyRecorder.record( LatencyStage.MATCHING, System.nanoTime() - startNanos );
         return match;
     }
 
 
+    /**
+     * @return price in {@link Ticks} of the last trade in the lit book triggering stop orders or {@link #NO_PRICE} in
+     * ticks if nothing was traded yet
+     */
+    public long getLastPriceTicks() { return lastPrice; }
+
     public double getMidpointPrice() {
-        return midpointPrice;
+        return Ticks.toPrice(midpointPrice);
+    }
+
+    public long getMidpointPriceTicks() { return midpointPrice; }
+
+    public ResultMode getResultMode() { return resultMode; }
+
+    public double getReferencePrice() { return Ticks.toPrice(referencePrice); }
+
+    public long getReferencePriceTicks() { return referencePrice; }
+
+    public VolatilityInterruptionGuard getPriceGuard() { return priceGuard; }
+
+    /**
+     * @param latencyRecorder receives the duration of every match
+     */
+    public void setLatencyRecorder( LatencyRecorder latencyRecorder ) {
+        this.latencyRecorder = Objects.requireNonNull(latencyRecorder, "Recorder must not be null!");
+    }
+
+    /**
+     * @return sequence assigned to the last order added to the book
+     */
+    public long getSequence() { return sequence; }
+
+    /**
+     * Continue with the state of an engine the book was matched with before, e.g. after loading a snapshot.
+     */
+    public void restore( long sequence, long midpointPrice ) {
+        this.sequence = sequence;
+        this.midpointPrice = midpointPrice;
     }
 
     //------------------------------------------------------------------------------------------------------------------
     // implementation details
     //------------------------------------------------------------------------------------------------------------------
 
-    private MatchCollector matchMarketToLimit(Order incoming, OrderbookSide otherSide, OrderbookSide thisSide) {
-        final MatchCollector collector;
+    /**
+     * Match an order of the lit book. Its trades are appended to the given collector.
+     */
+    private void matchLit( Order incoming, OrderbookSide otherSide, OrderbookSide thisSide, MatchCollector collector ) {
+        OrderType orderType = incoming.getOrderType();
+        if ( orderType == OrderType.LIMIT || orderType == OrderType.MARKET ) {
+            execute(incoming, otherSide, thisSide, collector);
+
+        } else if ( orderType == OrderType.MARKET_TO_LIMIT ) {
+            matchMarketToLimit( incoming, otherSide, thisSide, collector );
+
+        } else {
+            throw new MatchException("Incoming order has unmatchable order type for continuous trading: " + incoming);
+        }
+    }
+
+
+    /**
+     * Release the stop orders triggered by the trades of the lit book. Trades of a released order can trigger further
+     * stop orders, the whole cascade is processed before the match returns and all trades end up in the collector.
+     * If buy and sell stops are triggered by the same price the buy stops are released first.
+     */
+    private void releaseTriggeredStops( MatchCollector collector, OrderbookSide otherSide, OrderbookSide thisSide ) {
+        OrderbookSide buySide = thisSide.getSide() == Side.BUY ? thisSide : otherSide;
+        OrderbookSide sellSide = thisSide.getSide() == Side.BUY ? otherSide : thisSide;
+        while ( lastPrice != NO_PRICE_TICKS && !collector.getVolatilityInterruption().isPresent() ) {
+            Order triggered = buySide.getStopOrders().pollTriggered(lastPrice);
+            if ( triggered == null ) triggered = sellSide.getStopOrders().pollTriggered(lastPrice);
+            if ( triggered == null ) return;
+
+            boolean isBuy = triggered.getSide() == Side.BUY;
+            OrderbookSide triggeredSide = isBuy ? buySide : sellSide;
+            trigger( triggered );
+            int tradeCount = collector.getTrades().size();
+            matchLit( triggered, isBuy ? sellSide : buySide, triggeredSide, collector );
+            updateLastPrice( collector, tradeCount, true );
+
+            if ( triggered.getLeavesQty() > 0 && !isImmediate(triggered) ) {
+                triggeredSide.add( triggered.setSubmitSequence( ++sequence ) );
+            } else {
+                // left the trigger book without resting in the book
+                collector.addRemovedOrderID( triggered.getOrderID() );
+            }
+        }
+    }
+
+
+    private boolean isTriggered( Order stopOrder, OrderbookSide thisSide ) {
+        return lastPrice != NO_PRICE_TICKS &&
+               thisSide.getStopOrders().isTriggered( stopOrder.getStopPriceTicks(), lastPrice );
+    }
+
+
+    /**
+     * Turn a triggered stop order into the order entering the book. It gets time priority of the trigger.
+     */
+    private static void trigger( Order stopOrder ) {
+        OrderType orderType = stopOrder.getOrderType() == OrderType.STOP_LIMIT ? OrderType.LIMIT : OrderType.MARKET;
+        stopOrder.setOrderType( orderType ).setTimestampNanos( Clocks.nanos() );
+    }
+
+
+    /**
+     * Move the dynamic reference price and, for the lit book, the last price to the last of the new trades.
+     *
+     * @param fromIndex first trade added by the latest order
+     * @param lit true ... the trades took place in the lit book and can trigger stop orders
+     */
+    private void updateLastPrice( MatchCollector collector, int fromIndex, boolean lit ) {
+        List<Trade> trades = collector.getTrades();
+        if ( trades.size() > fromIndex ) {
+            Trade lastTrade = trades.get(trades.size() - 1);
+            priceGuard.updateDynamicRefPrice(lastTrade);
+            if ( lit && lastTrade.getExecType() == ExecType.TRADE ) lastPrice = lastTrade.getPriceTicks();
+        }
+    }
+
+
+    private void matchMarketToLimit(Order incoming, OrderbookSide otherSide, OrderbookSide thisSide,
+                                    MatchCollector collector) {
         boolean hasLimitOrdersOnly = !otherSide.getLimitOrders().isEmpty() && otherSide.getMarketOrders().isEmpty();
         if ( hasLimitOrdersOnly ) {
 
-            double bestPriceOtherSide = otherSide.getLimitOrders().iterator().next().getPrice();
-            incoming.setPrice( bestPriceOtherSide );
+            long bestPriceOtherSide = otherSide.getLimitOrders().iterator().next().getPriceTicks();
+            incoming.setPriceTicks( bestPriceOtherSide );
             incoming.setOrderType( OrderType.LIMIT );
 
-            collector = execute(incoming,
-                    () -> matchLimit(incoming, otherSide, thisSide),
-                    () -> isLiquidityAvailable(otherSide, incoming.getPrice()) );
+            execute(incoming, otherSide, thisSide, collector);
         } else {
             final Order buy = incoming.getSide() == Side.BUY ? incoming : null;
             final Order sell = incoming.getSide() == Side.SELL ? incoming : null;
             Trade trade = Trade.of().setBuy(buy).setSell(sell).setExecType(REJECTED)
                                     .setOrderRejectReason(RejectReason.INSUFFICIENT_OB_CONSTELLATION.getMsg());
-            collector = new MatchCollector();
             collector.getTrades().add(trade);
         }
-
-        return collector;
     }
 
 
-    private MatchCollector execute(Order incomingOrder,
-                                   Supplier<OrderRetrievalResult> executionStrategy,
-                                   BooleanSupplier liquidityDeterminator) {
+    /**
+     * Match incoming LIMIT or MARKET order as long as there is liquidity on the other side.
+     */
+    private void execute(Order incomingOrder, OrderbookSide otherSide, OrderbookSide thisSide, MatchCollector collector) {
+        final boolean isLimit = incomingOrder.getOrderType() == OrderType.LIMIT;
+        if ( incomingOrder.getTimeInForce() == TimeInForce.FOK && !isFillable(incomingOrder, otherSide, thisSide, isLimit) ) {
+            return;
+        }
 
-        final MatchCollector collector = new MatchCollector();
         boolean matchNext = true;
-        while ( incomingOrder.getLeavesQty() > 0 && matchNext && liquidityDeterminator.getAsBoolean() ) {
-            final OrderRetrievalResult retrievalResult = executionStrategy.get();
-            addMatchResultToCollector( incomingOrder, collector, retrievalResult );
-            matchNext = retrievalResult.isValidMatch();
+        while ( incomingOrder.getLeavesQty() > 0 && matchNext &&
+                (isLimit ? isLiquidityAvailable(otherSide, incomingOrder.getPriceTicks()) : otherSide.isLiquidityAvailable()) ) {
+            final OrderRetrievalResult result = isLimit ?
+                    matchLimit(incomingOrder, otherSide, thisSide) :
+                    matchMarket(incomingOrder, otherSide, thisSide);
+            addMatchResultToCollector( incomingOrder, collector, result );
+            matchNext = result.isValidMatch();
         }
+    }
+
 
-        return collector;
+    private MatchCollector newCollector() {
+        return resultMode == ResultMode.REUSE ? reusableCollector.clear() : new MatchCollector();
     }
 
 
     private MatchCollector matchMidpoint( Order incoming, OrderbookSide otherSide ) {
-        MidpointMatcher matcher = new MidpointMatcher( midpointPrice, priceGuard );
-        return matcher.matchMidpoint( incoming, otherSide );
+        return midpointMatcher.matchMidpoint( incoming, otherSide, midpointPrice );
     }
 
 
     private OrderRetrievalResult matchLimit(Order incomingLimitOrder, OrderbookSide otherSide, OrderbookSide thisSide) {
-        Side side = otherSide.getSide();
         boolean hasMarketOrders = !otherSide.getMarketOrders().isEmpty();
         boolean hasLimitOrders = !otherSide.getLimitOrders().isEmpty();
 
         final OrderRetrievalResult retrievalResult;
-        if (hasMarketOrders && hasLimitOrders) {
-            Order bestLimitOtherSide = otherSide.getLimitOrders().peek();
-            Order bestLimitThisSide = thisSide.getLimitOrders().peek();
-            double lowestAsk = getBestAskPrice(bestLimitThisSide, bestLimitOtherSide, incomingLimitOrder);
-            double highestBid = getBestBidPrice(bestLimitThisSide, bestLimitOtherSide, incomingLimitOrder);
-            double executionPrice = calcExecutionPrice(otherSide.getSide(), highestBid, lowestAsk);
-            retrievalResult = dequeueConditionally(otherSide.getMarketOrders(), incomingLimitOrder, order -> executionPrice);
+        if (hasMarketOrders) {
+            long executionPrice = priceAgainstMarketOrders(incomingLimitOrder, otherSide, thisSide);
+            retrievalResult = dequeueConditionally(otherSide.getMarketOrders(), incomingLimitOrder, executionPrice);
 
-        } else if (!hasMarketOrders && hasLimitOrders) {
-            retrievalResult = dequeueConditionally(otherSide.getLimitOrders(), incomingLimitOrder, Order::getPrice);
-
-        } else if (hasMarketOrders && !hasLimitOrders) {
-            double executionPrice = calcExecutionPrice(side, incomingLimitOrder.getPrice());
-            retrievalResult = dequeueConditionally(otherSide.getMarketOrders(), incomingLimitOrder, order -> executionPrice);
+        } else if (hasLimitOrders) {
+            retrievalResult = dequeueConditionally(otherSide.getLimitOrders(), incomingLimitOrder, NO_PRICE_TICKS);
 
         } else {
             throw new MatchException("Matching not implemented! incomingLimitOrder to match: " + incomingLimitOrder);
@@ -199,21 +368,16 @@ public class ContinuousMatchEngine implements MatchEngine {
     }
 
 
-    private OrderRetrievalResult matchMarket(Order incomingOrder, OrderbookSide otherSide) {
-        Side side = otherSide.getSide();
+    private OrderRetrievalResult matchMarket(Order incomingOrder, OrderbookSide otherSide, OrderbookSide thisSide) {
         boolean hasMarketOrders = !otherSide.getMarketOrders().isEmpty();
         boolean hasLimitOrders = !otherSide.getLimitOrders().isEmpty();
         final OrderRetrievalResult retrievalResult;
-        if ( hasMarketOrders && !hasLimitOrders ) {
-            retrievalResult = dequeueConditionally(otherSide.getMarketOrders(), incomingOrder, order -> referencePrice);
-
-        } else if ( !hasMarketOrders && hasLimitOrders ) {
-            retrievalResult = dequeueConditionally(otherSide.getLimitOrders(), incomingOrder, Order::getPrice);
+        if ( hasMarketOrders ) {
+            long executionPrice = priceAgainstMarketOrders(incomingOrder, otherSide, thisSide);
+            retrievalResult = dequeueConditionally(otherSide.getMarketOrders(), incomingOrder, executionPrice);
 
-        } else if ( hasMarketOrders && hasLimitOrders ) {
-            double bestPriceOnOtherSide = otherSide.getLimitOrders().peek().getPrice();
-            double executionPrice = calcExecutionPrice(side, bestPriceOnOtherSide);
-            retrievalResult = dequeueConditionally(otherSide.getMarketOrders(), incomingOrder, order -> executionPrice);
+        } else if ( hasLimitOrders ) {
+            retrievalResult = dequeueConditionally(otherSide.getLimitOrders(), incomingOrder, NO_PRICE_TICKS);
 
         } else {
             throw new UnsupportedOperationException("Matching not implemented! order to match: " + incomingOrder);
@@ -232,20 +396,54 @@ public class ContinuousMatchEngine implements MatchEngine {
     private int addMatchResultToCollector(Order incomingOrder, MatchCollector collector,
                                           OrderRetrievalResult retrievalResult) {
         final int executionQty;
-        if (retrievalResult.tradedOrder.isPresent()) {
-            Order otherSideOrder = retrievalResult.tradedOrder.get();
-            double executionPrice = retrievalResult.executionPrice.getAsDouble();
+        Trade filledInPlace = null;
+        if ( retrievalResult.tradedOrder != null && retrievalResult.removed ) {
+            collector.addRemovedOrderID( retrievalResult.tradedOrder.getOrderID() );
+        }
+
+        if ( retrievalResult.tradedOrder != null && resultMode == ResultMode.REUSE ) {
+            Order otherSideOrder = retrievalResult.tradedOrder;
+            boolean otherSideIsBuy = otherSideOrder.getSide() == Side.BUY;
+            executionQty = retrievalResult.executionQty;
+            collector.nextTrade()
+                    .setBuy( otherSideIsBuy ? otherSideOrder : incomingOrder )
+                    .setSell( otherSideIsBuy ? incomingOrder : otherSideOrder )
+                    .setExecutionQty( executionQty )
+                    .setPriceTicks( retrievalResult.executionPrice )
+                    .setExecType( ExecType.TRADE )
+                    .setExecutionTimeNanos( incomingOrder.getTimestampNanos() );
+
+        } else if ( retrievalResult.tradedOrder != null && resultMode == ResultMode.FILL_IN_PLACE ) {
+            Order otherSideOrder = retrievalResult.tradedOrder;
+            boolean otherSideIsBuy = otherSideOrder.getSide() == Side.BUY;
+            executionQty = retrievalResult.executionQty;
+            filledInPlace = Trade.of()
+                    .setBuy( otherSideIsBuy ? otherSideOrder : incomingOrder )
+                    .setSell( otherSideIsBuy ? incomingOrder : otherSideOrder )
+                    .setExecutionQty( executionQty )
+                    .setPriceTicks( retrievalResult.executionPrice )
+                    .setExecType( ExecType.TRADE )
+                    .setExecutionTimeNanos( incomingOrder.getTimestampNanos() );
+            collector.getTrades().add(filledInPlace);
+
+        } else if ( retrievalResult.tradedOrder != null ) {
+            Order otherSideOrder = retrievalResult.tradedOrder;
+            long executionPrice = retrievalResult.executionPrice;
 
             Trade trade = createTrade(incomingOrder, otherSideOrder, executionPrice,
                     (Order buy, Order sell) -> Math.min(buy.getLeavesQty(), sell.getLeavesQty()));
             collector.getTrades().add(trade);
             executionQty = trade.getExecutionQty();
         } else {
-            collector.setVolatilityInterruption( retrievalResult.volatilityInterruption );
+            collector.setVolatilityInterruption( Optional.ofNullable(retrievalResult.volatilityInterruption) );
             executionQty = 0;
         }
 
-        incomingOrder.setCumQty( incomingOrder.getCumQty() + executionQty, incomingOrder.getTimestamp() );
+        incomingOrder.setCumQty( incomingOrder.getCumQty() + executionQty, incomingOrder.getTimestampNanos() );
+        if ( filledInPlace != null ) {
+            // both orders are up to date now
+            filledInPlace.setBuyFill( Fill.of(filledInPlace.getBuy()) ).setSellFill( Fill.of(filledInPlace.getSell()) );
+        }
         return executionQty;
     }
 
@@ -254,31 +452,38 @@ public class ContinuousMatchEngine implements MatchEngine {
      *
      * @param otherSideQueue the structure applicable for matching
      * @param incomingOrder with the qty to fill for the incoming order
+     * @param executionPrice price to check against the price ranges or {@link #NO_PRICE_TICKS} to use the limit of the
+     *                       order on top of the other side
      * @return the order from other side, which will remain in the book with a reduced open size if it cannot be fully
      * matched otherwise it will be removed from the book OR a
      * {@link net.tinyexch.ob.price.safeguard.VolatilityInterruption} if the potential execution price left the predefined
      * price range
      */
     private OrderRetrievalResult dequeueConditionally( Queue<Order> otherSideQueue, Order incomingOrder,
-                                                       Function<Order, Double> getPotentialExecutionPrice ) {
-        Order tradedOrder = null;
-        double potentialExecutionPrice = NO_PRICE;
-        VolatilityInterruption interruption = null;
+                                                       long executionPrice ) {
+        final OrderRetrievalResult result = retrievalResult.reset();
 
         if ( !otherSideQueue.isEmpty() ) {
             Order topOnBook = otherSideQueue.peek();
-            potentialExecutionPrice = getPotentialExecutionPrice.apply(topOnBook);
+            long potentialExecutionPrice = executionPrice == NO_PRICE_TICKS ? topOnBook.getPriceTicks() : executionPrice;
+            result.executionPrice = potentialExecutionPrice;
             Optional<VolatilityInterruption> volatilityInterruption =
-                    priceGuard.checkIndicativePrice(potentialExecutionPrice);
+                    priceGuard.checkIndicativePriceTicks(potentialExecutionPrice);
             if ( !volatilityInterruption.isPresent() ) {
-                tradedOrder = retrieveTradedOrder(incomingOrder, otherSideQueue );
+                result.removed = !isSurplusAvailable(topOnBook, incomingOrder.getLeavesQty());
+                if ( resultMode != ResultMode.ALLOCATE ) {
+                    result.executionQty = Math.min(topOnBook.getLeavesQty(), incomingOrder.getLeavesQty());
+                    result.tradedOrder = fillInPlace(incomingOrder, otherSideQueue, result.executionQty);
+                } else {
+                    result.tradedOrder = retrieveTradedOrder(incomingOrder, otherSideQueue);
+                }
 
             } else {
-                interruption = volatilityInterruption.get();
+                result.volatilityInterruption = volatilityInterruption.get();
             }
         }
 
-        return new OrderRetrievalResult( tradedOrder, potentialExecutionPrice, interruption );
+        return result;
     }
 
 
@@ -289,7 +494,7 @@ public class ContinuousMatchEngine implements MatchEngine {
             Order modifiedOrder = topOnBook.mutableClone();
             if ( topOnBook.isIceberg() ) {
                 int newCumQty = topOnBook.getCumQty() + Math.min(topOnBook.getLeavesQty(), incomingOrder.getLeavesQty());
-                modifiedOrder.setCumQty(newCumQty, incomingOrder.getTimestamp());
+                modifiedOrder.setCumQty(newCumQty, incomingOrder.getTimestampNanos());
 
             } else {
                 int newCumQty = topOnBook.getCumQty() + incomingOrder.getLeavesQty();
@@ -303,6 +508,35 @@ public class ContinuousMatchEngine implements MatchEngine {
     }
 
 
+    /**
+     * Execute the order on top of the other side in place. Unlike {@link #retrieveTradedOrder(Order, Queue)} the
+     * resting order is neither copied nor reinserted unless it lost its time priority by exposing a new iceberg slice.
+     *
+     * @return the order on top of the other side after the execution was applied
+     */
+    private Order fillInPlace(Order incomingOrder, Queue<Order> otherSide, int executionQty) {
+        Order topOnBook = otherSide.peek();
+        int newCumQty = topOnBook.getCumQty() + executionQty;
+        if ( isSurplusAvailable(topOnBook, incomingOrder.getLeavesQty()) ) {
+            long timestamp = topOnBook.getTimestampNanos();
+            topOnBook.setCumQty(newCumQty, incomingOrder.getTimestampNanos());
+
+            if ( otherSide instanceof PriceLevelQueue ) {
+                ((PriceLevelQueue) otherSide).refresh(topOnBook);
+            } else if ( timestamp != topOnBook.getTimestampNanos() ) {
+                otherSide.poll();
+                otherSide.offer(topOnBook);
+            }
+
+        } else {
+            otherSide.poll();
+            topOnBook.setCumQty(newCumQty);
+        }
+
+        return topOnBook;
+    }
+
+
     private boolean isSurplusAvailable(Order o, int incomingOrderLeaveQty) {
         final boolean surplus;
         if ( o.isIceberg() ) {
@@ -314,16 +548,17 @@ public class ContinuousMatchEngine implements MatchEngine {
     }
 
     /**
-     * @return the price as min(bid,ask) + (bestBid - bestAsk) / 2 if liquidity is available - otherwise Optional.empty()
+     * @return the price as min(bid,ask) + (bestBid - bestAsk) / 2 if visible liquidity is available on both sides -
+     * otherwise the current midpoint price
      */
-    private double calcMidpointPrice( OrderbookSide thisSide, OrderbookSide otherSide ) {
+    private long calcMidpointPrice( OrderbookSide thisSide, OrderbookSide otherSide ) {
         OrderbookSide sellSide = otherSide.getSide() == Side.SELL ? otherSide : thisSide;
         OrderbookSide buySide = otherSide.getSide() == Side.BUY ? otherSide : thisSide;
-        final double price;
-        if ( sellSide.isLiquidityAvailable() && buySide.isLiquidityAvailable() ) {
-            double bestSellPrice = sellSide.getBest().stream().findFirst().get().getPrice();
-            double bestBuyPrice = buySide.getBest().stream().findFirst().get().getPrice();
-            price = Math.min(bestSellPrice, bestBuyPrice) + Math.abs(bestBuyPrice - bestSellPrice) / 2;
+        Optional<Order> bestSell = sellSide.getBestVisible();
+        Optional<Order> bestBuy = buySide.getBestVisible();
+        final long price;
+        if ( bestSell.isPresent() && bestBuy.isPresent() ) {
+            price = Ticks.midpoint( bestBuy.get().getPriceTicks(), bestSell.get().getPriceTicks() );
 
         } else { price = midpointPrice; }
 
@@ -331,8 +566,37 @@ public class ContinuousMatchEngine implements MatchEngine {
     }
 
 
-    private double calcExecutionPrice(Side otherSide, double bestPriceOnOtherSide ) {
-        final double executionPrice;
+    /**
+     * Price the incoming order is executed at against the market orders of the other side. Resting market orders
+     * are executed before the limit orders, so the price doesn't change while they are consumed.
+     */
+    private long priceAgainstMarketOrders( Order incoming, OrderbookSide otherSide, OrderbookSide thisSide ) {
+        Side side = otherSide.getSide();
+        boolean hasLimitOrders = !otherSide.getLimitOrders().isEmpty();
+        final long executionPrice;
+        if ( incoming.getOrderType() == OrderType.LIMIT && hasLimitOrders ) {
+            Order bestLimitOtherSide = otherSide.getLimitOrders().peek();
+            Order bestLimitThisSide = thisSide.getLimitOrders().peek();
+            long lowestAsk = getBestAskPrice(bestLimitThisSide, bestLimitOtherSide, incoming);
+            long highestBid = getBestBidPrice(bestLimitThisSide, bestLimitOtherSide, incoming);
+            executionPrice = calcExecutionPrice(side, highestBid, lowestAsk);
+
+        } else if ( incoming.getOrderType() == OrderType.LIMIT ) {
+            executionPrice = calcExecutionPrice(side, incoming.getPriceTicks());
+
+        } else if ( hasLimitOrders ) {
+            executionPrice = calcExecutionPrice(side, otherSide.getLimitOrders().peek().getPriceTicks());
+
+        } else {
+            executionPrice = referencePrice;
+        }
+
+        return executionPrice;
+    }
+
+
+    private long calcExecutionPrice(Side otherSide, long bestPriceOnOtherSide ) {
+        final long executionPrice;
         if (otherSide == Side.BUY) {
             executionPrice = referencePrice >= bestPriceOnOtherSide ? referencePrice : bestPriceOnOtherSide;
         } else {
@@ -343,8 +607,8 @@ public class ContinuousMatchEngine implements MatchEngine {
     }
 
 
-    private double calcExecutionPrice(Side otherSide, double highestBidLimit, double lowestAskLimit ) {
-        double execPrice = NO_PRICE;
+    private long calcExecutionPrice(Side otherSide, long highestBidLimit, long lowestAskLimit ) {
+        long execPrice = NO_PRICE_TICKS;
         if (otherSide == Side.BUY) {
             if (referencePrice >= highestBidLimit && referencePrice >= lowestAskLimit ) {
                 execPrice = referencePrice;
@@ -363,10 +627,10 @@ public class ContinuousMatchEngine implements MatchEngine {
             }
         }
 
-        if (execPrice == NO_PRICE) {
+        if (execPrice == NO_PRICE_TICKS) {
             String msg = String.format(
                     "Cannot define execution price for limit order. otherSide=%s, highestBidLimit=%f, lowestAskLimit=%f",
-                    otherSide, highestBidLimit, lowestAskLimit);
+                    otherSide, Ticks.toPrice(highestBidLimit), Ticks.toPrice(lowestAskLimit));
             throw new MatchException(msg);
         }
 
@@ -374,54 +638,131 @@ public class ContinuousMatchEngine implements MatchEngine {
     }
 
 
+    /**
+     * Check if the other side holds enough qty to execute the whole order. Limit orders are counted by the aggregated
+     * qty of their price levels, so neither the book nor the order is touched. Counting stops at the first level not
+     * crossing the limit or once the order is covered. Hidden orders count, iceberg reserves don't, as an iceberg
+     * might leave the book after its displayed slice. Neither the price resting market orders are executed at nor
+     * the price of the worst level needed may cause a volatility interruption, otherwise the order would be filled
+     * partially.
+     */
+    private boolean isFillable( Order incoming, OrderbookSide otherSide, OrderbookSide thisSide, boolean isLimit ) {
+        final int requiredQty = incoming.getLeavesQty();
+        long availableQty = 0;
+        for ( Order marketOrder : otherSide.getMarketOrders() ) {
+            availableQty += marketOrder.getLeavesQty();
+        }
+        if ( availableQty > 0 ) {
+            long marketPrice = priceAgainstMarketOrders( incoming, otherSide, thisSide );
+            if ( priceGuard.checkIndicativePriceTicks(marketPrice).isPresent() ) return false;
+        }
+
+        long worstPrice = NO_PRICE_TICKS;
+        Optional<PriceLevelQueue> priceLevels = otherSide.getPriceLevels();
+        if ( priceLevels.isPresent() ) {
+            Iterator<PriceLevel> levels = priceLevels.get().getLevels().iterator();
+            while ( availableQty < requiredQty && levels.hasNext() ) {
+                PriceLevel level = levels.next();
+                if ( isLimit && !isCrossedWith(otherSide, level.getPriceTicks(), incoming.getPriceTicks()) ) break;
+                availableQty += level.getVisibleQty() + level.getHiddenQty();
+                worstPrice = level.getPriceTicks();
+            }
+
+        } else {
+            // no levels to aggregate, sum up the crossing orders
+            Comparator<Order> bestFirst = otherSide.getSide() == Side.BUY ? BUY_PRICE_ORDERING : SELL_PRICE_ORDERING;
+            Order worst = null;
+            for ( Order limitOrder : otherSide.getLimitOrders() ) {
+                if ( !isLimit || isCrossedWith(otherSide, limitOrder.getPriceTicks(), incoming.getPriceTicks()) ) {
+                    availableQty += limitOrder.getLeavesQty();
+                    worst = worst == null || bestFirst.compare(limitOrder, worst) > 0 ? limitOrder : worst;
+                }
+            }
+            if ( worst != null ) worstPrice = worst.getPriceTicks();
+        }
+
+        return availableQty >= requiredQty &&
+               (worstPrice == NO_PRICE_TICKS || !priceGuard.checkIndicativePriceTicks(worstPrice).isPresent());
+    }
+
+
+    /**
+     * @return true ... a resting limit on the other side can be executed against the incoming limit
+     */
+    private static boolean isCrossedWith( OrderbookSide otherSide, long restingPrice, long incomingPrice ) {
+        return otherSide.getSide() == Side.BUY ? isCrossedPrice(restingPrice, incomingPrice) :
+                                                 isCrossedPrice(incomingPrice, restingPrice);
+    }
+
+
+    private static boolean isImmediate( Order order ) {
+        return order.getTimeInForce() != null && order.getTimeInForce().isImmediate();
+    }
+
+
     /**
      * @param otherSide orderbook side with orders to match against
      * @param limitPrice of this side order to check if we are in the market (against the other side best limit)
      * @return true ... order can be crossed with order on the other side
      */
-    private boolean isLiquidityAvailable(OrderbookSide otherSide, double limitPrice ) {
+    private boolean isLiquidityAvailable(OrderbookSide otherSide, long limitPrice ) {
 
         boolean hasExecutableLimitOrders = false;
         if (!otherSide.getLimitOrders().isEmpty()) {
             Order limitOnOtherSide = otherSide.getLimitOrders().peek();
             hasExecutableLimitOrders = otherSide.getSide() == Side.BUY ?
-                                            isCrossedPrice(limitOnOtherSide.getPrice(), limitPrice) :
-                                            isCrossedPrice(limitPrice, limitOnOtherSide.getPrice());
+                                            isCrossedPrice(limitOnOtherSide.getPriceTicks(), limitPrice) :
+                                            isCrossedPrice(limitPrice, limitOnOtherSide.getPriceTicks());
         }
 
         return !otherSide.getMarketOrders().isEmpty() ||
                 hasExecutableLimitOrders;
     }
 
-    private double getBestAskPrice( Order bestThisSide, Order bestOtherSide, Order incoming ) {
+    private long getBestAskPrice( Order bestThisSide, Order bestOtherSide, Order incoming ) {
         return getBestPrice(bestThisSide, bestOtherSide, incoming, Side.SELL, SELL_PRICE_ORDERING);
     }
 
-    private double getBestBidPrice( Order bestThisSide, Order bestOtherSide, Order incoming ) {
+    private long getBestBidPrice( Order bestThisSide, Order bestOtherSide, Order incoming ) {
         return getBestPrice(bestThisSide, bestOtherSide, incoming, Side.BUY, BUY_PRICE_ORDERING);
     }
 
-    private double getBestPrice(Order bestThisSide, Order bestOtherSide, Order incoming, Side side, Comparator<Order> bestFirst ) {
-        return Stream.of(bestThisSide, bestOtherSide, incoming)
-                .filter( o -> o != null ).filter( o -> o.getSide() == side)
-                .sorted(bestFirst).findFirst().get().getPrice();
+    private long getBestPrice(Order bestThisSide, Order bestOtherSide, Order incoming, Side side, Comparator<Order> bestFirst ) {
+        Order best = better( better(null, bestThisSide, side, bestFirst), bestOtherSide, side, bestFirst );
+        return better( best, incoming, side, bestFirst ).getPriceTicks();
     }
 
+    private Order better( Order best, Order candidate, Side side, Comparator<Order> bestFirst ) {
+        boolean isBetter = candidate != null && candidate.getSide() == side &&
+                (best == null || bestFirst.compare(candidate, best) < 0);
+        return isBetter ? candidate : best;
+    }
 
+
+    /**
+     * Mutable carrier of a single retrieval from the other side. Only one instance per engine is used.
+     */
     private static class OrderRetrievalResult {
-        /** Matched against the incoming order */
-        final Optional<Order> tradedOrder;
-        final OptionalDouble executionPrice;
-        final Optional<VolatilityInterruption> volatilityInterruption;
-
-        public OrderRetrievalResult(Order tradedOrder, double executionPrice, VolatilityInterruption volatilityInterruption) {
-            this.tradedOrder = Optional.ofNullable(tradedOrder);
-            this.volatilityInterruption = Optional.ofNullable(volatilityInterruption);
-            this.executionPrice = executionPrice < 0 ? OptionalDouble.empty() : OptionalDouble.of(executionPrice);
+        /** Matched against the incoming order, null if nothing was matched */
+        Order tradedOrder;
+        long executionPrice;
+        /** only set if the resting order was filled in place */
+        int executionQty;
+        /** true ... the traded order was executed completely and taken off the book */
+        boolean removed;
+        VolatilityInterruption volatilityInterruption;
+
+        OrderRetrievalResult reset() {
+            tradedOrder = null;
+            executionPrice = NO_PRICE_TICKS;
+            executionQty = 0;
+            removed = false;
+            volatilityInterruption = null;
+            return this;
         }
 
-        public boolean isValidMatch() {
-            return tradedOrder.isPresent() && executionPrice.isPresent() && !volatilityInterruption.isPresent();
+        boolean isValidMatch() {
+            return tradedOrder != null && executionPrice >= 0 && volatilityInterruption == null;
         }
     }
 }
\ No newline at end of file
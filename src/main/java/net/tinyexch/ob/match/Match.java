@@ -20,10 +20,14 @@ public class Match {
 
     public static final Match NO_MATCH = new Match();
 
-    private final Order matchedOrder;
+    private Order matchedOrder;
     private final List<Trade> trades;
-    private final State state;
-    private final Optional<VolatilityInterruption> volatilityInterruption;
+    private State state;
+    private Optional<VolatilityInterruption> volatilityInterruption;
+    private long[] removedOrderIDs = NO_ORDER_IDS;
+    private int removedOrderCount;
+
+    private static final long[] NO_ORDER_IDS = new long[0];
 
     private Match() {
         matchedOrder = null;
@@ -39,6 +43,41 @@ public class Match {
         this.volatilityInterruption = volatilityInterruption;
     }
 
+    /**
+     * Refill an instance owned by a match engine that recycles its results. The trades list is shared with the
+     * collector of that engine, so only the remaining fields need to be replaced.
+     */
+    Match reuse( Order matchedOrder, State state, Optional<VolatilityInterruption> volatilityInterruption ) {
+        this.matchedOrder = matchedOrder;
+        this.state = state;
+        this.volatilityInterruption = volatilityInterruption;
+        return this;
+    }
+
+    /**
+     * Take over the resting orders the collector reported as executed completely. The IDs are not copied, so they are
+     * only valid until the collector is cleared.
+     */
+    Match removedOrders( MatchCollector collector ) {
+        this.removedOrderIDs = collector.getRemovedOrderIDs();
+        this.removedOrderCount = collector.getRemovedOrderCount();
+        return this;
+    }
+
+    /**
+     * @return number of resting orders which left the book during this match as they were executed completely
+     */
+    public int getRemovedOrderCount() { return removedOrderCount; }
+
+    /**
+     * @param index 0 .. {@link #getRemovedOrderCount()} - 1
+     * @return orderID of a resting order which left the book during this match
+     */
+    public long getRemovedOrderID( int index ) {
+        if ( index >= removedOrderCount ) throw new IndexOutOfBoundsException("index=" + index + ", count=" + removedOrderCount);
+        return removedOrderIDs[index];
+    }
+
     public int getExecutedQuantity() {
         return trades.stream().collect(Collectors.summingInt(Trade::getExecutionQty));
     }
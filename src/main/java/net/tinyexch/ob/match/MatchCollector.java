@@ -4,11 +4,13 @@ import net.tinyexch.ob.price.safeguard.VolatilityInterruption;
 import net.tinyexch.order.Trade;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 /**
- * Container for all executions created during the match process.
+ * Container for all executions created during the match process. A pooling collector hands out recycled trades and
+ * can be cleared to be used for the next match, so no garbage is produced once the pool is warmed up.
  *
  * @author ratzlow@gmail.com
  * @since 2015-07-23
@@ -17,6 +19,25 @@ public class MatchCollector {
     private final List<Trade> trades = new ArrayList<>();
     private Optional<VolatilityInterruption> volatilityInterruption = Optional.empty();
 
+    /** orderIDs of the resting orders which left the book completely during the match */
+    private long[] removedOrderIDs = new long[8];
+    private int removedOrderCount;
+
+    /** recycled trades, null if every trade is created freshly */
+    private final List<Trade> tradePool;
+
+
+    public MatchCollector() {
+        this(false);
+    }
+
+    /**
+     * @param pooled true ... trades are recycled after {@link #clear()}
+     */
+    MatchCollector( boolean pooled ) {
+        this.tradePool = pooled ? new ArrayList<>() : null;
+    }
+
 
     public List<Trade> getTrades() { return trades; }
 
@@ -25,4 +46,49 @@ public class MatchCollector {
     public void setVolatilityInterruption(Optional<VolatilityInterruption> volatilityInterruption) {
         this.volatilityInterruption = volatilityInterruption;
     }
+
+    /**
+     * @param orderID of a resting order which was executed completely and is no longer part of the book
+     */
+    public void addRemovedOrderID( long orderID ) {
+        if ( removedOrderCount == removedOrderIDs.length ) {
+            removedOrderIDs = Arrays.copyOf( removedOrderIDs, removedOrderCount * 2 );
+        }
+        removedOrderIDs[removedOrderCount++] = orderID;
+    }
+
+    public int getRemovedOrderCount() { return removedOrderCount; }
+
+    long[] getRemovedOrderIDs() { return removedOrderIDs; }
+
+    /**
+     * @return blank trade which is already added to the trades of this collector
+     */
+    Trade nextTrade() {
+        final Trade trade;
+        if ( tradePool == null ) {
+            trade = Trade.of();
+
+        } else if ( trades.size() < tradePool.size() ) {
+            trade = tradePool.get( trades.size() )
+                    .setBuy(null).setSell(null).setPrice(0).setExecutionQty(0)
+                    .setExecType(null).setExecID(null).setOrderRejectReason(null);
+        } else {
+            trade = Trade.of();
+            tradePool.add(trade);
+        }
+
+        trades.add(trade);
+        return trade;
+    }
+
+    /**
+     * Prepare this collector for the next match. Trades handed out before become invalid if pooled.
+     */
+    MatchCollector clear() {
+        trades.clear();
+        volatilityInterruption = Optional.empty();
+        removedOrderCount = 0;
+        return this;
+    }
 }
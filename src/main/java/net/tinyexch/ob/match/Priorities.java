@@ -21,7 +21,7 @@ public enum Priorities implements Comparator<Order> {
     TIME {
         @Override
         public int compare(Order o1, Order o2) {
-            return o1.getTimestamp().compareTo(o2.getTimestamp());
+            return Long.compare(o1.getTimestampNanos(), o2.getTimestampNanos());
         }
     },
 
@@ -37,7 +37,7 @@ public enum Priorities implements Comparator<Order> {
             else                                                return 0;
         };
 
-        private Comparator<Order> BY_PRICE = (o1, o2) -> Double.compare(o1.getPrice(), o2.getPrice());
+        private Comparator<Order> BY_PRICE = (o1, o2) -> Long.compare(o1.getPriceTicks(), o2.getPriceTicks());
 
         @Override
         public int compare(Order o1, Order o2) {
@@ -55,7 +55,7 @@ public enum Priorities implements Comparator<Order> {
      */
     STOP_PRICE {
         @Override
-        public int compare(Order o1, Order o2) { return Double.compare(o1.getStopPrice(), o2.getStopPrice()); }
+        public int compare(Order o1, Order o2) { return Long.compare(o1.getStopPriceTicks(), o2.getStopPriceTicks()); }
     },
 
     /**
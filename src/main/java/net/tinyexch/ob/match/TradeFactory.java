@@ -15,7 +15,10 @@ import java.util.function.BiFunction;
  */
 public class TradeFactory {
 
-    public static Trade createTrade(Order order, Order otherSideOrder, double price,
+    /**
+     * @param price in {@link net.tinyexch.ob.price.Ticks}
+     */
+    public static Trade createTrade(Order order, Order otherSideOrder, long price,
                                 BiFunction<Order, Order, Integer> takeQtyStrategy ) {
 
         Side otherSide = otherSideOrder.getSide();
@@ -30,8 +33,8 @@ public class TradeFactory {
         buy.setCumQty( buy.getCumQty() + takeQty );
         sell.setCumQty( sell.getCumQty() + takeQty );
 
-        return Trade.of().setBuy(buy).setSell(sell).setExecutionQty(takeQty).setPrice(price).setExecType(ExecType.TRADE);
+        return Trade.of().setBuy(buy).setSell(sell).setExecutionQty(takeQty).setPriceTicks(price).setExecType(ExecType.TRADE);
     }
 
-    public static boolean isCrossedPrice( double bid, double ask ) { return bid >= ask; }
+    public static boolean isCrossedPrice( long bid, long ask ) { return bid >= ask; }
 }
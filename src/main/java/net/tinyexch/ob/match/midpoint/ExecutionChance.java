@@ -8,7 +8,9 @@ import net.tinyexch.order.Order;
  *
  * This means the executable quantity ranges from:
  * - max: as specified in constructor
- * - min: otherSide.minQty
+ * - min: the min qty required to execute the pair of orders
+ *
+ * Instances are pooled by the {@link QtyCollector} and re-initialized for every match attempt.
  *
  * This class im mutable and thus not thread safe!!
  *
@@ -16,27 +18,30 @@ import net.tinyexch.order.Order;
  * @since 2015-07-30
  */
 class ExecutionChance {
-    final Order otherSide;
+    Order otherSide;
     int executableQty;
+    int minQty;
 
     /**
      * @param otherSide against the incoming should be executed
      * @param executableQty max qty that might be executed against #otherSide
+     * @param minQty the executable qty must not be reduced below
      */
-    ExecutionChance(Order otherSide, int executableQty ) {
+    ExecutionChance init( Order otherSide, int executableQty, int minQty ) {
         this.otherSide = otherSide;
         this.executableQty = executableQty;
+        this.minQty = minQty;
+        return this;
     }
 
     /**
      * Try to take some of the executable qty from previous attempts to distribute the gained qty against other orders.
      *
      * @param stealDemandQty qty we want to have to balance against other other side orders
-     * @return qty that could be reclaimed respecting the otherSideOrder.minQty limit
+     * @return qty that could be reclaimed respecting the min qty limit
      */
     int stealQty( int stealDemandQty ) {
-        int stealableQty = executableQty - otherSide.getMinQty();
-        int availableStealQty = Math.min( stealableQty, stealDemandQty );
+        int availableStealQty = Math.min( getStealableQty(), stealDemandQty );
         executableQty -= availableStealQty;
         return availableStealQty;
     }
@@ -50,5 +55,10 @@ class ExecutionChance {
      * @return the executable qty at current time
      */
     int getExecutableQty() { return executableQty; }
+
+    /**
+     * @return qty which can be taken off without falling below the min qty
+     */
+    int getStealableQty() { return executableQty - minQty; }
 }
 
@@ -1,39 +1,52 @@
 package net.tinyexch.ob.match.midpoint;
 
+import net.tinyexch.ob.MidpointQueue;
 import net.tinyexch.ob.OrderbookSide;
 import net.tinyexch.ob.match.MatchCollector;
+import net.tinyexch.ob.match.MatchEngine;
 import net.tinyexch.ob.match.TradeFactory;
 import net.tinyexch.ob.price.safeguard.VolatilityInterruptionGuard;
 import net.tinyexch.order.Order;
 import net.tinyexch.order.Side;
+import net.tinyexch.order.TimeInForce;
 import net.tinyexch.order.Trade;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.*;
-import java.util.function.Function;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
 
-import static java.util.stream.Collectors.toMap;
 import static net.tinyexch.ob.match.TradeFactory.isCrossedPrice;
 
 /**
  * Strategy to match incoming midpoint order against midpoint orders on the other side. Does some backtracking and
  * steals already executed Qty to maximize executable volume.
  *
+ * The other side is walked in priority sequence (volume, time) until the incoming order is satisfied. Only the orders
+ * chosen for execution are touched: they are executed in place and leave the book once fully filled, all other orders
+ * keep their position.
+ *
+ * One matcher is kept per match engine and reused for all incoming orders, so it is not thread safe!
+ *
  * @author ratzlow@gmail.com
  * @since 2015-07-21
  */
 public class MidpointMatcher {
     private static final Logger LOGGER = LoggerFactory.getLogger(MidpointMatcher.class);
-    private final double midpointPrice;
+
     private final VolatilityInterruptionGuard priceGuard;
+    private final QtyCollector qtyCollector = new QtyCollector();
+
+    /** in {@link net.tinyexch.ob.price.Ticks} of the current match attempt */
+    private long midpointPrice;
 
     //------------------------------------------------------------------------------------------------------------------
     // constructors
     //------------------------------------------------------------------------------------------------------------------
 
-    public MidpointMatcher(double midpointPrice, VolatilityInterruptionGuard priceGuard ) {
-        this.midpointPrice = midpointPrice;
+    public MidpointMatcher( VolatilityInterruptionGuard priceGuard ) {
         this.priceGuard = priceGuard;
     }
 
@@ -41,108 +54,125 @@ public class MidpointMatcher {
     // public API
     //------------------------------------------------------------------------------------------------------------------
 
-    public MatchCollector matchMidpoint( Order incoming, OrderbookSide otherSide ) {
-        QtyCollector qtyCollector = collectQty(incoming, otherSide);
-
+    /**
+     * @param incoming midpoint limit order
+     * @param otherSide standing midpoint limit orders
+     * @param midpointPrice in {@link net.tinyexch.ob.price.Ticks} all executions happen at
+     * @return trades created, incoming and executed resting orders are updated in place
+     */
+    public MatchCollector matchMidpoint( Order incoming, OrderbookSide otherSide, long midpointPrice ) {
+        this.midpointPrice = midpointPrice;
         MatchCollector collector = new MatchCollector();
-        Map<String, ExecutionChance> executableOrders = qtyCollector.getPotentialMatches().stream().collect(
-                toMap(chance -> chance.getOtherSide().getClientOrderID(), Function.identity())
-        );
+        QtyCollector chances = collectQty(incoming, otherSide);
 
-        Collection<Order> keepInBook = new ArrayList<>();
         Queue<Order> otherSideOrders = otherSide.getLimitOrders();
-        while ( !executableOrders.isEmpty() && !otherSideOrders.isEmpty() ) {
-            Order head = otherSideOrders.poll();
-            LOGGER.debug("Other side order from book orderID={}", head.getClientOrderID());
-            Optional<ExecutionChance> executedOrder = Optional.ofNullable(executableOrders.get(head.getClientOrderID()))
-                                                                .map(Function.identity());
-            if ( executedOrder.isPresent() ) {
-                Order otherSideOrder = executedOrder.get().getOtherSide();
-                Trade trade = TradeFactory.createTrade(incoming, otherSideOrder, midpointPrice,
-                        (buy, sell) -> executedOrder.get().executableQty
-                );
-                collector.getTrades().add(trade);
-                Order updatedOtherSideOrder = findBySide( trade, otherSideOrder.getSide() );
-                Order updatedThisSideOrder = findBySide( trade, incoming.getSide() );
-                // update executed size
-                incoming.setCumQty( updatedThisSideOrder.getCumQty() );
-
-                if ( updatedOtherSideOrder.getLeavesQty() > 0 ) {
-                    keepInBook.add( updatedOtherSideOrder );
-                }
-
-                LOGGER.debug("Removed match for clientOrderID={}", otherSideOrder.getClientOrderID());
-                executableOrders.remove(otherSideOrder.getClientOrderID());
+        for ( int i = 0; i < chances.size(); i++ ) {
+            ExecutionChance chance = chances.get(i);
+            int executableQty = chance.getExecutableQty();
+            if ( executableQty == 0 ) continue;
+
+            Order otherSideOrder = chance.getOtherSide();
+            Trade trade = TradeFactory.createTrade(incoming, otherSideOrder, midpointPrice, (buy, sell) -> executableQty);
+            collector.getTrades().add(trade);
+            incoming.setCumQty( incoming.getCumQty() + executableQty );
+            otherSideOrder.setCumQty( otherSideOrder.getCumQty() + executableQty );
+
+            if ( otherSideOrder.getLeavesQty() == 0 ) {
+                otherSideOrders.remove( otherSideOrder );
+                collector.addRemovedOrderID( otherSideOrder.getOrderID() );
+                LOGGER.debug("Removed match for orderID={}", otherSideOrder.getOrderID());
             }
         }
 
-        // add all open orders from other side back to book
-        keepInBook.stream().forEach(otherSide::add);
-
+        chances.clear();
         return collector;
     }
 
 
     /**
-     * Try to gather as much executable qty for the incoming midpoint order as possible.
+     * Try to gather as much executable qty for the incoming midpoint order as possible. Every execution respects the
+     * min qty of the resting order, the total executed qty respects the min qty of the incoming order. Nothing is
+     * collected for a FOK order which cannot be executed completely.
      *
      * @param incoming incoming midpoint limit order
      * @param otherSide standing midpoint limit orders
-     * @return the result of the match attempt
+     * @return the result of the match attempt, valid until the next match attempt
      */
     QtyCollector collectQty( Order incoming, OrderbookSide otherSide ) {
-        Iterator<Order> iter = otherSide.getLimitOrders().iterator();
-        QtyCollector qtyCollector = new QtyCollector();
+        QtyCollector chances = qtyCollector.clear();
+        boolean midpointPriceInPriceRanges = !priceGuard.checkIndicativePriceTicks(midpointPrice).isPresent();
+        if ( !midpointPriceInPriceRanges ) return chances;
+
+        Iterator<Order> iter = inPriority( otherSide.getLimitOrders() );
         int incomingLeavesQty = incoming.getLeavesQty();
         while ( incomingLeavesQty > 0 && iter.hasNext() ) {
             Order otherSideOrder = iter.next();
             if ( isGoodPrice(incoming, otherSideOrder) ) {
-                incomingLeavesQty = addExecutionChance(qtyCollector, incomingLeavesQty, otherSideOrder);
+                incomingLeavesQty = addExecutionChance(chances, incomingLeavesQty, otherSideOrder);
             }
         }
 
-        return qtyCollector;
+        // MAQ of the incoming order applies to the total executed qty, a FOK order must be executed completely
+        int requiredQty = incoming.getTimeInForce() == TimeInForce.FOK ? incoming.getLeavesQty() : minQty(incoming);
+        if ( incoming.getLeavesQty() - incomingLeavesQty < requiredQty ) {
+            LOGGER.debug("Executable qty {} below MAQ", incoming.getLeavesQty() - incomingLeavesQty);
+            chances.clear();
+        }
+
+        return chances;
     }
 
     //------------------------------------------------------------------------------------------------------------------
     // internal impl
     //------------------------------------------------------------------------------------------------------------------
 
-    private int addExecutionChance(QtyCollector qtyCollector, int incomingLeavesQty, Order otherSideOrder) {
+    private int addExecutionChance( QtyCollector chances, int incomingLeavesQty, Order otherSideOrder ) {
         int executableQty = Math.min(incomingLeavesQty, otherSideOrder.getLeavesQty());
-        if ( executableQty > otherSideOrder.getMinQty() ) {
-            qtyCollector.add( new ExecutionChance(otherSideOrder, executableQty) );
+        int requiredQty = minQty( otherSideOrder );
+        if ( executableQty >= requiredQty ) {
+            chances.add( otherSideOrder, executableQty, requiredQty );
+            incomingLeavesQty -= executableQty;
+
+        } else if ( requiredQty <= otherSideOrder.getLeavesQty() && chances.stealQty(requiredQty - executableQty) > 0 ) {
+            // incoming leaves qty is too small, qty moved from previous candidates makes up for it
+            chances.add( otherSideOrder, requiredQty, requiredQty );
             incomingLeavesQty -= executableQty;
 
         } else {
-            // check if qty can be stolen from previous execution candidates
-            int tryToStealQty = otherSideOrder.getMinQty() - executableQty;
-            int stolenQty = qtyCollector.stealQty(tryToStealQty);
-            if ( stolenQty > 0 ) {
-                qtyCollector.add( new ExecutionChance(otherSideOrder, executableQty + stolenQty));
-                // only reduce by net executed Qty
-                incomingLeavesQty -= ( executableQty - stolenQty );
-            } else {
-                LOGGER.debug("No qty available to match {}", executableQty);
-            }
+            LOGGER.debug("No qty available to match {}", executableQty);
         }
 
         return incomingLeavesQty;
     }
 
 
+    /**
+     * @return the min qty is capped by the qty still open
+     */
+    private static int minQty( Order order ) {
+        return Math.min( order.getMinQty(), order.getLeavesQty() );
+    }
+
+
     private boolean isGoodPrice(Order incomingOrder, Order otherSideOrder) {
-        double otherSidePrice = otherSideOrder.getPrice();
+        long otherSidePrice = otherSideOrder.getPriceTicks();
         Side side = incomingOrder.getSide();
-        double bid = side == Side.BUY ? incomingOrder.getPrice() : otherSidePrice;
-        double ask = side == Side.SELL ? incomingOrder.getPrice() : otherSidePrice;
+        long bid = side == Side.BUY ? incomingOrder.getPriceTicks() : otherSidePrice;
+        long ask = side == Side.SELL ? incomingOrder.getPriceTicks() : otherSidePrice;
         boolean betterThanMidpointPrice = bid >= midpointPrice && ask <= midpointPrice;
-        boolean midpointPriceInPriceRanges = !priceGuard.checkIndicativePrice(midpointPrice).isPresent();
 
-        return betterThanMidpointPrice && midpointPriceInPriceRanges && isCrossedPrice(bid, ask);
+        return betterThanMidpointPrice && isCrossedPrice(bid, ask);
     }
 
-    private Order findBySide(Trade trade, Side side) {
-        return trade.getBuy().getSide() == side ? trade.getBuy() : trade.getSell();
+
+    /**
+     * A {@link MidpointQueue} iterates already in priority sequence, any other queue is sorted up front.
+     */
+    private static Iterator<Order> inPriority( Queue<Order> orders ) {
+        if ( orders instanceof MidpointQueue ) return orders.iterator();
+
+        List<Order> sorted = new ArrayList<>(orders);
+        sorted.sort( MatchEngine.MIDPOINT_COMPARATOR );
+        return sorted.iterator();
     }
 }
@@ -1,25 +1,25 @@
 package net.tinyexch.ob.match.midpoint;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import net.tinyexch.order.Order;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
-import java.util.Iterator;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Balancer to optimize executable volume for midpoint orders. You can add no execution attempts and if required steal
  * volume from previous execution attempts.
  *
+ * The collector is reused across match attempts, its {@link ExecutionChance}s are pooled.
+ *
  * Since it is mutable it is not thread safe!!
  *
  * @author ratzlow@gmail.com
  * @since 2015-07-30
  */
 class QtyCollector {
-    private static final Logger LOGGER = LoggerFactory.getLogger(QtyCollector.class);
 
-    private final Deque<ExecutionChance> potentialMatches = new ArrayDeque<>();
+    private final List<ExecutionChance> chances = new ArrayList<>();
+    private int size;
 
     //-------------------------------------------------------------------------------------
     // public API
@@ -29,42 +29,66 @@ class QtyCollector {
      * By going through the book top -> down we identify order which could server as an execution candidate. This
      * effective quantity being executed might change during the matching process.
      *
-     * @param chance of execution against other side
+     * @param otherSide order the incoming order could be executed against
+     * @param executableQty max qty to execute against the other side
+     * @param minQty the executable qty must not be reduced below by stealing
      */
-    void add( ExecutionChance chance ) {
-        potentialMatches.push( chance );
+    void add( Order otherSide, int executableQty, int minQty ) {
+        if ( size == chances.size() ) chances.add( new ExecutionChance() );
+        chances.get(size++).init(otherSide, executableQty, minQty);
     }
 
     /**
      * In order to optimize the overall executable qty it might be needed to reclaim already executed qty from previous
-     * matches.
+     * matches. Qty is taken off the chances with lowest precedence first. Either the whole gap is closed or nothing
+     * is taken at all, so previous chances are never reduced for nothing.
      *
      * @param gapToCloseRequiredMin min qty to allow another order to be executed
-     * @return the stolenQty from previous execution chances or 0 if nothing could be taken
+     * @return the stolenQty from previous execution chances or 0 if the gap could not be closed
      */
     int stealQty(final int gapToCloseRequiredMin) {
-        if ( potentialMatches.isEmpty() ) return 0;
+        if ( getStealableQty() < gapToCloseRequiredMin ) return 0;
 
         int totalStolenQty = 0;
-        Iterator<ExecutionChance> iter = potentialMatches.iterator();
-        while ( iter.hasNext() && totalStolenQty < gapToCloseRequiredMin ) {
-            ExecutionChance exec = iter.next();
-            if (gapToCloseRequiredMin - totalStolenQty > 0) {
-                int stealDemandQty = gapToCloseRequiredMin - totalStolenQty;
-                totalStolenQty += exec.stealQty( stealDemandQty );
-            } else {
-                LOGGER.info("Continue collecting even though not needed!");
-            }
+        for ( int i = size - 1; i >= 0 && totalStolenQty < gapToCloseRequiredMin; i-- ) {
+            totalStolenQty += chances.get(i).stealQty( gapToCloseRequiredMin - totalStolenQty );
         }
 
         return totalStolenQty;
     }
 
     /**
-     * @return stack of previous execution attempts. At the bottom of the stack are the execution attempts with highest
-     * precedence so taken qty off them is less favorable.
+     * @return qty all previous execution chances could give away
+     */
+    int getStealableQty() {
+        int stealableQty = 0;
+        for ( int i = 0; i < size; i++ ) {
+            stealableQty += chances.get(i).getStealableQty();
+        }
+        return stealableQty;
+    }
+
+    /**
+     * @return number of execution chances collected so far
+     */
+    int size() { return size; }
+
+    /**
+     * @param index 0 is the execution chance with highest precedence
+     */
+    ExecutionChance get( int index ) {
+        if ( index >= size ) throw new IndexOutOfBoundsException("index=" + index + ", size=" + size);
+        return chances.get(index);
+    }
+
+    /**
+     * Forget all collected chances, so the collector can be used for the next incoming order.
      */
-    Deque<ExecutionChance> getPotentialMatches() {
-        return potentialMatches;
+    QtyCollector clear() {
+        for ( int i = 0; i < size; i++ ) {
+            chances.get(i).init(null, 0, 0);
+        }
+        size = 0;
+        return this;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,70 @@
+package net.tinyexch.ob.price;
+
+/**
+ * Smallest price increment an instrument is quoted in, given as a number of {@link Ticks}. This class is immutable.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public final class TickSize {
+
+    /** every price expressible in {@link Ticks} is valid */
+    public static final TickSize FINEST = new TickSize(1);
+
+    private final long ticks;
+
+
+    private TickSize( long ticks ) {
+        if ( ticks < 1 ) throw new IllegalArgumentException("Tick size must be at least one tick but was " + ticks);
+        this.ticks = ticks;
+    }
+
+    /**
+     * @param tickSize price increment in currency units, e.g. 0.01
+     */
+    public static TickSize of( double tickSize ) {
+        return new TickSize( Ticks.of(tickSize) );
+    }
+
+    public static TickSize ofTicks( long ticks ) {
+        return new TickSize(ticks);
+    }
+
+    /**
+     * @return true if the price is a multiple of this tick size
+     */
+    public boolean isValid( long price ) {
+        return price % ticks == 0;
+    }
+
+    /**
+     * @return the price rounded down to a multiple of this tick size
+     */
+    public long roundDown( long price ) {
+        return Math.floorDiv(price, ticks) * ticks;
+    }
+
+    /**
+     * @return the price rounded up to a multiple of this tick size
+     */
+    public long roundUp( long price ) {
+        return -Math.floorDiv(-price, ticks) * ticks;
+    }
+
+    public long getTicks() { return ticks; }
+
+    public double getTickSize() { return Ticks.toPrice(ticks); }
+
+    @Override
+    public boolean equals( Object o ) {
+        return this == o || (o instanceof TickSize && ticks == ((TickSize) o).ticks);
+    }
+
+    @Override
+    public int hashCode() { return Long.hashCode(ticks); }
+
+    @Override
+    public String toString() {
+        return "TickSize{" + getTickSize() + '}';
+    }
+}
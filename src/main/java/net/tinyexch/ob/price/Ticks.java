@@ -0,0 +1,46 @@
+package net.tinyexch.ob.price;
+
+/**
+ * Prices are kept as fixed-point longs counting ticks of {@link #SCALE} per currency unit. Comparing two prices is a
+ * single integer compare, equal prices are always equal and a price can be used as array index or map key. The tick
+ * size an instrument is traded in is a multiple of it, see {@link TickSize}.
+ *
+ * The double based price API of orders and trades is a facade converting from and to ticks.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public final class Ticks {
+
+    /** ticks per currency unit, the finest price any instrument can be quoted in is 1/SCALE */
+    public static final long SCALE = 1_000_000L;
+
+    private Ticks() {}
+
+    /**
+     * @return the given price rounded to the nearest tick
+     */
+    public static long of( double price ) {
+        return Math.round( price * SCALE );
+    }
+
+    public static double toPrice( long ticks ) {
+        return (double) ticks / SCALE;
+    }
+
+    /**
+     * @return the price in the middle of both prices, rounded down to the tick below if they are an odd number of
+     * ticks apart
+     */
+    public static long midpoint( long price, long otherPrice ) {
+        return Math.min(price, otherPrice) + Math.abs(price - otherPrice) / 2;
+    }
+
+    /**
+     * @param perc deviation in percent, negative values give a price below the reference price
+     * @return the reference price moved by the given percentage rounded to the nearest tick
+     */
+    public static long deviate( long refPrice, float perc ) {
+        return Math.round( refPrice * (100d + perc) / 100d );
+    }
+}
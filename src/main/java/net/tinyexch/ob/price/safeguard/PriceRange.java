@@ -1,17 +1,19 @@
 package net.tinyexch.ob.price.safeguard;
 
+import net.tinyexch.ob.price.Ticks;
+
 /**
- * Describes a price range around a reference price and a deviation in the neg and pos direction. This class is
- * thread safe.
+ * Describes a price range around a reference price and a deviation in the neg and pos direction. Bounds are kept in
+ * {@link Ticks}, so a price on the boundary is always inside the range. This class is thread safe.
  *
  * @author ratzlow@gmail.com
  * @since 2014-09-13
  */
 public class PriceRange {
-    private final double lower;
-    private final double upper;
+    private final long lower;
+    private final long upper;
 
-    private final double refPrice;
+    private final long refPrice;
     private final float priceDeviationPerc;
 
     /**
@@ -20,12 +22,23 @@ public class PriceRange {
      * @param priceDeviationPerc percent range around base price to define upper & lower boundary
      */
     PriceRange(double refPrice, float priceDeviationPerc) {
-        this.lower = lowerBound(refPrice, priceDeviationPerc);
-        this.upper = upperBound(refPrice, priceDeviationPerc);
+        this( Ticks.of(refPrice), priceDeviationPerc );
+    }
+
+    private PriceRange(long refPrice, float priceDeviationPerc) {
+        this.lower = Ticks.deviate(refPrice, -priceDeviationPerc);
+        this.upper = Ticks.deviate(refPrice, priceDeviationPerc);
         this.refPrice = refPrice;
         this.priceDeviationPerc = priceDeviationPerc;
     }
 
+    /**
+     * @param refPrice base price in {@link Ticks}
+     */
+    static PriceRange ofTicks(long refPrice, float priceDeviationPerc) {
+        return new PriceRange(refPrice, priceDeviationPerc);
+    }
+
     /**
      * @param other to compare the upper and lower bound against current instance
      * @return true ... ranges are intersecting
@@ -36,17 +49,18 @@ public class PriceRange {
 
     public float getPriceDeviationPerc() { return priceDeviationPerc; }
 
-    boolean contains(double price) { return lower <= price && price <= upper; }
+    public double getRefPrice() { return Ticks.toPrice(refPrice); }
+
+    public long getRefPriceTicks() { return refPrice; }
 
-    private double lowerBound(double refPrice, float deviation) { return refPrice * (100-deviation) / 100; }
-    private double upperBound(double refPrice, float deviation) { return refPrice * (100+deviation) / 100; }
+    boolean contains(long price) { return lower <= price && price <= upper; }
 
     @Override
     public String toString() {
         return "PriceRange{" +
-                "lower=" + lower +
-                ", upper=" + upper +
-                ", refPrice=" + refPrice +
+                "lower=" + Ticks.toPrice(lower) +
+                ", upper=" + Ticks.toPrice(upper) +
+                ", refPrice=" + getRefPrice() +
                 ", priceDeviationPerc=" + priceDeviationPerc +
                 '}';
     }
@@ -1,5 +1,6 @@
 package net.tinyexch.ob.price.safeguard;
 
+import net.tinyexch.ob.price.Ticks;
 import net.tinyexch.order.Order;
 import net.tinyexch.order.Trade;
 import org.slf4j.Logger;
@@ -32,6 +33,8 @@ public class VolatilityInterruptionGuard {
         @Override public void updateDynamicRefPrice(double newDynRefPrice) {}
         @Override public void updateDynamicRefPrice(Trade trade) { }
         @Override public Optional<VolatilityInterruption> checkIndicativePrice(double indicativePrice) { return Optional.empty(); }
+        @Override public Optional<VolatilityInterruption> checkIndicativePriceTicks(long indicativePrice) { return Optional.empty(); }
+        @Override public void restore(long staticRefPrice, float staticPerc, long dynamicRefPrice, float dynamicPerc) {}
     };
 
     /**
@@ -81,15 +84,21 @@ public class VolatilityInterruptionGuard {
     public void updateDynamicRefPrice( Trade trade ) {
         boolean validUpdateTrigger = isApplicable(trade.getBuy()) && isApplicable(trade.getSell());
         if ( validUpdateTrigger ) {
-            updateDynamicRefPrice(trade.getPrice());
+            updateDynamicRefPriceTicks(trade.getPriceTicks());
         }
     }
 
     void updateStaticRefPrice(double newStatRefPrice ) {
-        update( newStatRefPrice, newRange -> staticRange = newRange, dynamicRange, staticRange );
+        update( Ticks.of(newStatRefPrice), newRange -> staticRange = newRange, dynamicRange, staticRange );
     }
 
     void updateDynamicRefPrice( double newDynRefPrice ) {
+        updateDynamicRefPriceTicks( Ticks.of(newDynRefPrice) );
+    }
+
+    private void updateDynamicRefPriceTicks( long newDynRefPrice ) {
+        // most trades don't move the price, so don't replace the range by an equal one
+        if ( dynamicRange.getRefPriceTicks() == newDynRefPrice ) return;
         update( newDynRefPrice, newRange -> dynamicRange = newRange, staticRange, dynamicRange);
     }
 
@@ -97,12 +106,12 @@ public class VolatilityInterruptionGuard {
         return order == null || !order.isMidpoint();
     }
 
-    private void update( double newRefPrice, Consumer<PriceRange> rangeSetter,
+    private void update( long newRefPrice, Consumer<PriceRange> rangeSetter,
                          PriceRange unchangedRange, PriceRange toBeReplaced ) {
-        PriceRange newRefPriceRange = new PriceRange(newRefPrice, toBeReplaced.getPriceDeviationPerc() );
+        PriceRange newRefPriceRange = PriceRange.ofTicks(newRefPrice, toBeReplaced.getPriceDeviationPerc() );
         if ( newRefPriceRange.intersect(unchangedRange) ) {
             rangeSetter.accept(newRefPriceRange);
-            LOGGER.debug("Updated price range to {}", newRefPriceRange.toString() );
+            LOGGER.debug("Updated price range to {}", newRefPriceRange );
         } else {
             String msg = String.format("New ref price range %s does not intersect with price range %s",
                     newRefPriceRange.toString(), unchangedRange.toString());
@@ -110,8 +119,32 @@ public class VolatilityInterruptionGuard {
         }
     }
 
+    public PriceRange getStaticRange() { return staticRange; }
+
+    public PriceRange getDynamicRange() { return dynamicRange; }
+
+    /**
+     * Continue with the price ranges of a guard used before, e.g. after loading a snapshot.
+     *
+     * @param staticRefPrice in {@link Ticks}
+     * @param dynamicRefPrice in {@link Ticks}
+     */
+    public void restore( long staticRefPrice, float staticPriceDeviationPerc,
+                         long dynamicRefPrice, float dynamicPriceDeviationPerc ) {
+        this.staticRange = PriceRange.ofTicks(staticRefPrice, staticPriceDeviationPerc);
+        this.dynamicRange = PriceRange.ofTicks(dynamicRefPrice, dynamicPriceDeviationPerc);
+    }
+
     public Optional<VolatilityInterruption> checkIndicativePrice(double indicativePrice) {
+        return checkIndicativePriceTicks( Ticks.of(indicativePrice) );
+    }
+
+    /**
+     * @param indicativePrice in {@link Ticks}
+     */
+    public Optional<VolatilityInterruption> checkIndicativePriceTicks(long indicativePrice) {
         boolean valid = staticRange.contains(indicativePrice) || dynamicRange.contains(indicativePrice);
-        return valid ? Optional.empty() : Optional.of( new VolatilityInterruption( indicativePrice, staticRange, dynamicRange ));
+        return valid ? Optional.empty() :
+                Optional.of( new VolatilityInterruption( Ticks.toPrice(indicativePrice), staticRange, dynamicRange ));
     }
 }
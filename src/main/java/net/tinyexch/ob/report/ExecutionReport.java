@@ -0,0 +1,182 @@
+package net.tinyexch.ob.report;
+
+import net.tinyexch.ob.price.Ticks;
+import net.tinyexch.order.Fill;
+import net.tinyexch.order.Order;
+import net.tinyexch.order.Side;
+
+/**
+ * Report about one order, sent to the originator of the order only. A trade therefore results in two reports, one for
+ * each side. Instances are owned and reused by an {@link ExecutionReportBuffer}, so they must be copied if they are
+ * needed after the buffer was cleared.
+ *
+ * This class is mutable and not thread safe!
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public final class ExecutionReport {
+
+    /** @link FIX:17 */
+    private long execID;
+
+    private ExecutionReportType type;
+
+    /** @link FIX:37 */
+    private long orderID;
+
+    /** @link FIX:11 */
+    private String clientOrderID;
+
+    /** @link FIX:54 */
+    private Side side;
+
+    /** limit of the order in {@link Ticks}, @link FIX:44 */
+    private long price;
+
+    /** @link FIX:38 */
+    private int orderQty;
+
+    /** @link FIX:32 */
+    private int lastQty;
+
+    /** execution price in {@link Ticks}, @link FIX:31 */
+    private long lastPrice;
+
+    /** @link FIX:14 */
+    private int cumQty;
+
+    /** @link FIX:151 */
+    private int leavesQty;
+
+    /** orderID of the other side of the trade, @link FIX:37 in NoContraBrokers */
+    private long contraOrderID;
+
+    /** nanoseconds since the epoch, @link FIX:60 */
+    private long transactTime;
+
+    /** reason of a reject, @link FIX:58 */
+    private String text;
+
+    //---------------------------------------------------
+    // fill from the order
+    //---------------------------------------------------
+
+    /**
+     * Reset all fields and take the identity and the current quantities of the order.
+     */
+    ExecutionReport reset( long execID, ExecutionReportType type, Order order ) {
+        set( execID, type, order.getOrderID(), order.getClientOrderID(), order.getSide(), order.getPriceTicks(),
+             order.getOrderQty(), order.getCumQty(), order.getLeavesQty() );
+        this.transactTime = order.getTimestampNanos();
+        return this;
+    }
+
+    ExecutionReport reset( long execID, ExecutionReportType type, Fill fill ) {
+        set( execID, type, fill.getOrderID(), fill.getClientOrderID(), fill.getSide(), fill.getPriceTicks(),
+             fill.getOrderQty(), fill.getCumQty(), fill.getLeavesQty() );
+        return this;
+    }
+
+    private void set( long execID, ExecutionReportType type, long orderID, String clientOrderID, Side side, long price,
+                      int orderQty, int cumQty, int leavesQty ) {
+        this.execID = execID;
+        this.type = type;
+        this.orderID = orderID;
+        this.clientOrderID = clientOrderID;
+        this.side = side;
+        this.price = price;
+        this.orderQty = orderQty;
+        this.cumQty = cumQty;
+        this.leavesQty = leavesQty;
+        this.lastQty = 0;
+        this.lastPrice = 0;
+        this.contraOrderID = Order.NO_ORDER_ID;
+        this.transactTime = 0;
+        this.text = null;
+    }
+
+    //---------------------------------------------------
+    // getters & setters
+    //---------------------------------------------------
+
+    public long getExecID() { return execID; }
+
+    public ExecutionReportType getType() { return type; }
+
+    public long getOrderID() { return orderID; }
+
+    public String getClientOrderID() { return clientOrderID; }
+
+    public Side getSide() { return side; }
+
+    public long getPriceTicks() { return price; }
+
+    public int getOrderQty() { return orderQty; }
+
+    public int getLastQty() { return lastQty; }
+
+    public ExecutionReport setLastQty( int lastQty ) {
+        this.lastQty = lastQty;
+        return this;
+    }
+
+    public long getLastPriceTicks() { return lastPrice; }
+
+    public ExecutionReport setLastPriceTicks( long lastPrice ) {
+        this.lastPrice = lastPrice;
+        return this;
+    }
+
+    public int getCumQty() { return cumQty; }
+
+    public ExecutionReport setCumQty( int cumQty ) {
+        this.cumQty = cumQty;
+        return this;
+    }
+
+    public int getLeavesQty() { return leavesQty; }
+
+    public ExecutionReport setLeavesQty( int leavesQty ) {
+        this.leavesQty = leavesQty;
+        return this;
+    }
+
+    public long getContraOrderID() { return contraOrderID; }
+
+    public ExecutionReport setContraOrderID( long contraOrderID ) {
+        this.contraOrderID = contraOrderID;
+        return this;
+    }
+
+    public long getTransactTimeNanos() { return transactTime; }
+
+    public ExecutionReport setTransactTimeNanos( long transactTime ) {
+        this.transactTime = transactTime;
+        return this;
+    }
+
+    public String getText() { return text; }
+
+    public ExecutionReport setText( String text ) {
+        this.text = text;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "ExecutionReport{" +
+                "execID=" + execID +
+                ", type=" + type +
+                ", orderID=" + orderID +
+                ", clientOrderID='" + clientOrderID + '\'' +
+                ", side=" + side +
+                ", lastQty=" + lastQty +
+                ", lastPrice=" + Ticks.toPrice(lastPrice) +
+                ", cumQty=" + cumQty +
+                ", leavesQty=" + leavesQty +
+                ", contraOrderID=" + contraOrderID +
+                (text != null ? ", text='" + text + '\'' : "") +
+                '}';
+    }
+}
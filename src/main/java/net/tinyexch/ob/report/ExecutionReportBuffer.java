@@ -0,0 +1,108 @@
+package net.tinyexch.ob.report;
+
+import net.tinyexch.ob.OrderbookException;
+import net.tinyexch.order.Fill;
+import net.tinyexch.order.Order;
+
+import java.util.Arrays;
+
+/**
+ * Pre-allocated {@link ExecutionReport}s written by an orderbook for the last processed request. Clearing the buffer
+ * keeps the reports, so they are overwritten by the next request instead of being allocated again. The buffer only
+ * grows if a single request produces more reports than ever before.
+ *
+ * This class is mutable and not thread safe!
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public final class ExecutionReportBuffer {
+
+    private ExecutionReport[] reports;
+    private int size;
+
+    /** last assigned execID, continues across clearing the buffer */
+    private long execIdSequence;
+
+    //--------------------------------------
+    // constructor
+    //--------------------------------------
+
+    /**
+     * @param capacity number of reports allocated up front
+     */
+    public ExecutionReportBuffer( int capacity ) {
+        if ( capacity < 1 ) throw new OrderbookException("Capacity must be at least 1 but was " + capacity);
+        reports = new ExecutionReport[capacity];
+        fill(0);
+    }
+
+    //--------------------------------------
+    // public API
+    //--------------------------------------
+
+    /**
+     * Write the next report with the current state of the order.
+     */
+    public ExecutionReport add( ExecutionReportType type, Order order ) {
+        return claim().reset( ++execIdSequence, type, order );
+    }
+
+    /**
+     * Write the next report with the state of an order right after it was executed.
+     */
+    public ExecutionReport add( ExecutionReportType type, Fill fill ) {
+        return claim().reset( ++execIdSequence, type, fill );
+    }
+
+    /**
+     * @param index starting with 0 for the first report of the last request
+     */
+    public ExecutionReport get( int index ) {
+        if ( index >= size ) throw new IndexOutOfBoundsException("Index " + index + " but only " + size + " reports!");
+        return reports[index];
+    }
+
+    public int size() { return size; }
+
+    public boolean isEmpty() { return size == 0; }
+
+    /**
+     * Forget the reports, the instances are reused by the next request.
+     */
+    public void clear() { size = 0; }
+
+    /**
+     * @return number of reports that can be written without allocating
+     */
+    public int capacity() { return reports.length; }
+
+    /**
+     * @return execID of the last written report
+     */
+    public long getExecIdSequence() { return execIdSequence; }
+
+    /**
+     * Continue with the given execID, e.g. after restoring the book.
+     */
+    public void restore( long execIdSequence ) { this.execIdSequence = execIdSequence; }
+
+    //--------------------------------------
+    // internal
+    //--------------------------------------
+
+    private ExecutionReport claim() {
+        if ( size == reports.length ) {
+            int oldLength = reports.length;
+            reports = Arrays.copyOf( reports, oldLength * 2 );
+            fill(oldLength);
+        }
+        return reports[size++];
+    }
+
+    private void fill( int from ) {
+        for ( int i = from; i < reports.length; i++ ) {
+            reports[i] = new ExecutionReport();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package net.tinyexch.ob.report;
+
+/**
+ * What happened to the order an {@link ExecutionReport} is sent for.
+ *
+ * @link FIX:150
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public enum ExecutionReportType {
+    /** order was accepted by the book */
+    NEW_ACK,
+    /** modification of a resting order was accepted */
+    REPLACE_ACK,
+    /** order was executed and still has open qty */
+    PARTIAL_FILL,
+    /** order was executed and has no open qty left */
+    FILL,
+    /** resting order was removed from the book on request */
+    CANCEL_ACK,
+    /** cancel request referred to an order no longer in the book, @link FIX:35=9 */
+    CANCEL_REJECT,
+    /** order was not accepted by the book */
+    REJECT,
+    /** open qty of an IOC or FOK order was removed instead of being put into the book, @link FIX:150=C */
+    EXPIRED
+}
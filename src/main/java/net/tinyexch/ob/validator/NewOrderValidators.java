@@ -1,13 +1,18 @@
 package net.tinyexch.ob.validator;
 
+import net.tinyexch.exchange.latency.LatencyRecorder;
+import net.tinyexch.exchange.latency.LatencyStage;
 import net.tinyexch.ob.ErrorCode;
 import net.tinyexch.ob.RejectReason;
+import net.tinyexch.ob.price.TickSize;
 import net.tinyexch.order.*;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.temporal.ChronoUnit;
 import java.util.EnumSet;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Stream;
@@ -56,6 +61,13 @@ public final class NewOrderValidators {
      */
     private final Set<OrderType> acceptedOrderTypes;
 
+    /**
+     * Limit and stop prices have to be a multiple of it.
+     */
+    private final TickSize tickSize;
+
+    private LatencyRecorder latencyRecorder = LatencyRecorder.NO_OP;
+
 
     //------------------------------------------------------------------------------------------------------------------
     // constructors
@@ -66,11 +78,17 @@ public final class NewOrderValidators {
     }
 
     public NewOrderValidators(int minimumOrderSize, int minimumTradableUnit, int maxExpirationDayOffset, Set<OrderType> acceptedOrderTypes) {
+        this(minimumOrderSize, minimumTradableUnit, maxExpirationDayOffset, acceptedOrderTypes, TickSize.FINEST);
+    }
+
+    public NewOrderValidators(int minimumOrderSize, int minimumTradableUnit, int maxExpirationDayOffset,
+                              Set<OrderType> acceptedOrderTypes, TickSize tickSize) {
         this.minimumOrderSize = minimumOrderSize;
         this.minimumTradableUnit = minimumTradableUnit;
         this.effectiveMinSize = Math.max(minimumOrderSize, minimumTradableUnit);
         this.maxExpirationDayOffset = maxExpirationDayOffset;
         this.acceptedOrderTypes = acceptedOrderTypes;
+        this.tickSize = tickSize;
     }
 
     //------------------------------------------------------------------------------------------------------------------
@@ -107,21 +125,17 @@ public final class NewOrderValidators {
 
         private boolean isValidDay(Order order) {
             LocalDateTime submittedExpirationDate = order.getExpirationDate().truncatedTo(ChronoUnit.DAYS);
-            return today().isEqual(submittedExpirationDate);
+            return submissionDay(order).isEqual(submittedExpirationDate);
         }
 
         private boolean isValidGtd(Order order) {
             LocalDateTime expirationDate = order.getExpirationDate().truncatedTo(ChronoUnit.DAYS);
-            LocalDateTime today = today();
+            LocalDateTime today = submissionDay(order);
             LocalDateTime yesterday = today.minusDays(1);
             LocalDateTime maxExpirationDate = today.plusDays(maxExpirationDayOffset+1);
             return expirationDate.isAfter(yesterday) && expirationDate.isBefore(maxExpirationDate);
         }
 
-        private LocalDateTime today() {
-            return LocalDateTime.now().truncatedTo(ChronoUnit.DAYS);
-        }
-
         private ErrorCode createErrorCode(Order order) {
             return new ErrorCode(ErrorCode.Type.REJECT, order, "GTD order is not within valid range", RejectReason.GTD);
         }
@@ -152,7 +166,7 @@ public final class NewOrderValidators {
         @Override
         public Optional<ErrorCode> validate(Order order) {
             TimeInForce tif = order.getTimeInForce();
-            boolean validTodayOnly = tif == TimeInForce.DAY || (tif == TimeInForce.GTD && isToday(order.getExpirationDate()) );
+            boolean validTodayOnly = tif == TimeInForce.DAY || (tif == TimeInForce.GTD && isToday(order) );
 
             boolean ok = order.getOrderType() == OrderType.STRIKE_MATCH &&
                          order.getTradingSessionSubID() == TradingSessionSubID.ClosingOrClosingAuction &&
@@ -164,12 +178,82 @@ public final class NewOrderValidators {
                     "Insufficient attributes for SMO", RejectReason.ORDER_TYPE));
         }
 
-        boolean isToday( LocalDateTime dateTime ) {
-            LocalDate tomorrow = LocalDate.now().plusDays(1);
-            return tomorrow.isAfter(dateTime.toLocalDate());
+        boolean isToday( Order order ) {
+            LocalDate tomorrow = submissionDay(order).toLocalDate().plusDays(1);
+            return tomorrow.isAfter(order.getExpirationDate().toLocalDate());
+        }
+    };
+
+    /**
+     * Stop orders need a stop price to be triggered, stop-limit orders a limit for the triggered order as well. They
+     * are triggered by the lit book only, so they cannot be midpoint orders.
+     */
+    public final NewOrderValidator stopOrderTypeCheck = new NewOrderValidator() {
+        @Override
+        public Optional<ErrorCode> validate(Order order) {
+            boolean ok = order.getOrderType().isStop() &&
+                         order.getStopPriceTicks() > 0 &&
+                         (order.getOrderType() != OrderType.STOP_LIMIT || order.getPriceTicks() > 0) &&
+                         !order.isMidpoint();
+
+            return ok ? Optional.<ErrorCode>empty() : Optional.of(new ErrorCode(ErrorCode.Type.REJECT, order,
+                    "Insufficient attributes for stop order", RejectReason.ORDER_TYPE));
+        }
+    };
+
+    public final NewOrderValidator tickSizeCheck = new NewOrderValidator() {
+        @Override
+        public Optional<ErrorCode> validate(Order order) {
+            boolean ok = tickSize.isValid(order.getPriceTicks()) && tickSize.isValid(order.getStopPriceTicks());
+            return ok ? Optional.<ErrorCode>empty() : Optional.of(new ErrorCode(ErrorCode.Type.REJECT, order,
+                    "Price is not a multiple of " + tickSize, RejectReason.TICK_SIZE));
         }
     };
 
     public final Stream<NewOrderValidator> newOrderValidators = Stream.of(minSizeCheck, gtdCheck, orderTypeCheck,
-            strikeMatchOrderTypeCheck);
+            strikeMatchOrderTypeCheck, stopOrderTypeCheck, tickSizeCheck);
+
+    /** same checks as the stream, but can be iterated repeatedly */
+    private final NewOrderValidator[] allValidators = { minSizeCheck, gtdCheck, orderTypeCheck,
+            strikeMatchOrderTypeCheck, stopOrderTypeCheck, tickSizeCheck };
+
+    //------------------------------------------------------------------------------------------------------------------
+    // public API
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Apply all checks in sequence. The {@link #strikeMatchOrderTypeCheck} only applies to strike match orders, the
+     * {@link #stopOrderTypeCheck} only to stop orders.
+     *
+     * @return the error of the first failed check or empty if the order passed all checks
+     */
+    public Optional<ErrorCode> validate( Order order ) {
+        long startNanos = System.nanoTime();
+        Optional<ErrorCode> error = Optional.empty();
+        for ( int i = 0; i < allValidators.length && !error.isPresent(); i++ ) {
+            NewOrderValidator validator = allValidators[i];
+            boolean applicable = validator == strikeMatchOrderTypeCheck ? order.getOrderType() == OrderType.STRIKE_MATCH :
+                                 validator != stopOrderTypeCheck || order.getOrderType().isStop();
+            if ( applicable ) {
+                error = validator.validate(order);
+            }
+        }
+        latencyRecorder.record( LatencyStage.VALIDATION, System.nanoTime() - startNanos );
+        return error;
+    }
+
+    /**
+     * Today is the day the order was submitted on. Unlike the wall clock its timestamp is journaled, so replaying an
+     * order validates it against the same day.
+     */
+    private static LocalDateTime submissionDay( Order order ) {
+        return LocalDateTime.ofInstant( order.getTimestamp(), ZoneId.systemDefault() ).truncatedTo(ChronoUnit.DAYS);
+    }
+
+    /**
+     * @param latencyRecorder receives the duration of every {@link #validate(Order)}
+     */
+    public void setLatencyRecorder( LatencyRecorder latencyRecorder ) {
+        this.latencyRecorder = Objects.requireNonNull(latencyRecorder, "Recorder must not be null!");
+    }
 }
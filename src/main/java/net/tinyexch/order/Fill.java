@@ -0,0 +1,98 @@
+package net.tinyexch.order;
+
+import net.tinyexch.ob.price.Ticks;
+
+/**
+ * Immutable state of one side of a {@link Trade} right after the execution. Unlike the order itself, which might rest
+ * in the book and be executed again, a fill never changes and can be handed to other threads for reporting.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public final class Fill {
+
+    /** @link FIX:37 */
+    private final long orderID;
+
+    /** @link FIX:11 */
+    private final String clientOrderID;
+
+    /** @link FIX:54 */
+    private final Side side;
+
+    /** limit of the order in {@link Ticks}, 0 for market orders */
+    private final long price;
+
+    /** @link FIX:38 */
+    private final int orderQty;
+
+    /** @link FIX:14 */
+    private final int cumQty;
+
+    /** @link FIX:151 */
+    private final int leavesQty;
+
+    /** qty of an iceberg order not yet exposed to the market */
+    private final int hiddenQty;
+
+    //--------------------------------------
+    // constructor
+    //--------------------------------------
+
+    public Fill( long orderID, String clientOrderID, Side side, long price, int orderQty, int cumQty, int leavesQty,
+                 int hiddenQty ) {
+        this.orderID = orderID;
+        this.clientOrderID = clientOrderID;
+        this.side = side;
+        this.price = price;
+        this.orderQty = orderQty;
+        this.cumQty = cumQty;
+        this.leavesQty = leavesQty;
+        this.hiddenQty = hiddenQty;
+    }
+
+    /**
+     * @return snapshot of the current state of the order
+     */
+    public static Fill of( Order order ) {
+        return new Fill( order.getOrderID(), order.getClientOrderID(), order.getSide(), order.getPriceTicks(),
+                         order.getOrderQty(), order.getCumQty(), order.getLeavesQty(),
+                         order.isIceberg() ? order.getHiddenQty() : 0 );
+    }
+
+    //---------------------------------------------------
+    // getters
+    //---------------------------------------------------
+
+    public long getOrderID() { return orderID; }
+
+    public String getClientOrderID() { return clientOrderID; }
+
+    public Side getSide() { return side; }
+
+    public double getPrice() { return Ticks.toPrice(price); }
+
+    public long getPriceTicks() { return price; }
+
+    public int getOrderQty() { return orderQty; }
+
+    public int getCumQty() { return cumQty; }
+
+    public int getLeavesQty() { return leavesQty; }
+
+    public int getHiddenQty() { return hiddenQty; }
+
+    @Override
+    public String toString() {
+        return "Fill{" +
+                "orderID=" + orderID +
+                ", clientOrderID='" + clientOrderID + '\'' +
+                ", side=" + side +
+                ", price=" + getPrice() +
+                ", orderQty=" + orderQty +
+                ", cumQty=" + cumQty +
+                ", leavesQty=" + leavesQty +
+                ", hiddenQty=" + hiddenQty +
+                '}';
+    }
+}
@@ -1,5 +1,8 @@
 package net.tinyexch.order;
 
+import net.tinyexch.ob.clock.Clocks;
+import net.tinyexch.ob.price.Ticks;
+
 import java.time.Instant;
 import java.time.LocalDateTime;
 
@@ -13,9 +16,19 @@ import java.time.LocalDateTime;
 // TODO (FRa) : (FRa) : provide immutable clone() result
 public class Order {
 
+    /** the order did not enter a book yet */
+    public static final long NO_ORDER_ID = 0;
+
     private long submitSequence = -1;
 
-    private Instant timestamp = Instant.now();
+    /**
+     * Unique within the orderbook, assigned when the order enters the book.
+     * @link FIX:37
+     */
+    private long orderID = NO_ORDER_ID;
+
+    /** nanoseconds since the epoch taken from {@link Clocks} */
+    private long timestamp = Clocks.nanos();
 
     /**
      * true ... the order is not shown to the participants
@@ -74,16 +87,16 @@ public class Order {
     private OrderType orderType;
 
     /**
-     * Required for limit OrdTypes.
+     * Required for limit OrdTypes. Fixed-point in {@link Ticks}.
      * @link FIX:44
      */
-    private double price;
+    private long price;
 
     /**
-     * Required for OrdType = "Stop" or OrdType = "Stop limit".
+     * Required for OrdType = "Stop" or OrdType = "Stop limit". Fixed-point in {@link Ticks}.
      * @link FIX:99
      */
-    private double stopPrice;
+    private long stopPrice;
 
 
     //---------------------------------------------------------
@@ -100,11 +113,12 @@ public class Order {
     }
 
     /** copy constructor */
-    private Order(long submitSequence, Instant timestamp, boolean hidden, DiscretionLimitType discretionLimitType,
+    private Order(long orderID, long submitSequence, long timestamp, boolean hidden, DiscretionLimitType discretionLimitType,
                   TradingSessionSubID tradingSessionSubID,
                  String clientOrderID, Side side, int orderQty, int cumQty, LocalDateTime expirationDate,
-                 TimeInForce timeInForce, OrderType orderType, double price, double stopPrice, int displayQty,
+                 TimeInForce timeInForce, OrderType orderType, long price, long stopPrice, int displayQty,
                  int icebergOrderQty, int icebergCumQty, boolean midpoint, int minQty ) {
+        this.orderID = orderID;
         this.submitSequence = submitSequence;
         this.timestamp = timestamp;
         this.hidden = hidden;
@@ -134,7 +148,10 @@ public class Order {
         return new Order(clientOrderID, side);
     }
 
-    public Instant getTimestamp() { return timestamp; }
+    public Instant getTimestamp() { return Clocks.toInstant(timestamp); }
+
+    /** @return nanoseconds since the epoch */
+    public long getTimestampNanos() { return timestamp; }
 
     public Side getSide() { return side; }
 
@@ -182,11 +199,21 @@ public class Order {
     }
 
     public Order setPrice(double price) {
+        this.price = Ticks.of(price);
+        return this;
+    }
+
+    public Order setPriceTicks(long price) {
         this.price = price;
         return this;
     }
 
     public Order setTimestamp(Instant timestamp) {
+        this.timestamp = Clocks.toNanos(timestamp);
+        return this;
+    }
+
+    public Order setTimestampNanos(long timestamp) {
         this.timestamp = timestamp;
         return this;
     }
@@ -207,6 +234,15 @@ public class Order {
     }
 
     public Order setCumQty( int cumQty, Instant ts ) {
+        return setCumQty( cumQty, Clocks.toNanos(ts) );
+    }
+
+    /**
+     * Execute the order and expose the next slice of an iceberg order if the current slice is used up.
+     *
+     * @param ts nanoseconds since the epoch giving the time priority of a newly exposed slice
+     */
+    public Order setCumQty( int cumQty, long ts ) {
         setCumQty( cumQty );
 
         if ( isIceberg() ) {
@@ -260,6 +296,10 @@ public class Order {
     }
 
     public double getPrice() {
+        return Ticks.toPrice(price);
+    }
+
+    public long getPriceTicks() {
         return price;
     }
 
@@ -267,11 +307,29 @@ public class Order {
         return clientOrderID;
     }
 
+    public long getOrderID() {
+        return orderID;
+    }
+
+    public Order setOrderID(long orderID) {
+        this.orderID = orderID;
+        return this;
+    }
+
     public double getStopPrice() {
+        return Ticks.toPrice(stopPrice);
+    }
+
+    public long getStopPriceTicks() {
         return stopPrice;
     }
 
     public Order setStopPrice(double stopPrice) {
+        this.stopPrice = Ticks.of(stopPrice);
+        return this;
+    }
+
+    public Order setStopPriceTicks(long stopPrice) {
         this.stopPrice = stopPrice;
         return this;
     }
@@ -286,6 +344,14 @@ public class Order {
 
     public int getIcebergOrderQty() { return icebergOrderQty; }
 
+    /**
+     * Only meant to restore an iceberg with slices already executed, e.g. from a snapshot.
+     */
+    public Order setIcebergCumQty(int icebergCumQty) {
+        this.icebergCumQty = icebergCumQty;
+        return this;
+    }
+
     public int getDisplayQty() {
         return displayQty;
     }
@@ -325,7 +391,7 @@ public class Order {
     }
 
     public Order mutableClone() {
-        return new Order(submitSequence, timestamp, hidden, discretionLimitType, tradingSessionSubID, clientOrderID, side, orderQty, cumQty,
+        return new Order(orderID, submitSequence, timestamp, hidden, discretionLimitType, tradingSessionSubID, clientOrderID, side, orderQty, cumQty,
                 expirationDate, timeInForce, orderType, price, stopPrice, displayQty, icebergOrderQty, icebergCumQty, midpoint, minQty );
     }
 
@@ -333,11 +399,12 @@ public class Order {
     public String toString() {
         return "Order{" +
                 "submitSequence=" + submitSequence +
-                ", timestamp=" + timestamp +
+                ", timestamp=" + getTimestamp() +
                 ", hidden=" + hidden +
                 ", midpoint=" + midpoint +
                 ", discretionLimitType=" + discretionLimitType +
                 ", tradingSessionSubID=" + tradingSessionSubID +
+                ", orderID=" + orderID +
                 ", clientOrderID='" + clientOrderID + '\'' +
                 ", side=" + side +
                 ", orderQty=" + orderQty +
@@ -349,8 +416,8 @@ public class Order {
                 ", expirationDate=" + expirationDate +
                 ", timeInForce=" + timeInForce +
                 ", orderType=" + orderType +
-                ", price=" + price +
-                ", stopPrice=" + stopPrice +
+                ", price=" + getPrice() +
+                ", stopPrice=" + getStopPrice() +
                 '}';
     }
 }
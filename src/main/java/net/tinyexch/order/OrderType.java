@@ -28,6 +28,10 @@ public enum OrderType {
      */
     MARKET_TO_LIMIT,
 
+    /**
+     * Stop market orders are parked outside the order book until a trade reaches their stop price. Then they enter the
+     * book as market orders.
+     */
     STOP,
 
     /** http://www.fixtradingcommunity.org/pg/discussions/topicpost/165920/xetra-ets-top-of-book */
@@ -35,5 +39,15 @@ public enum OrderType {
 
     TRAILING_STOP,
     ONE_CANCELS_OTHER,
-    ODERS_ON_EVENT
+    ODERS_ON_EVENT,
+
+    /**
+     * Same as {@link #STOP} but the triggered order enters the book as limit order with the price of this order.
+     */
+    STOP_LIMIT;
+
+    /**
+     * @return true ... orders of this type wait for a trade at their stop price before they can be executed
+     */
+    public boolean isStop() { return this == STOP || this == STOP_LIMIT; }
 }
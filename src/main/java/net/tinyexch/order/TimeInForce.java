@@ -9,5 +9,16 @@ package net.tinyexch.order;
  */
 public enum TimeInForce {
     DAY,
-    GTD
+    GTD,
+
+    /** immediate or cancel: execute as much as possible at once, the remainder is not put into the book */
+    IOC,
+
+    /** fill or kill: execute completely at once or not at all, the order is never put into the book */
+    FOK;
+
+    /**
+     * @return true ... an unexecuted remainder expires instead of resting in the book
+     */
+    public boolean isImmediate() { return this == IOC || this == FOK; }
 }
@@ -1,5 +1,8 @@
 package net.tinyexch.order;
 
+import net.tinyexch.ob.clock.Clocks;
+import net.tinyexch.ob.price.Ticks;
+
 import java.time.Instant;
 
 /**
@@ -11,14 +14,15 @@ import java.time.Instant;
  */
 public final class Trade {
 
-    private Instant executionTime = Instant.now();
+    /** nanoseconds since the epoch taken from {@link Clocks} */
+    private long executionTime = Clocks.nanos();
 
     /** @link FIX:17 */
     private String execID;
 
 
-    /** @link FIX:44 */
-    private double price;
+    /** @link FIX:44 fixed-point in {@link Ticks} */
+    private long price;
 
     /** @link FIX:32 */
     private int executionQty;
@@ -29,10 +33,14 @@ public final class Trade {
     /** @link FIX:103 */
     private String orderRejectReason;
 
-    // TODO (FRa) : (FRa) : this is very insufficient as the Trade reports look very different for both sides
+    /** both sides of the trade, the report per side is a {@link net.tinyexch.ob.report.ExecutionReport} */
     private Order buy;
     private Order sell;
 
+    /** state of both orders right after this trade, only set if the match engine fills resting orders in place */
+    private Fill buyFill;
+    private Fill sellFill;
+
 
     //----------- quantities----------------
     /** A round lot is composed of round lot parts or multiples thereof */
@@ -53,7 +61,7 @@ public final class Trade {
     public Trade( Order buy, Order sell, double executionPrice, int roundLots, int oddLots ) {
         this.buy = buy;
         this.sell = sell;
-        this.price = executionPrice;
+        this.price = Ticks.of(executionPrice);
         this.roundLots = roundLots;
         this.oddLots = oddLots;
     }
@@ -62,6 +70,26 @@ public final class Trade {
 
     public static Trade of() { return new Trade(); }
 
+    /**
+     * @return copy which stays unchanged if the match engine later recycles this trade or fills its orders in place
+     */
+    public Trade copy() {
+        Trade copy = new Trade();
+        copy.executionTime = executionTime;
+        copy.execID = execID;
+        copy.price = price;
+        copy.executionQty = executionQty;
+        copy.execType = execType;
+        copy.orderRejectReason = orderRejectReason;
+        copy.buy = buy != null ? buy.mutableClone() : null;
+        copy.sell = sell != null ? sell.mutableClone() : null;
+        copy.buyFill = buyFill;
+        copy.sellFill = sellFill;
+        copy.roundLots = roundLots;
+        copy.oddLots = oddLots;
+        return copy;
+    }
+
     //---------------------------------------------------
     // getters & setters
     //---------------------------------------------------
@@ -75,10 +103,18 @@ public final class Trade {
     }
 
     public Instant getExecutionTime() {
-        return executionTime;
+        return Clocks.toInstant(executionTime);
     }
 
+    /** @return nanoseconds since the epoch */
+    public long getExecutionTimeNanos() { return executionTime; }
+
     public Trade setExecutionTime(Instant executionTime) {
+        this.executionTime = Clocks.toNanos(executionTime);
+        return this;
+    }
+
+    public Trade setExecutionTimeNanos(long executionTime) {
         this.executionTime = executionTime;
         return this;
     }
@@ -93,10 +129,19 @@ public final class Trade {
     }
 
     public double getPrice() {
+        return Ticks.toPrice(price);
+    }
+
+    public long getPriceTicks() {
         return price;
     }
 
     public Trade setPrice(double price) {
+        this.price = Ticks.of(price);
+        return this;
+    }
+
+    public Trade setPriceTicks(long price) {
         this.price = price;
         return this;
     }
@@ -119,6 +164,26 @@ public final class Trade {
         return this;
     }
 
+    /**
+     * @return immutable state of the buy order after this trade or null if the orders were copied instead
+     */
+    public Fill getBuyFill() { return buyFill; }
+
+    public Trade setBuyFill(Fill buyFill) {
+        this.buyFill = buyFill;
+        return this;
+    }
+
+    /**
+     * @return immutable state of the sell order after this trade or null if the orders were copied instead
+     */
+    public Fill getSellFill() { return sellFill; }
+
+    public Trade setSellFill(Fill sellFill) {
+        this.sellFill = sellFill;
+        return this;
+    }
+
     public int getExecutionQty() {
         return executionQty;
     }
@@ -149,14 +214,16 @@ public final class Trade {
     @Override
     public String toString() {
         return "Trade{" +
-                "executionTime=" + executionTime +
+                "executionTime=" + getExecutionTime() +
                 ", execID='" + execID + '\'' +
-                ", price=" + price +
+                ", price=" + getPrice() +
                 ", executionQty=" + executionQty +
                 ", execType=" + execType +
                 ", orderRejectReason='" + orderRejectReason + '\'' +
                 ", buy=" + buy +
                 ", sell=" + sell +
+                ", buyFill=" + buyFill +
+                ", sellFill=" + sellFill +
                 ", roundLots=" + roundLots +
                 ", oddLots=" + oddLots +
                 '}';
@@ -0,0 +1,104 @@
+package net.tinyexch.exchange.event;
+
+import net.tinyexch.exchange.event.consume.ChangeStateEvent;
+import net.tinyexch.exchange.event.consume.ConsumerCommandFactory;
+import net.tinyexch.exchange.event.produce.NewTradeEvent;
+import net.tinyexch.exchange.event.produce.NewTradeEventHandler;
+import net.tinyexch.exchange.event.produce.TradingFormRunTypeChangedEvent;
+import net.tinyexch.exchange.trading.form.auction.Auction;
+import net.tinyexch.exchange.trading.form.auction.AuctionState;
+import net.tinyexch.exchange.trading.model.AuctionTradingModel;
+import net.tinyexch.exchange.trading.model.TradingFormRunType;
+import net.tinyexch.exchange.trading.model.TradingModelProfile;
+import net.tinyexch.order.Trade;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Events are routed by their type to all subscribed handlers, commands are reused.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public class EventDispatcherTest {
+
+    @Test
+    public void testAllSubscribersOfTypeAreCalledInSequence() {
+        List<String> calls = new ArrayList<>();
+        EventDispatcher dispatcher = new EventDispatcher()
+                .subscribe( String.class, s -> calls.add("first " + s) )
+                .subscribe( Integer.class, i -> calls.add("int " + i) )
+                .subscribe( String.class, s -> calls.add("second " + s) );
+
+        assertTrue( dispatcher.dispatch("a") );
+        assertTrue( dispatcher.dispatch(1) );
+        assertFalse( "no handler for this type", dispatcher.dispatch(1L) );
+        assertFalse( "only exact types are mapped", dispatcher.isSubscribed(CharSequence.class) );
+        assertEquals( "[first a, second a, int 1]", calls.toString() );
+    }
+
+    @Test
+    public void testSubclassesAreDispatchedToHandlersOfTheirSuperclass() {
+        List<String> calls = new ArrayList<>();
+        EventDispatcher dispatcher = new EventDispatcher()
+                .subscribe( Number.class, n -> calls.add("number " + n) )
+                .subscribe( Integer.class, i -> calls.add("int " + i) );
+
+        assertTrue( dispatcher.dispatch(1) );
+        assertTrue( dispatcher.dispatch(2L) );
+        assertTrue( dispatcher.isSubscribed(Long.class) );
+
+        dispatcher.subscribe( Long.class, l -> calls.add("long " + l) );
+        assertTrue( dispatcher.dispatch(3L) );
+        assertEquals( "[int 1, number 1, number 2, long 3, number 3]", calls.toString() );
+    }
+
+    @Test
+    public void testTypeIdsAreStable() {
+        int id = EventTable.typeIdOf(NewTradeEvent.class);
+        assertEquals( id, EventTable.typeIdOf(NewTradeEvent.class) );
+        assertNotEquals( id, EventTable.typeIdOf(ChangeStateEvent.class) );
+    }
+
+    @Test
+    public void testDefaultListenerDispatchesToSubscribers() {
+        List<Trade> trades = new ArrayList<>();
+        DefaultNotificationListener listener = new DefaultNotificationListener();
+        listener.setNewTradeEventHandler( new NewTradeEventHandler() );
+        listener.subscribe( NewTradeEvent.class, event -> trades.add(event.getTrade()) );
+
+        Trade trade = Trade.of();
+        listener.fire( new NewTradeEvent(trade) );
+        listener.fire( new TradingFormRunTypeChangedEvent(null, TradingFormRunType.OPENING_AUCTION) );
+
+        assertEquals( 1, trades.size() );
+        assertSame( trade, trades.get(0) );
+        assertEquals( TradingFormRunType.OPENING_AUCTION, listener.getTradingFormRunTypes().get(0) );
+        try {
+            listener.fire( "unknown" );
+            fail("Unmapped notifications must be rejected!");
+        } catch ( IllegalStateException expected ) {}
+    }
+
+    @Test
+    public void testChangeStateCommandsAreReused() {
+        DefaultNotificationListener listener = new DefaultNotificationListener();
+        AuctionTradingModel model = new AuctionTradingModel( new TradingModelProfile(), listener, new Auction(listener) );
+        ConsumerCommandFactory factory = new ConsumerCommandFactory( model );
+
+        Runnable first = factory.create( new ChangeStateEvent(AuctionState.CALL_RUNNING) );
+        Runnable second = factory.create( new ChangeStateEvent(AuctionState.CALL_RUNNING) );
+        assertSame( first, second );
+        assertNotSame( first, factory.create(new ChangeStateEvent(AuctionState.CALL_STOPPED)) );
+        assertNull( "nothing to do", factory.create(new ChangeStateEvent(AuctionState.INACTIVE)) );
+
+        List<Object> handled = new ArrayList<>();
+        factory.register( String.class, event -> () -> handled.add(event) );
+        factory.create("custom").run();
+        assertEquals( "[custom]", handled.toString() );
+    }
+}
@@ -0,0 +1,95 @@
+package net.tinyexch.exchange.event;
+
+import net.tinyexch.ob.Instrument;
+import net.tinyexch.ob.Orderbook;
+import net.tinyexch.ob.OrderbookException;
+import net.tinyexch.ob.SubmitType;
+import net.tinyexch.ob.match.ContinuousMatchEngine;
+import net.tinyexch.ob.match.Match;
+import net.tinyexch.ob.price.safeguard.VolatilityInterruptionGuard;
+import net.tinyexch.order.Order;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static net.tinyexch.ob.match.OrderFactory.buyL;
+import static net.tinyexch.ob.match.OrderFactory.sellL;
+import static org.junit.Assert.*;
+
+/**
+ * Orderbooks of many instruments are spread over the matching threads and every book is only touched by one thread.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public class ShardedMarketRunnerTest {
+
+    private static final int INSTRUMENT_COUNT = 200;
+
+    private final ShardedMarketRunner runner = new ShardedMarketRunner(4);
+
+    @After
+    public void tearDown() {
+        runner.stop();
+    }
+
+    @Test
+    public void testEachInstrumentIsMatchedByOneThreadInSubmitSequence() throws Exception {
+        List<Instrument> instruments = new ArrayList<>();
+        for ( int i = 0; i < INSTRUMENT_COUNT; i++ ) {
+            Instrument instrument = new Instrument("DE000" + (1_000_000 + i));
+            instruments.add(instrument);
+            runner.list( instrument, () -> new Orderbook(new ContinuousMatchEngine(200, VolatilityInterruptionGuard.NO_OP)) );
+            runner.call( instrument, book -> { book.open(); return null; } );
+        }
+
+        // per instrument: rest 3 asks then sweep them with one buy, only works if the sequence is kept
+        Map<Instrument, CompletableFuture<Match>> sweeps = new HashMap<>();
+        Map<Instrument, Set<String>> threadsByInstrument = new HashMap<>();
+        for ( Instrument instrument : instruments ) {
+            Set<String> threads = Collections.synchronizedSet(new HashSet<>());
+            threadsByInstrument.put(instrument, threads);
+            for ( int i = 0; i < 3; i++ ) {
+                Order ask = sellL(200 + i, 100);
+                runner.call( instrument, book -> threads.add(Thread.currentThread().getName()) );
+                runner.submit( instrument, ask, SubmitType.NEW );
+            }
+            sweeps.put( instrument, runner.submit(instrument, buyL(202, 300), SubmitType.NEW) );
+        }
+
+        Set<String> allThreads = new HashSet<>();
+        for ( Instrument instrument : instruments ) {
+            Match match = sweeps.get(instrument).get(5, TimeUnit.SECONDS);
+            assertEquals( 3, match.getTrades().size() );
+            assertEquals( 300, match.getExecutedQuantity() );
+
+            Set<String> threads = threadsByInstrument.get(instrument);
+            assertEquals( "single writer per instrument", 1, threads.size() );
+            assertTrue( threads.contains("MatchingShard-" + runner.shardOf(instrument)) );
+            allThreads.addAll(threads);
+        }
+        assertEquals( "instruments are spread over all shards", runner.getShardCount(), allThreads.size() );
+    }
+
+    @Test
+    public void testUnknownInstrumentIsRejected() throws Exception {
+        CompletableFuture<Match> match = runner.submit( new Instrument("XX0000000000"), buyL(200, 100), SubmitType.NEW );
+        try {
+            match.get(5, TimeUnit.SECONDS);
+            fail("Order for unlisted instrument must be rejected!");
+        } catch ( ExecutionException e ) {
+            assertTrue( e.getCause() instanceof OrderbookException );
+        }
+    }
+
+    @Test(expected = ExecutionException.class)
+    public void testInstrumentCannotBeListedTwice() throws Exception {
+        Instrument instrument = new Instrument("DE0007164600");
+        runner.list( instrument, Orderbook::new ).get(5, TimeUnit.SECONDS);
+        runner.list( instrument, Orderbook::new ).get(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,128 @@
+package net.tinyexch.exchange.event.ring;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Events of several producers pass the ring buffer completely and in the sequence of each producer, for every
+ * wait strategy. Busy spinning is only tested if every thread has its own core.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public class RingBufferTest {
+
+    private static final int EVENTS_PER_PRODUCER = 100_000;
+
+    @Test
+    public void testMultipleProducersKeepTheirSequence() throws InterruptedException {
+        for ( WaitStrategy waitStrategy : WaitStrategy.values() ) {
+            if ( isApplicable(waitStrategy, 3) ) assertAllEventsInSequence( RingBuffer.ProducerType.MULTI, 3, waitStrategy );
+        }
+    }
+
+    @Test
+    public void testSingleProducer() throws InterruptedException {
+        for ( WaitStrategy waitStrategy : WaitStrategy.values() ) {
+            if ( isApplicable(waitStrategy, 1) ) assertAllEventsInSequence( RingBuffer.ProducerType.SINGLE, 1, waitStrategy );
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCapacityMustBePowerOf2() {
+        new RingBuffer<>( RingBuffer.ProducerType.SINGLE, 1000, LongEvent::new, WaitStrategy.BUSY_SPIN );
+    }
+
+    @Test
+    public void testSlotsAreReused() {
+        RingBuffer<LongEvent> ringBuffer = new RingBuffer<>( RingBuffer.ProducerType.SINGLE, 4, LongEvent::new,
+                                                             WaitStrategy.BUSY_SPIN );
+        assertSame( ringBuffer.get(1), ringBuffer.get(5) );
+        assertNotSame( ringBuffer.get(1), ringBuffer.get(2) );
+    }
+
+    @Test
+    public void testHaltWaitsForClaimedEvents() throws InterruptedException {
+        RingBuffer<LongEvent> ringBuffer = new RingBuffer<>( RingBuffer.ProducerType.SINGLE, 4, LongEvent::new,
+                                                             WaitStrategy.PARK );
+        List<Long> received = new ArrayList<>();
+        BatchEventProcessor<LongEvent> processor =
+                new BatchEventProcessor<>( ringBuffer, (event, sequence, endOfBatch) -> received.add(event.value) );
+        Thread consumer = new Thread( processor, "consumer" );
+        consumer.start();
+
+        long sequence = ringBuffer.next();
+        processor.halt();
+        consumer.join(100);
+        assertTrue( "claimed event is awaited", consumer.isAlive() );
+
+        ringBuffer.get(sequence).set(0, 42);
+        ringBuffer.publish(sequence);
+        consumer.join(5_000);
+        assertFalse( consumer.isAlive() );
+        assertEquals( Collections.singletonList(42L), received );
+    }
+
+
+
+    private void assertAllEventsInSequence( RingBuffer.ProducerType producerType, int producerCount,
+                                            WaitStrategy waitStrategy ) throws InterruptedException {
+        RingBuffer<LongEvent> ringBuffer = new RingBuffer<>( producerType, 64, LongEvent::new, waitStrategy );
+        long[] lastValueByProducer = new long[producerCount];
+        int[] received = new int[1];
+        int[] outOfSequence = new int[1];
+        CountDownLatch done = new CountDownLatch(1);
+
+        BatchEventProcessor<LongEvent> processor = new BatchEventProcessor<>( ringBuffer, (event, sequence, endOfBatch) -> {
+            if ( lastValueByProducer[event.producer] + 1 != event.value ) outOfSequence[0]++;
+            lastValueByProducer[event.producer] = event.value;
+            if ( ++received[0] == producerCount * EVENTS_PER_PRODUCER ) done.countDown();
+        });
+        Thread consumer = new Thread( processor, "consumer" );
+        consumer.start();
+
+        List<Thread> producers = new ArrayList<>();
+        for ( int p = 0; p < producerCount; p++ ) {
+            int producer = p;
+            producers.add( new Thread( () -> {
+                for ( long value = 1; value <= EVENTS_PER_PRODUCER; value++ ) {
+                    long sequence = ringBuffer.next();
+                    ringBuffer.get(sequence).set(producer, value);
+                    ringBuffer.publish(sequence);
+                }
+            }, "producer-" + p) );
+        }
+        producers.forEach(Thread::start);
+
+        assertTrue( waitStrategy + ": all events received", done.await(30, TimeUnit.SECONDS) );
+        processor.halt();
+        consumer.join(5_000);
+        assertFalse( consumer.isAlive() );
+        assertEquals( "producer sequence kept", 0, outOfSequence[0] );
+        for ( long lastValue : lastValueByProducer ) {
+            assertEquals( EVENTS_PER_PRODUCER, lastValue );
+        }
+    }
+
+    private static boolean isApplicable( WaitStrategy waitStrategy, int producerCount ) {
+        return waitStrategy != WaitStrategy.BUSY_SPIN || Runtime.getRuntime().availableProcessors() > producerCount;
+    }
+
+
+    private static final class LongEvent {
+        private int producer;
+        private long value;
+
+        private void set( int producer, long value ) {
+            this.producer = producer;
+            this.value = value;
+        }
+    }
+}
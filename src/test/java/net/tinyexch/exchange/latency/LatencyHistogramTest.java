@@ -0,0 +1,121 @@
+package net.tinyexch.exchange.latency;
+
+import net.tinyexch.ob.OrderbookSide;
+import net.tinyexch.ob.PriceLevelQueue;
+import net.tinyexch.ob.match.ContinuousMatchEngine;
+import net.tinyexch.ob.match.MatchEngine;
+import net.tinyexch.ob.match.Priorities;
+import net.tinyexch.ob.price.safeguard.VolatilityInterruptionGuard;
+import net.tinyexch.order.Order;
+import net.tinyexch.order.Side;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.Random;
+
+import static net.tinyexch.ob.match.OrderFactory.buyL;
+import static net.tinyexch.ob.match.OrderFactory.sellL;
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Percentiles must be within the precision of the histogram and recording must not allocate.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void testBucketsCoverAllValues() {
+        long[] values = { 0, 1, 127, 128, 129, 255, 256, 1_000, 1_000_000, Long.MAX_VALUE / 3, Long.MAX_VALUE };
+        for ( long value : values ) {
+            int index = LatencyHistogram.indexOf(value);
+            assertTrue( LatencyHistogram.lowestEquivalentValue(index) <= value );
+            assertTrue( LatencyHistogram.highestEquivalentValue(index) >= value );
+            assertEquals( index, LatencyHistogram.indexOf(LatencyHistogram.highestEquivalentValue(index)) );
+            assertEquals( index, LatencyHistogram.indexOf(LatencyHistogram.lowestEquivalentValue(index)) );
+        }
+        assertEquals( Long.MAX_VALUE, LatencyHistogram.highestEquivalentValue(LatencyHistogram.indexOf(Long.MAX_VALUE)) );
+    }
+
+    @Test
+    public void testPercentilesWithinPrecision() {
+        Random random = new Random(4711);
+        LatencyHistogram histogram = new LatencyHistogram();
+        long[] values = new long[100_000];
+        for ( int i = 0; i < values.length; i++ ) {
+            // long tail like real latencies
+            values[i] = (long) (1_000 * Math.exp(random.nextGaussian() * 1.5));
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+
+        for ( double percentile : new double[]{ 0, 50, 90, 99, 99.9, 99.99, 100 } ) {
+            long expected = values[ Math.max(0, (int) Math.ceil(percentile / 100 * values.length) - 1) ];
+            long actual = histogram.getValueAtPercentile(percentile);
+            assertTrue( percentile + ": expected=" + expected + " actual=" + actual,
+                        actual >= expected && actual <= expected + expected / 64 + 1 );
+        }
+        assertEquals( values.length, histogram.getCount() );
+        assertEquals( values[values.length - 1], histogram.getMax() );
+        assertEquals( Arrays.stream(values).average().getAsDouble(), histogram.getMean(), 0.001 );
+
+        histogram.reset();
+        assertEquals( 0, histogram.getCount() );
+        assertEquals( 0, histogram.getValueAtPercentile(99) );
+    }
+
+    @Test
+    public void testReadWhileRecording() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Thread writer = new Thread( () -> {
+            for ( int i = 1; i <= 1_000_000; i++ ) histogram.record(i % 1_000);
+        });
+        writer.start();
+        while ( writer.isAlive() ) {
+            assertTrue( histogram.getValueAtPercentile(50) < 1_000 );
+        }
+        writer.join();
+        assertEquals( 1_000_000, histogram.getCount() );
+        assertEquals( 999, histogram.getValueAtPercentile(100) );
+    }
+
+    @Test
+    public void testInstrumentedMatchDoesNotAllocate() {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        assumeTrue( threadBean instanceof com.sun.management.ThreadMXBean );
+        com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+        assumeTrue( allocationBean.isThreadAllocatedMemorySupported() );
+
+        LatencyHistograms histograms = new LatencyHistograms();
+        ContinuousMatchEngine engine = new ContinuousMatchEngine(200, VolatilityInterruptionGuard.NO_OP,
+                MatchEngine.NO_PRICE, ContinuousMatchEngine.ResultMode.REUSE);
+        engine.setLatencyRecorder(histograms);
+        OrderbookSide buySide = new OrderbookSide(Side.BUY, new PriceLevelQueue(Side.BUY), Priorities.SUBMIT_SEQUENCE);
+        OrderbookSide sellSide = new OrderbookSide(Side.SELL, new PriceLevelQueue(Side.SELL), Priorities.SUBMIT_SEQUENCE);
+        sellSide.add( sellL(200, Integer.MAX_VALUE) );
+        Order incoming = buyL(200, 100);
+
+        long threadId = Thread.currentThread().getId();
+        matchRepeatedly(engine, incoming, sellSide, buySide, 50_000);
+        long before = allocationBean.getThreadAllocatedBytes(threadId);
+        matchRepeatedly(engine, incoming, sellSide, buySide, 10_000);
+        long allocated = allocationBean.getThreadAllocatedBytes(threadId) - before;
+
+        assertEquals( 60_000, histograms.get(LatencyStage.MATCHING).getCount() );
+        assertTrue( "Allocated bytes per match: " + allocated / 10_000d, allocated / 10_000 < 1 );
+        assertEquals( 0, histograms.get(LatencyStage.VALIDATION).getCount() );
+    }
+
+
+    private void matchRepeatedly( MatchEngine engine, Order incoming, OrderbookSide otherSide,
+                                  OrderbookSide thisSide, int count ) {
+        for ( int i = 0; i < count; i++ ) {
+            incoming.setCumQty(0);
+            engine.match(incoming, otherSide, thisSide);
+        }
+    }
+}
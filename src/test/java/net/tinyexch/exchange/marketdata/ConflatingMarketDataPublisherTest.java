@@ -0,0 +1,163 @@
+package net.tinyexch.exchange.marketdata;
+
+import net.tinyexch.exchange.event.NotificationListener;
+import net.tinyexch.exchange.trading.form.continuous.ContinuousTrading;
+import net.tinyexch.ob.Orderbook;
+import net.tinyexch.ob.match.ContinuousMatchEngine;
+import net.tinyexch.ob.match.ContinuousMatchEngine.ResultMode;
+import net.tinyexch.ob.match.MatchEngine;
+import net.tinyexch.ob.price.Ticks;
+import net.tinyexch.ob.price.safeguard.VolatilityInterruptionGuard;
+import net.tinyexch.order.Side;
+import net.tinyexch.order.Trade;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static net.tinyexch.ob.SubmitType.NEW;
+import static net.tinyexch.ob.match.OrderFactory.*;
+import static org.junit.Assert.*;
+
+/**
+ * A blocked subscriber must neither hold up the matching thread nor the other subscribers, and eventually receives
+ * the latest depth and every trade.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public class ConflatingMarketDataPublisherTest {
+
+    private static final String ISIN = "DE0007100000";
+
+    @Test(timeout = 10_000)
+    public void testBlockedSubscriberDoesNotDelayMatching() throws InterruptedException {
+        CountDownLatch releaseSlowSubscriber = new CountDownLatch(1);
+        List<DepthSnapshot> fastReceived = new CopyOnWriteArrayList<>();
+        List<DepthSnapshot> slowReceived = new CopyOnWriteArrayList<>();
+
+        try ( ConflatingMarketDataPublisher conflating = new ConflatingMarketDataPublisher(5) ) {
+            Orderbook ob = new Orderbook(new ContinuousMatchEngine(200, VolatilityInterruptionGuard.NO_OP));
+            ob.open();
+            DepthPublisher depthPublisher = new DepthPublisher(5, conflating.listenerFor(ISIN));
+            depthPublisher.attach(ob);
+
+            conflating.subscribe("dashboard", (isin, depth) -> {
+                slowReceived.add(depth);
+                await(releaseSlowSubscriber);
+            });
+            conflating.subscribe("trader", (isin, depth) -> fastReceived.add(depth));
+
+            // would never finish if the matching thread waited for the blocked subscriber
+            for ( int i = 0; i < 1_000; i++ ) {
+                ob.submit( buyL(199 - (i % 10), 100), NEW );
+                ob.submit( sellL(201 + (i % 10), 100), NEW );
+            }
+            long lastSequence = depthPublisher.getSequence();
+            assertTrue( slowReceived.size() <= 1 );
+
+            releaseSlowSubscriber.countDown();
+            awaitSequence( slowReceived, lastSequence );
+            awaitSequence( fastReceived, lastSequence );
+
+            assertTrue( "intermediate states are coalesced", slowReceived.size() < conflating.getPublishedCount() );
+            DepthSnapshot latest = slowReceived.get(slowReceived.size() - 1);
+            assertEquals( 5, latest.getLevelCount(Side.BUY) );
+            assertEquals( Ticks.of(199), latest.getPrice(Side.BUY, 1) );
+            assertEquals( 100 * 100, latest.getQty(Side.BUY, 1) );
+            assertEquals( Ticks.of(201), latest.getPrice(Side.SELL, 1) );
+            assertEquals( Ticks.of(205), latest.getPrice(Side.SELL, 5) );
+            assertEquals( latest.toString(), fastReceived.get(fastReceived.size() - 1).toString() );
+        }
+    }
+
+    @Test(timeout = 10_000)
+    public void testBlockedSubscriberReceivesEveryTrade() throws InterruptedException {
+        final int trades = 100;
+        CountDownLatch releaseSlowSubscriber = new CountDownLatch(1);
+        List<Trade> fastReceived = new CopyOnWriteArrayList<>();
+        List<Trade> slowReceived = new CopyOnWriteArrayList<>();
+
+        try ( ConflatingMarketDataPublisher conflating = new ConflatingMarketDataPublisher(5) ) {
+            conflating.subscribe("dashboard", new ConflatedMarketDataSubscriber() {
+                @Override
+                public void onDepth( String isin, DepthSnapshot depth ) {}
+
+                @Override
+                public void onTrade( String isin, Trade trade ) {
+                    await(releaseSlowSubscriber);
+                    slowReceived.add(trade);
+                }
+            });
+            conflating.subscribe("trader", new ConflatedMarketDataSubscriber() {
+                @Override
+                public void onDepth( String isin, DepthSnapshot depth ) {}
+
+                @Override
+                public void onTrade( String isin, Trade trade ) {
+                    assertEquals( ISIN, isin );
+                    fastReceived.add(trade);
+                }
+            });
+
+            // the engine recycles its trades, so the subscribers must be handed copies
+            ContinuousTrading trading = new ContinuousTrading(
+                    conflating.notificationListenerFor(ISIN, NotificationListener.NO_OP),
+                    new ContinuousMatchEngine(200, VolatilityInterruptionGuard.NO_OP, MatchEngine.NO_PRICE, ResultMode.REUSE) );
+            trading.start();
+            trading.getOrderbook().open();
+
+            // would never finish if the matching thread waited for the blocked subscriber
+            for ( int i = 1; i <= trades; i++ ) {
+                trading.submit( sellL(200, i), NEW );
+                trading.submit( buyL(200, i), NEW );
+            }
+
+            while ( fastReceived.size() < trades ) TimeUnit.MILLISECONDS.sleep(1);
+            assertTrue( slowReceived.isEmpty() );
+
+            releaseSlowSubscriber.countDown();
+            while ( slowReceived.size() < trades ) TimeUnit.MILLISECONDS.sleep(1);
+
+            for ( int i = 0; i < trades; i++ ) {
+                assertEquals( "no trade is coalesced or changed", i + 1, fastReceived.get(i).getExecutionQty() );
+                assertEquals( i + 1, slowReceived.get(i).getExecutionQty() );
+            }
+        }
+    }
+
+    @Test
+    public void testDepthBookAppliesUpdatesAfterSnapshot() {
+        DepthBook book = new DepthBook(2);
+        book.onDepthSnapshot( new DepthSnapshot(10, new long[]{5}, new int[]{100}, new int[]{1},
+                                                new long[0], new int[0], new int[0]) );
+        book.onDepthUpdate( Side.BUY, DepthUpdateAction.DELETE, 1, 5, 0, 0, 9 );
+        book.onDepthUpdate( Side.BUY, DepthUpdateAction.NEW, 1, 6, 200, 2, 11 );
+        book.onDepthUpdate( Side.SELL, DepthUpdateAction.NEW, 1, 7, 300, 1, 12 );
+        book.onDepthUpdate( Side.BUY, DepthUpdateAction.CHANGE, 2, 5, 50, 1, 13 );
+
+        DepthSnapshot depth = book.toSnapshot();
+        assertEquals( 13, depth.getSequence() );
+        assertEquals( 2, depth.getLevelCount(Side.BUY) );
+        assertEquals( 6, depth.getPrice(Side.BUY, 1) );
+        assertEquals( 50, depth.getQty(Side.BUY, 2) );
+        assertEquals( 300, depth.getQty(Side.SELL, 1) );
+    }
+
+
+    private static void awaitSequence( List<DepthSnapshot> received, long sequence ) throws InterruptedException {
+        while ( received.isEmpty() || received.get(received.size() - 1).getSequence() < sequence ) {
+            TimeUnit.MILLISECONDS.sleep(1);
+        }
+    }
+
+    private static void await( CountDownLatch latch ) {
+        try {
+            latch.await();
+        } catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package net.tinyexch.exchange.marketdata;
+
+import net.tinyexch.ob.Orderbook;
+import net.tinyexch.ob.PriceLevel;
+import net.tinyexch.ob.match.ContinuousMatchEngine;
+import net.tinyexch.ob.price.Ticks;
+import net.tinyexch.ob.price.safeguard.VolatilityInterruptionGuard;
+import net.tinyexch.order.Order;
+import net.tinyexch.order.OrderType;
+import net.tinyexch.order.Side;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import static java.util.Arrays.deepToString;
+import static net.tinyexch.ob.SubmitType.*;
+import static net.tinyexch.ob.match.OrderFactory.*;
+import static org.junit.Assert.*;
+
+/**
+ * Subscribers applying the incremental updates must always see the same top levels as the book.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public class DepthPublisherTest {
+
+    private final Random random = new Random(4711);
+
+    @Test
+    public void testUpdatesAtTheEdgeOfTheDepth() {
+        Orderbook ob = new Orderbook(new ContinuousMatchEngine(200, VolatilityInterruptionGuard.NO_OP, 200,
+                                                               ContinuousMatchEngine.ResultMode.FILL_IN_PLACE));
+        ob.open();
+        ob.submit(buyL(199, 100), NEW);
+        RecordingListener client = new RecordingListener();
+        DepthPublisher publisher = new DepthPublisher(2, client);
+        publisher.attach(ob);
+        assertEquals( 1, client.snapshots.size() );
+        assertEquals( 1, client.snapshots.get(0).getLevelCount(Side.BUY) );
+
+        ob.submit(buyL(198, 200), NEW);
+        Order third = buyL(200, 300);
+        ob.submit(third, NEW);
+        ob.submit(buyH_Lim(201, 400), NEW);
+        ob.submit(buyL(197, 500), NEW);
+        assertEquals( "hidden order and level beyond depth are not published",
+                      "NEW 2 198.0/200, DELETE 2 198.0/0, NEW 1 200.0/300", client.updates() );
+
+        client.updates.clear();
+        ob.submit(Order.of(third.getClientOrderID(), Side.BUY).setOrderType(OrderType.LIMIT), CANCEL);
+        assertEquals( "next level from the book refills the depth", "DELETE 1 200.0/0, NEW 2 198.0/200", client.updates() );
+
+        client.updates.clear();
+        ob.submit(sellL(199, 450), NEW);
+        assertEquals( "hidden qty executed first, visible level changes",
+                      "CHANGE 1 199.0/50", client.updates() );
+        assertEquals( 6, publisher.getSequence() );
+    }
+
+    @Test
+    public void testRandomFlowMatchesBook() {
+        for ( ContinuousMatchEngine.ResultMode mode : ContinuousMatchEngine.ResultMode.values() ) {
+            Orderbook ob = new Orderbook(new ContinuousMatchEngine(200, VolatilityInterruptionGuard.NO_OP, 200, mode));
+            ob.open();
+            RecordingListener client = new RecordingListener();
+            DepthPublisher publisher = new DepthPublisher(5, client);
+            publisher.setSnapshotInterval(50);
+            publisher.attach(ob);
+
+            List<Order> submitted = new ArrayList<>();
+            for ( int i = 0; i < 2_000; i++ ) {
+                int action = random.nextInt(10);
+                if ( action < 7 || submitted.isEmpty() ) {
+                    Side side = random.nextBoolean() ? Side.BUY : Side.SELL;
+                    double price = 200 + (side == Side.BUY ? -1 : 1) * (random.nextInt(12) - 2) * 0.5;
+                    Order order = newOrder(side, price, 1 + random.nextInt(500), OrderType.LIMIT)
+                            .setHidden(random.nextInt(10) == 0);
+                    ob.submit(order, NEW);
+                    submitted.add(order);
+                } else {
+                    Order resting = submitted.get(random.nextInt(submitted.size()));
+                    Order request = Order.of(resting.getClientOrderID(), resting.getSide())
+                                         .setOrderType(OrderType.LIMIT).setPriceTicks(resting.getPriceTicks())
+                                         .setHidden(resting.isHidden());
+                    if ( action < 9 ) {
+                        ob.submit(request, CANCEL);
+                    } else {
+                        ob.submit(request.setOrderQty(Math.max(1, resting.getOrderQty() / 2)), MODIFY);
+                    }
+                }
+
+                assertLevelsMatchBook( ob, Side.BUY, client.bids, publisher.getDepth() );
+                assertLevelsMatchBook( ob, Side.SELL, client.asks, publisher.getDepth() );
+            }
+
+            // late joiner starts from the last snapshot and applies the updates published afterwards
+            DepthSnapshot snapshot = client.snapshots.get(client.snapshots.size() - 1);
+            RecordingListener lateJoiner = new RecordingListener();
+            lateJoiner.onDepthSnapshot(snapshot);
+            client.replay(snapshot.getSequence(), lateJoiner);
+            assertEquals( mode.toString(), deepToString(client.bids.toArray()), deepToString(lateJoiner.bids.toArray()) );
+            assertEquals( mode.toString(), deepToString(client.asks.toArray()), deepToString(lateJoiner.asks.toArray()) );
+            assertTrue( client.snapshots.size() > 2 );
+        }
+    }
+
+
+    private static void assertLevelsMatchBook( Orderbook ob, Side side, List<long[]> published, int depth ) {
+        Iterator<PriceLevel> levels = (side == Side.BUY ? ob.getBuySide() : ob.getSellSide())
+                .getPriceLevels().get().getVisibleLevels().iterator();
+        int position = 0;
+        while ( position < depth && levels.hasNext() ) {
+            PriceLevel level = levels.next();
+            long[] publishedLevel = published.get(position++);
+            assertEquals( level.getPriceTicks(), publishedLevel[0] );
+            assertEquals( level.getVisibleQty(), publishedLevel[1] );
+            assertEquals( level.getVisibleOrderCount(), publishedLevel[2] );
+        }
+        assertEquals( position, published.size() );
+    }
+
+    /**
+     * Maintains the depth like a subscriber would do.
+     */
+    private static class RecordingListener implements MarketDataListener {
+        final List<long[]> bids = new ArrayList<>();
+        final List<long[]> asks = new ArrayList<>();
+        final List<String> updates = new ArrayList<>();
+        final List<DepthSnapshot> snapshots = new ArrayList<>();
+        final List<Object[]> log = new ArrayList<>();
+        long lastSequence;
+
+        @Override
+        public void onDepthUpdate( Side side, DepthUpdateAction action, int position, long price, int qty,
+                                   int orderCount, long sequence ) {
+            if ( lastSequence != 0 ) assertEquals( "gapless sequence", lastSequence + 1, sequence );
+            lastSequence = sequence;
+            log.add( new Object[]{side, action, position, price, qty, orderCount, sequence} );
+            updates.add( action + " " + position + " " + Ticks.toPrice(price) + "/" + qty );
+
+            List<long[]> levels = side == Side.BUY ? bids : asks;
+            long[] level = {price, qty, orderCount};
+            if ( action == DepthUpdateAction.NEW ) {
+                levels.add( position - 1, level );
+            } else if ( action == DepthUpdateAction.CHANGE ) {
+                assertEquals( price, levels.set(position - 1, level)[0] );
+            } else {
+                assertEquals( price, levels.remove(position - 1)[0] );
+            }
+        }
+
+        @Override
+        public void onDepthSnapshot( DepthSnapshot snapshot ) {
+            snapshots.add(snapshot);
+            bids.clear();
+            asks.clear();
+            for ( Side side : Side.values() ) {
+                for ( int position = 1; position <= snapshot.getLevelCount(side); position++ ) {
+                    (side == Side.BUY ? bids : asks).add( new long[]{ snapshot.getPrice(side, position),
+                            snapshot.getQty(side, position), snapshot.getOrderCount(side, position) } );
+                }
+            }
+        }
+
+        String updates() { return String.join(", ", updates); }
+
+        void replay( long afterSequence, MarketDataListener target ) {
+            for ( Object[] u : log ) {
+                long sequence = (long) u[6];
+                if ( sequence > afterSequence ) {
+                    target.onDepthUpdate( (Side) u[0], (DepthUpdateAction) u[1], (int) u[2], (long) u[3],
+                                          (int) u[4], (int) u[5], sequence );
+                }
+            }
+        }
+    }
+}
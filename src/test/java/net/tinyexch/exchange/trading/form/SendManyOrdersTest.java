@@ -3,12 +3,25 @@ package net.tinyexch.exchange.trading.form;
 import net.tinyexch.exchange.event.NotificationListener;
 import net.tinyexch.exchange.trading.form.continuous.ContinuousTrading;
 import net.tinyexch.exchange.trading.form.continuous.ContinuousTradingState;
+import net.tinyexch.ob.Orderbook;
+import net.tinyexch.ob.SubmitType;
+import net.tinyexch.ob.match.ContinuousMatchEngine;
+import net.tinyexch.ob.match.OrderFactory;
+import net.tinyexch.ob.price.safeguard.VolatilityInterruptionGuard;
+import net.tinyexch.order.Order;
 import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
 /**
- * // TODO (FRa) : (FRa) : comment
+ * Feed a stream of random orders into continuous trading and check the book is never left crossed. Throughput and
+ * latency are measured by the benchmarks in the jmh source set.
  *
  * @author ratzlow@gmail.com
  * @since 2015-05-21
@@ -16,34 +29,35 @@ import org.slf4j.LoggerFactory;
 public class SendManyOrdersTest {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(SendManyOrdersTest.class);
-    private int sequence = 0;
+    private static final int ORDER_COUNT = 10_000;
+
+    private final Random random = new Random(4711);
 
     @Test
     public void sendRandomOrdersForContinuousTrading() {
-        ContinuousTrading trading = new ContinuousTrading(NotificationListener.NO_OP);
+        ContinuousTrading trading = new ContinuousTrading(NotificationListener.NO_OP,
+                new ContinuousMatchEngine(200, VolatilityInterruptionGuard.NO_OP));
         trading.start();
         trading.getOrderbook().open();
         trading.transitionTo(ContinuousTradingState.RUNNING);
-/*
-        Stream.<Order>generate(this::generate)
-                .peek(o -> LOGGER.info(o.getClientOrderID()))
+
+        Stream.generate(this::generate)
+                .limit(ORDER_COUNT)
                 .forEach(order -> trading.submit(order, SubmitType.NEW));
-                */
-    }
 
-/*
-    private Order generate( int discriminator ) {
-        final Order order;
-        sw
+        Orderbook orderbook = trading.getOrderbook();
+        Order bestBid = orderbook.getBuySide().getLimitOrders().peek();
+        Order bestAsk = orderbook.getSellSide().getLimitOrders().peek();
+        LOGGER.info("Book after {} orders: bestBid={} bestAsk={}", ORDER_COUNT, bestBid, bestAsk);
 
-        if (count % 2 == 0 ) {
-            order = OrderFactory.buyL()
+        assertFalse( orderbook.getBuySide().getOrders().isEmpty() );
+        assertTrue( "Book must not stay crossed!", bestBid.getPrice() < bestAsk.getPrice() );
+    }
 
-        } else if ( count % 3 == 0 ) {
-            order = OrderFactory.sellL()
 
-        }
+    private Order generate() {
+        double price = 195 + random.nextInt(101) / 10d;
+        int qty = 100 * (1 + random.nextInt(10));
+        return random.nextBoolean() ? OrderFactory.buyL(price, qty) : OrderFactory.sellL(price, qty);
     }
-*/
-
 }
@@ -0,0 +1,75 @@
+package net.tinyexch.ob;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * The primitive map must behave like a {@link HashMap} for every sequence of operations, in particular removal must
+ * not break the probe sequence of the remaining keys.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public class LongObjectHashMapTest {
+
+    private final Random random = new Random(4711);
+
+    @Test
+    public void testSameContentAsHashMap() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<>(4);
+        Map<Long, String> expected = new HashMap<>();
+
+        for ( int i = 0; i < 100_000; i++ ) {
+            // small key range to provoke collisions and removals of existing keys
+            long key = 1 + random.nextInt(2_000);
+            int op = random.nextInt(3);
+            if ( op == 0 ) {
+                assertEquals( expected.remove(key), map.remove(key) );
+            } else if ( op == 1 ) {
+                assertEquals( expected.put(key, "v" + i), map.put(key, "v" + i) );
+            } else {
+                assertEquals( expected.get(key), map.get(key) );
+                assertEquals( expected.containsKey(key), map.containsKey(key) );
+            }
+            assertEquals( expected.size(), map.size() );
+        }
+
+        for ( Map.Entry<Long, String> entry : expected.entrySet() ) {
+            assertEquals( entry.getValue(), map.get(entry.getKey()) );
+        }
+        Set<String> values = new HashSet<>();
+        map.forEachValue( values::add );
+        assertEquals( new HashSet<>(expected.values()), values );
+
+        map.clear();
+        assertTrue( map.isEmpty() );
+        assertNull( map.get(expected.keySet().iterator().next()) );
+    }
+
+    @Test
+    public void testSequentialKeys() {
+        LongObjectHashMap<Long> map = new LongObjectHashMap<>();
+        for ( long key = 1; key <= 10_000; key++ ) {
+            map.put(key, key);
+        }
+        for ( long key = 1; key <= 10_000; key += 2 ) {
+            assertEquals( Long.valueOf(key), map.remove(key) );
+        }
+        assertEquals( 5_000, map.size() );
+        for ( long key = 1; key <= 10_000; key++ ) {
+            assertEquals( key % 2 == 0, map.containsKey(key) );
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoOrderIdIsReserved() {
+        new LongObjectHashMap<String>().put(0, "empty");
+    }
+}
@@ -0,0 +1,63 @@
+package net.tinyexch.ob;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * The primitive map must behave like a {@link HashMap} for every sequence of operations, in particular removal must
+ * not break the probe sequence of the remaining keys.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public class ObjectLongHashMapTest {
+
+    private final Random random = new Random(4711);
+
+    @Test
+    public void testSameContentAsHashMap() {
+        ObjectLongHashMap<String> map = new ObjectLongHashMap<>(4);
+        Map<String, Long> expected = new HashMap<>();
+
+        for ( int i = 1; i <= 100_000; i++ ) {
+            // small key range to provoke collisions and removals of existing keys
+            String key = "order-" + random.nextInt(2_000);
+            int op = random.nextInt(4);
+            if ( op == 0 ) {
+                assertEquals( orMissing(expected.remove(key)), map.remove(key) );
+            } else if ( op == 1 ) {
+                assertEquals( orMissing(expected.put(key, (long) i)), map.put(key, i) );
+            } else if ( op == 2 ) {
+                long value = 1 + random.nextInt(100_000);
+                assertEquals( expected.remove(key, value), map.remove(key, value) );
+            } else {
+                assertEquals( orMissing(expected.get(key)), map.get(key) );
+                assertEquals( expected.containsKey(key), map.containsKey(key) );
+            }
+            assertEquals( expected.size(), map.size() );
+        }
+
+        for ( Map.Entry<String, Long> entry : expected.entrySet() ) {
+            assertEquals( entry.getValue().longValue(), map.get(entry.getKey()) );
+        }
+
+        map.clear();
+        assertTrue( map.isEmpty() );
+        assertEquals( ObjectLongHashMap.MISSING, map.get(expected.keySet().iterator().next()) );
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoOrderIdIsReserved() {
+        new ObjectLongHashMap<String>().put("empty", 0);
+    }
+
+
+    private static long orMissing( Long value ) {
+        return value != null ? value : ObjectLongHashMap.MISSING;
+    }
+}
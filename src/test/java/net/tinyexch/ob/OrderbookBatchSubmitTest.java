@@ -0,0 +1,110 @@
+package net.tinyexch.ob;
+
+import net.tinyexch.ob.match.ContinuousMatchEngine;
+import net.tinyexch.ob.match.Match;
+import net.tinyexch.ob.price.safeguard.VolatilityInterruptionGuard;
+import net.tinyexch.order.Order;
+import net.tinyexch.order.Trade;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static net.tinyexch.ob.SubmitType.*;
+import static net.tinyexch.ob.match.OrderFactory.*;
+import static org.junit.Assert.*;
+
+/**
+ * A batch of orders must lead to the same matches as submitting them one by one.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public class OrderbookBatchSubmitTest {
+
+    private final Random random = new Random(4711);
+
+    @Test
+    public void testBatchEqualsSingleSubmits() {
+        List<Order> orders = new ArrayList<>();
+        for ( int i = 0; i < 500; i++ ) {
+            double price = 195 + random.nextInt(11);
+            int qty = 100 * (1 + random.nextInt(5));
+            orders.add( random.nextBoolean() ? buyL(price, qty) : sellL(price, qty) );
+        }
+
+        Orderbook single = newOpenBook(VolatilityInterruptionGuard.NO_OP);
+        List<String> expected = new ArrayList<>();
+        for ( Order order : orders ) {
+            expected.add( describe(single.submit(order.mutableClone(), NEW)) );
+        }
+
+        Orderbook batched = newOpenBook(VolatilityInterruptionGuard.NO_OP);
+        Order[] batch = new Order[64];
+        SubmitType[] submitTypes = new SubmitType[64];
+        List<String> actual = new ArrayList<>();
+        for ( int offset = 0; offset < orders.size(); offset += batch.length ) {
+            int length = Math.min(batch.length, orders.size() - offset);
+            for ( int i = 0; i < length; i++ ) {
+                batch[i] = orders.get(offset + i).mutableClone();
+                submitTypes[i] = NEW;
+            }
+            assertEquals( length, batched.submit(batch, submitTypes, length, (index, match) -> actual.add(describe(match))) );
+        }
+
+        assertEquals( expected, actual );
+        assertEquals( single.getBuySide().getOrders().size(), batched.getBuySide().getOrders().size() );
+        assertEquals( single.getSellSide().getOrders().size(), batched.getSellSide().getOrders().size() );
+    }
+
+    @Test
+    public void testBatchStopsAtVolatilityInterruption() {
+        Orderbook ob = newOpenBook( new VolatilityInterruptionGuard(200, 10, 200, 2) );
+        ob.submit( sellL(225, 100), NEW );
+
+        Order[] batch = { buyL(199, 100), buyL(225, 100), buyL(198, 100) };
+        SubmitType[] submitTypes = { NEW, NEW, NEW };
+        List<Integer> indices = new ArrayList<>();
+        int processed = ob.submit( batch, submitTypes, batch.length, (index, match) -> indices.add(index) );
+
+        assertEquals( 2, processed );
+        assertEquals( 2, indices.size() );
+        assertFalse( "last order never reached the book",
+                ob.getBuySide().getOrders().stream().anyMatch(o -> o.getPrice() == 198) );
+    }
+
+    @Test(expected = OrderbookException.class)
+    public void testClosedBookRejectsBatch() {
+        Orderbook ob = new Orderbook( new ContinuousMatchEngine(200, VolatilityInterruptionGuard.NO_OP) );
+        ob.submit( new Order[]{ buyL(200, 100) }, new SubmitType[]{ NEW }, 1, (index, match) -> fail() );
+    }
+
+
+    @Test
+    public void testBatchIsCheckedBeforeAnyOrderIsProcessed() {
+        Orderbook ob = newOpenBook( VolatilityInterruptionGuard.NO_OP );
+        Order[] batch = { buyL(199, 100), null };
+        try {
+            ob.submit( batch, new SubmitType[]{ NEW, NEW }, batch.length, (index, match) -> fail() );
+            fail( "batch with invalid order must be refused" );
+        } catch ( NullPointerException expected ) {
+            assertTrue( ob.getBuySide().getOrders().isEmpty() );
+        }
+    }
+
+
+    private static Orderbook newOpenBook( VolatilityInterruptionGuard guard ) {
+        Orderbook ob = new Orderbook( new ContinuousMatchEngine(200, guard) );
+        ob.open();
+        return ob;
+    }
+
+    private static String describe( Match match ) {
+        StringBuilder sb = new StringBuilder( match.getState().toString() );
+        for ( Trade trade : match.getTrades() ) {
+            sb.append( ' ' ).append( trade.getPrice() ).append( 'x' ).append( trade.getExecutionQty() );
+        }
+        return sb.toString();
+    }
+}
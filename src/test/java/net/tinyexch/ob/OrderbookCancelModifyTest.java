@@ -0,0 +1,132 @@
+package net.tinyexch.ob;
+
+import net.tinyexch.ob.match.ContinuousMatchEngine;
+import net.tinyexch.ob.match.Match;
+import net.tinyexch.ob.price.safeguard.VolatilityInterruptionGuard;
+import net.tinyexch.order.Order;
+import net.tinyexch.order.OrderType;
+import net.tinyexch.order.Side;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static net.tinyexch.ob.SubmitType.*;
+import static net.tinyexch.ob.match.OrderFactory.*;
+import static org.junit.Assert.*;
+
+/**
+ * Cancel and modify resting orders by their clientOrderID.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public class OrderbookCancelModifyTest {
+
+    private Orderbook ob;
+
+    @Before
+    public void init() {
+        ob = new Orderbook(new ContinuousMatchEngine(200, VolatilityInterruptionGuard.NO_OP));
+        ob.open();
+    }
+
+    @Test
+    public void testCancelByClientOrderID() {
+        Order first = buyL(199, 100, time("09:00:00"));
+        Order second = buyL(199, 200, time("09:00:01"));
+        ob.submit(first, NEW);
+        ob.submit(second, NEW);
+
+        // cancel request is a different object only sharing the ID
+        ob.submit(Order.of(first.getClientOrderID(), Side.BUY).setOrderType(OrderType.LIMIT), CANCEL);
+
+        assertEquals( 1, ob.getBuySide().getOrders().size() );
+        assertSame( second, ob.getBuySide().getLimitOrders().peek() );
+        assertEquals( 200, ((PriceLevelQueue) ob.getBuySide().getLimitOrders()).getBestLevel().getVisibleQty() );
+    }
+
+    @Test
+    public void testCancelUnknownOrderLeavesBookUntouched() {
+        ob.submit(buyL(199, 100), NEW);
+        assertFalse( ob.getBuySide().cancel(Order.of("unknown", Side.BUY).setOrderType(OrderType.LIMIT)).isPresent() );
+        assertEquals( 1, ob.getBuySide().getOrders().size() );
+    }
+
+    @Test
+    public void testModifyUnknownOrderIsRejected() {
+        Order resting = buyL(199, 100);
+        ob.submit(resting, NEW);
+
+        Match unknown = ob.submit(buyL(199, 100), MODIFY);
+        assertEquals( Match.State.REJECT, unknown.getState() );
+        assertEquals( RejectReason.UNKNOWN_ORDER.getMsg(), unknown.getTrades().get(0).getOrderRejectReason() );
+
+        ob.submit(Order.of(resting.getClientOrderID(), Side.BUY).setOrderType(OrderType.LIMIT), CANCEL);
+        Match cancelled = ob.submit(resting.mutableClone().setOrderQty(50), MODIFY);
+        assertEquals( "order left the book already", Match.State.REJECT, cancelled.getState() );
+
+        assertTrue( "no modification entered the book as a new order", ob.getBuySide().getOrders().isEmpty() );
+        assertEquals( 0, ob.getOrderIds().size() );
+    }
+
+    @Test
+    public void testReduceQtyKeepsTimePriority() {
+        Order first = sellL(201, 1000, time("09:00:00"));
+        Order second = sellL(201, 500, time("09:00:01"));
+        ob.submit(first, NEW);
+        ob.submit(second, NEW);
+
+        Order modify = Order.of(first.getClientOrderID(), Side.SELL).setOrderType(OrderType.LIMIT)
+                                .setPrice(201).setOrderQty(400);
+        Match match = ob.submit(modify, MODIFY);
+        assertEquals( Match.State.ACCEPT, match.getState() );
+
+        assertSame( "resting order keeps identity and position", first, ob.getSellSide().getLimitOrders().peek() );
+        assertEquals( 400, first.getLeavesQty() );
+        assertEquals( 900, ((PriceLevelQueue) ob.getSellSide().getLimitOrders()).getBestLevel().getVisibleQty() );
+    }
+
+    @Test
+    public void testPriceChangeLosesTimePriority() {
+        Order first = sellL(201, 1000, time("09:00:00"));
+        Order second = sellL(200, 500, time("09:00:01"));
+        ob.submit(first, NEW);
+        ob.submit(second, NEW);
+
+        Order replacement = Order.of(first.getClientOrderID(), Side.SELL).setOrderType(OrderType.LIMIT)
+                                .setPrice(200).setOrderQty(1000).setTimestamp(time("09:00:02"));
+        ob.submit(replacement, MODIFY);
+
+        List<String> ids = ob.getSellSide().getLimitOrders().stream().map(Order::getClientOrderID).collect(Collectors.toList());
+        assertEquals( 2, ids.size() );
+        assertEquals( second.getClientOrderID(), ids.get(0) );
+        assertEquals( first.getClientOrderID(), ids.get(1) );
+    }
+
+    @Test
+    public void testOrderIDsAreAssignedAndReleased() {
+        Order resting = sellL(201, 300, time("09:00:00"));
+        Order cancelled = sellL(202, 100, time("09:00:01"));
+        ob.submit(resting, NEW);
+        ob.submit(cancelled, NEW);
+        assertNotEquals( Order.NO_ORDER_ID, resting.getOrderID() );
+        assertNotEquals( resting.getOrderID(), cancelled.getOrderID() );
+        assertEquals( resting.getOrderID(), ob.getOrderIds().resolve(resting.getClientOrderID()) );
+        assertEquals( 2, ob.getOrderIds().size() );
+
+        ob.submit(Order.of(cancelled.getClientOrderID(), Side.SELL).setOrderType(OrderType.LIMIT), CANCEL);
+        assertEquals( Order.NO_ORDER_ID, ob.getOrderIds().resolve(cancelled.getClientOrderID()) );
+
+        Match partial = ob.submit(buyL(201, 100), NEW);
+        assertEquals( 0, partial.getRemovedOrderCount() );
+        assertEquals( "partially executed order still rests", 1, ob.getOrderIds().size() );
+
+        Match complete = ob.submit(buyL(201, 200), NEW);
+        assertEquals( 1, complete.getRemovedOrderCount() );
+        assertEquals( resting.getOrderID(), complete.getRemovedOrderID(0) );
+        assertEquals( 0, ob.getOrderIds().size() );
+        assertTrue( ob.getSellSide().getOrders().isEmpty() );
+    }
+}
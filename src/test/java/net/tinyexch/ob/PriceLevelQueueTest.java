@@ -0,0 +1,144 @@
+package net.tinyexch.ob;
+
+import net.tinyexch.ob.match.MatchEngine;
+import net.tinyexch.ob.match.Priorities;
+import net.tinyexch.order.Order;
+import net.tinyexch.order.Side;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.*;
+
+import static net.tinyexch.ob.match.OrderFactory.*;
+import static org.junit.Assert.*;
+
+/**
+ * The price level ladder must yield the orders in the very same sequence as a heap ordered by price/time priority.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public class PriceLevelQueueTest {
+
+    private final Random random = new Random(4711);
+
+    @Test
+    public void testSameSequenceAsPriorityQueue() {
+        for ( Side side : Side.values() ) {
+            Comparator<Order> ordering = (side == Side.BUY ? MatchEngine.BUY_PRICE_TIME_ORDERING :
+                                                             MatchEngine.SELL_PRICE_TIME_ORDERING)
+                                            .thenComparing(Priorities.SUBMIT_SEQUENCE);
+            PriorityQueue<Order> heap = new PriorityQueue<>(ordering);
+            PriceLevelQueue levels = new PriceLevelQueue(side);
+
+            for ( Order order : randomOrders(side, 500) ) {
+                heap.offer(order);
+                levels.offer(order);
+            }
+
+            List<Order> iterated = new ArrayList<>(levels);
+            List<Order> sorted = new ArrayList<>(heap);
+            sorted.sort(ordering);
+            assertEquals( "iterator walks in priority sequence", sorted, iterated );
+
+            List<Order> visible = new ArrayList<>();
+            levels.visibleIterator().forEachRemaining(visible::add);
+            sorted.removeIf(Order::isHidden);
+            assertEquals( "visible iterator skips hidden orders", sorted, visible );
+
+            while ( !heap.isEmpty() ) {
+                Optional<Order> bestVisible = heap.stream().filter(o -> !o.isHidden()).min(ordering);
+                assertSame( bestVisible.orElse(null), levels.peekVisible() );
+                assertSame( heap.peek(), levels.peek() );
+                assertSame( heap.poll(), levels.poll() );
+            }
+            assertTrue( levels.isEmpty() );
+            assertNull( levels.getBestLevel() );
+            assertNull( levels.getBestVisibleLevel() );
+        }
+    }
+
+    @Test
+    public void testBestVisibleSkipsHiddenOnlyLevels() {
+        PriceLevelQueue bids = new PriceLevelQueue(Side.BUY);
+        Order hidden = buyH_Lim(201, 100);
+        Order visible = buyL(200, 100, time("09:00:00"));
+        Order later = buyL(200, 100, time("09:00:01"));
+        bids.addAll(Arrays.asList(hidden, later, visible));
+
+        assertSame( hidden, bids.peek() );
+        assertSame( visible, bids.peekVisible() );
+        assertEquals( 1, bids.getVisibleLevels().size() );
+
+        bids.remove(visible.getOrderID());
+        assertSame( later, bids.peekVisible() );
+
+        Order better = buyL(202, 100);
+        bids.offer(better);
+        assertSame( better, bids.peekVisible() );
+        assertEquals( 202, bids.getBestVisibleLevel().getPrice(), TestConstants.ROUNDING_DELTA );
+
+        bids.poll();
+        bids.remove(later);
+        assertNull( bids.peekVisible() );
+        assertSame( hidden, bids.peek() );
+        assertTrue( bids.getVisibleLevels().isEmpty() );
+    }
+
+    @Test
+    public void testLevelTotals() {
+        PriceLevelQueue asks = new PriceLevelQueue(Side.SELL);
+        Order visible = sellL(201, 100, time("09:00:00"));
+        Order hidden = sellL(201, 300, time("09:00:01")).setHidden(true);
+        Order iceberg = sellLimitIceberg(201, 1000, time("09:00:02"), 200);
+        Order otherPrice = sellL(202, 50);
+        asks.addAll(Arrays.asList(hidden, iceberg, otherPrice, visible));
+
+        PriceLevel best = asks.getBestLevel();
+        assertEquals( 201, best.getPrice(), TestConstants.ROUNDING_DELTA );
+        assertEquals( 3, best.getOrderCount() );
+        assertEquals( 100 + 200, best.getVisibleQty() );
+        assertEquals( 300, best.getHiddenQty() );
+        assertEquals( 800, best.getIcebergQty() );
+        assertEquals( 1400, best.getTotalQty() );
+        assertEquals( 2, asks.getLevels().size() );
+
+        assertEquals( "visible orders first and in time priority",
+                Arrays.asList(visible, iceberg, hidden, otherPrice), new ArrayList<>(asks) );
+
+        asks.remove(iceberg);
+        assertEquals( 100, best.getVisibleQty() );
+        assertEquals( 0, best.getIcebergQty() );
+
+        asks.removeIf( o -> o.getPrice() == 201 );
+        assertNull( asks.getLevel(201) );
+        assertSame( otherPrice, asks.peek() );
+        assertEquals( 202, asks.getBestLevel().getPrice(), TestConstants.ROUNDING_DELTA );
+    }
+
+    @Test
+    public void testBetterPriceOpensNewBestLevel() {
+        PriceLevelQueue bids = new PriceLevelQueue(Side.BUY);
+        bids.offer(buyL(200, 100));
+        bids.offer(buyL(199, 100));
+        Order better = buyL(201, 100);
+        bids.offer(better);
+
+        assertSame( better, bids.peek() );
+        assertEquals( 3, bids.getLevels().size() );
+    }
+
+
+    private List<Order> randomOrders( Side side, int count ) {
+        Instant start = time("09:00:00");
+        List<Order> orders = new ArrayList<>();
+        for ( int i = 0; i < count; i++ ) {
+            double price = 195 + random.nextInt(10);
+            // mostly in time sequence but some late arrivals with an earlier timestamp
+            Instant ts = start.plusSeconds( random.nextInt(10) < 8 ? i : Math.max(0, i - random.nextInt(20)) );
+            Order order = side == Side.BUY ? buyL(price, 100 + random.nextInt(900), ts) : sellL(price, 100 + random.nextInt(900), ts);
+            orders.add( order.setHidden(random.nextInt(5) == 0).setSubmitSequence(i) );
+        }
+        return orders;
+    }
+}
@@ -0,0 +1,81 @@
+package net.tinyexch.ob.clock;
+
+import net.tinyexch.ob.match.Priorities;
+import net.tinyexch.order.Order;
+import net.tinyexch.order.Side;
+import net.tinyexch.order.Trade;
+import org.junit.After;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+/**
+ * Orders and trades are stamped by the installed clock, time priority compares the primitive timestamps.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public class ClocksTest {
+
+    @After
+    public void resetClock() {
+        Clocks.reset();
+    }
+
+    @Test
+    public void testDeterministicClockStampsOrdersAndTrades() {
+        long start = Clocks.toNanos( Instant.parse("2026-10-18T09:00:00Z") );
+        Clocks.set( new DeterministicNanoClock(start, 1_000) );
+
+        Order first = Order.of("1", Side.BUY);
+        Order second = Order.of("2", Side.BUY);
+        Trade trade = Trade.of();
+
+        assertEquals( start, first.getTimestampNanos() );
+        assertEquals( start + 1_000, second.getTimestampNanos() );
+        assertEquals( start + 2_000, trade.getExecutionTimeNanos() );
+        assertEquals( Instant.parse("2026-10-18T09:00:00.000001Z"), second.getTimestamp() );
+        assertTrue( Priorities.TIME.compare(first, second) < 0 );
+        assertEquals( 0, Priorities.TIME.compare(first, first.mutableClone()) );
+    }
+
+    @Test
+    public void testMonotonicClockNeverGoesBackwards() {
+        MonotonicNanoClock clock = new MonotonicNanoClock();
+        long now = Clocks.toNanos( Instant.now() );
+        long last = clock.nanos();
+        assertTrue( "close to the wall clock", Math.abs(last - now) < 1_000_000_000L );
+        for ( int i = 0; i < 100_000; i++ ) {
+            long next = clock.nanos();
+            assertTrue( next >= last );
+            last = next;
+        }
+    }
+
+    @Test(timeout = 10_000)
+    public void testCoarseClockCachesTheSourceTime() throws InterruptedException {
+        AtomicLong source = new AtomicLong(1_000);
+        try ( CoarseNanoClock clock = new CoarseNanoClock(source::get, 100_000) ) {
+            assertEquals( 1_000, clock.nanos() );
+            assertEquals( "same tick", clock.nanos(), clock.nanos() );
+
+            source.set(2_000);
+            while ( clock.nanos() != 2_000 ) Thread.sleep(1);
+
+            source.set(1_500);
+            Thread.sleep(10);
+            assertEquals( "never goes backwards", 2_000, clock.nanos() );
+        }
+    }
+
+    @Test
+    public void testConversion() {
+        Instant instant = Instant.parse("2026-10-18T09:00:00.123456789Z");
+        assertEquals( instant, Clocks.toInstant(Clocks.toNanos(instant)) );
+        Instant beforeEpoch = Instant.parse("1969-12-31T23:59:59.5Z");
+        assertEquals( beforeEpoch, Clocks.toInstant(Clocks.toNanos(beforeEpoch)) );
+    }
+}
@@ -0,0 +1,141 @@
+package net.tinyexch.ob.journal;
+
+import net.tinyexch.exchange.event.NotificationListener;
+import net.tinyexch.exchange.trading.form.continuous.ContinuousTrading;
+import net.tinyexch.exchange.trading.form.continuous.ContinuousTradingState;
+import net.tinyexch.ob.Orderbook;
+import net.tinyexch.ob.OrderbookSide;
+import net.tinyexch.ob.OrderbookState;
+import net.tinyexch.ob.SubmitType;
+import net.tinyexch.ob.match.ContinuousMatchEngine;
+import net.tinyexch.ob.price.safeguard.VolatilityInterruptionGuard;
+import net.tinyexch.order.Order;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static net.tinyexch.ob.match.OrderFactory.*;
+import static org.junit.Assert.*;
+
+/**
+ * Replaying the journal must rebuild the very same orderbook.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public class MappedJournalTest {
+
+    /** small regions to cross region boundaries often */
+    private static final int REGION_SIZE = 4096;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final Random random = new Random(4711);
+
+    @Test
+    public void testReplayRebuildsSameBook() throws IOException {
+        Path file = folder.newFile("orderbook.journal").toPath();
+        ContinuousTrading recorded = newTrading();
+        try ( MappedJournal journal = MappedJournal.open(file, REGION_SIZE, 100) ) {
+            recorded.setJournal(journal);
+            recorded.start();
+            recorded.getOrderbook().open();
+            submitRandomOrders( recorded, 2_000 );
+            assertTrue( journal.getWritePosition() > 10 * REGION_SIZE );
+        }
+
+        ContinuousTrading replayed = newTrading();
+        new JournalReader(file, REGION_SIZE).replay( new OrderbookReplayer(replayed) );
+
+        assertEquals( ContinuousTradingState.RUNNING, replayed.getCurrentState() );
+        assertEquals( OrderbookState.OPEN, replayed.getOrderbook().getState() );
+        assertEquals( describe(recorded.getOrderbook()), describe(replayed.getOrderbook()) );
+    }
+
+    @Test
+    public void testReopenAppendsAfterLastRecord() throws IOException {
+        Path file = folder.newFile("append.journal").toPath();
+        try ( MappedJournal journal = MappedJournal.open(file, REGION_SIZE, 100) ) {
+            journal.onStateChange( OrderbookState.OPEN );
+            journal.onSubmit( buyL(200, 100), SubmitType.NEW );
+        }
+        try ( MappedJournal journal = MappedJournal.open(file, REGION_SIZE, 100) ) {
+            journal.onSubmit( sellL(201, 300), SubmitType.NEW );
+            journal.flush();
+            assertEquals( journal.getWritePosition(), journal.getFlushedPosition() );
+        }
+
+        Orderbook orderbook = new Orderbook( new ContinuousMatchEngine(200, VolatilityInterruptionGuard.NO_OP) );
+        new JournalReader(file, REGION_SIZE).replay( new OrderbookReplayer(orderbook) );
+        assertEquals( 1, orderbook.getBuySide().getOrders().size() );
+        assertEquals( 300, orderbook.getSellSide().getOrders().iterator().next().getLeavesQty() );
+    }
+
+    @Test
+    public void testOrderFieldsSurviveEncoding() throws IOException {
+        Path file = folder.newFile("fields.journal").toPath();
+        Order iceberg = sellLimitIceberg(201.5, 1000, time("09:00:00"), 200).setMinQty(50);
+        Order hiddenMidpoint = buyMid_Lim(200.25, 300, time("09:00:01")).setHidden(true).setStopPrice(199);
+        try ( MappedJournal journal = MappedJournal.open(file, REGION_SIZE, 100) ) {
+            journal.onSubmit( iceberg, SubmitType.NEW );
+            journal.onSubmit( hiddenMidpoint, SubmitType.MODIFY );
+            journal.onTransition( ContinuousTradingState.STOPPED );
+        }
+
+        List<Object> replayed = new ArrayList<>();
+        new JournalReader(file, REGION_SIZE).replay( new CommandJournal() {
+            @Override public void onSubmit( Order order, SubmitType submitType ) { replayed.add(order); replayed.add(submitType); }
+            @Override public void onStateChange( OrderbookState state ) { replayed.add(state); }
+            @Override public void onTransition( Enum<?> targetState ) { replayed.add(targetState); }
+        });
+
+        assertEquals( 5, replayed.size() );
+        assertEquals( iceberg.toString(), replayed.get(0).toString() );
+        assertEquals( SubmitType.NEW, replayed.get(1) );
+        assertEquals( hiddenMidpoint.toString(), replayed.get(2).toString() );
+        assertEquals( SubmitType.MODIFY, replayed.get(3) );
+        assertEquals( ContinuousTradingState.STOPPED, replayed.get(4) );
+    }
+
+
+    private static ContinuousTrading newTrading() {
+        return new ContinuousTrading( NotificationListener.NO_OP,
+                                      new ContinuousMatchEngine(200, VolatilityInterruptionGuard.NO_OP) );
+    }
+
+    private void submitRandomOrders( ContinuousTrading trading, int count ) {
+        List<Order> resting = new ArrayList<>();
+        for ( int i = 0; i < count; i++ ) {
+            int action = random.nextInt(10);
+            if ( action == 0 && !resting.isEmpty() ) {
+                Order order = resting.remove( random.nextInt(resting.size()) );
+                trading.submit( Order.of(order.getClientOrderID(), order.getSide()).setOrderType(order.getOrderType()),
+                                SubmitType.CANCEL );
+            } else {
+                double price = 195 + random.nextInt(101) / 10d;
+                int qty = 100 * (1 + random.nextInt(10));
+                Order order = random.nextBoolean() ? buyL(price, qty) : sellL(price, qty);
+                resting.add(order);
+                trading.submit( order, SubmitType.NEW );
+            }
+        }
+    }
+
+    private static List<String> describe( Orderbook orderbook ) {
+        List<String> orders = new ArrayList<>();
+        for ( OrderbookSide side : new OrderbookSide[]{ orderbook.getBuySide(), orderbook.getSellSide() } ) {
+            for ( Order order : side.getLimitOrders() ) {
+                orders.add( order.getClientOrderID() + " " + order.getSide() + " " + order.getPrice() + " leaves=" +
+                            order.getLeavesQty() + " seq=" + order.getSubmitSequence() );
+            }
+        }
+        return orders;
+    }
+}
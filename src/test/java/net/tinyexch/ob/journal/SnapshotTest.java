@@ -0,0 +1,167 @@
+package net.tinyexch.ob.journal;
+
+import net.tinyexch.exchange.event.NotificationListener;
+import net.tinyexch.exchange.trading.form.continuous.ContinuousTrading;
+import net.tinyexch.exchange.trading.form.continuous.ContinuousTradingState;
+import net.tinyexch.ob.Orderbook;
+import net.tinyexch.ob.OrderbookSide;
+import net.tinyexch.ob.OrderbookState;
+import net.tinyexch.ob.SubmitType;
+import net.tinyexch.ob.match.ContinuousMatchEngine;
+import net.tinyexch.ob.price.safeguard.VolatilityInterruptionGuard;
+import net.tinyexch.ob.report.ExecutionReportBuffer;
+import net.tinyexch.order.Order;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static net.tinyexch.ob.TestConstants.ROUNDING_DELTA;
+import static net.tinyexch.ob.match.OrderFactory.*;
+import static org.junit.Assert.*;
+
+/**
+ * Recovery from the latest snapshot plus the journal tail must rebuild the same book as replaying the whole journal.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public class SnapshotTest {
+
+    private static final int REGION_SIZE = 4096;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final Random random = new Random(4711);
+
+    @Test
+    public void testRecoverFromSnapshotAndJournalTail() throws IOException {
+        Path file = folder.newFile("orderbook.journal").toPath();
+        SnapshotStore store = new SnapshotStore( folder.newFolder("snapshots").toPath() );
+        ContinuousMatchEngine recordedEngine = newEngine();
+        ContinuousTrading recorded = newTrading(recordedEngine);
+
+        long snapshotPosition;
+        try ( MappedJournal journal = MappedJournal.open(file, REGION_SIZE, 100) ) {
+            recorded.setJournal(journal);
+            recorded.start();
+            recorded.getOrderbook().open();
+            submitRandomOrders( recorded, 1_000 );
+
+            ContinuousMatchEngine replicaEngine = newEngine();
+            try ( BackgroundSnapshotter snapshotter = new BackgroundSnapshotter( journal,
+                    new JournalReader(file, REGION_SIZE), store, newTrading(replicaEngine), replicaEngine ) ) {
+                Snapshot snapshot = snapshotter.snapshot();
+                snapshotPosition = snapshot.getJournalPosition();
+                assertEquals( journal.getWritePosition(), snapshotPosition );
+                assertEquals( recordedEngine.getSequence(), snapshot.getSequence() );
+            }
+
+            submitRandomOrders( recorded, 1_000 );
+            assertTrue( journal.getWritePosition() > snapshotPosition );
+        }
+
+        assertEquals( snapshotPosition, store.latest().get().getJournalPosition() );
+
+        ContinuousMatchEngine recoveredEngine = newEngine();
+        ContinuousTrading recovered = newTrading(recoveredEngine);
+        store.recover( recovered, recoveredEngine, new JournalReader(file, REGION_SIZE) );
+
+        assertEquals( ContinuousTradingState.RUNNING, recovered.getCurrentState() );
+        assertEquals( OrderbookState.OPEN, recovered.getOrderbook().getState() );
+        assertEquals( describe(recorded.getOrderbook()), describe(recovered.getOrderbook()) );
+        assertEquals( recordedEngine.getSequence(), recoveredEngine.getSequence() );
+        assertEquals( recordedEngine.getPriceGuard().getDynamicRange().getRefPrice(),
+                      recoveredEngine.getPriceGuard().getDynamicRange().getRefPrice(), ROUNDING_DELTA );
+    }
+
+    @Test
+    public void testSnapshotFileRoundTrip() throws IOException {
+        ContinuousMatchEngine engine = newEngine();
+        Orderbook orderbook = new Orderbook(engine);
+        orderbook.setExecutionReports( new ExecutionReportBuffer(8) );
+        orderbook.open();
+        orderbook.submit( sellLimitIceberg(201, 1000, time("09:00:00"), 200), SubmitType.NEW );
+        orderbook.submit( buyL(201, 300), SubmitType.NEW );
+        orderbook.submit( buyMid_Lim(200.5, 300, time("09:00:01")).setHidden(true), SubmitType.NEW );
+        orderbook.closePartially();
+
+        Path file = folder.getRoot().toPath().resolve("book.snap");
+        Snapshot.capture( orderbook, engine, 4711 ).writeTo(file);
+        Snapshot snapshot = Snapshot.readFrom(file);
+        assertEquals( 4711, snapshot.getJournalPosition() );
+        assertEquals( 2, snapshot.getOrderCount() );
+        long lastExecID = orderbook.getExecutionReports().get().getExecIdSequence();
+        assertEquals( lastExecID, snapshot.getLastExecID() );
+
+        ContinuousMatchEngine restoredEngine = newEngine();
+        Orderbook restored = new Orderbook(restoredEngine);
+        ExecutionReportBuffer restoredReports = new ExecutionReportBuffer(8);
+        restored.setExecutionReports( restoredReports );
+        snapshot.restore( restored, restoredEngine );
+        assertEquals( "execIDs continue after recovery", lastExecID, restoredReports.getExecIdSequence() );
+
+        assertEquals( OrderbookState.PARTIALLY_CLOSED, restored.getState() );
+        assertEquals( describe(orderbook), describe(restored) );
+        Order iceberg = restored.getSellSide().getOrders().iterator().next();
+        assertEquals( "iceberg keeps its hidden reserve", orderbook.getSellSide().getOrders().iterator().next().toString(),
+                      iceberg.toString() );
+        assertEquals( 1, restored.getBuySideMidpoint().getOrders().size() );
+        assertEquals( engine.getPriceGuard().getDynamicRange().getRefPrice(),
+                      restoredEngine.getPriceGuard().getDynamicRange().getRefPrice(), ROUNDING_DELTA );
+    }
+
+    @Test(expected = JournalException.class)
+    public void testRestoreOnlyIntoEmptyBook() {
+        ContinuousMatchEngine engine = newEngine();
+        Orderbook orderbook = new Orderbook(engine);
+        orderbook.open();
+        orderbook.submit( buyL(200, 100), SubmitType.NEW );
+
+        Snapshot.capture( orderbook, engine, 0 ).restore( orderbook, engine );
+    }
+
+
+    private static ContinuousMatchEngine newEngine() {
+        return new ContinuousMatchEngine( 200, new VolatilityInterruptionGuard(200, 50, 200, 50) );
+    }
+
+    private static ContinuousTrading newTrading( ContinuousMatchEngine engine ) {
+        return new ContinuousTrading( NotificationListener.NO_OP, engine );
+    }
+
+    private void submitRandomOrders( ContinuousTrading trading, int count ) {
+        List<Order> resting = new ArrayList<>();
+        for ( int i = 0; i < count; i++ ) {
+            if ( random.nextInt(10) == 0 && !resting.isEmpty() ) {
+                Order order = resting.remove( random.nextInt(resting.size()) );
+                trading.submit( Order.of(order.getClientOrderID(), order.getSide()).setOrderType(order.getOrderType()),
+                                SubmitType.CANCEL );
+            } else {
+                double price = 195 + random.nextInt(101) / 10d;
+                int qty = 100 * (1 + random.nextInt(10));
+                Order order = random.nextBoolean() ? buyL(price, qty) : sellL(price, qty);
+                resting.add(order);
+                trading.submit( order, SubmitType.NEW );
+            }
+        }
+    }
+
+    private static List<String> describe( Orderbook orderbook ) {
+        List<String> orders = new ArrayList<>();
+        for ( OrderbookSide side : new OrderbookSide[]{ orderbook.getBuySide(), orderbook.getSellSide(),
+                                                        orderbook.getBuySideMidpoint(), orderbook.getSellSideMidpoint() } ) {
+            for ( Order order : side.getOrders() ) {
+                orders.add( order.getClientOrderID() + " " + order.getSide() + " " + order.getPrice() + " leaves=" +
+                            order.getLeavesQty() + " hidden=" + order.getHiddenQty() + " seq=" + order.getSubmitSequence() );
+            }
+        }
+        return orders;
+    }
+}
@@ -7,10 +7,10 @@ import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 import java.util.function.DoublePredicate;
 import java.util.stream.Collectors;
+import java.util.stream.DoubleStream;
 
 import static net.tinyexch.ob.TestConstants.ROUNDING_DELTA;
 import static net.tinyexch.ob.match.Algos.*;
@@ -50,8 +50,30 @@ public class AlgosTest {
 
     @Test
     public void testSearchClosestPriceOnOufOfPriceRange() {
-        Assert.assertEquals( Optional.<Double>empty(), searchClosestBid( 201, new double[]{200, 199} ) );
-        Assert.assertEquals( Optional.<Double>empty(), searchClosestAsk( 195, new double[]{198, 199} ) );
+        Assert.assertEquals( OptionalDouble.empty(), searchClosestBid( 201, new double[]{200, 199} ) );
+        Assert.assertEquals( OptionalDouble.empty(), searchClosestAsk( 195, new double[]{198, 199} ) );
+    }
+
+
+    /**
+     * The binary search must find the same price as the sequential reference implementation for any sorted prices.
+     */
+    @Test
+    public void testBinarySearchEqualsSequentialSearch() {
+        Random random = new Random(4711);
+        for ( int run = 0; run < 2_000; run++ ) {
+            double[] asks = randomPrices(random);
+            Arrays.sort(asks);
+            double[] bids = DoubleStream.of(randomPrices(random)).map(p -> -p).sorted().map(p -> -p).toArray();
+            double searchPrice = 195 + random.nextInt(100) / 10d;
+
+            Optional<Double> expectedBid = searchClosest(searchPrice, bids, bid -> bid >= searchPrice);
+            Optional<Double> expectedAsk = searchClosest(searchPrice, asks, ask -> ask <= searchPrice);
+
+            String msg = "search=" + searchPrice + " bids=" + Arrays.toString(bids) + " asks=" + Arrays.toString(asks);
+            Assert.assertEquals( msg, expectedBid.orElse(null), boxed(searchClosestBid(searchPrice, bids)) );
+            Assert.assertEquals( msg, expectedAsk.orElse(null), boxed(searchClosestAsk(searchPrice, asks)) );
+        }
     }
 
 
@@ -74,10 +96,24 @@ public class AlgosTest {
         double[] bidPrices = orderedBuys.stream().mapToDouble(Order::getPrice).toArray();
         double[] askPrices = orderedSells.stream().mapToDouble(Order::getPrice).toArray();
 
-        double worstMatchableAskPrice = searchClosestAsk(orderedBuys.get(0).getPrice(), askPrices).get();
-        double worstMatchableBidPrice = searchClosestBid(orderedSells.get(0).getPrice(), bidPrices).get();
+        double worstMatchableAskPrice = searchClosestAsk(orderedBuys.get(0).getPrice(), askPrices).getAsDouble();
+        double worstMatchableBidPrice = searchClosestBid(orderedSells.get(0).getPrice(), bidPrices).getAsDouble();
 
         Assert.assertEquals(200, worstMatchableBidPrice, ROUNDING_DELTA);
         Assert.assertEquals(200, worstMatchableAskPrice, ROUNDING_DELTA);
     }
+
+
+    /** prices with a tick of 0.1 and many duplicates around the search prices */
+    private double[] randomPrices( Random random ) {
+        double[] prices = new double[1 + random.nextInt(30)];
+        for ( int i = 0; i < prices.length; i++ ) {
+            prices[i] = 195 + random.nextInt(100) / 10d;
+        }
+        return prices;
+    }
+
+    private Double boxed( OptionalDouble price ) {
+        return price.isPresent() ? price.getAsDouble() : null;
+    }
 }
@@ -0,0 +1,82 @@
+package net.tinyexch.ob.match;
+
+import net.tinyexch.ob.OrderbookSide;
+import net.tinyexch.ob.PriceLevelQueue;
+import net.tinyexch.ob.match.ContinuousMatchEngine.ResultMode;
+import net.tinyexch.ob.price.safeguard.VolatilityInterruptionGuard;
+import net.tinyexch.order.Order;
+import net.tinyexch.order.OrderType;
+import net.tinyexch.order.Side;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Steady state matching of LIMIT orders against resting LIMIT orders must not allocate in
+ * {@link ResultMode#REUSE}, also if the best price level is closed by the match and the ladder is shifted. Only a
+ * move of the dynamic reference price replaces its price range, so all trades happen at the same price. Complements
+ * the JMH ContinuousMatchAllocationBenchmark with an assertion run on every build.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public class ContinuousMatchAllocationTest {
+
+    private static final int LEVELS = 5;
+    private static final int QTY = 100;
+
+    @Test
+    public void testMatchingAgainstPriceLevelsDoesNotAllocate() {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue( threads instanceof com.sun.management.ThreadMXBean );
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        Assume.assumeTrue( allocations.isThreadAllocatedMemorySupported() && allocations.isThreadAllocatedMemoryEnabled() );
+
+        VolatilityInterruptionGuard guard = new VolatilityInterruptionGuard(200, 10, 200, 10);
+        ContinuousMatchEngine engine = new ContinuousMatchEngine(200, guard, MatchEngine.NO_PRICE, ResultMode.REUSE);
+        OrderbookSide buySide = new OrderbookSide(Side.BUY, new PriceLevelQueue(Side.BUY), Priorities.SUBMIT_SEQUENCE);
+        OrderbookSide sellSide = new OrderbookSide(Side.SELL, new PriceLevelQueue(Side.SELL), Priorities.SUBMIT_SEQUENCE);
+
+        // worse levels staying in the book, they are shifted whenever the best level opens or closes
+        for ( int i = 1; i <= LEVELS; i++ ) {
+            sellSide.add( Order.of("sell" + i, Side.SELL).setOrderType(OrderType.LIMIT).setPrice(201 + i).setOrderQty(QTY) );
+        }
+        Order[] best = new Order[LEVELS];
+        for ( int i = 0; i < LEVELS; i++ ) {
+            best[i] = Order.of("best" + i, Side.SELL).setOrderType(OrderType.LIMIT).setPrice(201).setOrderQty(QTY);
+        }
+        Order incoming = Order.of("buy", Side.BUY).setOrderType(OrderType.LIMIT).setPrice(201).setOrderQty(QTY);
+        long threadID = Thread.currentThread().getId();
+
+        long allocated = 0;
+        for ( int round = 0; round < 2_000; round++ ) {
+            for ( Order order : best ) {
+                sellSide.add( order.setCumQty(0) );
+            }
+
+            long before = allocations.getThreadAllocatedBytes(threadID);
+            for ( int i = 0; i < LEVELS; i++ ) {
+                engine.match( incoming.setCumQty(0), sellSide, buySide );
+            }
+            allocated = allocations.getThreadAllocatedBytes(threadID) - before;
+        }
+
+        assertNull( "best level was closed", sellSide.getPriceLevels().get().getLevel(201) );
+        assertEquals( LEVELS, sellSide.getLimitOrders().size() );
+        assertEquals( "bytes allocated by matching " + LEVELS + " orders", 0, allocated - measuringOverhead(allocations) );
+    }
+
+    private static long measuringOverhead( com.sun.management.ThreadMXBean allocations ) {
+        long threadID = Thread.currentThread().getId();
+        long overhead = 0;
+        for ( int i = 0; i < 100; i++ ) {
+            long before = allocations.getThreadAllocatedBytes(threadID);
+            overhead = allocations.getThreadAllocatedBytes(threadID) - before;
+        }
+        return overhead;
+    }
+}
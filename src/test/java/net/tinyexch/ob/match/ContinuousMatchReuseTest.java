@@ -0,0 +1,146 @@
+package net.tinyexch.ob.match;
+
+import net.tinyexch.ob.OrderbookSide;
+import net.tinyexch.ob.PriceLevelQueue;
+import net.tinyexch.ob.match.ContinuousMatchEngine.ResultMode;
+import net.tinyexch.ob.price.safeguard.VolatilityInterruptionGuard;
+import net.tinyexch.order.Order;
+import net.tinyexch.order.Side;
+import net.tinyexch.order.Trade;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static net.tinyexch.ob.match.OrderFactory.*;
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Continuous matching with recycled results must behave like the allocating mode and must not produce garbage.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public class ContinuousMatchReuseTest {
+
+    private static final int WARMUP = 50_000;
+    private static final int MEASURED = 10_000;
+
+    @Test
+    public void testSameTradesAsAllocatingMode() {
+        Random random = new Random(4711);
+        List<Order> orders = new ArrayList<>();
+        for ( int i = 0; i < 2_000; i++ ) {
+            double price = 195 + random.nextInt(11);
+            int qty = 100 * (1 + random.nextInt(10));
+            orders.add( random.nextBoolean() ? buyL(price, qty) : sellL(price, qty) );
+        }
+
+        List<String> allocated = run( ResultMode.ALLOCATE, orders );
+        List<String> reused = run( ResultMode.REUSE, orders );
+        List<String> filledInPlace = run( ResultMode.FILL_IN_PLACE, orders );
+
+        assertFalse( allocated.isEmpty() );
+        assertEquals( allocated, reused );
+        assertEquals( allocated, filledInPlace );
+    }
+
+
+    @Test
+    public void testPassiveOrderFilledInPlace() {
+        ContinuousMatchEngine engine = new ContinuousMatchEngine(200, VolatilityInterruptionGuard.NO_OP,
+                MatchEngine.NO_PRICE, ResultMode.FILL_IN_PLACE);
+        OrderbookSide buySide = new OrderbookSide(Side.BUY, new PriceLevelQueue(Side.BUY), Priorities.SUBMIT_SEQUENCE);
+        OrderbookSide sellSide = new OrderbookSide(Side.SELL, new PriceLevelQueue(Side.SELL), Priorities.SUBMIT_SEQUENCE);
+        Order passive = sellL(200, 1000, time("09:00:00"));
+        Order behind = sellL(200, 1000, time("09:00:01"));
+        sellSide.add(passive);
+        sellSide.add(behind);
+
+        List<Trade> trades = new ArrayList<>();
+        for ( int i = 0; i < 10; i++ ) {
+            trades.addAll( engine.match(buyL(200, 100), sellSide, buySide).getTrades() );
+            if ( passive.getLeavesQty() > 0 ) {
+                assertSame( "keeps identity and position", passive, sellSide.getLimitOrders().peek() );
+            }
+        }
+
+        assertEquals( 0, passive.getLeavesQty() );
+        assertSame( behind, sellSide.getLimitOrders().peek() );
+        for ( int i = 0; i < trades.size(); i++ ) {
+            Trade trade = trades.get(i);
+            assertSame( passive, trade.getSell() );
+            assertEquals( 100 * (i + 1), trade.getSellFill().getCumQty() );
+            assertEquals( 1000 - 100 * (i + 1), trade.getSellFill().getLeavesQty() );
+            assertEquals( passive.getOrderID(), trade.getSellFill().getOrderID() );
+            assertEquals( 0, trade.getBuyFill().getLeavesQty() );
+        }
+    }
+
+
+    @Test
+    public void testMatchLimitAgainstLimitDoesNotAllocate() {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        assumeTrue( threadBean instanceof com.sun.management.ThreadMXBean );
+        com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+        assumeTrue( allocationBean.isThreadAllocatedMemorySupported() );
+
+        VolatilityInterruptionGuard guard = new VolatilityInterruptionGuard(200, 10, 200, 5);
+        ContinuousMatchEngine engine = new ContinuousMatchEngine(200, guard, MatchEngine.NO_PRICE, ResultMode.REUSE);
+        OrderbookSide buySide = new OrderbookSide(Side.BUY, new PriceLevelQueue(Side.BUY), Priorities.SUBMIT_SEQUENCE);
+        OrderbookSide sellSide = new OrderbookSide(Side.SELL, new PriceLevelQueue(Side.SELL), Priorities.SUBMIT_SEQUENCE);
+        sellSide.add( sellL(200, Integer.MAX_VALUE) );
+        Order incoming = buyL(200, 100);
+
+        long threadId = Thread.currentThread().getId();
+        int executedQty = matchRepeatedly(engine, incoming, sellSide, buySide, WARMUP);
+        long before = allocationBean.getThreadAllocatedBytes(threadId);
+        executedQty += matchRepeatedly(engine, incoming, sellSide, buySide, MEASURED);
+        long allocated = allocationBean.getThreadAllocatedBytes(threadId) - before;
+
+        assertEquals( (WARMUP + MEASURED) * 100, executedQty );
+        assertTrue( "Allocated bytes per match: " + (double) allocated / MEASURED, allocated / MEASURED < 1 );
+    }
+
+
+    private int matchRepeatedly( MatchEngine engine, Order incoming, OrderbookSide otherSide,
+                                 OrderbookSide thisSide, int count ) {
+        int executedQty = 0;
+        for ( int i = 0; i < count; i++ ) {
+            incoming.setCumQty(0);
+            Match match = engine.match(incoming, otherSide, thisSide);
+            executedQty += match.getTrades().get(0).getExecutionQty();
+        }
+        return executedQty;
+    }
+
+
+    private List<String> run( ResultMode mode, List<Order> orders ) {
+        ContinuousMatchEngine engine = new ContinuousMatchEngine(200, VolatilityInterruptionGuard.NO_OP,
+                MatchEngine.NO_PRICE, mode);
+        OrderbookSide buySide = new OrderbookSide(Side.BUY, new PriceLevelQueue(Side.BUY), Priorities.SUBMIT_SEQUENCE);
+        OrderbookSide sellSide = new OrderbookSide(Side.SELL, new PriceLevelQueue(Side.SELL), Priorities.SUBMIT_SEQUENCE);
+
+        List<String> executions = new ArrayList<>();
+        for ( Order order : orders ) {
+            Order incoming = order.mutableClone();
+            boolean isBuy = incoming.getSide() == Side.BUY;
+            Match match = engine.match( incoming, isBuy ? sellSide : buySide, isBuy ? buySide : sellSide );
+            for ( Trade trade : match.getTrades() ) {
+                executions.add( trade.getBuy().getClientOrderID() + "/" + trade.getSell().getClientOrderID() + "@" +
+                        trade.getPrice() + "x" + trade.getExecutionQty() );
+            }
+        }
+
+        for ( OrderbookSide side : new OrderbookSide[]{ buySide, sellSide } ) {
+            for ( Order order : side.getLimitOrders() ) {
+                executions.add( order.getClientOrderID() + " leaves " + order.getLeavesQty() );
+            }
+        }
+        return executions;
+    }
+}
@@ -0,0 +1,228 @@
+package net.tinyexch.ob.match;
+
+import net.tinyexch.exchange.trading.form.auction.CumulativeVolumePriceDeterminationPhase;
+import net.tinyexch.exchange.trading.form.auction.PriceDeterminationResult;
+import net.tinyexch.ob.Orderbook;
+import net.tinyexch.order.Order;
+import net.tinyexch.order.Trade;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static net.tinyexch.ob.TestConstants.ROUNDING_DELTA;
+import static net.tinyexch.ob.match.OrderFactory.*;
+import static org.junit.Assert.*;
+
+/**
+ * Auction price determination from the cumulative volume curve. The examples are the same as in
+ * {@link AuctionMatchTest}, random books are checked against a brute force evaluation of every limit.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public class CumulativeVolumeAuctionTest {
+
+    private final Random random = new Random(4711);
+
+    @Test
+    public void testAuctionPriceEqLimit_Ex1() {
+        Orderbook book = new Orderbook( new Order[]{ buyL(202, 200), buyL(201, 200), buyL(200, 300) },
+                                        new Order[]{ sellL(200, 100), sellL(198, 200), sellL(197, 400) } );
+
+        PriceDeterminationResult result = new CumulativeVolumePriceDeterminationPhase(book).determinePrice();
+        assertAuction( result, 200, 200, 200, 0, 0 );
+        assertEquals( 700, result.getExecutableVolume() );
+    }
+
+    @Test
+    public void testAuctionPriceEqHighestLimit_Ex2() {
+        Orderbook book = new Orderbook( new Order[]{ buyL(202, 400), buyL(201, 200) },
+                                        new Order[]{ sellL(199, 300), sellL(198, 200) } );
+
+        assertAuction( new CumulativeVolumePriceDeterminationPhase(book).determinePrice(), 201, 201, 199, 0, 100 );
+    }
+
+    @Test
+    public void testAuctionPriceEqLowestLimit_Ex3() {
+        Orderbook book = new Orderbook( new Order[]{ buyL(202, 300), buyL(201, 200) },
+                                        new Order[]{ sellL(199, 400), sellL(198, 200) } );
+
+        assertAuction( new CumulativeVolumePriceDeterminationPhase(book).determinePrice(), 199, 201, 199, 100, 0 );
+    }
+
+    @Test
+    public void testAuctionPriceClosestToReferencePrice_Ex5() {
+        Orderbook book = new Orderbook( new Order[]{ buyL(202, 300), buyL(201, 200) },
+                                        new Order[]{ sellL(198, 200), sellL(199, 300) } );
+
+        assertEquals( 201, auctionPrice(book, 200), ROUNDING_DELTA );
+        assertEquals( 201, auctionPrice(book, 202), ROUNDING_DELTA );
+        assertEquals( 199, auctionPrice(book, 198), ROUNDING_DELTA );
+    }
+
+    @Test
+    public void testOnlyMarketOrdersExecuteAtReferencePrice_Ex6() {
+        Orderbook book = new Orderbook( new Order[]{ buyM(900) }, new Order[]{ sellM(800) } );
+
+        PriceDeterminationResult result = new CumulativeVolumePriceDeterminationPhase(book, 250D).determinePrice();
+        assertEquals( 250, result.getAuctionPrice().get(), ROUNDING_DELTA );
+        assertEquals( 0, result.getAskSurplus() );
+        assertEquals( 100, result.getBidSurplus() );
+        assertEquals( 800, sumExecutionQty(result) );
+
+        assertFalse( "No reference price to execute market orders at",
+                new CumulativeVolumePriceDeterminationPhase(book).determinePrice().getAuctionPrice().isPresent() );
+    }
+
+    @Test
+    public void testNoExecutableVolume_Ex7() {
+        Orderbook book = new Orderbook( new Order[]{ buyH_Lim(200, 80), buyL(199, 80) }, new Order[]{ sellL(201, 80) } );
+
+        PriceDeterminationResult result = new CumulativeVolumePriceDeterminationPhase(book).determinePrice();
+        assertEquals( 0, result.getMatchableBidQty() );
+        assertEquals( 0, result.getMatchableAskQty() );
+        assertTrue( result.getExecutions().isEmpty() );
+    }
+
+    @Test
+    public void testExecutionsInTimePriority() {
+        Order buy_1 = buyL(200, 300, time("09:00:00"));
+        Order buy_2 = buyL(200, 300, time("09:01:00"));
+        Orderbook book = new Orderbook( new Order[]{ buy_2, buy_1 }, new Order[]{ sellL(200, 400) } );
+
+        PriceDeterminationResult result = new CumulativeVolumePriceDeterminationPhase(book).determinePrice();
+        assertEquals( 200, result.getBidSurplus() );
+
+        List<Trade> executions = result.getExecutions();
+        assertEquals( 2, executions.size() );
+        assertEquals( buy_1.getClientOrderID(), executions.get(0).getBuy().getClientOrderID() );
+        assertEquals( 300, executions.get(0).getExecutionQty() );
+        assertEquals( 300, executions.get(0).getSell().getCumQty() );
+        assertEquals( buy_2.getClientOrderID(), executions.get(1).getBuy().getClientOrderID() );
+        assertEquals( 100, executions.get(1).getBuy().getCumQty() );
+        assertEquals( 400, executions.get(1).getSell().getCumQty() );
+        assertEquals( "book is not modified", 0, buy_1.getCumQty() );
+    }
+
+    @Test
+    public void testStrikeMatchOrders() {
+        Order notExecuted = buySMO(200, 50);
+        Orderbook book = new Orderbook( new Order[]{ buyM(250), buyL(199, 150), notExecuted },
+                                        new Order[]{ sellM(300), sellL(198, 200) } );
+        PriceDeterminationResult result = new CumulativeVolumePriceDeterminationPhase(book).determinePrice();
+        assertEquals( 198, result.getAuctionPrice().get(), ROUNDING_DELTA );
+        assertEquals( 400, result.getExecutableVolume() );
+        assertEquals( 100, result.getAskSurplus() );
+        assertFalse( isExecuted(notExecuted, result) );
+
+        Order executed = buySMO(197, 50);
+        book = new Orderbook( new Order[]{ buyM(250), buyL(199, 150), executed },
+                              new Order[]{ sellM(300), sellL(198, 200) } );
+        result = new CumulativeVolumePriceDeterminationPhase(book).determinePrice();
+        assertEquals( 198, result.getAuctionPrice().get(), ROUNDING_DELTA );
+        assertEquals( 450, result.getExecutableVolume() );
+        assertEquals( 50, result.getAskSurplus() );
+        assertTrue( isExecuted(executed, result) );
+    }
+
+    @Test
+    public void testIcebergReserveIsExecuted() {
+        Orderbook book = new Orderbook( new Order[]{ buyL(201, 700) },
+                                        new Order[]{ sellLimitIceberg(201, 1000, time("09:00:00"), 200) } );
+
+        PriceDeterminationResult result = new CumulativeVolumePriceDeterminationPhase(book).determinePrice();
+        assertEquals( 700, result.getExecutableVolume() );
+        assertEquals( 300, result.getAskSurplus() );
+        assertEquals( 700, sumExecutionQty(result) );
+        assertEquals( "one execution per exposed slice", 4, result.getExecutions().size() );
+    }
+
+    /**
+     * Evaluate every limit of random books and check the chosen price has the highest volume and the lowest surplus.
+     */
+    @Test
+    public void testSameVolumeAndSurplusAsBruteForce() {
+        for ( int run = 0; run < 500; run++ ) {
+            List<Order> buys = new ArrayList<>();
+            List<Order> sells = new ArrayList<>();
+            Instant start = time("09:00:00");
+            int count = 1 + random.nextInt(30);
+            for ( int i = 0; i < count; i++ ) {
+                buys.add( randomOrder(true, start.plusSeconds(i)) );
+                sells.add( randomOrder(false, start.plusSeconds(i)) );
+            }
+            Orderbook book = new Orderbook( buys.toArray(new Order[buys.size()]), sells.toArray(new Order[sells.size()]) );
+            PriceDeterminationResult result = new CumulativeVolumePriceDeterminationPhase(book, 200D).determinePrice();
+
+            TreeSet<Double> limits = new TreeSet<>();
+            buys.stream().filter( o -> o.getPrice() > 0 ).forEach( o -> limits.add(o.getPrice()) );
+            sells.stream().filter( o -> o.getPrice() > 0 ).forEach( o -> limits.add(o.getPrice()) );
+
+            int maxVolume = 0;
+            int minSurplus = Integer.MAX_VALUE;
+            for ( double limit : limits ) {
+                int bidVolume = volume(buys, limit, true);
+                int askVolume = volume(sells, limit, false);
+                int volume = Math.min(bidVolume, askVolume);
+                int surplus = Math.abs(bidVolume - askVolume);
+                if ( volume > maxVolume || (volume == maxVolume && surplus < minSurplus) ) {
+                    maxVolume = volume;
+                    minSurplus = surplus;
+                }
+            }
+
+            if ( maxVolume > 0 ) {
+                double price = result.getAuctionPrice().get();
+                assertTrue( limits.contains(price) );
+                assertEquals( maxVolume, result.getExecutableVolume() );
+                assertEquals( maxVolume, Math.min(volume(buys, price, true), volume(sells, price, false)) );
+                assertEquals( minSurplus, result.getBidSurplus() + result.getAskSurplus() );
+                assertEquals( maxVolume, sumExecutionQty(result) );
+            }
+        }
+    }
+
+
+    private Order randomOrder( boolean buy, Instant ts ) {
+        double price = 195 + random.nextInt(10);
+        int qty = 100 * (1 + random.nextInt(10));
+        int kind = random.nextInt(10);
+        if ( kind == 0 ) return buy ? buyM(qty, ts) : sellM(qty, ts);
+        Order order = buy ? buyL(price, qty, ts) : sellL(price, qty, ts);
+        if ( kind == 1 ) order.setHidden(true);
+        if ( kind == 2 && qty > 100 ) order.setDisplayQty(100);
+        return order;
+    }
+
+    private static int volume( List<Order> orders, double price, boolean buy ) {
+        return orders.stream()
+                .filter( o -> o.getPrice() == 0 || (buy ? o.getPrice() >= price : o.getPrice() <= price) )
+                .mapToInt( o -> o.getLeavesQty() + (o.isIceberg() ? o.getHiddenQty() : 0) ).sum();
+    }
+
+    private static double auctionPrice( Orderbook book, double referencePrice ) {
+        return new CumulativeVolumePriceDeterminationPhase(book, referencePrice).determinePrice().getAuctionPrice().get();
+    }
+
+    private static int sumExecutionQty( PriceDeterminationResult result ) {
+        return result.getExecutions().stream().mapToInt(Trade::getExecutionQty).sum();
+    }
+
+    private static boolean isExecuted( Order order, PriceDeterminationResult result ) {
+        return result.getExecutions().stream()
+                .anyMatch( t -> t.getBuy().getClientOrderID().equals(order.getClientOrderID()) );
+    }
+
+    private static void assertAuction( PriceDeterminationResult result, double auctionPrice, double bidPrice,
+                                       double askPrice, int askSurplus, int bidSurplus ) {
+        assertEquals( auctionPrice, result.getAuctionPrice().get(), ROUNDING_DELTA );
+        assertEquals( bidPrice, result.getBidPrice().get(), ROUNDING_DELTA );
+        assertEquals( askPrice, result.getAskPrice().get(), ROUNDING_DELTA );
+        assertEquals( askSurplus, result.getAskSurplus() );
+        assertEquals( bidSurplus, result.getBidSurplus() );
+    }
+}
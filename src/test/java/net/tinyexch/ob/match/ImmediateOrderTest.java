@@ -0,0 +1,194 @@
+package net.tinyexch.ob.match;
+
+import net.tinyexch.ob.Orderbook;
+import net.tinyexch.ob.PriceLevelQueue;
+import net.tinyexch.ob.SubmitType;
+import net.tinyexch.ob.price.safeguard.VolatilityInterruptionGuard;
+import net.tinyexch.ob.report.ExecutionReport;
+import net.tinyexch.ob.report.ExecutionReportBuffer;
+import net.tinyexch.ob.report.ExecutionReportType;
+import net.tinyexch.order.Order;
+import net.tinyexch.order.TimeInForce;
+import net.tinyexch.order.Trade;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static net.tinyexch.ob.match.OrderFactory.*;
+import static org.junit.Assert.*;
+
+/**
+ * IOC and FOK orders never rest in the book. A FOK order which cannot be filled completely leaves the book untouched.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public class ImmediateOrderTest {
+
+    private Orderbook book;
+    private final ExecutionReportBuffer reports = new ExecutionReportBuffer(8);
+
+    @Before
+    public void init() {
+        book = newBook( 200, VolatilityInterruptionGuard.NO_OP );
+    }
+
+    @Test
+    public void testIocRemainderExpires() {
+        submit( sellL(200, 100), sellL(201, 100), sellL(203, 100) );
+
+        Order ioc = buyL(201, 300).setTimeInForce(TimeInForce.IOC);
+        List<Trade> trades = book.submit( ioc, SubmitType.NEW ).getTrades();
+
+        assertEquals( 2, trades.size() );
+        assertEquals( 100, ioc.getLeavesQty() );
+        assertTrue( book.getBuySide().getLimitOrders().isEmpty() );
+        assertEquals( 1, book.getSellSide().getLimitOrders().size() );
+
+        ExecutionReport expired = reports.get( reports.size() - 1 );
+        assertEquals( ExecutionReportType.EXPIRED, expired.getType() );
+        assertEquals( 200, expired.getCumQty() );
+        assertEquals( 0, expired.getLeavesQty() );
+    }
+
+    @Test
+    public void testIocMarketOrderDoesNotRest() {
+        Order ioc = sellM(100).setTimeInForce(TimeInForce.IOC);
+        assertTrue( book.submit( ioc, SubmitType.NEW ).getTrades().isEmpty() );
+        assertTrue( book.getSellSide().getMarketOrders().isEmpty() );
+        assertEquals( ExecutionReportType.EXPIRED, reports.get(1).getType() );
+    }
+
+    @Test
+    public void testFokFilledAcrossLevels() {
+        Order iceberg = sellLimitIceberg(201, 300, time("09:00:00"), 100);
+        submit( sellL(200, 100), buyL(199, 50), sellL(201, 100).setHidden(true), iceberg, sellL(202, 100) );
+
+        Order reserveNeeded = buyL(201, 301).setTimeInForce(TimeInForce.FOK);
+        assertTrue( "iceberg reserve doesn't count", book.submit( reserveNeeded, SubmitType.NEW ).getTrades().isEmpty() );
+
+        Order fok = buyL(201, 300).setTimeInForce(TimeInForce.FOK);
+        List<Trade> trades = book.submit( fok, SubmitType.NEW ).getTrades();
+
+        assertEquals( 0, fok.getLeavesQty() );
+        assertEquals( 300, trades.stream().mapToInt(Trade::getExecutionQty).sum() );
+        assertTrue( book.getBuySide().getLimitOrders().stream().noneMatch(o -> o.getTimeInForce() == TimeInForce.FOK) );
+        assertEquals( ExecutionReportType.FILL, reports.get(reports.size() - 2).getType() );
+    }
+
+    @Test
+    public void testFokKilledWithoutTouchingTheBook() {
+        submit( sellL(200, 100), sellL(201, 100), sellL(203, 500) );
+        List<Order> before = new ArrayList<>( book.getSellSide().getLimitOrders() );
+        PriceLevelQueue levels = book.getSellSide().getPriceLevels().get();
+
+        Order fok = buyL(201, 300).setTimeInForce(TimeInForce.FOK);
+        List<Trade> trades = book.submit( fok, SubmitType.NEW ).getTrades();
+
+        assertTrue( "qty beyond the limit doesn't count", trades.isEmpty() );
+        assertEquals( 0, fok.getCumQty() );
+        assertEquals( before, new ArrayList<>(book.getSellSide().getLimitOrders()) );
+        before.forEach( order -> assertEquals(0, order.getCumQty()) );
+        assertEquals( 100, levels.getLevel(200).getTotalQty() );
+        assertTrue( book.getBuySide().getLimitOrders().isEmpty() );
+
+        assertEquals( 2, reports.size() );
+        assertEquals( ExecutionReportType.NEW_ACK, reports.get(0).getType() );
+        assertEquals( ExecutionReportType.EXPIRED, reports.get(1).getType() );
+        assertEquals( 0, reports.get(1).getCumQty() );
+    }
+
+    @Test
+    public void testFokKilledIfFillWouldInterruptTrading() {
+        book = newBook( 200, new VolatilityInterruptionGuard(200, 2, 200, 2) );
+        submit( sellL(201, 100), sellL(206, 100) );
+
+        Order fok = buyL(207, 200).setTimeInForce(TimeInForce.FOK);
+        assertTrue( book.submit( fok, SubmitType.NEW ).getTrades().isEmpty() );
+        assertEquals( 2, book.getSellSide().getLimitOrders().size() );
+        assertEquals( 0, book.getSellSide().getLimitOrders().peek().getCumQty() );
+    }
+
+    @Test
+    public void testFokKilledIfMarketOrdersWouldInterruptTrading() {
+        book = newBook( 210, new VolatilityInterruptionGuard(200, 2, 200, 2) );
+        Order market = sellM(100);
+        submit( market );
+
+        Order fok = buyL(205, 100).setTimeInForce(TimeInForce.FOK);
+        Match match = book.submit( fok, SubmitType.NEW );
+
+        assertTrue( match.getTrades().isEmpty() );
+        assertFalse( "killed instead of interrupting trading", match.getVolatilityInterruption().isPresent() );
+        assertSame( market, book.getSellSide().getMarketOrders().peek() );
+        assertEquals( 0, market.getCumQty() );
+    }
+
+    @Test
+    public void testImmediateStopOrderParkedUntilTriggered() {
+        submit( sellL(210, 100) );
+        Order ioc = buyStop(210, 300).setTimeInForce(TimeInForce.IOC);
+        Order fok = buyStop(210, 300).setTimeInForce(TimeInForce.FOK);
+        submit( ioc, fok );
+        assertEquals( 2, book.getBuySide().getStopOrders().size() );
+        assertFalse( reports.get(reports.size() - 1).getType() == ExecutionReportType.EXPIRED );
+
+        List<Trade> trades = book.submit( buyL(210, 50), SubmitType.NEW ).getTrades();
+
+        assertEquals( "IOC got the remaining 50, FOK killed", 2, trades.size() );
+        assertEquals( 50, ioc.getCumQty() );
+        assertEquals( 0, fok.getCumQty() );
+        assertTrue( book.getBuySide().getStopOrders().isEmpty() );
+        assertTrue( book.getBuySide().getMarketOrders().isEmpty() );
+        assertTrue( book.getBuySide().getLimitOrders().isEmpty() );
+        assertTrue( book.getSellSide().getLimitOrders().isEmpty() );
+    }
+
+    @Test
+    public void testIocStopTriggeredOnEntryDoesNotRest() {
+        submit( sellL(210, 100) );
+        submit( buyL(210, 50) );
+
+        Order ioc = buyStop(210, 300).setTimeInForce(TimeInForce.IOC);
+        List<Trade> trades = book.submit( ioc, SubmitType.NEW ).getTrades();
+
+        assertEquals( 1, trades.size() );
+        assertEquals( 50, ioc.getCumQty() );
+        assertTrue( "remainder is cancelled", book.getBuySide().getOrders().isEmpty() );
+        assertTrue( book.getBuySide().getStopOrders().isEmpty() );
+        assertEquals( ExecutionReportType.EXPIRED, reports.get(reports.size() - 1).getType() );
+    }
+
+    @Test
+    public void testFokMidpointOrder() {
+        submit( sellMid_Lim(199.5, 300, time("09:00:00")), sellMid_Lim(199.5, 200, time("09:00:01")) );
+
+        Order tooLarge = buyMid_Lim(200.5, 600, time("09:00:02")).setTimeInForce(TimeInForce.FOK);
+        assertTrue( book.submit( tooLarge, SubmitType.NEW ).getTrades().isEmpty() );
+        assertTrue( book.getBuySideMidpoint().getLimitOrders().isEmpty() );
+        assertEquals( 2, book.getSellSideMidpoint().getLimitOrders().size() );
+
+        Order fillable = buyMid_Lim(200.5, 400, time("09:00:03")).setTimeInForce(TimeInForce.FOK);
+        assertEquals( 2, book.submit( fillable, SubmitType.NEW ).getTrades().size() );
+        assertEquals( 0, fillable.getLeavesQty() );
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+    // internal
+    //------------------------------------------------------------------------------------------------------------------
+
+    private Orderbook newBook( double referencePrice, VolatilityInterruptionGuard guard ) {
+        Orderbook orderbook = new Orderbook( new ContinuousMatchEngine(referencePrice, guard, 200) );
+        orderbook.setExecutionReports(reports);
+        orderbook.open();
+        return orderbook;
+    }
+
+    private void submit( Order... orders ) {
+        for ( Order order : orders ) {
+            book.submit( order, SubmitType.NEW );
+        }
+    }
+}
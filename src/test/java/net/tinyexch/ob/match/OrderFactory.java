@@ -109,9 +109,25 @@ public class OrderFactory {
         return newOrder( Side.SELL, price, qty, OrderType.LIMIT ).setTimestamp(timestamp).setDisplayQty(displayQty);
     }
 
+    public static Order buyStop(double stopPrice, int qty) {
+        return newOrder( Side.BUY, 0, qty, OrderType.STOP ).setStopPrice(stopPrice);
+    }
+
+    public static Order sellStop(double stopPrice, int qty) {
+        return newOrder( Side.SELL, 0, qty, OrderType.STOP ).setStopPrice(stopPrice);
+    }
+
+    public static Order buyStopLimit(double stopPrice, double price, int qty) {
+        return newOrder( Side.BUY, price, qty, OrderType.STOP_LIMIT ).setStopPrice(stopPrice);
+    }
+
+    public static Order sellStopLimit(double stopPrice, double price, int qty) {
+        return newOrder( Side.SELL, price, qty, OrderType.STOP_LIMIT ).setStopPrice(stopPrice);
+    }
+
     public static Order newOrder(Side side, double price, int qty, OrderType type ) {
-        return Order.of( Integer.toString(++clientOrderIdSequence), side ).setPrice(price)
-                .setOrderQty(qty).setOrderType(type);
+        return Order.of( Integer.toString(++clientOrderIdSequence), side ).setOrderID(clientOrderIdSequence)
+                .setPrice(price).setOrderQty(qty).setOrderType(type);
     }
 
     /**
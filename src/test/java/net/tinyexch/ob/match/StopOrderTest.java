@@ -0,0 +1,149 @@
+package net.tinyexch.ob.match;
+
+import net.tinyexch.ob.Orderbook;
+import net.tinyexch.ob.StopOrderQueue;
+import net.tinyexch.ob.SubmitType;
+import net.tinyexch.ob.price.Ticks;
+import net.tinyexch.ob.price.safeguard.VolatilityInterruptionGuard;
+import net.tinyexch.ob.report.ExecutionReportBuffer;
+import net.tinyexch.ob.report.ExecutionReportType;
+import net.tinyexch.order.Order;
+import net.tinyexch.order.OrderType;
+import net.tinyexch.order.Side;
+import net.tinyexch.order.Trade;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static net.tinyexch.ob.match.OrderFactory.*;
+import static org.junit.Assert.*;
+
+/**
+ * Stop orders wait in the trigger book until a trade reaches their stop price and then enter the book within the
+ * same match.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public class StopOrderTest {
+
+    private ContinuousMatchEngine engine;
+    private Orderbook book;
+
+    @Before
+    public void init() {
+        engine = new ContinuousMatchEngine(200, VolatilityInterruptionGuard.NO_OP);
+        book = new Orderbook(engine);
+        book.open();
+    }
+
+    @Test
+    public void testTriggerSequence() {
+        StopOrderQueue buys = new StopOrderQueue(Side.BUY);
+        StopOrderQueue sells = new StopOrderQueue(Side.SELL);
+        long sequence = 0;
+        for ( double stopPrice : new double[]{ 202, 201, 203, 201 } ) {
+            buys.offer( buyStop(stopPrice, 100).setSubmitSequence(++sequence) );
+            sells.offer( sellStop(stopPrice - 4, 100).setSubmitSequence(++sequence) );
+        }
+
+        assertNull( buys.pollTriggered(Ticks.of(200.99)) );
+        assertEquals( Arrays.asList(201D, 201D, 202D), stopPrices(buys, 202) );
+        assertEquals( 1, buys.size() );
+
+        assertNull( sells.pollTriggered(Ticks.of(199.01)) );
+        assertEquals( Arrays.asList(199D, 198D, 197D, 197D), stopPrices(sells, 190) );
+        assertTrue( sells.isEmpty() );
+    }
+
+    @Test
+    public void testStopOrderIsNoLiquidity() {
+        Order stop = sellStop(199, 100);
+        assertTrue( book.submit(stop, SubmitType.NEW).getTrades().isEmpty() );
+        assertTrue( book.submit(buyL(200, 100), SubmitType.NEW).getTrades().isEmpty() );
+
+        assertSame( stop, book.getSellSide().getStopOrders().get(stop.getOrderID()) );
+        assertTrue( book.getSellSide().getOrders().isEmpty() );
+        assertEquals( OrderType.STOP, stop.getOrderType() );
+    }
+
+    @Test
+    public void testCascadeWithinOneMatch() {
+        submit( buyL(199, 100), buyL(198, 100), buyL(197, 100) );
+        Order firstStop = sellStop(199, 100);
+        Order secondStop = sellStop(198, 100);
+        Order stopLimit = sellStopLimit(197, 197, 50);
+        Order untouched = buyStop(205, 100);
+        submit( firstStop, secondStop, stopLimit, untouched );
+
+        ExecutionReportBuffer reports = new ExecutionReportBuffer(8);
+        book.setExecutionReports(reports);
+        Order incoming = sellL(199, 100);
+        List<Trade> trades = book.submit( incoming, SubmitType.NEW ).getTrades();
+
+        assertEquals( 3, trades.size() );
+        assertEquals( incoming.getClientOrderID(), trades.get(0).getSell().getClientOrderID() );
+        assertEquals( firstStop.getClientOrderID(), trades.get(1).getSell().getClientOrderID() );
+        assertEquals( 198, trades.get(1).getPrice(), 0.0001 );
+        assertEquals( secondStop.getClientOrderID(), trades.get(2).getSell().getClientOrderID() );
+        assertEquals( 197, trades.get(2).getPrice(), 0.0001 );
+        assertEquals( Ticks.of(197), engine.getLastPriceTicks() );
+
+        assertEquals( "stop limit triggered but not executable", OrderType.LIMIT, stopLimit.getOrderType() );
+        assertSame( stopLimit, book.getSellSide().getLimitOrders().peek() );
+        assertTrue( book.getBuySide().getLimitOrders().isEmpty() );
+        assertSame( untouched, book.getBuySide().getStopOrders().peek() );
+        assertEquals( 1, book.getSellSide().getStopOrders().size() + book.getBuySide().getStopOrders().size() );
+        assertEquals( "only the resting stop limit and stop orders are known", 2, book.getOrderIds().size() );
+
+        assertEquals( 3 + 2 * 2, reports.size() );
+        assertEquals( ExecutionReportType.FILL, reports.get(3).getType() );
+        assertEquals( firstStop.getOrderID(), reports.get(4).getOrderID() );
+    }
+
+    @Test
+    public void testTriggeredAtEntry() {
+        submit( sellL(197, 100), buyL(197, 50) );
+        assertEquals( Ticks.of(197), engine.getLastPriceTicks() );
+
+        List<Trade> trades = book.submit( buyStop(196, 50), SubmitType.NEW ).getTrades();
+
+        assertEquals( 1, trades.size() );
+        assertEquals( 50, trades.get(0).getExecutionQty() );
+        assertTrue( book.getSellSide().getLimitOrders().isEmpty() );
+        assertTrue( book.getBuySide().getStopOrders().isEmpty() );
+    }
+
+    @Test
+    public void testCancelStopOrder() {
+        Order stop = buyStopLimit(201, 202, 100);
+        submit( stop );
+
+        book.submit( Order.of(stop.getClientOrderID(), Side.BUY).setOrderType(OrderType.STOP_LIMIT), SubmitType.CANCEL );
+
+        assertTrue( book.getBuySide().getStopOrders().isEmpty() );
+        assertEquals( 0, book.getOrderIds().size() );
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+    // internal
+    //------------------------------------------------------------------------------------------------------------------
+
+    private void submit( Order... orders ) {
+        for ( Order order : orders ) {
+            book.submit( order, SubmitType.NEW );
+        }
+    }
+
+    private static List<Double> stopPrices( StopOrderQueue queue, double lastPrice ) {
+        List<Double> stopPrices = new ArrayList<>();
+        Order triggered;
+        while ( (triggered = queue.pollTriggered(Ticks.of(lastPrice))) != null ) {
+            stopPrices.add( triggered.getStopPrice() );
+        }
+        return stopPrices;
+    }
+}
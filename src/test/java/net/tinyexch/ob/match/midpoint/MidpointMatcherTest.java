@@ -0,0 +1,152 @@
+package net.tinyexch.ob.match.midpoint;
+
+import net.tinyexch.ob.MidpointQueue;
+import net.tinyexch.ob.Orderbook;
+import net.tinyexch.ob.SubmitType;
+import net.tinyexch.ob.match.ContinuousMatchEngine;
+import net.tinyexch.ob.match.Match;
+import net.tinyexch.ob.match.MatchEngine;
+import net.tinyexch.ob.price.safeguard.VolatilityInterruptionGuard;
+import net.tinyexch.order.Order;
+import net.tinyexch.order.Side;
+import net.tinyexch.order.Trade;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static net.tinyexch.ob.match.OrderFactory.*;
+import static org.junit.Assert.*;
+
+/**
+ * Midpoint orders are executed in volume-time priority respecting the min qty of both sides. Only the executed orders
+ * are touched in the book.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public class MidpointMatcherTest {
+
+    private Orderbook book;
+
+    @Before
+    public void init() {
+        book = new Orderbook( new ContinuousMatchEngine(200, VolatilityInterruptionGuard.NO_OP, 200) );
+        book.open();
+    }
+
+    @Test
+    public void testQueueIteratesInPriority() {
+        Random random = new Random(4711);
+        MidpointQueue queue = new MidpointQueue(Side.SELL);
+        List<Order> orders = new ArrayList<>();
+        for ( int i = 0; i < 500; i++ ) {
+            Order order = sellMid_Lim(199, 100 * (1 + random.nextInt(5)), time("09:00:00").plusSeconds(random.nextInt(20)))
+                    .setSubmitSequence(i).setOrderID(i + 1);
+            orders.add(order);
+            queue.offer(order);
+        }
+        orders.sort( MatchEngine.MIDPOINT_COMPARATOR );
+
+        assertEquals( orders, new ArrayList<>(queue) );
+        assertSame( orders.get(0), queue.peek() );
+        assertSame( orders.get(42), queue.remove(orders.get(42).getOrderID()) );
+        assertNull( queue.get(orders.get(42).getOrderID()) );
+        assertSame( orders.get(0), queue.poll() );
+        assertEquals( 498, queue.size() );
+    }
+
+    @Test
+    public void testExecutedInVolumeTimePriority() {
+        Order small = sellMid_Lim(199.5, 200, time("09:00:00"));
+        Order large = sellMid_LimMAQ(199.5, 500, time("09:00:02"), 400);
+        Order medium = sellMid_Lim(199.5, 300, time("09:00:01"));
+        Order notCrossed = sellMid_Lim(200.5, 900, time("09:00:00"));
+        submit( small, large, medium, notCrossed );
+
+        Match match = book.submit( buyMid_Lim(200.5, 600, time("09:00:03")), SubmitType.NEW );
+
+        List<Trade> trades = match.getTrades();
+        assertEquals( 2, trades.size() );
+        assertTrade( trades.get(0), large.getClientOrderID(), 500 );
+        assertTrade( trades.get(1), medium.getClientOrderID(), 100 );
+
+        MidpointQueue sells = book.getSellSideMidpoint().getMidpointOrders().get();
+        assertNull( "fully executed", sells.get(large.getOrderID()) );
+        assertSame( "executed in place", medium, sells.get(medium.getOrderID()) );
+        assertEquals( 200, medium.getLeavesQty() );
+        assertSame( small, sells.get(small.getOrderID()) );
+        assertEquals( 200, small.getLeavesQty() );
+        assertSame( notCrossed, sells.peek() );
+        assertEquals( 3, sells.size() );
+    }
+
+    @Test
+    public void testStealQtyToRespectMinQty() {
+        Order first = sellMid_Lim(199.5, 500, time("09:00:00"));
+        Order second = sellMid_LimMAQ(199.5, 300, time("09:00:01"), 200);
+        submit( first, second );
+
+        List<Trade> trades = book.submit( buyMid_Lim(200, 600, time("09:00:02")), SubmitType.NEW ).getTrades();
+
+        assertEquals( 2, trades.size() );
+        assertTrade( trades.get(0), first.getClientOrderID(), 400 );
+        assertTrade( trades.get(1), second.getClientOrderID(), 200 );
+        assertEquals( 100, first.getLeavesQty() );
+        assertEquals( 100, second.getLeavesQty() );
+    }
+
+    @Test
+    public void testNoStealingIfMinQtyCannotBeReached() {
+        Order first = sellMid_LimMAQ(199.5, 500, time("09:00:00"), 450);
+        Order second = sellMid_LimMAQ(199.5, 300, time("09:00:01"), 200);
+        submit( first, second );
+
+        Order buy = buyMid_Lim(200, 600, time("09:00:02"));
+        List<Trade> trades = book.submit( buy, SubmitType.NEW ).getTrades();
+
+        assertEquals( 1, trades.size() );
+        assertTrade( trades.get(0), first.getClientOrderID(), 500 );
+        assertEquals( "untouched", 0, second.getCumQty() );
+        assertEquals( 100, buy.getLeavesQty() );
+        assertSame( buy, book.getBuySideMidpoint().getMidpointOrders().get().get(buy.getOrderID()) );
+    }
+
+    @Test
+    public void testIncomingMinQty() {
+        submit( sellMid_Lim(199.5, 300, time("09:00:00")), sellMid_Lim(199.5, 200, time("09:00:01")) );
+
+        Order buy = buyMid_LimMAQ(200, 600, time("09:00:02"), 600);
+        assertTrue( book.submit( buy, SubmitType.NEW ).getTrades().isEmpty() );
+        assertEquals( 0, buy.getCumQty() );
+        assertEquals( 2, book.getSellSideMidpoint().getLimitOrders().size() );
+    }
+
+    @Test
+    public void testCancelMidpointOrder() {
+        Order sell = sellMid_Lim(199.5, 300, time("09:00:00"));
+        submit( sell, sellMid_Lim(199.5, 200, time("09:00:01")) );
+
+        book.submit( sell.mutableClone(), SubmitType.CANCEL );
+        assertNull( book.getSellSideMidpoint().getMidpointOrders().get().get(sell.getOrderID()) );
+        assertEquals( 1, book.getSellSideMidpoint().getLimitOrders().size() );
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+    // internal
+    //------------------------------------------------------------------------------------------------------------------
+
+    private void submit( Order... orders ) {
+        for ( Order order : orders ) {
+            assertTrue( book.submit(order, SubmitType.NEW).getTrades().isEmpty() );
+        }
+    }
+
+    private static void assertTrade( Trade trade, String sellClientOrderID, int qty ) {
+        assertEquals( sellClientOrderID, trade.getSell().getClientOrderID() );
+        assertEquals( qty, trade.getExecutionQty() );
+        assertEquals( 200, trade.getPrice(), 0.0001 );
+    }
+}
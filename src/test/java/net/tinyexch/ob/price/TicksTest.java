@@ -0,0 +1,67 @@
+package net.tinyexch.ob.price;
+
+import net.tinyexch.ob.PriceLevelQueue;
+import net.tinyexch.order.Order;
+import net.tinyexch.order.Side;
+import org.junit.Test;
+
+import static net.tinyexch.ob.match.OrderFactory.buyL;
+import static org.junit.Assert.*;
+
+/**
+ * Prices which differ in their double representation only by rounding errors must end up at the same tick.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public class TicksTest {
+
+    @Test
+    public void testRoundTrip() {
+        assertEquals( Ticks.of(0.3), Ticks.of(0.1 + 0.2) );
+        assertEquals( 200_250_000L, Ticks.of(200.25) );
+        assertEquals( 200.25, Ticks.toPrice( Ticks.of(200.25) ), 0 );
+        assertEquals( 199.999999, Ticks.toPrice( Ticks.of(199.999999) ), 0 );
+    }
+
+    @Test
+    public void testMidpoint() {
+        assertEquals( Ticks.of(200.005), Ticks.midpoint( Ticks.of(200.01), Ticks.of(200) ) );
+        assertEquals( Ticks.of(200.005), Ticks.midpoint( Ticks.of(200), Ticks.of(200.01) ) );
+        assertEquals( "odd distance rounds down", 2, Ticks.midpoint(2, 3) );
+    }
+
+    @Test
+    public void testDeviate() {
+        assertEquals( Ticks.of(220), Ticks.deviate( Ticks.of(200), 10 ) );
+        assertEquals( Ticks.of(180), Ticks.deviate( Ticks.of(200), -10 ) );
+        assertEquals( Ticks.of(9.787 * 1.2), Ticks.deviate( Ticks.of(9.787), 20 ) );
+    }
+
+    @Test
+    public void testTickSize() {
+        TickSize cent = TickSize.of(0.01);
+        assertEquals( 10_000, cent.getTicks() );
+        assertTrue( cent.isValid( Ticks.of(200.01) ) );
+        assertTrue( cent.isValid( Ticks.of(0.07 * 3) ) );
+        assertFalse( cent.isValid( Ticks.of(200.015) ) );
+        assertEquals( Ticks.of(200.01), cent.roundDown( Ticks.of(200.015) ) );
+        assertEquals( Ticks.of(200.02), cent.roundUp( Ticks.of(200.015) ) );
+        assertEquals( Ticks.of(-0.02), cent.roundDown( Ticks.of(-0.015) ) );
+        assertEquals( Ticks.of(200.01), cent.roundUp( Ticks.of(200.01) ) );
+        assertTrue( TickSize.FINEST.isValid( Ticks.of(200.000001) ) );
+    }
+
+    @Test
+    public void testSamePriceSameLevel() {
+        PriceLevelQueue bids = new PriceLevelQueue(Side.BUY);
+        Order first = buyL(0.3, 100);
+        Order second = buyL(0.1 + 0.2, 100);
+        bids.offer(first);
+        bids.offer(second);
+
+        assertEquals( 1, bids.getLevels().size() );
+        assertEquals( 2, bids.getLevel(0.3).getOrderCount() );
+        assertSame( bids.getLevel(0.3), bids.getLevelAtTicks( Ticks.of(0.3) ) );
+    }
+}
@@ -0,0 +1,115 @@
+package net.tinyexch.ob.report;
+
+import net.tinyexch.ob.Orderbook;
+import net.tinyexch.ob.match.ContinuousMatchEngine;
+import net.tinyexch.ob.match.ContinuousMatchEngine.ResultMode;
+import net.tinyexch.ob.price.Ticks;
+import net.tinyexch.ob.price.safeguard.VolatilityInterruptionGuard;
+import net.tinyexch.order.Order;
+import net.tinyexch.order.OrderType;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static net.tinyexch.ob.SubmitType.*;
+import static net.tinyexch.ob.match.OrderFactory.*;
+import static net.tinyexch.ob.report.ExecutionReportType.*;
+import static org.junit.Assert.*;
+
+/**
+ * Every request results in reports per side written into the same pre-allocated buffer.
+ *
+ * @author ratzlow@gmail.com
+ * @since 2026-10-18
+ */
+public class ExecutionReportTest {
+
+    @Test
+    public void testTradesAreReportedPerSide() {
+        for ( ResultMode mode : ResultMode.values() ) {
+            Orderbook ob = new Orderbook(new ContinuousMatchEngine(200, VolatilityInterruptionGuard.NO_OP, 200, mode));
+            ExecutionReportBuffer reports = new ExecutionReportBuffer(2);
+            ob.setExecutionReports(reports);
+            ob.open();
+
+            Order first = sellL(200, 100);
+            Order second = sellL(201, 50);
+            ob.submit(first, NEW);
+            assertEquals( "NEW_ACK " + first.getOrderID() + " cum=0 leaves=100", format(reports.get(0)) );
+            ob.submit(second, NEW);
+
+            Order buy = buyL(201, 120);
+            ob.submit(buy, NEW);
+            assertEquals( mode.toString(), String.join(", ",
+                    "NEW_ACK " + buy.getOrderID() + " cum=0 leaves=120",
+                    "PARTIAL_FILL " + buy.getOrderID() + " 100@200.0 cum=100 leaves=20 contra=" + first.getOrderID(),
+                    "FILL " + first.getOrderID() + " 100@200.0 cum=100 leaves=0 contra=" + buy.getOrderID(),
+                    "FILL " + buy.getOrderID() + " 20@201.0 cum=120 leaves=0 contra=" + second.getOrderID(),
+                    "PARTIAL_FILL " + second.getOrderID() + " 20@201.0 cum=20 leaves=30 contra=" + buy.getOrderID()),
+                    formatAll(reports) );
+            assertTrue( "grown once", reports.capacity() >= 5 );
+
+            ob.submit(cancelRequest(second), CANCEL);
+            assertEquals( "CANCEL_ACK " + second.getOrderID() + " cum=20 leaves=0", formatAll(reports) );
+            ob.submit(cancelRequest(second), CANCEL);
+            assertEquals( CANCEL_REJECT, reports.get(0).getType() );
+            assertEquals( 1, reports.size() );
+        }
+    }
+
+    @Test
+    public void testReportsAreReusedAndExecIDsContinue() {
+        Orderbook ob = new Orderbook(new ContinuousMatchEngine(200, VolatilityInterruptionGuard.NO_OP));
+        ExecutionReportBuffer reports = new ExecutionReportBuffer(4);
+        ob.setExecutionReports(reports);
+        ob.open();
+
+        ob.submit(buyL(199, 100), NEW);
+        ExecutionReport ack = reports.get(0);
+        long execID = ack.getExecID();
+        ob.submit(buyL(198, 100), NEW);
+        assertSame( ack, reports.get(0) );
+        assertEquals( execID + 1, reports.get(0).getExecID() );
+        assertEquals( 4, reports.capacity() );
+    }
+
+    @Test
+    public void testRejectAndModify() {
+        Orderbook ob = new Orderbook(new ContinuousMatchEngine(200, VolatilityInterruptionGuard.NO_OP));
+        ExecutionReportBuffer reports = new ExecutionReportBuffer(4);
+        ob.setExecutionReports(reports);
+        ob.open();
+
+        Order marketToLimit = buyMtoL(100);
+        ob.submit(marketToLimit, NEW);
+        assertEquals( REJECT, reports.get(0).getType() );
+        assertNotNull( reports.get(0).getText() );
+
+        Order resting = sellL(201, 500);
+        ob.submit(resting, NEW);
+        ob.submit(cancelRequest(resting).setPrice(201).setOrderQty(300), MODIFY);
+        assertEquals( "REPLACE_ACK " + resting.getOrderID() + " cum=0 leaves=300", formatAll(reports) );
+    }
+
+
+    private static Order cancelRequest( Order order ) {
+        return Order.of(order.getClientOrderID(), order.getSide()).setOrderType(OrderType.LIMIT);
+    }
+
+    private static String formatAll( ExecutionReportBuffer reports ) {
+        List<String> formatted = new ArrayList<>();
+        for ( int i = 0; i < reports.size(); i++ ) {
+            formatted.add( format(reports.get(i)) );
+        }
+        return String.join(", ", formatted);
+    }
+
+    private static String format( ExecutionReport report ) {
+        String fill = report.getLastQty() > 0 ?
+                " " + report.getLastQty() + "@" + Ticks.toPrice(report.getLastPriceTicks()) : "";
+        String contra = report.getContraOrderID() != Order.NO_ORDER_ID ? " contra=" + report.getContraOrderID() : "";
+        return report.getType() + " " + report.getOrderID() + fill + " cum=" + report.getCumQty() +
+               " leaves=" + report.getLeavesQty() + contra;
+    }
+}
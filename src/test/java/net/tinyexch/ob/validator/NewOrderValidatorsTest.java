@@ -1,14 +1,29 @@
 package net.tinyexch.ob.validator;
 
+import net.tinyexch.exchange.latency.LatencyHistograms;
+import net.tinyexch.exchange.latency.LatencyStage;
 import net.tinyexch.ob.ErrorCode;
+import net.tinyexch.ob.Orderbook;
+import net.tinyexch.ob.OrderbookState;
 import net.tinyexch.ob.RejectReason;
+import net.tinyexch.ob.SubmitType;
+import net.tinyexch.ob.journal.CommandJournal;
+import net.tinyexch.ob.match.ContinuousMatchEngine;
+import net.tinyexch.ob.match.Match;
+import net.tinyexch.ob.price.TickSize;
+import net.tinyexch.ob.price.safeguard.VolatilityInterruptionGuard;
+import net.tinyexch.ob.report.ExecutionReportBuffer;
+import net.tinyexch.ob.report.ExecutionReportType;
 import net.tinyexch.order.*;
 import org.junit.Assert;
 import org.junit.Test;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.EnumSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Stream;
@@ -49,6 +64,17 @@ public class NewOrderValidatorsTest {
                 .forEach(o -> assertEquals("Expected to fail " + o, ErrorCode.Type.REJECT, rule.validate(o).get().type));
     }
 
+    @Test
+    public void testTickSizeCheck() {
+        NewOrderValidators check = new NewOrderValidators(1, 1, 360, acceptedOrderTypes, TickSize.of(0.05));
+        NewOrderValidator rule = check.tickSizeCheck;
+
+        assertEquals( Optional.<ErrorCode>empty(), rule.validate(Order.of("1", Side.BUY).setPrice(0.1 + 0.2)) );
+        assertEquals( Optional.<ErrorCode>empty(), rule.validate(Order.of("2", Side.BUY).setPrice(200.35).setStopPrice(199.9)) );
+        assertEquals( RejectReason.TICK_SIZE, rule.validate(Order.of("3", Side.BUY).setPrice(200.31)).get().rejectReason.get() );
+        assertEquals( RejectReason.TICK_SIZE, rule.validate(Order.of("4", Side.SELL).setStopPrice(199.99)).get().rejectReason.get() );
+    }
+
     private Order createValidSMO() {
         return Order.of(UUID.randomUUID().toString(), Side.BUY)
                 .setOrderType(OrderType.STRIKE_MATCH)
@@ -117,6 +143,88 @@ public class NewOrderValidatorsTest {
     }
 
 
+    @Test
+    public void testValidateAllChecksIsTimed() {
+        LatencyHistograms histograms = new LatencyHistograms();
+        NewOrderValidators check = new NewOrderValidators(1, 1, 359, acceptedOrderTypes, TickSize.of(0.05));
+        check.setLatencyRecorder(histograms);
+        LocalDateTime today = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS);
+
+        Order limit = newOrder(Side.BUY, 100).setOrderType(OrderType.LIMIT).setPrice(200.05).setExpirationDate(today);
+        Assert.assertFalse( check.validate(limit).isPresent() );
+        assertEquals( RejectReason.TICK_SIZE, check.validate(limit.setPrice(200.01)).get().rejectReason.get() );
+        assertEquals( RejectReason.ORDER_TYPE,
+                      check.validate(createValidSMO().setOrderQty(100).setStopPrice(0).setExpirationDate(today))
+                           .get().rejectReason.get() );
+
+        assertEquals( 3, histograms.get(LatencyStage.VALIDATION).getCount() );
+    }
+
+
+    @Test
+    public void testOrderbookRejectsInvalidOrdersOnEntry() {
+        LatencyHistograms histograms = new LatencyHistograms();
+        NewOrderValidators check = new NewOrderValidators(1, 1, 359, acceptedOrderTypes, TickSize.of(0.05));
+        check.setLatencyRecorder(histograms);
+        Orderbook orderbook = new Orderbook( new ContinuousMatchEngine(200, VolatilityInterruptionGuard.NO_OP) );
+        ExecutionReportBuffer reports = new ExecutionReportBuffer(4);
+        orderbook.setExecutionReports(reports);
+        orderbook.setNewOrderValidators(check);
+        orderbook.open();
+        LocalDateTime today = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS);
+
+        Order valid = newOrder(Side.BUY, 100).setOrderType(OrderType.LIMIT).setPrice(200.05).setExpirationDate(today);
+        assertEquals( Match.State.ACCEPT, orderbook.submit(valid, SubmitType.NEW).getState() );
+
+        Order invalid = newOrder(Side.BUY, 100).setOrderType(OrderType.LIMIT).setPrice(200.01).setExpirationDate(today);
+        assertEquals( Match.State.REJECT, orderbook.submit(invalid, SubmitType.NEW).getState() );
+        assertEquals( ExecutionReportType.REJECT, reports.get(0).getType() );
+        assertEquals( RejectReason.TICK_SIZE.getMsg(), reports.get(0).getText() );
+        assertEquals( 1, orderbook.getBuySide().getOrders().size() );
+
+        Order invalidModify = valid.mutableClone().setOrderQty(50).setPrice(200.01);
+        assertEquals( Match.State.REJECT, orderbook.submit(invalidModify, SubmitType.MODIFY).getState() );
+        assertEquals( "resting order kept", 100, orderbook.getBuySide().getOrders().iterator().next().getOrderQty() );
+
+        assertEquals( 3, histograms.get(LatencyStage.VALIDATION).getCount() );
+    }
+
+
+    @Test
+    public void testOnlyValidOrdersAreJournaled() {
+        NewOrderValidators check = new NewOrderValidators(1, 1, 359, acceptedOrderTypes, TickSize.of(0.05));
+        Orderbook orderbook = new Orderbook( new ContinuousMatchEngine(200, VolatilityInterruptionGuard.NO_OP) );
+        List<String> journaled = new ArrayList<>();
+        orderbook.setJournal( new CommandJournal() {
+            @Override public void onSubmit( Order order, SubmitType submitType ) { journaled.add(order.getClientOrderID()); }
+            @Override public void onStateChange( OrderbookState state ) {}
+            @Override public void onTransition( Enum<?> targetState ) {}
+        });
+        orderbook.setNewOrderValidators(check);
+        orderbook.open();
+        LocalDateTime today = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS);
+
+        Order invalid = newOrder(Side.BUY, 100).setOrderType(OrderType.LIMIT).setPrice(200.01).setExpirationDate(today);
+        Order valid = newOrder(Side.BUY, 100).setOrderType(OrderType.LIMIT).setPrice(200.05).setExpirationDate(today);
+        assertEquals( Match.State.REJECT, orderbook.submit(invalid, SubmitType.NEW).getState() );
+        assertEquals( Match.State.ACCEPT, orderbook.submit(valid, SubmitType.NEW).getState() );
+
+        assertEquals( 1, journaled.size() );
+        assertEquals( valid.getClientOrderID(), journaled.get(0) );
+        assertEquals( "rejected order did not consume an ID", Order.NO_ORDER_ID, invalid.getOrderID() );
+    }
+
+    @Test
+    public void testDayOrderIsValidatedAgainstItsSubmissionDay() {
+        NewOrderValidators check = new NewOrderValidators(1, 1, 359, acceptedOrderTypes);
+        LocalDateTime yesterday = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS).minusDays(1);
+        Order replayed = newOrder(Side.BUY, 100).setTimeInForce(TimeInForce.DAY).setExpirationDate(yesterday)
+                                                .setTimestamp( yesterday.plusHours(10).atZone(ZoneId.systemDefault()).toInstant() );
+
+        Assert.assertFalse( "valid on the day it was journaled", check.gtdCheck.validate(replayed).isPresent() );
+    }
+
+
     private void assertFailedGtdValidation(NewOrderValidators check, Order order) {
         ErrorCode errorCode = check.gtdCheck.validate(order).get();
         assertEquals(ErrorCode.Type.REJECT, errorCode.type);